@@ -0,0 +1,73 @@
+package org.requirementsascode.benchmarks;
+
+import java.io.PrintStream;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Benchmarks running the scenarios whose steps are all autonomous system reactions. When it is run,
+ * the runner reacts to itself until no more step can react.
+ *
+ * <p>Running a scenario changes the state of its realization, e.g. {@link
+ * helloworld.HelloWorld02} counts the hoorays it has printed, and stops printing after the third.
+ * So each invocation runs a new model with a new runner, both created before the invocation and not
+ * measured.
+ *
+ * @author b_muth
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutonomousRunBenchmark {
+  @Param({Scenario.HELLO_WORLD_01, Scenario.HELLO_WORLD_02})
+  public String scenarioName;
+
+  private PrintStream standardOut;
+  private UseCaseModel useCaseModel;
+  private UseCaseModelRunner runner;
+
+  /** The examples print to standard out, which would dominate the measurements. */
+  @Setup(Level.Trial)
+  public void silenceStandardOut() {
+    standardOut = System.out;
+    System.setOut(new NullPrintStream());
+  }
+
+  @Setup(Level.Invocation)
+  public void createScenario() {
+    Scenario scenario = Scenario.named(scenarioName);
+    useCaseModel = scenario.getUseCaseModel();
+    runner = scenario.newRunner();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.setOut(standardOut);
+  }
+
+  @Benchmark
+  public Optional<Step> run() {
+    runner.run(useCaseModel);
+    return runner.getLatestStep();
+  }
+}
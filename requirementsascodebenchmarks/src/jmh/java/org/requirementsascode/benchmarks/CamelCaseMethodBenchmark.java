@@ -0,0 +1,73 @@
+package org.requirementsascode.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.requirementsascode.extract.freemarker.methodmodel.AfterFirstWordOfMethod;
+import org.requirementsascode.extract.freemarker.methodmodel.FirstWordOfMethod;
+import org.requirementsascode.extract.freemarker.methodmodel.WordsOfMethod;
+
+import freemarker.template.SimpleScalar;
+import freemarker.template.TemplateModelException;
+
+/**
+ * Benchmarks the methods that the extract templates call to turn camel case class names into
+ * words, once per step and predicate. The names are a short one, a typical event class name, and
+ * a long one.
+ *
+ * @author b_muth
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CamelCaseMethodBenchmark {
+  @Param({
+    "Quit",
+    "EnterShippingInformation",
+    "DisplayPurchaseConfirmationAndOfferToBuyAnotherProduct"
+  })
+  public String camelCaseName;
+
+  private List<SimpleScalar> arguments;
+  private WordsOfMethod wordsOf;
+  private FirstWordOfMethod firstWordOf;
+  private AfterFirstWordOfMethod afterFirstWordOf;
+
+  @Setup
+  public void setup() {
+    arguments = Collections.singletonList(new SimpleScalar(camelCaseName));
+    wordsOf = new WordsOfMethod();
+    firstWordOf = new FirstWordOfMethod();
+    afterFirstWordOf = new AfterFirstWordOfMethod();
+  }
+
+  @Benchmark
+  public Object wordsOf() throws TemplateModelException {
+    return wordsOf.exec(arguments);
+  }
+
+  @Benchmark
+  public Object firstWordOf() throws TemplateModelException {
+    return firstWordOf.exec(arguments);
+  }
+
+  @Benchmark
+  public Object afterFirstWordOf() throws TemplateModelException {
+    return afterFirstWordOf.exec(arguments);
+  }
+}
@@ -0,0 +1,103 @@
+package org.requirementsascode.benchmarks;
+
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.extract.freemarker.FreeMarkerEngine;
+
+/**
+ * Benchmarks extracting documentation from models of different sizes, with the HTML example
+ * template of the shopping app extract and its extract.ftl library.
+ *
+ * <p>The extract benchmark reuses an engine, so the template has been parsed and cached before.
+ * The newEngineAndExtract benchmark creates a new engine each time, so it includes loading and
+ * parsing the template, like a build that extracts each model with its own engine. The newEngine
+ * benchmark measures the construction of the engine alone.
+ *
+ * @author b_muth
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractBenchmark {
+  private static final String BASE_PACKAGE_PATH = "shoppingappextract/extract";
+  private static final String TEMPLATE_FILE_NAME = "htmlExample.ftlh";
+
+  @Param({
+    Scenario.HELLO_WORLD_05,
+    Scenario.SHOPPING_APP,
+    Scenario.SYNTHETIC_10X10,
+    Scenario.SYNTHETIC_100X10,
+    Scenario.SYNTHETIC_1000X10
+  })
+  public String scenarioName;
+
+  private UseCaseModel useCaseModel;
+  private FreeMarkerEngine engine;
+
+  @Setup
+  public void setup() throws Exception {
+    useCaseModel = Scenario.named(scenarioName).getUseCaseModel();
+    engine = new FreeMarkerEngine(BASE_PACKAGE_PATH);
+    engine.extract(useCaseModel, TEMPLATE_FILE_NAME, new CountingWriter());
+  }
+
+  @Benchmark
+  public long extract() throws Exception {
+    CountingWriter writer = new CountingWriter();
+    engine.extract(useCaseModel, TEMPLATE_FILE_NAME, writer);
+    return writer.getCount();
+  }
+
+  @Benchmark
+  public long newEngineAndExtract() throws Exception {
+    CountingWriter writer = new CountingWriter();
+    new FreeMarkerEngine(BASE_PACKAGE_PATH).extract(useCaseModel, TEMPLATE_FILE_NAME, writer);
+    return writer.getCount();
+  }
+
+  @Benchmark
+  public FreeMarkerEngine newEngine() {
+    return new FreeMarkerEngine(BASE_PACKAGE_PATH);
+  }
+
+  /** Counts the characters written, instead of keeping them, so the output is not measured. */
+  private static class CountingWriter extends Writer {
+    private long count;
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+      count += len;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    long getCount() {
+      return count;
+    }
+  }
+}
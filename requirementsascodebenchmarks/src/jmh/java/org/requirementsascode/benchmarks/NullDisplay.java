@@ -0,0 +1,25 @@
+package org.requirementsascode.benchmarks;
+
+import shoppingappjavafx.domain.Products;
+import shoppingappjavafx.domain.PurchaseOrder;
+import shoppingappjavafx.domain.ShippingInformation;
+import shoppingappjavafx.usecaserealization.componentinterface.Display;
+
+/**
+ * Display of the shopping app that displays nothing, so that benchmarks measure the runner only.
+ *
+ * @author b_muth
+ */
+class NullDisplay implements Display {
+  @Override
+  public void displayProductsAndShoppingCartSize(Products products, PurchaseOrder purchaseOrder) {}
+
+  @Override
+  public void displayShippingInformationForm(ShippingInformation shippingInformation) {}
+
+  @Override
+  public void displayPaymentDetailsForm() {}
+
+  @Override
+  public void displayPurchaseOrderSummary(PurchaseOrder purchaseOrder) {}
+}
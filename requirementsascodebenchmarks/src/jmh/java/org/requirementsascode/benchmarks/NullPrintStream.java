@@ -0,0 +1,45 @@
+package org.requirementsascode.benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Print stream that prints nothing, and doesn't lock either. Unlike a plain print stream over a
+ * discarding output stream, threads printing to it at the same time don't contend for its lock, so
+ * it doesn't limit how multi-threaded benchmarks scale.
+ *
+ * @author b_muth
+ */
+class NullPrintStream extends PrintStream {
+  NullPrintStream() {
+    super(
+        new OutputStream() {
+          @Override
+          public void write(int b) {}
+        });
+  }
+
+  @Override
+  public void write(int b) {}
+
+  @Override
+  public void write(byte[] buf, int off, int len) {}
+
+  @Override
+  public void flush() {}
+
+  @Override
+  public void print(String s) {}
+
+  @Override
+  public void print(Object obj) {}
+
+  @Override
+  public void println() {}
+
+  @Override
+  public void println(String x) {}
+
+  @Override
+  public void println(Object x) {}
+}
@@ -0,0 +1,115 @@
+package org.requirementsascode.benchmarks;
+
+import java.io.PrintStream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Benchmarks the hot path of the runner, for each scenario. Run it with the gc profiler (the
+ * default of this module's build) to see the allocation rate next to the throughput.
+ *
+ * <p>The reactTo benchmark reacts to one event of the scenario's journey per operation. When the
+ * journey is complete, the runner is restarted and run again, so the benchmark measures a steady
+ * state of repeated journeys. The other benchmarks leave the runner's state unchanged, at the start
+ * of the journey.
+ *
+ * <p>The scenarios with autonomous system reactions only have no events to react to. {@link
+ * AutonomousRunBenchmark} benchmarks them.
+ *
+ * @author b_muth
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunnerBenchmark {
+  @Param({
+    Scenario.HELLO_WORLD_03,
+    Scenario.HELLO_WORLD_04,
+    Scenario.HELLO_WORLD_05,
+    Scenario.HELLO_WORLD_06,
+    Scenario.SHOPPING_APP,
+    Scenario.SYNTHETIC_10X10,
+    Scenario.SYNTHETIC_100X10
+  })
+  public String scenarioName;
+
+  private PrintStream standardOut;
+  private UseCaseModel useCaseModel;
+  private UseCaseModelRunner runner;
+  private Object[] journey;
+  private Class<?> probedEventClass;
+  private int nextEvent;
+
+  @Setup
+  public void setup() {
+    silenceStandardOut();
+
+    Scenario scenario = Scenario.named(scenarioName);
+    useCaseModel = scenario.getUseCaseModel();
+    runner = scenario.newRunner();
+    journey = scenario.getJourney();
+    probedEventClass = scenario.getProbedEventClass();
+    runner.run(useCaseModel);
+    nextEvent = 0;
+  }
+
+  /** The examples print to standard out, which would dominate the measurements. */
+  private void silenceStandardOut() {
+    standardOut = System.out;
+    System.setOut(new NullPrintStream());
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(standardOut);
+  }
+
+  @Benchmark
+  public Optional<Step> reactTo() {
+    Optional<Step> step = runner.reactTo(journey[nextEvent]);
+    nextEvent++;
+    if (nextEvent == journey.length) {
+      nextEvent = 0;
+      runner.restart();
+      runner.run(useCaseModel);
+    }
+    return step;
+  }
+
+  @Benchmark
+  public boolean canReactTo() {
+    return runner.canReactTo(probedEventClass);
+  }
+
+  @Benchmark
+  public Set<Step> getStepsThatCanReactTo() {
+    return runner.getStepsThatCanReactTo(probedEventClass);
+  }
+
+  @Benchmark
+  public Optional<Step> run() {
+    runner.restart();
+    runner.run(useCaseModel);
+    return runner.getLatestStep();
+  }
+}
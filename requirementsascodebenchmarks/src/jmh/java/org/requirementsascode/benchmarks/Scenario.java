@@ -0,0 +1,219 @@
+package org.requirementsascode.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.synthetic.SyntheticEvent;
+import org.requirementsascode.synthetic.SyntheticModelGenerator;
+
+import helloworld.HelloWorld01;
+import helloworld.HelloWorld02;
+import helloworld.HelloWorld03;
+import helloworld.HelloWorld04;
+import helloworld.HelloWorld05;
+import helloworld.HelloWorld06;
+import helloworld.userevent.EnterText;
+import shoppingappjavafx.domain.PaymentDetails;
+import shoppingappjavafx.domain.Product;
+import shoppingappjavafx.domain.ShippingInformation;
+import shoppingappjavafx.domain.Stock;
+import shoppingappjavafx.usecase.ShoppingAppModel;
+import shoppingappjavafx.usecase.userevent.AddProductToCart;
+import shoppingappjavafx.usecase.userevent.CheckOutPurchase;
+import shoppingappjavafx.usecase.userevent.ConfirmPurchase;
+import shoppingappjavafx.usecase.userevent.EnterPaymentDetails;
+import shoppingappjavafx.usecase.userevent.EnterShippingInformation;
+import shoppingappjavafx.usecaserealization.BuyProductRealization;
+
+/**
+ * A use case model to benchmark, together with the actor the runner runs as, the journey of events
+ * the runner reacts to after it has been run, and the class of events its steps are probed with.
+ *
+ * <p>The steps of {@link #HELLO_WORLD_01} and {@link #HELLO_WORLD_02} are all autonomous system
+ * reactions. They react to the runner itself only, when it is run, so their journey is empty.
+ *
+ * <p>The runners of {@link #SHOPPING_APP} are {@link ShopperRunner}s, so that each runner fills a
+ * shopping cart of its own, although all runners share the same model and realization.
+ *
+ * @author b_muth
+ */
+class Scenario {
+  static final String HELLO_WORLD_01 = "HelloWorld01";
+  static final String HELLO_WORLD_02 = "HelloWorld02";
+  static final String HELLO_WORLD_03 = "HelloWorld03";
+  static final String HELLO_WORLD_04 = "HelloWorld04";
+  static final String HELLO_WORLD_05 = "HelloWorld05";
+  static final String HELLO_WORLD_06 = "HelloWorld06";
+  static final String SHOPPING_APP = "ShoppingApp";
+  static final String SYNTHETIC_10X10 = "Synthetic10x10";
+  static final String SYNTHETIC_100X10 = "Synthetic100x10";
+  static final String SYNTHETIC_1000X10 = "Synthetic1000x10";
+
+  private static final long SYNTHETIC_SEED = 42;
+
+  private final UseCaseModel useCaseModel;
+  private final Optional<Actor> actor;
+  private final Supplier<UseCaseModelRunner> runnerFactory;
+  private final Object[] journey;
+  private final Class<?> probedEventClass;
+
+  private Scenario(
+      UseCaseModel useCaseModel, Optional<Actor> actor, Class<?> probedEventClass, Object... journey) {
+    this(useCaseModel, actor, UseCaseModelRunner::new, probedEventClass, journey);
+  }
+
+  private Scenario(
+      UseCaseModel useCaseModel,
+      Optional<Actor> actor,
+      Supplier<UseCaseModelRunner> runnerFactory,
+      Class<?> probedEventClass,
+      Object... journey) {
+    this.useCaseModel = useCaseModel;
+    this.actor = actor;
+    this.runnerFactory = runnerFactory;
+    this.probedEventClass = probedEventClass;
+    this.journey = journey;
+  }
+
+  /**
+   * Creates the scenario with the specified name.
+   *
+   * @param name one of the names defined as constants in this class
+   * @return the scenario
+   * @throws IllegalArgumentException if there is no scenario with the name
+   */
+  static Scenario named(String name) {
+    Objects.requireNonNull(name);
+
+    switch (name) {
+      case HELLO_WORLD_01:
+        return new Scenario(
+            new HelloWorld01().buildWith(UseCaseModelBuilder.newBuilder()),
+            Optional.empty(),
+            UseCaseModelRunner.class);
+      case HELLO_WORLD_02:
+        return new Scenario(
+            new HelloWorld02().buildWith(UseCaseModelBuilder.newBuilder()),
+            Optional.empty(),
+            UseCaseModelRunner.class);
+      case HELLO_WORLD_03:
+        return new Scenario(
+            new HelloWorld03().buildWith(UseCaseModelBuilder.newBuilder()),
+            Optional.empty(),
+            EnterText.class,
+            new EnterText("John"));
+      case HELLO_WORLD_04:
+        return new Scenario(
+            new HelloWorld04().buildWith(UseCaseModelBuilder.newBuilder()),
+            Optional.empty(),
+            EnterText.class,
+            new EnterText("John"),
+            new EnterText("39"));
+      case HELLO_WORLD_05:
+        return new Scenario(
+            new HelloWorld05().buildWith(UseCaseModelBuilder.newBuilder()),
+            Optional.empty(),
+            EnterText.class,
+            new EnterText("John"),
+            new EnterText("1000"),
+            new EnterText("NON-NUMERICAL-AGE"),
+            new EnterText("39"));
+      case HELLO_WORLD_06:
+        HelloWorld06 helloWorld06 = new HelloWorld06();
+        UseCaseModel helloWorld06Model = helloWorld06.buildWith(UseCaseModelBuilder.newBuilder());
+        return new Scenario(
+            helloWorld06Model,
+            Optional.of(helloWorld06.normalUser()),
+            EnterText.class,
+            new EnterText("John"),
+            new EnterText("1000"),
+            new EnterText("39"));
+      case SHOPPING_APP:
+        return shoppingApp();
+      case SYNTHETIC_10X10:
+        return synthetic(10, 10);
+      case SYNTHETIC_100X10:
+        return synthetic(100, 10);
+      case SYNTHETIC_1000X10:
+        return synthetic(1000, 10);
+      default:
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+  }
+
+  private static Scenario shoppingApp() {
+    BuyProductRealization buyProductRealization =
+        new BuyProductRealization(
+            new Stock(), new NullDisplay(), ShopperRunner.CURRENT_RUN_CONTEXT);
+    UseCaseModel useCaseModel =
+        new ShoppingAppModel(buyProductRealization).buildWith(UseCaseModelBuilder.newBuilder());
+    return new Scenario(
+        useCaseModel,
+        Optional.empty(),
+        ShopperRunner::new,
+        AddProductToCart.class,
+        new AddProductToCart(new Product("Hamster Wheel, Black", new BigDecimal("9.95"))),
+        new CheckOutPurchase(),
+        new EnterShippingInformation(new ShippingInformation()),
+        new EnterPaymentDetails(new PaymentDetails()),
+        new ConfirmPurchase());
+  }
+
+  /**
+   * Creates a scenario with a synthetic model of the specified number of use cases, with 3 flows
+   * each, spread over at least 10 actors. The runner runs as the first actor, so most of the steps
+   * are checked, but never react. The journey is a reproducible sequence of random events.
+   */
+  private static Scenario synthetic(int useCases, int stepsPerFlow) {
+    int actors = Math.max(10, (useCases + SyntheticEvent.CLASSES - 1) / SyntheticEvent.CLASSES);
+    UseCaseModel useCaseModel =
+        new SyntheticModelGenerator(SYNTHETIC_SEED)
+            .useCases(useCases)
+            .flowsPerUseCase(3)
+            .stepsPerFlow(stepsPerFlow)
+            .actors(actors)
+            .eventClasses(SyntheticEvent.CLASSES)
+            .generate();
+
+    Random random = new Random(SYNTHETIC_SEED);
+    Object[] journey = new Object[100];
+    for (int i = 0; i < journey.length; i++) {
+      journey[i] = SyntheticEvent.newEvent(random.nextInt(SyntheticEvent.CLASSES));
+    }
+    return new Scenario(
+        useCaseModel,
+        Optional.of(useCaseModel.findActor("Actor 0")),
+        SyntheticEvent.eventClass(0),
+        journey);
+  }
+
+  UseCaseModel getUseCaseModel() {
+    return useCaseModel;
+  }
+
+  Object[] getJourney() {
+    return journey;
+  }
+
+  Class<?> getProbedEventClass() {
+    return probedEventClass;
+  }
+
+  /**
+   * Creates a runner that runs as the actor of this scenario, but is not run yet.
+   *
+   * @return the runner
+   */
+  UseCaseModelRunner newRunner() {
+    UseCaseModelRunner runner = runnerFactory.get();
+    actor.ifPresent(runner::as);
+    return runner;
+  }
+}
@@ -0,0 +1,208 @@
+package org.requirementsascode.benchmarks;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.requirementsascode.session.SessionEngine;
+
+/**
+ * Benchmarks a {@link SessionEngine} that many threads provide events to, for many sessions at the
+ * same time. All sessions share the same use case model, and each has a runner of its own.
+ *
+ * <p>Before the measurements, all sessions are started. Each benchmark thread then owns a range of
+ * the sessions, and provides the next event of each session's journey in turn, so consecutive
+ * events hit different sessions, as on a server. When a session's journey is complete, the session
+ * is ended, and its next event starts a new session with the same id. The reactTo benchmark
+ * measures the throughput in events per second, reactToLatency samples the latency of single
+ * events, reported as percentiles (p0.50, p0.99, p0.999).
+ *
+ * <p>Run it with different thread counts, e.g. with JMH's {@code -t} option, or with the {@link
+ * #main(String[])} method, which runs it with 1 thread up to one thread per processor and reports
+ * how the throughput scales. Throughput that scales worse than before points to contention.
+ *
+ * <p>The realizations of the hello world examples keep their state in fields of a single object,
+ * as they are single user applications, so all sessions of a model share that state. That doesn't
+ * affect which steps are run. The shopping app's runners keep the purchase order of their session
+ * instead, see {@link ShopperRunner}, so each session fills a cart of its own and runs the scripted
+ * journey.
+ *
+ * @author b_muth
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SessionThroughputBenchmark {
+  @Param({
+    Scenario.HELLO_WORLD_03,
+    Scenario.HELLO_WORLD_05,
+    Scenario.SHOPPING_APP,
+    Scenario.SYNTHETIC_100X10
+  })
+  public String scenarioName;
+
+  @Param({"10000", "100000", "1000000"})
+  public int sessions;
+
+  private PrintStream standardOut;
+  private PrintStream standardErr;
+  private SessionEngine sessionEngine;
+  private Integer[] sessionIds;
+  private Object[] journey;
+
+  /**
+   * The range of sessions a benchmark thread provides events to, and the position of each of
+   * these sessions in the journey.
+   */
+  @State(Scope.Thread)
+  public static class SessionRange {
+    private int firstSession;
+    private int[] nextEvents;
+    private int nextSessionInRange;
+
+    @Setup
+    public void setup(SessionThroughputBenchmark benchmark, ThreadParams threadParams) {
+      int threadIndex = threadParams.getThreadIndex();
+      int threadCount = threadParams.getThreadCount();
+      firstSession = (int) ((long) benchmark.sessions * threadIndex / threadCount);
+      int endSession = (int) ((long) benchmark.sessions * (threadIndex + 1) / threadCount);
+      nextEvents = new int[endSession - firstSession];
+      nextSessionInRange = 0;
+
+      // The first event of each session has been provided when the sessions were started
+      Arrays.fill(nextEvents, 1 % benchmark.journey.length);
+    }
+  }
+
+  @Setup
+  public void setup() {
+    silenceStandardOutAndErr();
+
+    Scenario scenario = Scenario.named(scenarioName);
+    sessionEngine = new SessionEngine(scenario.getUseCaseModel(), scenario::newRunner);
+    journey = scenario.getJourney();
+    sessionIds = new Integer[sessions];
+    for (int i = 0; i < sessions; i++) {
+      sessionIds[i] = i;
+      sessionEngine.reactTo(sessionIds[i], journey[0]);
+      if (journey.length == 1) {
+        sessionEngine.endSession(sessionIds[i]);
+      }
+    }
+  }
+
+  /**
+   * The examples print to standard out, and the shopping app prints exceptions to standard err.
+   * Printing would dominate the measurements, and its lock would limit how they scale.
+   */
+  private void silenceStandardOutAndErr() {
+    standardOut = System.out;
+    standardErr = System.err;
+    System.setOut(new NullPrintStream());
+    System.setErr(new NullPrintStream());
+  }
+
+  @TearDown
+  public void tearDown() {
+    System.setOut(standardOut);
+    System.setErr(standardErr);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.Throughput)
+  @OutputTimeUnit(TimeUnit.SECONDS)
+  public int reactTo(SessionRange sessionRange) {
+    return reactToNextEvent(sessionRange);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SampleTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public int reactToLatency(SessionRange sessionRange) {
+    return reactToNextEvent(sessionRange);
+  }
+
+  private int reactToNextEvent(SessionRange sessionRange) {
+    int sessionInRange = sessionRange.nextSessionInRange;
+    Integer sessionId = sessionIds[sessionRange.firstSession + sessionInRange];
+    int nextEvent = sessionRange.nextEvents[sessionInRange];
+
+    sessionEngine.reactTo(sessionId, journey[nextEvent]);
+
+    nextEvent++;
+    if (nextEvent == journey.length) {
+      sessionEngine.endSession(sessionId);
+      nextEvent = 0;
+    }
+    sessionRange.nextEvents[sessionInRange] = nextEvent;
+    sessionInRange++;
+    sessionRange.nextSessionInRange =
+        sessionInRange == sessionRange.nextEvents.length ? 0 : sessionInRange;
+    return nextEvent;
+  }
+
+  /**
+   * Runs the reactTo benchmark with 1, 2, 4... threads, up to one thread per available processor,
+   * and prints the throughput of each thread count, its speedup over a single thread, and its
+   * efficiency, that is: the speedup per thread.
+   *
+   * @param args optionally, the scenario name (by default ShoppingApp) and the number of sessions
+   *     (by default 100000)
+   * @throws RunnerException if JMH fails to run the benchmark
+   */
+  public static void main(String[] args) throws RunnerException {
+    String scenarioName = args.length > 0 ? args[0] : Scenario.SHOPPING_APP;
+    String sessions = args.length > 1 ? args[1] : "100000";
+    int processors = Runtime.getRuntime().availableProcessors();
+
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%s, %s sessions%n%8s %16s %8s %11s%n",
+            scenarioName, sessions, "threads", "events/s", "speedup", "efficiency"));
+    double singleThreadThroughput = 0;
+    for (int threads = 1; threads <= processors; threads = nextThreadCount(threads, processors)) {
+      Options options =
+          new OptionsBuilder()
+              .include(SessionThroughputBenchmark.class.getName() + ".reactTo$")
+              .param("scenarioName", scenarioName)
+              .param("sessions", sessions)
+              .threads(threads)
+              .build();
+      Collection<RunResult> results = new Runner(options).run();
+      double throughput = results.iterator().next().getPrimaryResult().getScore();
+      if (threads == 1) {
+        singleThreadThroughput = throughput;
+      }
+      double speedup = throughput / singleThreadThroughput;
+      report.append(
+          String.format(
+              "%8d %16.0f %8.2f %10.0f%%%n", threads, throughput, speedup, 100 * speedup / threads));
+    }
+    System.out.print(report);
+  }
+
+  private static int nextThreadCount(int threads, int processors) {
+    return threads < processors && threads * 2 > processors ? processors : threads * 2;
+  }
+}
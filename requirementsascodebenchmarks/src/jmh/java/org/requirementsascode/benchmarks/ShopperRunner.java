@@ -0,0 +1,89 @@
+package org.requirementsascode.benchmarks;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+import shoppingappjavafx.domain.PurchaseOrder;
+import shoppingappjavafx.usecaserealization.RunContext;
+
+/**
+ * Runner of the shopping app that keeps the run context, i.e. the purchase order, of one shopper.
+ * So all runners can share the same model and realization, e.g. in a session engine, while each
+ * shopper fills a cart of its own.
+ *
+ * <p>The realization is created with the {@link #CURRENT_RUN_CONTEXT}, which delegates to the run
+ * context of the runner that is currently running, reacting or checking its steps on the calling
+ * thread.
+ *
+ * @author b_muth
+ */
+class ShopperRunner extends UseCaseModelRunner {
+  static final RunContext CURRENT_RUN_CONTEXT = new CurrentRunContext();
+
+  private static final ThreadLocal<ShopperRunner> currentRunner = new ThreadLocal<>();
+
+  private final RunContext runContext;
+
+  ShopperRunner() {
+    this.runContext = new RunContext();
+  }
+
+  @Override
+  public void run(UseCaseModel useCaseModel) {
+    inRunContext(
+        () -> {
+          super.run(useCaseModel);
+          return null;
+        });
+  }
+
+  @Override
+  public <T> Optional<Step> reactTo(T event) {
+    return inRunContext(() -> super.reactTo(event));
+  }
+
+  @Override
+  public boolean canReactTo(Class<? extends Object> eventClass) {
+    return inRunContext(() -> super.canReactTo(eventClass));
+  }
+
+  @Override
+  public Set<Step> getStepsThatCanReactTo(Class<? extends Object> eventClass) {
+    return inRunContext(() -> super.getStepsThatCanReactTo(eventClass));
+  }
+
+  private <T> T inRunContext(Supplier<T> action) {
+    ShopperRunner previousRunner = currentRunner.get();
+    currentRunner.set(this);
+    try {
+      return action.get();
+    } finally {
+      currentRunner.set(previousRunner);
+    }
+  }
+
+  private static class CurrentRunContext extends RunContext {
+    @Override
+    public PurchaseOrder getPurchaseOrder() {
+      return runContext().getPurchaseOrder();
+    }
+
+    @Override
+    public void setPurchaseOrder(PurchaseOrder purchaseOrder) {
+      runContext().setPurchaseOrder(purchaseOrder);
+    }
+
+    private RunContext runContext() {
+      ShopperRunner runner = currentRunner.get();
+      if (runner == null) {
+        throw new IllegalStateException("No shopper runner is running on this thread");
+      }
+      return runner.runContext;
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package org.requirementsascode;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.exception.BulkheadFull;
+
+/**
+ * A bulkhead, as part of a use case model.
+ *
+ * <p>A bulkhead isolates the system reactions of the steps that are bound to it from the rest of
+ * the model. At most a fixed number of these system reactions run at the same time, no matter how
+ * many runners use the model. A limited number of further calls wait for a free slot, at most for
+ * the maximum wait time ({@link #DEFAULT_MAX_WAIT_TIME} unless specified otherwise). A queued call
+ * blocks the calling thread while it waits, so a runner's thread may be blocked for up to the
+ * maximum wait time. When all slots and the queue are occupied, the call is rejected right away
+ * with a {@link BulkheadFull} exception. When the wait time is over, the queued call is rejected
+ * the same way. Specify a maximum wait time of zero to never block. A rejected step has not been
+ * run: it is neither counted, nor is it the runner's latest step. The runner treats the exception
+ * like any other exception thrown by a system reaction, so the model can handle it in an exception
+ * flow that starts instead of the rejected step.
+ *
+ * @author b_muth
+ */
+public class Bulkhead extends UseCaseModelElement {
+  public static final Duration DEFAULT_MAX_WAIT_TIME = Duration.ofSeconds(1);
+
+  private int maxConcurrentCalls;
+  private int maxQueuedCalls;
+  private Duration maxWaitTime;
+  private Semaphore permits;
+  private AtomicInteger activeCalls;
+  private AtomicInteger queuedCalls;
+  private LongAdder acceptedCalls;
+  private LongAdder rejectedCalls;
+
+  /**
+   * Creates a bulkhead with the specified name and limits that is part of the specified use case
+   * model.
+   *
+   * @param name the name of the bulkhead
+   * @param maxConcurrentCalls the maximum number of system reactions running at the same time
+   * @param maxQueuedCalls the maximum number of calls waiting for a free slot
+   * @param maxWaitTime the maximum time a call waits for a free slot
+   * @param useCaseModel the use case model
+   */
+  Bulkhead(
+      String name,
+      int maxConcurrentCalls,
+      int maxQueuedCalls,
+      Duration maxWaitTime,
+      UseCaseModel useCaseModel) {
+    super(name, useCaseModel);
+    Objects.requireNonNull(maxWaitTime);
+    if (maxConcurrentCalls < 1) {
+      throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+    }
+    if (maxQueuedCalls < 0) {
+      throw new IllegalArgumentException("maxQueuedCalls must not be negative");
+    }
+    if (maxWaitTime.isNegative()) {
+      throw new IllegalArgumentException("maxWaitTime must not be negative");
+    }
+
+    this.maxConcurrentCalls = maxConcurrentCalls;
+    this.maxQueuedCalls = maxQueuedCalls;
+    this.maxWaitTime = maxWaitTime;
+    this.permits = new Semaphore(maxConcurrentCalls, true);
+    this.activeCalls = new AtomicInteger();
+    this.queuedCalls = new AtomicInteger();
+    this.acceptedCalls = new LongAdder();
+    this.rejectedCalls = new LongAdder();
+  }
+
+  /**
+   * Occupies a slot of this bulkhead. If no slot is free, waits for one if the queue limit has not
+   * been reached yet, at most for the maximum wait time.
+   *
+   * @throws BulkheadFull if all slots and the queue are occupied, or no slot became free in time
+   */
+  void enter() {
+    if (!permits.tryAcquire()) {
+      waitForPermit();
+    }
+    activeCalls.incrementAndGet();
+    acceptedCalls.increment();
+  }
+
+  private void waitForPermit() {
+    if (queuedCalls.incrementAndGet() > maxQueuedCalls) {
+      queuedCalls.decrementAndGet();
+      reject();
+    }
+
+    boolean acquired = false;
+    try {
+      acquired = permits.tryAcquire(maxWaitTime.toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      queuedCalls.decrementAndGet();
+    }
+    if (!acquired) {
+      reject();
+    }
+  }
+
+  private void reject() {
+    rejectedCalls.increment();
+    throw new BulkheadFull(this);
+  }
+
+  /** Frees the slot occupied by {@link #enter()}. */
+  void exit() {
+    activeCalls.decrementAndGet();
+    permits.release();
+  }
+
+  public int getMaxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public int getMaxQueuedCalls() {
+    return maxQueuedCalls;
+  }
+
+  public Duration getMaxWaitTime() {
+    return maxWaitTime;
+  }
+
+  /**
+   * Returns the number of system reactions currently running in this bulkhead.
+   *
+   * @return the number of active calls
+   */
+  public int getActiveCalls() {
+    return activeCalls.get();
+  }
+
+  /**
+   * Returns the number of calls currently waiting for a free slot.
+   *
+   * @return the number of queued calls
+   */
+  public int getQueuedCalls() {
+    return queuedCalls.get();
+  }
+
+  /**
+   * Returns the number of calls that have been let into this bulkhead so far.
+   *
+   * @return the number of accepted calls
+   */
+  public long getAcceptedCalls() {
+    return acceptedCalls.sum();
+  }
+
+  /**
+   * Returns the number of calls that have been rejected so far, because the bulkhead was full.
+   *
+   * @return the number of rejected calls
+   */
+  public long getRejectedCalls() {
+    return rejectedCalls.sum();
+  }
+
+  /**
+   * Returns how saturated this bulkhead currently is: 0.0 means no system reaction is running, 1.0
+   * means all slots are occupied. Values above 1.0 mean calls are waiting in the queue as well.
+   *
+   * @return the saturation of this bulkhead
+   */
+  public double getSaturation() {
+    double saturation =
+        (double) (activeCalls.get() + queuedCalls.get()) / (double) maxConcurrentCalls;
+    return saturation;
+  }
+}
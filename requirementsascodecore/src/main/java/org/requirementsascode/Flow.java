@@ -2,6 +2,7 @@ package org.requirementsascode;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -17,6 +18,7 @@ public class Flow extends UseCaseModelElement {
   private UseCase useCase;
   private Predicate<UseCaseModelRunner> flowPositionPredicate;
   private Predicate<UseCaseModelRunner> whenPredicate;
+  private final LongAdder entries;
 
   /**
    * Creates a use case flow with the specified name that belongs to the specified use case.
@@ -27,6 +29,7 @@ public class Flow extends UseCaseModelElement {
   Flow(String name, UseCase useCase) {
     super(name, useCase.getUseCaseModel());
     this.useCase = useCase;
+    this.entries = new LongAdder();
   }
 
   /**
@@ -68,4 +71,16 @@ public class Flow extends UseCaseModelElement {
   public Predicate<UseCaseModelRunner> getWhen() {
     return whenPredicate;
   }
+
+  void countEntry() {
+    entries.increment();
+  }
+
+  long getEntries() {
+    return entries.sum();
+  }
+
+  void resetEntries() {
+    entries.reset();
+  }
 }
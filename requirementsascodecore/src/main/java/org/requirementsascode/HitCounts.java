@@ -0,0 +1,116 @@
+package org.requirementsascode;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A snapshot of how often the steps of a use case model have been run, and how often its flows
+ * have been entered, summed up over all runners of the model.
+ *
+ * <p>A flow counts as entered when a runner runs one of its steps, and the latest step the runner
+ * ran before either belongs to a different flow, or there has been no such step.
+ *
+ * <p>Each count is read atomically, but the snapshot as a whole is not: runners may continue to
+ * count while the snapshot is taken. A snapshot can be passed to templates as a data model entry,
+ * to render a heatmap of the model.
+ *
+ * @author b_muth
+ */
+public class HitCounts {
+  private final Map<Step, Long> stepHits;
+  private final Map<Flow, Long> flowEntries;
+  private final long totalStepHits;
+  private final long maxStepHits;
+
+  HitCounts(UseCaseModel useCaseModel) {
+    Objects.requireNonNull(useCaseModel);
+
+    this.stepHits = new IdentityHashMap<>();
+    this.flowEntries = new IdentityHashMap<>();
+    long total = 0;
+    long max = 0;
+    for (UseCase useCase : useCaseModel.getModifiableUseCases()) {
+      for (Flow flow : useCase.getFlows()) {
+        flowEntries.put(flow, flow.getEntries());
+      }
+      for (Step step : useCase.getModifiableSteps()) {
+        long hits = step.getHits();
+        stepHits.put(step, hits);
+        total += hits;
+        max = Math.max(max, hits);
+      }
+    }
+    this.totalStepHits = total;
+    this.maxStepHits = max;
+  }
+
+  /**
+   * Returns how often the specified step has been run.
+   *
+   * @param step the step of the model
+   * @return the number of hits, or 0 if the step is not part of the model
+   */
+  public long getStepHits(Step step) {
+    Objects.requireNonNull(step);
+    return stepHits.getOrDefault(step, 0L);
+  }
+
+  /**
+   * Returns how often the specified flow has been entered.
+   *
+   * @param flow the flow of the model
+   * @return the number of entries, or 0 if the flow is not part of the model
+   */
+  public long getFlowEntries(Flow flow) {
+    Objects.requireNonNull(flow);
+    return flowEntries.getOrDefault(flow, 0L);
+  }
+
+  /**
+   * Returns the hits of the specified step relative to the hits of the most frequently run step.
+   *
+   * @param step the step of the model
+   * @return a value between 0 and 1, or 0 if no step has been run
+   */
+  public double getStepHeat(Step step) {
+    return maxStepHits == 0 ? 0 : (double) getStepHits(step) / maxStepHits;
+  }
+
+  /**
+   * Returns the sum of the hits of all steps.
+   *
+   * @return the total number of hits
+   */
+  public long getTotalStepHits() {
+    return totalStepHits;
+  }
+
+  /**
+   * Returns the hits of the most frequently run step.
+   *
+   * @return the maximum number of hits
+   */
+  public long getMaxStepHits() {
+    return maxStepHits;
+  }
+
+  /**
+   * Returns the hits of all steps of the model.
+   *
+   * @return an unmodifiable map from step to hits
+   */
+  public Map<Step, Long> getStepHits() {
+    return Collections.unmodifiableMap(stepHits);
+  }
+
+  /**
+   * Returns the entries of all flows of the model.
+   *
+   * @return an unmodifiable map from flow to entries
+   */
+  public Map<Flow, Long> getFlowEntries() {
+    return Collections.unmodifiableMap(flowEntries);
+  }
+}
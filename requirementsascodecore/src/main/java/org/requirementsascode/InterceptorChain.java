@@ -0,0 +1,89 @@
+package org.requirementsascode;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, pre-built chain of the system reaction interceptors of a use case model, together with
+ * their step filters. Runners walk the arrays directly, so triggering a system reaction does not
+ * allocate objects.
+ *
+ * @author b_muth
+ */
+final class InterceptorChain {
+  static final InterceptorChain EMPTY =
+      new InterceptorChain(new SystemReactionInterceptor[0], newStepFilterArray(0));
+
+  private final SystemReactionInterceptor[] interceptors;
+  private final Predicate<Step>[] stepFilters;
+
+  private InterceptorChain(
+      SystemReactionInterceptor[] interceptors, Predicate<Step>[] stepFilters) {
+    this.interceptors = interceptors;
+    this.stepFilters = stepFilters;
+  }
+
+  InterceptorChain with(SystemReactionInterceptor interceptor, Predicate<Step> stepFilter) {
+    Objects.requireNonNull(interceptor);
+    Objects.requireNonNull(stepFilter);
+
+    int length = interceptors.length;
+    SystemReactionInterceptor[] newInterceptors = Arrays.copyOf(interceptors, length + 1);
+    Predicate<Step>[] newStepFilters = Arrays.copyOf(stepFilters, length + 1);
+    newInterceptors[length] = interceptor;
+    newStepFilters[length] = stepFilter;
+    return new InterceptorChain(newInterceptors, newStepFilters);
+  }
+
+  InterceptorChain without(SystemReactionInterceptor interceptor) {
+    Objects.requireNonNull(interceptor);
+
+    int length = 0;
+    SystemReactionInterceptor[] newInterceptors = new SystemReactionInterceptor[interceptors.length];
+    Predicate<Step>[] newStepFilters = newStepFilterArray(stepFilters.length);
+    for (int i = 0; i < interceptors.length; i++) {
+      if (interceptors[i] != interceptor) {
+        newInterceptors[length] = interceptors[i];
+        newStepFilters[length] = stepFilters[i];
+        length++;
+      }
+    }
+    return new InterceptorChain(
+        Arrays.copyOf(newInterceptors, length), Arrays.copyOf(newStepFilters, length));
+  }
+
+  /**
+   * Returns the position of the first interceptor at or after the specified position that
+   * intercepts the specified step.
+   *
+   * @param position the position to start at
+   * @param step the step whose system reaction is triggered
+   * @return the position of the interceptor, or the length of the chain if there is none
+   */
+  int nextPositionFor(int position, Step step) {
+    while (position < interceptors.length && !stepFilters[position].test(step)) {
+      position++;
+    }
+    return position;
+  }
+
+  int length() {
+    return interceptors.length;
+  }
+
+  SystemReactionInterceptor interceptorAt(int position) {
+    return interceptors[position];
+  }
+
+  List<SystemReactionInterceptor> getInterceptors() {
+    return Collections.unmodifiableList(Arrays.asList(interceptors));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Predicate<Step>[] newStepFilterArray(int length) {
+    return (Predicate<Step>[]) new Predicate<?>[length];
+  }
+}
@@ -0,0 +1,88 @@
+package org.requirementsascode;
+
+/**
+ * Listener that is notified by all runners of a use case model about what they do. Add it to the
+ * model via {@link UseCaseModel#addRunnerListener(RunnerListener)}. This is useful for cross-cutting
+ * concerns that aggregate over many runners, e.g. collecting metrics.
+ *
+ * <p>Runners call listeners synchronously, possibly from many threads at the same time, so
+ * listeners must be thread safe and should return quickly. Runners only measure time if at least
+ * one listener has been added to their model.
+ *
+ * @author b_muth
+ */
+public interface RunnerListener {
+  /**
+   * Called after the system reaction of a step has been triggered, no matter whether it threw an
+   * exception or not. Called before autonomous system reactions are triggered.
+   *
+   * @param runner the runner that triggered the system reaction
+   * @param step the step whose system reaction has been triggered
+   * @param event the event the step reacted to
+   * @param dispatchNanos the time it took the runner to find the step that reacts, in nanoseconds
+   * @param reactionNanos the time it took the system reaction to run, in nanoseconds
+   */
+  default void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {}
+
+  /**
+   * Called when a running runner receives an event, before it looks for the step that reacts. Not
+   * called for the runner itself, which it reacts to for autonomous system reactions.
+   *
+   * @param runner the runner that received the event
+   * @param event the event
+   */
+  default void eventReceived(UseCaseModelRunner runner, Object event) {}
+
+  /**
+   * Called when a runner has finished processing an event, including the autonomous system
+   * reactions and exception handling it caused, even if it throws an exception. Not called for the
+   * runner itself.
+   *
+   * @param runner the runner that received the event
+   * @param event the event
+   */
+  default void eventProcessed(UseCaseModelRunner runner, Object event) {}
+
+  /**
+   * Called when a runner is about to throw an exception because it cannot dispatch an event, i.e.
+   * {@link org.requirementsascode.exception.MoreThanOneStepCanReact} or {@link
+   * org.requirementsascode.exception.UnhandledException}.
+   *
+   * @param runner the runner that throws the exception
+   * @param event the event that could not be dispatched
+   * @param exception the exception about to be thrown
+   */
+  default void dispatchFailed(UseCaseModelRunner runner, Object event, RuntimeException exception) {}
+
+  /**
+   * Called when a runner receives an event, to decide whether the runner measures how long the
+   * evaluation of step predicates takes while dispatching the event. If at least one listener
+   * returns true, all listeners are notified via {@link #predicateEvaluated(UseCaseModelRunner,
+   * Step, long, long, int)}.
+   *
+   * @param runner the runner that received the event
+   * @return true if the predicates should be measured, false otherwise
+   */
+  default boolean samplePredicates(UseCaseModelRunner runner) {
+    return false;
+  }
+
+  /**
+   * Called after the predicate of a step has been evaluated, if predicates are being measured.
+   *
+   * <p>A predicate can evaluate the predicates of other steps, e.g. to check that no other step
+   * could react instead. Such nested evaluations are reported as well, with a depth greater than 0,
+   * before the evaluation they are nested in.
+   *
+   * @param runner the runner that evaluated the predicate
+   * @param step the step that owns the predicate
+   * @param predicateNanos the time it took to evaluate the predicate, including nested evaluations,
+   *     in nanoseconds
+   * @param nestedNanos the time spent in nested evaluations of the predicates of other steps, in
+   *     nanoseconds
+   * @param depth the nesting depth, 0 for predicates evaluated by the runner directly
+   */
+  default void predicateEvaluated(
+      UseCaseModelRunner runner, Step step, long predicateNanos, long nestedNanos, int depth) {}
+}
@@ -2,6 +2,7 @@ package org.requirementsascode;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -22,6 +23,9 @@ public class Step extends UseCaseModelElement {
   private Actor[] actors;
   private Class<?> userEventClass;
   private Consumer<?> systemReaction;
+  private Optional<Bulkhead> bulkhead;
+  private final LongAdder hits;
+  private int ordinal;
 
   /**
    * Creates a use case step with the specified name that belongs to the specified use case flow.
@@ -37,6 +41,8 @@ public class Step extends UseCaseModelElement {
 
     this.flow = useCaseFlow;
     this.previousStepInFlow = previousStepInFlow;
+    this.bulkhead = Optional.empty();
+    this.hits = new LongAdder();
   }
 
   public Optional<Step> getPreviousStepInFlow() {
@@ -82,4 +88,44 @@ public class Step extends UseCaseModelElement {
   void setSystemReaction(Consumer<?> systemReaction) {
     this.systemReaction = systemReaction;
   }
+
+  /**
+   * Returns the bulkhead the system reaction of this step runs in. That is the bulkhead the step
+   * has been bound to, or else the bulkhead of its use case.
+   *
+   * @return the bulkhead, or else an empty optional if the system reaction is not isolated
+   */
+  public Optional<Bulkhead> getBulkhead() {
+    return bulkhead.isPresent() ? bulkhead : getUseCase().getBulkhead();
+  }
+
+  void setBulkhead(Bulkhead bulkhead) {
+    this.bulkhead = Optional.of(bulkhead);
+  }
+
+  /**
+   * Returns the number of this step, unique in its use case model. Steps are numbered in the order
+   * they have been created, starting with 0.
+   *
+   * @return the ordinal
+   */
+  int getOrdinal() {
+    return ordinal;
+  }
+
+  void setOrdinal(int ordinal) {
+    this.ordinal = ordinal;
+  }
+
+  void countHit() {
+    hits.increment();
+  }
+
+  long getHits() {
+    return hits.sum();
+  }
+
+  void resetHits() {
+    hits.reset();
+  }
 }
@@ -97,4 +97,25 @@ public class StepSystemPart<T> {
 
     return this;
   }
+
+  /**
+   * Runs this step's system reaction in the specified bulkhead.
+   *
+   * <p>If all slots of the bulkhead are occupied when the step is triggered, and its queue isn't
+   * full, the calling thread blocks until a slot becomes free, at most for the bulkhead's maximum
+   * wait time. If the bulkhead is full, or no slot became free in time, the system reaction is not
+   * performed. Instead, the runner reacts to a {@link
+   * org.requirementsascode.exception.BulkheadFull} exception, that can be handled in an exception
+   * flow.
+   *
+   * @param bulkhead the bulkhead, created with {@link UseCaseModelBuilder#bulkhead(String, int,
+   *     int)}
+   * @return the system part
+   */
+  public StepSystemPart<T> isolatedIn(Bulkhead bulkhead) {
+    Objects.requireNonNull(bulkhead);
+
+    step.setBulkhead(bulkhead);
+    return this;
+  }
 }
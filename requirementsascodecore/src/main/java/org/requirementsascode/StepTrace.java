@@ -0,0 +1,205 @@
+package org.requirementsascode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Trace of the latest steps a runner has triggered, together with the class of the event each step
+ * reacted to and the time it was triggered. Make a runner record its steps via {@link
+ * UseCaseModelRunner#traceStepsIn(StepTrace)}.
+ *
+ * <p>The trace keeps at most as many steps as its capacity, in a ring of slots. When it is full,
+ * recording a step overwrites the oldest one. So the trace can stay attached to long running
+ * runners, and be rendered to text on demand, e.g. for diagnostics. Recording a step does not
+ * allocate objects once the ring has grown to its capacity. The steps may belong to different use
+ * case models, e.g. if the runner is run with another model.
+ *
+ * @author b_muth
+ */
+public class StepTrace {
+  /** The largest capacity of a trace. A trace with this capacity effectively keeps all steps. */
+  public static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+  private static final int INITIAL_SLOTS = 16;
+
+  private final int capacity;
+  private final LongSupplier clock;
+  private UseCaseModel[] useCaseModels;
+  private int[] stepOrdinals;
+  private Class<?>[] eventClasses;
+  private long[] timestamps;
+  private int next;
+  private int size;
+  private long recordedSteps;
+
+  /**
+   * Creates a trace that keeps the specified number of latest steps, and timestamps them with the
+   * system clock.
+   *
+   * @param capacity the maximum number of steps kept
+   */
+  public StepTrace(int capacity) {
+    this(capacity, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates a trace that keeps the specified number of latest steps, and timestamps them with the
+   * specified clock.
+   *
+   * @param capacity the maximum number of steps kept
+   * @param clock the clock, returning milliseconds since the epoch
+   */
+  public StepTrace(int capacity, LongSupplier clock) {
+    Objects.requireNonNull(clock);
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("capacity must be between 1 and " + MAX_CAPACITY);
+    }
+
+    this.capacity = capacity;
+    this.clock = clock;
+    clear();
+  }
+
+  /**
+   * Records the specified step. If the trace is full, the oldest step is overwritten.
+   *
+   * @param step the step that has been triggered
+   * @param event the event the step reacts to
+   */
+  public synchronized void record(Step step, Object event) {
+    Objects.requireNonNull(step);
+    Objects.requireNonNull(event);
+
+    if (next == stepOrdinals.length && next < capacity) {
+      growSlots();
+    }
+
+    useCaseModels[next] = step.getUseCaseModel();
+    stepOrdinals[next] = step.getOrdinal();
+    eventClasses[next] = event.getClass();
+    timestamps[next] = clock.getAsLong();
+    next = next + 1 == capacity ? 0 : next + 1;
+    size = Math.min(size + 1, capacity);
+    recordedSteps++;
+  }
+
+  private void growSlots() {
+    int newLength = (int) Math.min((long) stepOrdinals.length * 2, capacity);
+    useCaseModels = Arrays.copyOf(useCaseModels, newLength);
+    stepOrdinals = Arrays.copyOf(stepOrdinals, newLength);
+    eventClasses = Arrays.copyOf(eventClasses, newLength);
+    timestamps = Arrays.copyOf(timestamps, newLength);
+  }
+
+  /**
+   * Returns the steps kept in the trace.
+   *
+   * @return the steps, oldest first
+   */
+  public synchronized List<Step> getSteps() {
+    List<Step> steps = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      steps.add(stepAt(i));
+    }
+    return Collections.unmodifiableList(steps);
+  }
+
+  /**
+   * Renders the names of the steps kept in the trace, separated with a semicolon after each step,
+   * without spaces. For example, if two steps S1 and S2 have been recorded, the string S1;S2; is
+   * returned.
+   *
+   * @return the step names, oldest first
+   */
+  public synchronized String renderStepNames() {
+    StringBuilder stepNames = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      stepNames.append(stepAt(i).getName());
+      stepNames.append(";");
+    }
+    return stepNames.toString();
+  }
+
+  /**
+   * Renders the steps kept in the trace, one line per step. Each line contains the timestamp, the
+   * use case, flow and name of the step, and the class of the event the step reacted to.
+   *
+   * @return the rendered trace, oldest step first
+   */
+  public synchronized String render() {
+    StringBuilder text = new StringBuilder();
+    if (recordedSteps > size) {
+      text.append("(" + (recordedSteps - size) + " earlier steps overwritten)\n");
+    }
+    for (int i = 0; i < size; i++) {
+      Step step = stepAt(i);
+      int slot = slotAt(i);
+      text.append(Instant.ofEpochMilli(timestamps[slot]));
+      text.append(' ');
+      text.append(step.getUseCase().getName());
+      text.append('/');
+      text.append(step.getFlow().getName());
+      text.append('/');
+      text.append(step.getName());
+      text.append(' ');
+      text.append(eventClasses[slot].getName());
+      text.append('\n');
+    }
+    return text.toString();
+  }
+
+  private Step stepAt(int index) {
+    int slot = slotAt(index);
+    return useCaseModels[slot].findStepByOrdinal(stepOrdinals[slot]);
+  }
+
+  private int slotAt(int index) {
+    int oldest = size < capacity ? 0 : next;
+    return (int) (((long) oldest + index) % capacity);
+  }
+
+  /** Removes all steps from the trace. */
+  public synchronized void clear() {
+    int slots = Math.min(INITIAL_SLOTS, capacity);
+    this.useCaseModels = new UseCaseModel[slots];
+    this.stepOrdinals = new int[slots];
+    this.eventClasses = new Class<?>[slots];
+    this.timestamps = new long[slots];
+    this.next = 0;
+    this.size = 0;
+    this.recordedSteps = 0;
+  }
+
+  /**
+   * Returns the maximum number of steps kept in the trace.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Returns the number of steps kept in the trace.
+   *
+   * @return the number of steps, at most the capacity
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of steps recorded since the trace has been created or cleared, including
+   * the steps that have been overwritten.
+   *
+   * @return the number of recorded steps
+   */
+  public synchronized long getRecordedSteps() {
+    return recordedSteps;
+  }
+}
@@ -0,0 +1,46 @@
+package org.requirementsascode;
+
+/**
+ * Interceptor that all runners of a use case model call when they trigger a system reaction. Add
+ * it to the model via {@link UseCaseModel#addSystemReactionInterceptor(SystemReactionInterceptor)}.
+ * This is useful for cross-cutting concerns that wrap system reactions, e.g. transactions, logging
+ * or measuring performance.
+ *
+ * <p>Interceptors form a chain, in the order they have been added. For each interceptor whose step
+ * filter accepts the step, the runner calls {@link #before(SystemReactionTrigger)}, then {@link
+ * #around(SystemReactionTrigger)}, then {@link #after(SystemReactionTrigger)}. The around hook
+ * proceeds to the next interceptor, and finally to the system reaction of the step, by calling
+ * {@link SystemReactionTrigger#trigger()}. Calling the chain does not allocate objects.
+ *
+ * <p>Runners call interceptors possibly from many threads at the same time, so interceptors must be
+ * thread safe.
+ *
+ * @author b_muth
+ */
+public interface SystemReactionInterceptor {
+  /**
+   * Called before the around hook of this interceptor.
+   *
+   * @param trigger the trigger, providing access to the event and the step
+   */
+  default void before(SystemReactionTrigger trigger) {}
+
+  /**
+   * Called to proceed with the rest of the chain. The default implementation just calls {@link
+   * SystemReactionTrigger#trigger()}. Override it to run code both before and after the rest of the
+   * chain, to handle its exceptions, or to skip it.
+   *
+   * @param trigger the trigger to proceed with
+   */
+  default void around(SystemReactionTrigger trigger) {
+    trigger.trigger();
+  }
+
+  /**
+   * Called after the around hook of this interceptor has returned normally. Not called if the rest
+   * of the chain threw an exception.
+   *
+   * @param trigger the trigger, providing access to the event and the step
+   */
+  default void after(SystemReactionTrigger trigger) {}
+}
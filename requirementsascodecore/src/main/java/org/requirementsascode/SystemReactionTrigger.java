@@ -6,29 +6,60 @@ import java.util.function.Consumer;
  * Class used to trigger a system reaction.
  *
  * <p>Use an instance of this class only if you want to adapt the system reaction, in order to call
- * the standard system reaction from your adapted system reaction.
+ * the standard system reaction from your adapted system reaction, or in a {@link
+ * SystemReactionInterceptor}, to proceed with the rest of the interceptor chain.
  *
  * @author b_muth
  */
 public class SystemReactionTrigger {
   private Object event;
   private Step useCaseStep;
+  private InterceptorChain interceptorChain;
+  private int position;
 
   SystemReactionTrigger() {}
 
   /**
-   * The system reaction of the step accepts the event (both event and step passed in earlier).
+   * Calls the next interceptor of the use case model that intercepts the step. If there is none,
+   * the system reaction of the step accepts the event (both event and step passed in earlier).
    *
    * @see #setupWith(Object, Step)
    */
-  @SuppressWarnings("unchecked")
   public void trigger() {
+    InterceptorChain currentChain = interceptorChain;
+    Object currentEvent = event;
+    Step currentStep = useCaseStep;
+    int currentPosition = position;
+    try {
+      int interceptorPosition = currentChain.nextPositionFor(currentPosition, currentStep);
+      if (interceptorPosition == currentChain.length()) {
+        triggerSystemReaction();
+      } else {
+        position = interceptorPosition + 1;
+        SystemReactionInterceptor interceptor = currentChain.interceptorAt(interceptorPosition);
+        interceptor.before(this);
+        interceptor.around(this);
+        interceptor.after(this);
+      }
+    } finally {
+      // A system reaction may have made the runner react to another event, reusing this trigger
+      interceptorChain = currentChain;
+      event = currentEvent;
+      useCaseStep = currentStep;
+      position = currentPosition;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void triggerSystemReaction() {
     ((Consumer<Object>) useCaseStep.getSystemReaction()).accept(event);
   }
 
   void setupWith(Object event, Step useCaseStep) {
     this.event = event;
     this.useCaseStep = useCaseStep;
+    this.interceptorChain = useCaseStep.getUseCaseModel().getInterceptorChain();
+    this.position = 0;
   }
 
   /**
@@ -6,11 +6,11 @@ package org.requirementsascode;
  * @author b_muth
  */
 public class TestUseCaseModelRunner extends UseCaseModelRunner {
-  private StringBuilder runStepNames;
+  private StepTrace runSteps;
 
   public TestUseCaseModelRunner() {
-    runStepNames = new StringBuilder();
-    adaptSystemReaction(this::withStepNameTracking);
+    runSteps = new StepTrace(StepTrace.MAX_CAPACITY);
+    traceStepsIn(runSteps);
   }
 
   /**
@@ -23,13 +23,6 @@ public class TestUseCaseModelRunner extends UseCaseModelRunner {
    * @return the step names
    */
   public String getRunStepNames() {
-    return runStepNames.toString();
-  }
-
-  private void withStepNameTracking(SystemReactionTrigger systemReactionTrigger) {
-    String stepName = systemReactionTrigger.getUseCaseStep().getName();
-    runStepNames.append(stepName);
-    runStepNames.append(";");
-    systemReactionTrigger.trigger();
+    return runSteps.renderStepNames();
   }
 }
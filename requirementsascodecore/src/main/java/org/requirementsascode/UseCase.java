@@ -34,6 +34,7 @@ public class UseCase extends UseCaseModelElement {
   private Map<String, Flow> nameToFlowMap;
   private Map<String, Step> nameToStepMap;
   private Flow basicFlow;
+  private Optional<Bulkhead> bulkhead;
 
   /**
    * Creates a use case with the specified name that belongs to the specified use case model.
@@ -46,6 +47,7 @@ public class UseCase extends UseCaseModelElement {
     this.nameToFlowMap = new LinkedHashMap<>();
     this.nameToStepMap = new LinkedHashMap<>();
     this.basicFlow = newFlow("basic flow");
+    this.bulkhead = Optional.empty();
   }
 
   /**
@@ -61,6 +63,20 @@ public class UseCase extends UseCaseModelElement {
     return basicFlow;
   }
 
+  /**
+   * Returns the bulkhead the system reactions of this use case's steps run in, unless a step is
+   * bound to a bulkhead of its own.
+   *
+   * @return the bulkhead of the use case, or else an empty optional
+   */
+  public Optional<Bulkhead> getBulkhead() {
+    return bulkhead;
+  }
+
+  void setBulkhead(Bulkhead bulkhead) {
+    this.bulkhead = Optional.of(bulkhead);
+  }
+
   /**
    * Checks whether this use case contains the specified flow.
    *
@@ -115,6 +131,7 @@ public class UseCase extends UseCaseModelElement {
     Step step = new Step(stepName, flow, previousStep);
     step.setPredicate(predicate.orElse(afterPreviousStepUnlessOtherStepCouldReact(step)));
     saveModelElement(step, nameToStepMap);
+    step.setOrdinal(getUseCaseModel().registerStepOrdinalOf(step));
     return step;
   }
 
@@ -5,12 +5,19 @@ import static org.requirementsascode.ModelElementContainer.getModelElements;
 import static org.requirementsascode.ModelElementContainer.hasModelElement;
 import static org.requirementsascode.ModelElementContainer.saveModelElement;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.requirementsascode.exception.NoSuchElementInModel;
 
@@ -23,14 +30,22 @@ import org.requirementsascode.exception.NoSuchElementInModel;
 public class UseCaseModel {
   private Map<String, Actor> nameToActorMap;
   private Map<String, UseCase> nameToUseCaseMap;
+  private Map<String, Bulkhead> nameToBulkheadMap;
+  private List<Step> stepsByOrdinal;
   private Actor userActor;
   private Actor systemActor;
+  private volatile RunnerListener[] runnerListeners;
+  private volatile InterceptorChain interceptorChain;
 
   UseCaseModel() {
     this.nameToActorMap = new HashMap<>();
     this.nameToUseCaseMap = new HashMap<>();
+    this.nameToBulkheadMap = new HashMap<>();
+    this.stepsByOrdinal = new ArrayList<>();
     this.userActor = newActor("user");
     this.systemActor = newActor("system");
+    this.runnerListeners = new RunnerListener[0];
+    this.interceptorChain = InterceptorChain.EMPTY;
   }
 
   /**
@@ -55,6 +70,17 @@ public class UseCaseModel {
     return hasUseCase;
   }
 
+  /**
+   * Checks whether this model contains the specified bulkhead.
+   *
+   * @param bulkheadName the name of the bulkhead whose existence to check
+   * @return true if this model contains the specified bulkhead, false otherwise
+   */
+  public boolean hasBulkhead(String bulkheadName) {
+    boolean hasBulkhead = hasModelElement(bulkheadName, nameToBulkheadMap);
+    return hasBulkhead;
+  }
+
   Actor newActor(String actorName) {
     Actor actor = new Actor(actorName, this);
     saveModelElement(actor, nameToActorMap);
@@ -67,6 +93,23 @@ public class UseCaseModel {
     return useCase;
   }
 
+  Bulkhead newBulkhead(
+      String bulkheadName, int maxConcurrentCalls, int maxQueuedCalls, Duration maxWaitTime) {
+    Bulkhead bulkhead =
+        new Bulkhead(bulkheadName, maxConcurrentCalls, maxQueuedCalls, maxWaitTime, this);
+    saveModelElement(bulkhead, nameToBulkheadMap);
+    return bulkhead;
+  }
+
+  synchronized int registerStepOrdinalOf(Step step) {
+    stepsByOrdinal.add(step);
+    return stepsByOrdinal.size() - 1;
+  }
+
+  synchronized Step findStepByOrdinal(int ordinal) {
+    return stepsByOrdinal.get(ordinal);
+  }
+
   /**
    * Finds the actor with the specified name, contained in this model.
    *
@@ -92,6 +135,19 @@ public class UseCaseModel {
     return useCase;
   }
 
+  /**
+   * Finds the bulkhead with the specified name, contained in this model.
+   *
+   * @param bulkheadName the name of the bulkhead to look for
+   * @return the bulkhead if found
+   * @throws NoSuchElementInModel if no bulkhead with the specified bulkheadName is found in the
+   *     model
+   */
+  public Bulkhead findBulkhead(String bulkheadName) {
+    Bulkhead bulkhead = findModelElement(bulkheadName, nameToBulkheadMap);
+    return bulkhead;
+  }
+
   /**
    * Returns the actors contained in this use case model. Do not modify that collection directly,
    * use {@link #newActor(String)}.
@@ -103,6 +159,16 @@ public class UseCaseModel {
     return Collections.unmodifiableCollection(modifiableActors);
   }
 
+  /**
+   * Returns the bulkheads contained in this use case model.
+   *
+   * @return the bulkheads
+   */
+  public Collection<Bulkhead> getBulkheads() {
+    Collection<Bulkhead> modifiableBulkheads = getModelElements(nameToBulkheadMap);
+    return Collections.unmodifiableCollection(modifiableBulkheads);
+  }
+
   /**
    * Returns the use cases contained in this use case model.
    *
@@ -152,4 +218,106 @@ public class UseCaseModel {
   public Actor getSystemActor() {
     return systemActor;
   }
+
+  /**
+   * Adds a listener that is notified by all runners of this model.
+   *
+   * @param runnerListener the listener to add
+   */
+  public synchronized void addRunnerListener(RunnerListener runnerListener) {
+    Objects.requireNonNull(runnerListener);
+
+    RunnerListener[] newRunnerListeners = Arrays.copyOf(runnerListeners, runnerListeners.length + 1);
+    newRunnerListeners[runnerListeners.length] = runnerListener;
+    runnerListeners = newRunnerListeners;
+  }
+
+  /**
+   * Removes the specified listener, if it has been added before.
+   *
+   * @param runnerListener the listener to remove
+   */
+  public synchronized void removeRunnerListener(RunnerListener runnerListener) {
+    Objects.requireNonNull(runnerListener);
+
+    runnerListeners =
+        Stream.of(runnerListeners)
+            .filter(listener -> listener != runnerListener)
+            .toArray(RunnerListener[]::new);
+  }
+
+  /**
+   * Returns the listeners that are notified by all runners of this model.
+   *
+   * @return the runner listeners
+   */
+  public List<RunnerListener> getRunnerListeners() {
+    return Collections.unmodifiableList(Arrays.asList(runnerListeners));
+  }
+
+  RunnerListener[] getRunnerListenerArray() {
+    return runnerListeners;
+  }
+
+  /**
+   * Adds an interceptor to the end of the chain that all runners of this model call when they
+   * trigger a system reaction.
+   *
+   * @param interceptor the interceptor to add
+   */
+  public void addSystemReactionInterceptor(SystemReactionInterceptor interceptor) {
+    addSystemReactionInterceptor(interceptor, step -> true);
+  }
+
+  /**
+   * Adds an interceptor to the end of the chain that all runners of this model call when they
+   * trigger a system reaction, but only for the steps accepted by the specified filter.
+   *
+   * @param interceptor the interceptor to add
+   * @param stepFilter the filter that decides for which steps the interceptor is called
+   */
+  public synchronized void addSystemReactionInterceptor(
+      SystemReactionInterceptor interceptor, Predicate<Step> stepFilter) {
+    interceptorChain = interceptorChain.with(interceptor, stepFilter);
+  }
+
+  /**
+   * Removes the specified interceptor from the chain, if it has been added before.
+   *
+   * @param interceptor the interceptor to remove
+   */
+  public synchronized void removeSystemReactionInterceptor(SystemReactionInterceptor interceptor) {
+    interceptorChain = interceptorChain.without(interceptor);
+  }
+
+  /**
+   * Returns the interceptors that all runners of this model call when they trigger a system
+   * reaction, in the order they are called.
+   *
+   * @return the interceptors
+   */
+  public List<SystemReactionInterceptor> getSystemReactionInterceptors() {
+    return interceptorChain.getInterceptors();
+  }
+
+  InterceptorChain getInterceptorChain() {
+    return interceptorChain;
+  }
+
+  /**
+   * Takes a snapshot of the step hits and flow entries counted by all runners of this model.
+   *
+   * @return the snapshot
+   */
+  public HitCounts getHitCounts() {
+    return new HitCounts(this);
+  }
+
+  /** Resets the step hits and flow entries counted by all runners of this model to 0. */
+  public void resetHitCounts() {
+    for (UseCase useCase : getModifiableUseCases()) {
+      useCase.getFlows().forEach(Flow::resetEntries);
+      useCase.getModifiableSteps().forEach(Step::resetHits);
+    }
+  }
 }
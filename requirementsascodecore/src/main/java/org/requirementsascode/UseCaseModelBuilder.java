@@ -1,5 +1,7 @@
 package org.requirementsascode;
 
+import java.time.Duration;
+
 import org.requirementsascode.exception.ElementAlreadyInModel;
 
 /**
@@ -44,6 +46,45 @@ public class UseCaseModelBuilder {
     return useCaseModel.newActor(actorName);
   }
 
+  /**
+   * Creates a new bulkhead in the current model. Bind steps or whole use cases to it, to limit how
+   * many of their system reactions may run at the same time. Queued calls wait at most for
+   * {@link Bulkhead#DEFAULT_MAX_WAIT_TIME}.
+   *
+   * @param bulkheadName the name of the bulkhead to be created.
+   * @param maxConcurrentCalls the maximum number of system reactions running in the bulkhead at the
+   *     same time
+   * @param maxQueuedCalls the maximum number of calls waiting for a free slot, before calls are
+   *     rejected
+   * @return the newly created bulkhead
+   * @throws ElementAlreadyInModel if a bulkhead with the specified name already exists in the model
+   * @see StepSystemPart#isolatedIn(Bulkhead)
+   * @see UseCasePart#isolatedIn(Bulkhead)
+   */
+  public Bulkhead bulkhead(String bulkheadName, int maxConcurrentCalls, int maxQueuedCalls) {
+    return bulkhead(
+        bulkheadName, maxConcurrentCalls, maxQueuedCalls, Bulkhead.DEFAULT_MAX_WAIT_TIME);
+  }
+
+  /**
+   * Creates a new bulkhead in the current model, with a maximum time that calls wait for a free
+   * slot before they are rejected.
+   *
+   * @param bulkheadName the name of the bulkhead to be created.
+   * @param maxConcurrentCalls the maximum number of system reactions running in the bulkhead at the
+   *     same time
+   * @param maxQueuedCalls the maximum number of calls waiting for a free slot, before calls are
+   *     rejected
+   * @param maxWaitTime the maximum time a queued call waits for a free slot, before it is rejected
+   * @return the newly created bulkhead
+   * @throws ElementAlreadyInModel if a bulkhead with the specified name already exists in the model
+   * @see #bulkhead(String, int, int)
+   */
+  public Bulkhead bulkhead(
+      String bulkheadName, int maxConcurrentCalls, int maxQueuedCalls, Duration maxWaitTime) {
+    return useCaseModel.newBulkhead(bulkheadName, maxConcurrentCalls, maxQueuedCalls, maxWaitTime);
+  }
+
   /**
    * Creates a new use case in the current model.
    *
@@ -12,6 +12,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.requirementsascode.exception.BulkheadFull;
 import org.requirementsascode.exception.MissingUseCaseStepPart;
 import org.requirementsascode.exception.MoreThanOneStepCanReact;
 import org.requirementsascode.exception.UnhandledException;
@@ -35,6 +36,10 @@ public class UseCaseModelRunner {
   private SystemReactionTrigger systemReactionTrigger;
   private Consumer<SystemReactionTrigger> systemReaction;
   private Optional<Predicate<Step>> stepWithoutAlternativePredicate;
+  private RunnerListener[] predicateListeners;
+  private int predicateDepth;
+  private long[] nestedPredicateNanos;
+  private StepTrace stepTrace;
 
   /**
    * Constructor for creating a runner with standard system reaction, that is: the system reaction,
@@ -44,6 +49,8 @@ public class UseCaseModelRunner {
     this.user = Optional.empty();
     this.systemReactionTrigger = new SystemReactionTrigger();
     this.stepWithoutAlternativePredicate = Optional.empty();
+    this.predicateListeners = null;
+    this.nestedPredicateNanos = new long[4];
 
     adaptSystemReaction(systemReactionTrigger -> systemReactionTrigger.trigger());
     restart();
@@ -51,7 +58,9 @@ public class UseCaseModelRunner {
 
   /**
    * Adapt the system reaction to perform tasks before and/or after triggering the system reaction.
-   * This is useful for cross-cutting concerns, e.g. measuring performance.
+   * This is useful for cross-cutting concerns, e.g. measuring performance. To combine several
+   * concerns, and to share them between all runners of a model, prefer {@link
+   * UseCaseModel#addSystemReactionInterceptor(SystemReactionInterceptor)}.
    *
    * @param adaptedSystemReaction the system reaction to replace the standard system reaction.
    */
@@ -59,6 +68,25 @@ public class UseCaseModelRunner {
     this.systemReaction = adaptedSystemReaction;
   }
 
+  /**
+   * Makes the runner record each step it triggers in the specified trace, right before the system
+   * reaction of the step runs.
+   *
+   * @param stepTrace the trace to record steps in, or null to stop recording
+   */
+  public void traceStepsIn(StepTrace stepTrace) {
+    this.stepTrace = stepTrace;
+  }
+
+  /**
+   * Returns the trace the runner records its steps in.
+   *
+   * @return the trace, or else an empty optional if the runner doesn't record steps
+   */
+  public Optional<StepTrace> getStepTrace() {
+    return Optional.ofNullable(stepTrace);
+  }
+
   /**
    * Restarts the runner, setting latest flow and latest step to its original defaults ("no flow has
    * been run, no step has been run").
@@ -104,6 +132,16 @@ public class UseCaseModelRunner {
     return this;
   }
 
+  /**
+   * Returns the actor the runner runs as, if it has been set.
+   *
+   * @see #as(Actor)
+   * @return the actor, or else an empty optional if the runner runs as the default user
+   */
+  public Optional<Actor> getUser() {
+    return user;
+  }
+
   private void triggerAutonomousSystemReaction() {
     reactTo(this);
   }
@@ -165,13 +203,39 @@ public class UseCaseModelRunner {
 
     Optional<Step> latestStepRun = Optional.empty();
     if (isRunning) {
-      Class<? extends Object> currentEventClass = event.getClass();
-      Set<Step> stepsThatCanReact = getStepsThatCanReactTo(currentEventClass);
-      latestStepRun = triggerSystemReactionForSteps(event, stepsThatCanReact);
+      RunnerListener[] runnerListeners = useCaseModel.getRunnerListenerArray();
+      if (runnerListeners.length > 0 && event != this) {
+        notifyEventReceived(runnerListeners, event);
+        try {
+          latestStepRun = dispatch(event, runnerListeners);
+        } finally {
+          notifyEventProcessed(runnerListeners, event);
+        }
+      } else {
+        latestStepRun = dispatch(event, runnerListeners);
+      }
     }
     return latestStepRun;
   }
 
+  private <T> Optional<Step> dispatch(T event, RunnerListener[] runnerListeners) {
+    long dispatchStartNanos = 0;
+    if (runnerListeners.length > 0) {
+      predicateListeners = samplePredicates(runnerListeners) ? runnerListeners : null;
+      dispatchStartNanos = System.nanoTime();
+    }
+
+    Class<? extends Object> currentEventClass = event.getClass();
+    Set<Step> stepsThatCanReact;
+    try {
+      stepsThatCanReact = getStepsThatCanReactTo(currentEventClass);
+    } finally {
+      predicateListeners = null;
+    }
+    return triggerSystemReactionForSteps(
+        event, stepsThatCanReact, runnerListeners, dispatchStartNanos);
+  }
+
   /**
    * Returns whether at least one step can react to an event of the specified class.
    *
@@ -230,39 +294,113 @@ public class UseCaseModelRunner {
     return steps;
   }
 
-  private <T> Optional<Step> triggerSystemReactionForSteps(T event, Collection<Step> useCaseSteps) {
-    Step useCaseStep = null;
+  private <T> Optional<Step> triggerSystemReactionForSteps(
+      T event,
+      Collection<Step> useCaseSteps,
+      RunnerListener[] runnerListeners,
+      long dispatchStartNanos) {
+    Optional<Step> latestStepRun = Optional.empty();
 
     if (useCaseSteps.size() == 1) {
-      useCaseStep = useCaseSteps.iterator().next();
-      triggerSystemReactionForStep(event, useCaseStep);
+      Step useCaseStep = useCaseSteps.iterator().next();
+      latestStepRun =
+          triggerSystemReactionForStep(event, useCaseStep, runnerListeners, dispatchStartNanos);
     } else if (useCaseSteps.size() > 1) {
-      throw new MoreThanOneStepCanReact(useCaseSteps);
+      throw dispatchFailed(runnerListeners, event, new MoreThanOneStepCanReact(useCaseSteps));
     } else if (event instanceof Throwable) {
-      throw new UnhandledException((Throwable) event);
+      throw dispatchFailed(runnerListeners, event, new UnhandledException((Throwable) event));
     }
 
-    return useCaseStep != null ? Optional.of(useCaseStep) : Optional.empty();
+    return latestStepRun;
   }
 
-  private <T> Step triggerSystemReactionForStep(T event, Step useCaseStep) {
+  private <T> Optional<Step> triggerSystemReactionForStep(
+      T event, Step useCaseStep, RunnerListener[] runnerListeners, long dispatchStartNanos) {
     if (useCaseStep.getSystemReaction() == null) {
       throw new MissingUseCaseStepPart(useCaseStep, "system");
     }
 
+    Optional<Bulkhead> bulkhead = useCaseStep.getBulkhead();
+    try {
+      bulkhead.ifPresent(Bulkhead::enter);
+    } catch (BulkheadFull e) {
+      handleException(e);
+      return Optional.empty();
+    }
+
+    countHitOf(useCaseStep);
     setLatestStep(Optional.of(useCaseStep));
     stepWithoutAlternativePredicate = Optional.empty();
     systemReactionTrigger.setupWith(event, useCaseStep);
 
+    long reactionStartNanos = runnerListeners.length > 0 ? System.nanoTime() : 0;
+    Exception exception = null;
     try {
-      systemReaction.accept(systemReactionTrigger);
+      triggerTracedSystemReaction(useCaseStep);
     } catch (Exception e) {
-      handleException(e);
+      exception = e;
+    } finally {
+      bulkhead.ifPresent(Bulkhead::exit);
+    }
+    notifyStepReacted(runnerListeners, useCaseStep, event, dispatchStartNanos, reactionStartNanos);
+
+    if (exception != null) {
+      handleException(exception);
     }
 
     triggerAutonomousSystemReaction();
 
-    return useCaseStep;
+    return Optional.of(useCaseStep);
+  }
+
+  private void countHitOf(Step useCaseStep) {
+    Flow flow = useCaseStep.getFlow();
+    if (!latestFlow.isPresent() || latestFlow.get() != flow) {
+      flow.countEntry();
+    }
+    useCaseStep.countHit();
+  }
+
+  private void notifyEventReceived(RunnerListener[] runnerListeners, Object event) {
+    for (RunnerListener runnerListener : runnerListeners) {
+      runnerListener.eventReceived(this, event);
+    }
+  }
+
+  private void notifyEventProcessed(RunnerListener[] runnerListeners, Object event) {
+    for (RunnerListener runnerListener : runnerListeners) {
+      runnerListener.eventProcessed(this, event);
+    }
+  }
+
+  private RuntimeException dispatchFailed(
+      RunnerListener[] runnerListeners, Object event, RuntimeException exception) {
+    for (RunnerListener runnerListener : runnerListeners) {
+      runnerListener.dispatchFailed(this, event, exception);
+    }
+    return exception;
+  }
+
+  private void notifyStepReacted(
+      RunnerListener[] runnerListeners,
+      Step useCaseStep,
+      Object event,
+      long dispatchStartNanos,
+      long reactionStartNanos) {
+    if (runnerListeners.length > 0) {
+      long dispatchNanos = reactionStartNanos - dispatchStartNanos;
+      long reactionNanos = System.nanoTime() - reactionStartNanos;
+      for (RunnerListener runnerListener : runnerListeners) {
+        runnerListener.stepReacted(this, useCaseStep, event, dispatchNanos, reactionNanos);
+      }
+    }
+  }
+
+  private void triggerTracedSystemReaction(Step useCaseStep) {
+    if (stepTrace != null) {
+      stepTrace.record(useCaseStep, systemReactionTrigger.getEvent());
+    }
+    systemReaction.accept(systemReactionTrigger);
   }
 
   /**
@@ -296,10 +434,48 @@ public class UseCaseModelRunner {
 
   private boolean hasTruePredicate(Step useCaseStep) {
     Predicate<UseCaseModelRunner> predicate = useCaseStep.getPredicate();
-    boolean result = predicate.test(this);
+    boolean result =
+        predicateListeners == null ? predicate.test(this) : testAndProfile(predicate, useCaseStep);
     return result;
   }
 
+  private boolean samplePredicates(RunnerListener[] runnerListeners) {
+    boolean samplePredicates = false;
+    for (RunnerListener runnerListener : runnerListeners) {
+      samplePredicates |= runnerListener.samplePredicates(this);
+    }
+    return samplePredicates;
+  }
+
+  /**
+   * Tests the predicate, measuring how long that took. Predicates may evaluate the predicates of
+   * other steps (e.g. when checking that no other step could react), so the time spent in such
+   * nested evaluations is measured separately, per nesting depth.
+   */
+  private boolean testAndProfile(Predicate<UseCaseModelRunner> predicate, Step useCaseStep) {
+    RunnerListener[] runnerListeners = predicateListeners;
+    int depth = predicateDepth++;
+    if (depth >= nestedPredicateNanos.length) {
+      nestedPredicateNanos = Arrays.copyOf(nestedPredicateNanos, depth * 2);
+    }
+    nestedPredicateNanos[depth] = 0;
+
+    long startNanos = System.nanoTime();
+    try {
+      return predicate.test(this);
+    } finally {
+      long predicateNanos = System.nanoTime() - startNanos;
+      predicateDepth--;
+      if (depth > 0) {
+        nestedPredicateNanos[depth - 1] += predicateNanos;
+      }
+      for (RunnerListener runnerListener : runnerListeners) {
+        runnerListener.predicateEvaluated(
+            this, useCaseStep, predicateNanos, nestedPredicateNanos[depth], depth);
+      }
+    }
+  }
+
   /**
    * Returns the latest step that has been run by this runner.
    *
@@ -1,5 +1,7 @@
 package org.requirementsascode;
 
+import java.util.Objects;
+
 /**
  * Part used by the {@link UseCaseModelBuilder} to build a {@link UseCaseModel}.
  *
@@ -25,6 +27,21 @@ public class UseCasePart {
     return new FlowPart(useCaseFlow, this);
   }
 
+  /**
+   * Runs the system reactions of all steps of this use case in the specified bulkhead, except for
+   * steps that are bound to a bulkhead of their own.
+   *
+   * @param bulkhead the bulkhead, created with {@link UseCaseModelBuilder#bulkhead(String, int,
+   *     int)}
+   * @return this use case part, to ease creation of flows
+   */
+  public UseCasePart isolatedIn(Bulkhead bulkhead) {
+    Objects.requireNonNull(bulkhead);
+
+    useCase().setBulkhead(bulkhead);
+    return this;
+  }
+
   UseCase useCase() {
     return useCase;
   }
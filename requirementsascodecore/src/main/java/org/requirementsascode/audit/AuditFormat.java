@@ -0,0 +1,195 @@
+package org.requirementsascode.audit;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binary format of the audit log. A log consists of segment files of fixed size. Each segment
+ * contains a sequence of entries, followed by zero bytes. An entry starts with its type as a byte.
+ * A string entry adds a string to the segment's dictionary, where it gets the next id, starting
+ * with 0. It consists of the string's length in bytes as an unsigned short, followed by its UTF-8
+ * bytes. A record entry consists of the timestamp as a long, and the dictionary ids of the user,
+ * use case, flow, step and event class, each as a variable-length int (7 bits per byte, least
+ * significant first). The writer adds a string entry before the first record of the segment that
+ * uses the string, so each segment can be read on its own.
+ *
+ * @author b_muth
+ */
+class AuditFormat {
+  static final String SEGMENT_PREFIX = "audit-";
+  static final String SEGMENT_SUFFIX = ".log";
+
+  private static final byte STRING_ENTRY = 1;
+  private static final byte RECORD_ENTRY = 2;
+  private static final int MAX_STRING_BYTES = 0xFFFF;
+
+  private AuditFormat() {}
+
+  static String segmentFileName(int segmentNumber) {
+    return String.format("%s%08d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX);
+  }
+
+  static Optional<Integer> segmentNumberOf(Path file) {
+    String fileName = file.getFileName().toString();
+    if (!fileName.startsWith(SEGMENT_PREFIX) || !fileName.endsWith(SEGMENT_SUFFIX)) {
+      return Optional.empty();
+    }
+    String number =
+        fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length());
+    try {
+      return Optional.of(Integer.parseInt(number));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static String[] stringsOf(AuditRecord record) {
+    return new String[] {
+      record.getUser(),
+      record.getUseCase(),
+      record.getFlow(),
+      record.getStep(),
+      record.getEventClass()
+    };
+  }
+
+  private static byte[] encode(String string) {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    int length = string.length();
+    while (bytes.length > MAX_STRING_BYTES) {
+      length = length / 2;
+      bytes = string.substring(0, length).getBytes(StandardCharsets.UTF_8);
+    }
+    return bytes;
+  }
+
+  /**
+   * Writes the record to the buffer, preceded by string entries for the strings that are not in
+   * the segment's dictionary yet, and adds these strings to the dictionary.
+   *
+   * @param record the record
+   * @param dictionary the ids of the strings the segment already contains
+   * @param buffer the buffer of the segment
+   * @return true if the record has been written, false if it doesn't fit in the remaining buffer,
+   *     in which case neither the buffer nor the dictionary have been changed
+   */
+  static boolean write(AuditRecord record, Map<String, Integer> dictionary, ByteBuffer buffer) {
+    String[] strings = stringsOf(record);
+    byte[][] newStrings = new byte[strings.length][];
+    int[] ids = new int[strings.length];
+    int nextId = dictionary.size();
+    int length = 1 + Long.BYTES;
+    for (int i = 0; i < strings.length; i++) {
+      Integer id = dictionary.get(strings[i]);
+      for (int j = 0; id == null && j < i; j++) {
+        if (newStrings[j] != null && strings[j].equals(strings[i])) {
+          id = ids[j];
+        }
+      }
+      if (id == null) {
+        id = nextId++;
+        newStrings[i] = encode(strings[i]);
+        length += 1 + Short.BYTES + newStrings[i].length;
+      }
+      ids[i] = id;
+      length += varIntLength(id);
+    }
+    if (length > buffer.remaining()) {
+      return false;
+    }
+
+    for (int i = 0; i < strings.length; i++) {
+      if (newStrings[i] != null) {
+        buffer.put(STRING_ENTRY);
+        buffer.putShort((short) newStrings[i].length);
+        buffer.put(newStrings[i]);
+        dictionary.put(strings[i], ids[i]);
+      }
+    }
+    buffer.put(RECORD_ENTRY);
+    buffer.putLong(record.getTimestamp());
+    for (int id : ids) {
+      putVarInt(id, buffer);
+    }
+    return true;
+  }
+
+  /**
+   * Reads the next record from the buffer, and the string entries before it.
+   *
+   * @param buffer the buffer, positioned at the start of an entry
+   * @param dictionary the strings of the segment read so far, in the order of their ids
+   * @return the record, or else an empty optional if the end of the segment has been reached
+   */
+  static Optional<AuditRecord> read(ByteBuffer buffer, List<String> dictionary) {
+    try {
+      while (buffer.hasRemaining()) {
+        byte entryType = buffer.get();
+        if (entryType == STRING_ENTRY) {
+          dictionary.add(readString(buffer));
+        } else if (entryType == RECORD_ENTRY) {
+          return readRecord(buffer, dictionary);
+        } else {
+          return Optional.empty();
+        }
+      }
+    } catch (BufferUnderflowException e) {
+      // The segment ends in the middle of an entry
+    }
+    return Optional.empty();
+  }
+
+  private static Optional<AuditRecord> readRecord(ByteBuffer buffer, List<String> dictionary) {
+    long timestamp = buffer.getLong();
+    String[] strings = new String[5];
+    for (int i = 0; i < strings.length; i++) {
+      int id = getVarInt(buffer);
+      if (id < 0 || id >= dictionary.size()) {
+        return Optional.empty();
+      }
+      strings[i] = dictionary.get(id);
+    }
+    return Optional.of(
+        new AuditRecord(timestamp, strings[0], strings[1], strings[2], strings[3], strings[4]));
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static int varIntLength(int value) {
+    int length = 1;
+    for (int remaining = value >>> 7; remaining != 0; remaining >>>= 7) {
+      length++;
+    }
+    return length;
+  }
+
+  private static void putVarInt(int value, ByteBuffer buffer) {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      buffer.put((byte) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    buffer.put((byte) remaining);
+  }
+
+  private static int getVarInt(ByteBuffer buffer) {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      byte currentByte = buffer.get();
+      value |= (currentByte & 0x7F) << shift;
+      if ((currentByte & 0x80) == 0) {
+        return value;
+      }
+    }
+    return -1;
+  }
+}
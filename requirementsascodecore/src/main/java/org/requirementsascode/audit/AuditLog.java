@@ -0,0 +1,331 @@
+package org.requirementsascode.audit;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Audit log of every step that runners trigger, per user. Add an instance to a model via {@link
+ * UseCaseModel#addRunnerListener(RunnerListener)}.
+ *
+ * <p>Runners only put an audit record into a lock-free queue, so no locks or I/O happen on the
+ * thread that dispatches events. A background thread takes the records from the queue, encodes them
+ * in a compact binary format, and writes them to memory-mapped segment files of fixed size in the
+ * log's directory. Each name is written only once per segment, and records refer to it by a small
+ * id. When a segment is full, the log rolls over to the next one. If the queue is full, further
+ * records are dropped and counted. The background thread sleeps while the queue is empty, and is
+ * woken up by the runner that queues the next record. Use {@link AuditLogReader} to decode the log
+ * to text.
+ *
+ * <p>If writing fails, e.g. because the disk is full, the log closes itself: the queued records and
+ * all further records are dropped and counted, and {@link #getWriteFailure()} returns the cause.
+ *
+ * <p>By default, the user of a record is the name of the actor the runner runs as. Specify a
+ * function to identify users differently, e.g. by session.
+ *
+ * @author b_muth
+ */
+public class AuditLog implements RunnerListener, AutoCloseable {
+  private static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+  private static final int DEFAULT_MAX_QUEUED_RECORDS = 100_000;
+  private static final long MIN_SEGMENT_SIZE = 1024;
+
+  private final Path directory;
+  private final long segmentSize;
+  private final int maxQueuedRecords;
+  private final Function<UseCaseModelRunner, String> userOfRunner;
+  private final LongSupplier clock;
+  private final Queue<AuditRecord> queue;
+  private final AtomicInteger queuedRecords;
+  private final LongAdder droppedRecords;
+  private final Thread writerThread;
+  private volatile boolean closed;
+  private volatile long writtenRecords;
+  private volatile IOException writeFailure;
+
+  private int segmentNumber;
+  private MappedByteBuffer segment;
+  private Map<String, Integer> segmentDictionary;
+
+  /**
+   * Creates an audit log in the specified directory, with segments of 16 MB, and at most 100.000
+   * queued records.
+   *
+   * @param directory the directory, created if it doesn't exist
+   * @throws IOException if the directory or the first segment can't be created
+   */
+  public AuditLog(Path directory) throws IOException {
+    this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_MAX_QUEUED_RECORDS);
+  }
+
+  /**
+   * Creates an audit log in the specified directory.
+   *
+   * @param directory the directory, created if it doesn't exist
+   * @param segmentSize the size of each segment file, in bytes
+   * @param maxQueuedRecords the maximum number of records waiting to be written
+   * @throws IOException if the directory or the first segment can't be created
+   */
+  public AuditLog(Path directory, long segmentSize, int maxQueuedRecords) throws IOException {
+    this(directory, segmentSize, maxQueuedRecords, AuditLog::actorNameOf, System::currentTimeMillis);
+  }
+
+  /**
+   * Creates an audit log in the specified directory, with the specified way to identify users, and
+   * the specified clock.
+   *
+   * @param directory the directory, created if it doesn't exist
+   * @param segmentSize the size of each segment file, in bytes
+   * @param maxQueuedRecords the maximum number of records waiting to be written
+   * @param userOfRunner the function returning the user a runner triggers steps for. If it returns
+   *     null, the name of the model's user actor is used.
+   * @param clock the clock, returning milliseconds since the epoch
+   * @throws IOException if the directory or the first segment can't be created
+   */
+  public AuditLog(
+      Path directory,
+      long segmentSize,
+      int maxQueuedRecords,
+      Function<UseCaseModelRunner, String> userOfRunner,
+      LongSupplier clock)
+      throws IOException {
+    Objects.requireNonNull(directory);
+    Objects.requireNonNull(userOfRunner);
+    Objects.requireNonNull(clock);
+    if (segmentSize < MIN_SEGMENT_SIZE || segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "segmentSize must be between " + MIN_SEGMENT_SIZE + " and " + Integer.MAX_VALUE);
+    }
+    if (maxQueuedRecords < 1) {
+      throw new IllegalArgumentException("maxQueuedRecords must be at least 1");
+    }
+
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.maxQueuedRecords = maxQueuedRecords;
+    this.userOfRunner = userOfRunner;
+    this.clock = clock;
+    this.queue = new ConcurrentLinkedQueue<>();
+    this.queuedRecords = new AtomicInteger();
+    this.droppedRecords = new LongAdder();
+
+    Files.createDirectories(directory);
+    this.segmentNumber = nextSegmentNumberIn(directory);
+    this.segment = mapSegment(segmentNumber);
+    this.segmentDictionary = new HashMap<>();
+
+    this.writerThread = new Thread(this::writeRecords, "audit log writer " + directory);
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  private static String actorNameOf(UseCaseModelRunner runner) {
+    return runner.getUser().map(actor -> actor.getName()).orElse(null);
+  }
+
+  private String userOf(UseCaseModelRunner runner, Step step) {
+    String user = userOfRunner.apply(runner);
+    return user != null ? user : step.getUseCaseModel().getUserActor().getName();
+  }
+
+  private static int nextSegmentNumberIn(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(AuditFormat::segmentNumberOf)
+          .filter(Optional::isPresent)
+          .mapToInt(Optional::get)
+          .max()
+          .orElse(-1)
+          + 1;
+    }
+  }
+
+  private MappedByteBuffer mapSegment(int segmentNumber) throws IOException {
+    Path file = directory.resolve(AuditFormat.segmentFileName(segmentNumber));
+    try (FileChannel channel =
+        FileChannel.open(
+            file,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      return channel.map(MapMode.READ_WRITE, 0, segmentSize);
+    }
+  }
+
+  @Override
+  public void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {
+    if (closed) {
+      droppedRecords.increment();
+      return;
+    }
+    int queuedRecordsNow = queuedRecords.incrementAndGet();
+    if (queuedRecordsNow > maxQueuedRecords) {
+      queuedRecords.decrementAndGet();
+      droppedRecords.increment();
+      return;
+    }
+    queue.add(
+        new AuditRecord(
+            clock.getAsLong(),
+            userOf(runner, step),
+            step.getUseCase().getName(),
+            step.getFlow().getName(),
+            step.getName(),
+            event.getClass().getName()));
+    if (queuedRecordsNow == 1) {
+      LockSupport.unpark(writerThread);
+    }
+  }
+
+  private void writeRecords() {
+    try {
+      while (!closed || !queue.isEmpty()) {
+        AuditRecord record = queue.poll();
+        if (record != null) {
+          queuedRecords.decrementAndGet();
+          writeRecord(record);
+        } else if (queuedRecords.get() > 0) {
+          // A runner has counted its record, but not added it to the queue yet
+          Thread.yield();
+        } else if (!closed) {
+          LockSupport.park(this);
+        }
+      }
+      segment.force();
+    } catch (IOException e) {
+      writeFailure = e;
+      closed = true;
+      dropQueuedRecords();
+    }
+  }
+
+  private void dropQueuedRecords() {
+    while (queue.poll() != null) {
+      queuedRecords.decrementAndGet();
+      droppedRecords.increment();
+    }
+  }
+
+  private void writeRecord(AuditRecord record) throws IOException {
+    if (!AuditFormat.write(record, segmentDictionary, segment)) {
+      if (segment.position() > 0) {
+        try {
+          rollOver();
+        } catch (IOException e) {
+          droppedRecords.increment();
+          throw e;
+        }
+      }
+      if (!AuditFormat.write(record, segmentDictionary, segment)) {
+        droppedRecords.increment();
+        return;
+      }
+    }
+    writtenRecords++;
+  }
+
+  private void rollOver() throws IOException {
+    segment.force();
+    segmentNumber++;
+    segment = mapSegment(segmentNumber);
+    segmentDictionary.clear();
+  }
+
+  /**
+   * Stops accepting records, waits until the queued records have been written, and forces the
+   * segment to storage.
+   *
+   * @throws IOException if the background thread failed to write records
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    LockSupport.unpark(writerThread);
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
+  }
+
+  /**
+   * Returns whether the background thread failed to write records, so that the log has closed
+   * itself.
+   *
+   * @return true if writing failed, false otherwise
+   */
+  public boolean isFailed() {
+    return writeFailure != null;
+  }
+
+  /**
+   * Returns why the background thread failed to write records.
+   *
+   * @return the failure, or an empty optional if writing hasn't failed
+   */
+  public Optional<IOException> getWriteFailure() {
+    return Optional.ofNullable(writeFailure);
+  }
+
+  /**
+   * Returns the directory the log is written to.
+   *
+   * @return the directory
+   */
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Returns the number of records written to segments so far.
+   *
+   * @return the number of written records
+   */
+  public long getWrittenRecords() {
+    return writtenRecords;
+  }
+
+  /**
+   * Returns the number of records waiting to be written.
+   *
+   * @return the number of queued records
+   */
+  public int getQueuedRecords() {
+    return queuedRecords.get();
+  }
+
+  /**
+   * Returns the number of records dropped because the queue was full, the log was closed, writing
+   * failed, or the record didn't fit in a segment.
+   *
+   * @return the number of dropped records
+   */
+  public long getDroppedRecords() {
+    return droppedRecords.sum();
+  }
+}
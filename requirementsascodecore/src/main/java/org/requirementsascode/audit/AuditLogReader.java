@@ -0,0 +1,122 @@
+package org.requirementsascode.audit;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Tool that decodes an audit log written by {@link AuditLog}. Run it from the command line with
+ * the log's directory as argument, and optionally a user, to print the records as text, one line
+ * per record.
+ *
+ * @author b_muth
+ */
+public class AuditLogReader {
+  private AuditLogReader() {}
+
+  /**
+   * Prints the records of the audit log in the directory specified as first argument to standard
+   * output. If a user is specified as second argument, prints only the records of that user.
+   *
+   * @param args the directory, and optionally the user
+   * @throws IOException if the log can't be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 1 || args.length > 2) {
+      System.err.println("Usage: AuditLogReader <directory> [<user>]");
+      System.exit(1);
+    }
+    Path directory = Paths.get(args[0]);
+    List<AuditRecord> records =
+        args.length == 2 ? readRecordsOf(directory, args[1]) : read(directory);
+    Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+    writeTextTo(records, writer);
+  }
+
+  /**
+   * Reads all records of the audit log in the specified directory.
+   *
+   * @param directory the directory of the log
+   * @return the records, in the order they have been written
+   * @throws IOException if the log can't be read
+   */
+  public static List<AuditRecord> read(Path directory) throws IOException {
+    Objects.requireNonNull(directory);
+
+    List<AuditRecord> records = new ArrayList<>();
+    for (Path segment : segmentsIn(directory)) {
+      readSegment(segment, records);
+    }
+    return records;
+  }
+
+  /**
+   * Reads the records of the specified user from the audit log in the specified directory.
+   *
+   * @param directory the directory of the log
+   * @param user the user
+   * @return the records of the user, in the order they have been written
+   * @throws IOException if the log can't be read
+   */
+  public static List<AuditRecord> readRecordsOf(Path directory, String user) throws IOException {
+    Objects.requireNonNull(user);
+    return read(directory)
+        .stream()
+        .filter(record -> record.getUser().equals(user))
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Writes the specified records as text, one line per record.
+   *
+   * @param records the records
+   * @param writer the writer, which is not closed afterwards
+   * @throws IOException if writing fails
+   */
+  public static void writeTextTo(List<AuditRecord> records, Writer writer) throws IOException {
+    Objects.requireNonNull(records);
+    Objects.requireNonNull(writer);
+
+    for (AuditRecord record : records) {
+      writer.write(record.toString());
+      writer.write('\n');
+    }
+    writer.flush();
+  }
+
+  private static List<Path> segmentsIn(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(file -> AuditFormat.segmentNumberOf(file).isPresent())
+          .sorted(Comparator.comparing(file -> AuditFormat.segmentNumberOf(file).get()))
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static void readSegment(Path segment, List<AuditRecord> records) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+      ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      List<String> dictionary = new ArrayList<>();
+      Optional<AuditRecord> record = AuditFormat.read(buffer, dictionary);
+      while (record.isPresent()) {
+        records.add(record.get());
+        record = AuditFormat.read(buffer, dictionary);
+      }
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package org.requirementsascode.audit;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Audit record of a step that a runner has triggered for a user.
+ *
+ * @author b_muth
+ */
+public class AuditRecord {
+  private final long timestamp;
+  private final String user;
+  private final String useCase;
+  private final String flow;
+  private final String step;
+  private final String eventClass;
+
+  /**
+   * Creates an audit record.
+   *
+   * @param timestamp the time the step has been triggered, in milliseconds since the epoch
+   * @param user the user the step has been triggered for
+   * @param useCase the name of the use case of the step
+   * @param flow the name of the flow of the step
+   * @param step the name of the step
+   * @param eventClass the name of the class of the event the step reacted to
+   */
+  public AuditRecord(
+      long timestamp, String user, String useCase, String flow, String step, String eventClass) {
+    this.timestamp = timestamp;
+    this.user = Objects.requireNonNull(user);
+    this.useCase = Objects.requireNonNull(useCase);
+    this.flow = Objects.requireNonNull(flow);
+    this.step = Objects.requireNonNull(step);
+    this.eventClass = Objects.requireNonNull(eventClass);
+  }
+
+  public long getTimestamp() {
+    return timestamp;
+  }
+
+  public String getUser() {
+    return user;
+  }
+
+  public String getUseCase() {
+    return useCase;
+  }
+
+  public String getFlow() {
+    return flow;
+  }
+
+  public String getStep() {
+    return step;
+  }
+
+  public String getEventClass() {
+    return eventClass;
+  }
+
+  /**
+   * Returns the record as a line of text: timestamp, user, use case, flow and step, and event
+   * class.
+   */
+  @Override
+  public String toString() {
+    return Instant.ofEpochMilli(timestamp)
+        + " "
+        + user
+        + " "
+        + useCase
+        + "/"
+        + flow
+        + "/"
+        + step
+        + " "
+        + eventClass;
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Audit package of requirementsascode, containing an asynchronous audit log of the steps runners
+ * trigger, written to memory-mapped files, and a tool to read it.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.audit;
@@ -0,0 +1,35 @@
+package org.requirementsascode.exception;
+
+import org.requirementsascode.Bulkhead;
+
+/**
+ * Exception that is thrown when a system reaction should run in a bulkhead,
+ * but all of the bulkhead's slots and its queue are occupied, or no slot
+ * became free within the bulkhead's maximum wait time.
+ * 
+ * <p>The runner provides this exception as an event to itself, so it can be
+ * handled in an exception flow, like any other exception thrown by a system reaction.
+ * As the rejected step has not been run, the exception flow needs to start
+ * instead of the rejected step, not after it.
+ * 
+ * @author b_muth
+ *
+ */
+public class BulkheadFull extends RuntimeException {
+	private static final long serialVersionUID = 4312370846301725587L;
+	
+	private transient Bulkhead bulkhead;
+
+	public BulkheadFull(Bulkhead bulkhead) {
+		super(exceptionMessage(bulkhead));
+		this.bulkhead = bulkhead;
+	}
+
+	private static String exceptionMessage(Bulkhead bulkhead) {
+		return "Bulkhead is full: " + bulkhead;
+	}
+	
+	public Bulkhead getBulkhead() {
+		return bulkhead;
+	}
+}
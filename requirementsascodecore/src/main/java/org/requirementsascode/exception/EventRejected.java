@@ -0,0 +1,71 @@
+package org.requirementsascode.exception;
+
+import java.util.Optional;
+
+import org.requirementsascode.Actor;
+
+/**
+ * Exception that is created when admission control rejects an event, because too many events are
+ * in flight, either in total or for a single actor.
+ * 
+ * <p>Instead of the rejected event, this exception is provided as an event to the runner,
+ * so it can be handled in an exception flow, via {@code handle(EventRejected.class)}.
+ * 
+ * <p>Events are rejected when the system is overloaded, so creating this exception is kept cheap:
+ * it has no stack trace, and its message is only built when it is asked for.
+ * 
+ * @author b_muth
+ *
+ */
+public class EventRejected extends RuntimeException {
+	private static final long serialVersionUID = -2304850470950128311L;
+	
+	private transient Object event;
+	private transient Actor actor;
+	private int limit;
+
+	public EventRejected(Object event, Actor actor, int limit) {
+		super(null, null, false, false);
+		this.event = event;
+		this.actor = actor;
+		this.limit = limit;
+	}
+
+	@Override
+	public String getMessage() {
+		return exceptionMessage(event, actor, limit);
+	}
+
+	private static String exceptionMessage(Object event, Actor actor, int limit) {
+		String inFlightEvents = actor != null ? "in flight events of " + actor : "in flight events";
+		return "Event rejected, limit of " + limit + " " + inFlightEvents + " reached: " + event;
+	}
+	
+	/**
+	 * Returns the event that has been rejected.
+	 * 
+	 * @return the rejected event
+	 */
+	public Object getEvent() {
+		return event;
+	}
+
+	/**
+	 * Returns the actor whose limit has been reached, or an empty optional 
+	 * if the total limit has been reached.
+	 * 
+	 * @return the actor, if any
+	 */
+	public Optional<Actor> getActor() {
+		return Optional.ofNullable(actor);
+	}
+
+	/**
+	 * Returns the limit of in flight events that has been reached.
+	 * 
+	 * @return the limit
+	 */
+	public int getLimit() {
+		return limit;
+	}
+}
@@ -0,0 +1,79 @@
+package org.requirementsascode.explore;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Step;
+
+/**
+ * A reachable position in which more than one step can react to events of the same class, so that
+ * the runner throws a {@link org.requirementsascode.exception.MoreThanOneStepCanReact} exception.
+ *
+ * @author b_muth
+ */
+public class Conflict {
+  private final Position position;
+  private final Class<?> eventClass;
+  private final Set<Step> steps;
+
+  Conflict(Position position, Class<?> eventClass, Set<Step> steps) {
+    this.position = Objects.requireNonNull(position);
+    this.eventClass = Objects.requireNonNull(eventClass);
+    this.steps = Collections.unmodifiableSet(steps);
+  }
+
+  /**
+   * Returns the position the runner is at.
+   *
+   * @return the position
+   */
+  public Position getPosition() {
+    return position;
+  }
+
+  /**
+   * Returns the class of the events that more than one step can react to.
+   *
+   * @return the event class
+   */
+  public Class<?> getEventClass() {
+    return eventClass;
+  }
+
+  /**
+   * Returns the steps that can react.
+   *
+   * @return the steps
+   */
+  public Set<Step> getSteps() {
+    return steps;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Conflict)) {
+      return false;
+    }
+    Conflict other = (Conflict) obj;
+    return position.equals(other.position)
+        && eventClass.equals(other.eventClass)
+        && steps.equals(other.steps);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(position, eventClass, steps);
+  }
+
+  @Override
+  public String toString() {
+    String stepNames =
+        steps.stream().map(Position::nameOf).sorted().collect(Collectors.joining(", "));
+    return position + ": " + eventClass.getSimpleName() + " -> " + stepNames;
+  }
+}
@@ -0,0 +1,88 @@
+package org.requirementsascode.explore;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+
+/**
+ * A test case generated by a {@link CoverageGenerator}: a runner runs as the actor, and receives
+ * events of the event classes one after the other. The run steps are the steps a {@link
+ * org.requirementsascode.TestUseCaseModelRunner} actually ran when the generator verified the case.
+ *
+ * @author b_muth
+ */
+public class CoverageCase {
+  private final Actor actor;
+  private final List<Class<?>> eventClasses;
+  private final List<Step> runSteps;
+  private final Set<CoverageGoal> coveredGoals;
+
+  CoverageCase(
+      Actor actor,
+      List<Class<?>> eventClasses,
+      List<Step> runSteps,
+      Set<CoverageGoal> coveredGoals) {
+    this.actor = Objects.requireNonNull(actor);
+    this.eventClasses = Collections.unmodifiableList(eventClasses);
+    this.runSteps = Collections.unmodifiableList(runSteps);
+    this.coveredGoals = Collections.unmodifiableSet(coveredGoals);
+  }
+
+  /**
+   * Returns the actor the runner runs as.
+   *
+   * @return the actor
+   */
+  public Actor getActor() {
+    return actor;
+  }
+
+  /**
+   * Returns the classes of the events the runner receives, in order.
+   *
+   * @return the event classes
+   */
+  public List<Class<?>> getEventClasses() {
+    return eventClasses;
+  }
+
+  /**
+   * Returns the steps the runner ran, including autonomous system steps, in order.
+   *
+   * @return the run steps
+   */
+  public List<Step> getRunSteps() {
+    return runSteps;
+  }
+
+  /**
+   * Returns the names of the run steps, in the same format as {@link
+   * org.requirementsascode.TestUseCaseModelRunner#getRunStepNames()}.
+   *
+   * @return the step names, each followed by a semicolon
+   */
+  public String getRunStepNames() {
+    return runSteps.stream().map(step -> step.getName() + ";").collect(Collectors.joining());
+  }
+
+  /**
+   * Returns the goals that this case covers.
+   *
+   * @return the covered goals
+   */
+  public Set<CoverageGoal> getCoveredGoals() {
+    return coveredGoals;
+  }
+
+  @Override
+  public String toString() {
+    String eventClassNames =
+        eventClasses.stream().map(Class::getSimpleName).collect(Collectors.joining(", "));
+    return actor + ": " + eventClassNames + " -> " + getRunStepNames();
+  }
+}
@@ -0,0 +1,376 @@
+package org.requirementsascode.explore;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+import org.requirementsascode.StepTrace;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.explore.CoverageGoal.Kind;
+import org.requirementsascode.explore.StateSpaceExplorer.UserPredicates;
+import org.requirementsascode.systemreaction.AbstractContinue;
+
+/**
+ * Generates test cases that cover a use case model: each step that can be reached, each way of
+ * entering a flow after or instead of a step, or when a condition is true, and each step that runs
+ * next after a step has continued at or after another step.
+ *
+ * <p>The generator first explores the model with a {@link StateSpaceExplorer}, and derives the
+ * coverage goals from the transitions it finds. For each goal not covered yet, it plans the
+ * shortest sequence of events that leads to it. Then it runs all planned cases in parallel, each
+ * in a {@link TestUseCaseModelRunner} of its own, and records the steps the runners actually run.
+ * Only the goals that the runners actually cover count as covered. So the system reactions of the
+ * model must be thread safe, or the generator must be given a pool with parallelism 1.
+ *
+ * <p>By default, the explorer samples the conditions of the model, see {@link
+ * UserPredicates#SAMPLED}, and the generator creates events by calling the no argument constructor
+ * of their class. If running an event throws an exception, the case ends before that event.
+ *
+ * @author b_muth
+ */
+public class CoverageGenerator {
+  private static final Comparator<CoverageGoal> GOAL_ORDER =
+      Comparator.comparing(CoverageGoal::getKind).thenComparing(CoverageGoal::toString);
+
+  private final UseCaseModel useCaseModel;
+  private UserPredicates userPredicates;
+  private Function<Class<?>, ?> eventFactory;
+  private ForkJoinPool forkJoinPool;
+
+  /**
+   * Creates a generator for the specified model.
+   *
+   * @param useCaseModel the model to cover
+   */
+  public CoverageGenerator(UseCaseModel useCaseModel) {
+    this.useCaseModel = Objects.requireNonNull(useCaseModel);
+    this.userPredicates = UserPredicates.SAMPLED;
+    this.eventFactory = CoverageGenerator::newInstanceOf;
+    this.forkJoinPool = ForkJoinPool.commonPool();
+  }
+
+  private static Object newInstanceOf(Class<?> eventClass) {
+    try {
+      Constructor<?> constructor = eventClass.getDeclaredConstructor();
+      constructor.setAccessible(true);
+      return constructor.newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException(
+          "Cannot create event of " + eventClass + ", specify an event factory instead", e);
+    }
+  }
+
+  /**
+   * Sets how the explorer evaluates conditions of flows, and of steps that react while.
+   *
+   * @param userPredicates how to evaluate the conditions
+   * @return this generator
+   */
+  public CoverageGenerator userPredicates(UserPredicates userPredicates) {
+    this.userPredicates = Objects.requireNonNull(userPredicates);
+    return this;
+  }
+
+  /**
+   * Sets the factory that creates the events the cases are run with.
+   *
+   * @param eventFactory creates an event of the specified class
+   * @return this generator
+   */
+  public CoverageGenerator eventFactory(Function<Class<?>, ?> eventFactory) {
+    this.eventFactory = Objects.requireNonNull(eventFactory);
+    return this;
+  }
+
+  /**
+   * Sets the pool the model is explored in, and the cases are run in.
+   *
+   * @param forkJoinPool the pool
+   * @return this generator
+   */
+  public CoverageGenerator forkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
+    return this;
+  }
+
+  /**
+   * Explores the model, plans cases that cover it, and runs them to verify what they cover.
+   *
+   * @return the verified cases, and the goals they cover
+   */
+  public CoverageResult generate() {
+    ExplorationResult exploration =
+        new StateSpaceExplorer(useCaseModel)
+            .userPredicates(userPredicates)
+            .forkJoinPool(forkJoinPool)
+            .explore();
+
+    Set<CoverageGoal> goals = goalsOf(exploration.getTransitions());
+    List<PlannedCase> plannedCases = planCases(exploration, goals);
+    List<CoverageCase> cases = runInParallel(plannedCases);
+
+    Set<CoverageGoal> coveredGoals = new HashSet<>();
+    cases.forEach(coverageCase -> coveredGoals.addAll(coverageCase.getCoveredGoals()));
+    return new CoverageResult(cases, goals, coveredGoals, exploration.getUnreachableSteps());
+  }
+
+  private Set<CoverageGoal> goalsOf(Set<Transition> transitions) {
+    Map<Position, List<Transition>> transitionsFrom = transitionsBySource(transitions);
+    Set<CoverageGoal> goals = new HashSet<>();
+    for (Transition transition : transitions) {
+      Step step = transition.getStep();
+      goals.add(new CoverageGoal(Kind.STEP, Optional.empty(), step));
+      if (StateSpaceExplorer.startsFlowWithPredicate(step)) {
+        Optional<Step> latestStep = transition.getSource().getLatestStep();
+        goals.add(new CoverageGoal(Kind.FLOW_ENTRY, latestStep, step));
+      }
+      if (continuesElsewhere(step)) {
+        for (Transition nextTransition : transitionsFrom(transitionsFrom, transition.getTarget())) {
+          goals.add(new CoverageGoal(Kind.CONTINUE, Optional.of(step), nextTransition.getStep()));
+        }
+      }
+    }
+    return goals;
+  }
+
+  private static boolean continuesElsewhere(Step step) {
+    return step.getSystemReaction() instanceof AbstractContinue;
+  }
+
+  private Map<Position, List<Transition>> transitionsBySource(Set<Transition> transitions) {
+    return transitions
+        .stream()
+        .sorted(Comparator.comparing(Transition::toString))
+        .collect(Collectors.groupingBy(Transition::getSource));
+  }
+
+  private List<Transition> transitionsFrom(
+      Map<Position, List<Transition>> transitionsFrom, Position position) {
+    return transitionsFrom.getOrDefault(position, Collections.emptyList());
+  }
+
+  /**
+   * Plans a case for each goal that the cases planned before don't cover yet. The case leads to
+   * the goal on the shortest path from the start, found by breadth first search.
+   */
+  private List<PlannedCase> planCases(ExplorationResult exploration, Set<CoverageGoal> goals) {
+    Map<Position, List<Transition>> transitionsFrom =
+        transitionsBySource(exploration.getTransitions());
+    Map<Position, Transition> pathPredecessors = new HashMap<>();
+    List<Position> positionsByDistance = new ArrayList<>();
+    Queue<Position> positionsToVisit = new ArrayDeque<>();
+    exploration
+        .getReachablePositions()
+        .stream()
+        .filter(position -> !position.getLatestStep().isPresent())
+        .filter(position -> !position.getStepWithoutAlternative().isPresent())
+        .sorted(Comparator.comparing(Position::toString))
+        .forEach(positionsToVisit::add);
+    Set<Position> visitedPositions = new HashSet<>(positionsToVisit);
+    while (!positionsToVisit.isEmpty()) {
+      Position position = positionsToVisit.remove();
+      positionsByDistance.add(position);
+      for (Transition transition : transitionsFrom(transitionsFrom, position)) {
+        if (visitedPositions.add(transition.getTarget())) {
+          pathPredecessors.put(transition.getTarget(), transition);
+          positionsToVisit.add(transition.getTarget());
+        }
+      }
+    }
+
+    List<CoverageGoal> sortedGoals = goals.stream().sorted(GOAL_ORDER).collect(Collectors.toList());
+    Set<CoverageGoal> plannedGoals = new HashSet<>();
+    List<PlannedCase> plannedCases = new ArrayList<>();
+    for (CoverageGoal goal : sortedGoals) {
+      if (plannedGoals.contains(goal)) {
+        continue;
+      }
+      Optional<List<Transition>> path =
+          shortestPathTo(goal, positionsByDistance, transitionsFrom, pathPredecessors);
+      if (path.isPresent()) {
+        PlannedCase plannedCase = new PlannedCase(path.get());
+        plannedGoals.addAll(goalsCoveredBy(plannedCase.actor, plannedCase.steps));
+        plannedCases.add(plannedCase);
+      }
+    }
+    return plannedCases;
+  }
+
+  private Optional<List<Transition>> shortestPathTo(
+      CoverageGoal goal,
+      List<Position> positionsByDistance,
+      Map<Position, List<Transition>> transitionsFrom,
+      Map<Position, Transition> pathPredecessors) {
+    for (Position position : positionsByDistance) {
+      for (Transition transition : transitionsFrom(transitionsFrom, position)) {
+        List<Transition> goalTransitions = goalTransitionsOf(goal, transition, transitionsFrom);
+        if (!goalTransitions.isEmpty()) {
+          List<Transition> path = pathTo(position, pathPredecessors);
+          path.addAll(goalTransitions);
+          return Optional.of(path);
+        }
+      }
+    }
+    return Optional.empty();
+  }
+
+  private List<Transition> goalTransitionsOf(
+      CoverageGoal goal, Transition transition, Map<Position, List<Transition>> transitionsFrom) {
+    Step step = transition.getStep();
+    switch (goal.getKind()) {
+      case CONTINUE:
+        if (goal.getPreviousStep().get().equals(step)) {
+          Position target = transition.getTarget();
+          for (Transition nextTransition : transitionsFrom(transitionsFrom, target)) {
+            if (goal.getStep().equals(nextTransition.getStep())) {
+              List<Transition> goalTransitions = new ArrayList<>();
+              goalTransitions.add(transition);
+              goalTransitions.add(nextTransition);
+              return goalTransitions;
+            }
+          }
+        }
+        break;
+      case FLOW_ENTRY:
+        if (goal.getStep().equals(step)
+            && goal.getPreviousStep().equals(transition.getSource().getLatestStep())) {
+          return new ArrayList<>(Collections.singletonList(transition));
+        }
+        break;
+      default:
+        if (goal.getStep().equals(step)) {
+          return new ArrayList<>(Collections.singletonList(transition));
+        }
+    }
+    return Collections.emptyList();
+  }
+
+  private List<Transition> pathTo(Position position, Map<Position, Transition> pathPredecessors) {
+    List<Transition> path = new ArrayList<>();
+    Transition predecessor = pathPredecessors.get(position);
+    while (predecessor != null) {
+      path.add(0, predecessor);
+      predecessor = pathPredecessors.get(predecessor.getSource());
+    }
+    return path;
+  }
+
+  /**
+   * Returns the goals that running the specified steps one after the other covers, starting with
+   * a runner that has just been started.
+   */
+  private static Set<CoverageGoal> goalsCoveredBy(Actor actor, List<Step> steps) {
+    Set<CoverageGoal> goals = new HashSet<>();
+    Optional<Step> latestStep = Optional.empty();
+    Optional<Step> previousStep = Optional.empty();
+    for (Step step : steps) {
+      goals.add(new CoverageGoal(Kind.STEP, Optional.empty(), step));
+      if (StateSpaceExplorer.startsFlowWithPredicate(step)) {
+        goals.add(new CoverageGoal(Kind.FLOW_ENTRY, latestStep, step));
+      }
+      if (previousStep.isPresent() && continuesElsewhere(previousStep.get())) {
+        goals.add(new CoverageGoal(Kind.CONTINUE, previousStep, step));
+      }
+      latestStep = StateSpaceExplorer.positionAfter(actor, step).getLatestStep();
+      previousStep = Optional.of(step);
+    }
+    return goals;
+  }
+
+  private List<CoverageCase> runInParallel(List<PlannedCase> plannedCases) {
+    List<RunCase> runCases =
+        plannedCases.stream().map(RunCase::new).collect(Collectors.toList());
+    forkJoinPool.invoke(new RunCases(runCases));
+    return runCases.stream().map(ForkJoinTask::join).collect(Collectors.toList());
+  }
+
+  private CoverageCase run(PlannedCase plannedCase) {
+    List<Object> events =
+        plannedCase.eventClasses.stream().map(eventFactory).collect(Collectors.toList());
+    TestUseCaseModelRunner runner = new TestUseCaseModelRunner();
+    StepTrace stepTrace = runner.getStepTrace().get();
+    List<Class<?>> eventClasses = new ArrayList<>();
+    int stepsBeforeFailure = 0;
+    try {
+      runner.as(plannedCase.actor).run(useCaseModel);
+      for (int eventIndex = 0; eventIndex < events.size(); eventIndex++) {
+        stepsBeforeFailure = stepTrace.size();
+        runner.reactTo(events.get(eventIndex));
+        eventClasses.add(plannedCase.eventClasses.get(eventIndex));
+      }
+    } catch (RuntimeException e) {
+      List<Step> runSteps = new ArrayList<>(stepTrace.getSteps().subList(0, stepsBeforeFailure));
+      return coverageCase(plannedCase.actor, eventClasses, runSteps);
+    }
+    return coverageCase(plannedCase.actor, eventClasses, stepTrace.getSteps());
+  }
+
+  private CoverageCase coverageCase(Actor actor, List<Class<?>> eventClasses, List<Step> runSteps) {
+    return new CoverageCase(actor, eventClasses, runSteps, goalsCoveredBy(actor, runSteps));
+  }
+
+  private static class PlannedCase {
+    private final Actor actor;
+    private final List<Step> steps;
+    private final List<Class<?>> eventClasses;
+
+    private PlannedCase(List<Transition> path) {
+      this.actor = path.get(0).getSource().getActor();
+      this.steps = path.stream().map(Transition::getStep).collect(Collectors.toList());
+      this.eventClasses =
+          path.stream()
+              .filter(transition -> !transition.isAutonomous())
+              .map(Transition::getEventClass)
+              .collect(Collectors.toList());
+    }
+  }
+
+  private class RunCase extends RecursiveTask<CoverageCase> {
+    private static final long serialVersionUID = 1L;
+
+    private final PlannedCase plannedCase;
+
+    private RunCase(PlannedCase plannedCase) {
+      this.plannedCase = plannedCase;
+    }
+
+    @Override
+    protected CoverageCase compute() {
+      return run(plannedCase);
+    }
+  }
+
+  private static class RunCases extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<RunCase> runCases;
+
+    private RunCases(List<RunCase> runCases) {
+      this.runCases = runCases;
+    }
+
+    @Override
+    protected void compute() {
+      invokeAll(runCases);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+package org.requirementsascode.explore;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.requirementsascode.Step;
+
+/**
+ * Something a {@link CoverageGenerator} aims to cover with its cases: a step that runs, a flow that
+ * is entered after or instead of a step, or a step that runs next after a step has continued
+ * somewhere else.
+ *
+ * @author b_muth
+ */
+public class CoverageGoal {
+  /** The kind of a coverage goal. */
+  public enum Kind {
+    /** A step continues at or after another step, and then the step runs. */
+    CONTINUE,
+    /** After the previous step, or at the start, a flow is entered with its first step. */
+    FLOW_ENTRY,
+    /** The step runs, no matter what step ran before. */
+    STEP
+  }
+
+  private final Kind kind;
+  private final Optional<Step> previousStep;
+  private final Step step;
+
+  CoverageGoal(Kind kind, Optional<Step> previousStep, Step step) {
+    this.kind = Objects.requireNonNull(kind);
+    this.previousStep = Objects.requireNonNull(previousStep);
+    this.step = Objects.requireNonNull(step);
+  }
+
+  /**
+   * Returns the kind of this goal.
+   *
+   * @return the kind
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the step before: the step that continues somewhere else, or the latest step before a
+   * flow is entered.
+   *
+   * @return the previous step, or else an empty optional for step goals, and for flows entered at
+   *     the start
+   */
+  public Optional<Step> getPreviousStep() {
+    return previousStep;
+  }
+
+  /**
+   * Returns the step that runs.
+   *
+   * @return the step
+   */
+  public Step getStep() {
+    return step;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CoverageGoal)) {
+      return false;
+    }
+    CoverageGoal other = (CoverageGoal) obj;
+    return kind.equals(other.kind)
+        && previousStep.equals(other.previousStep)
+        && step.equals(other.step);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kind, previousStep, step);
+  }
+
+  @Override
+  public String toString() {
+    String stepName = Position.nameOf(step);
+    switch (kind) {
+      case CONTINUE:
+        return "continue " + Position.nameOf(previousStep.get()) + " -> " + stepName;
+      case FLOW_ENTRY:
+        return "enter "
+            + step.getFlow()
+            + previousStep.map(before -> " after " + Position.nameOf(before)).orElse(" at start")
+            + " -> "
+            + stepName;
+      default:
+        return "step " + stepName;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+package org.requirementsascode.explore;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+
+/**
+ * The result of a {@link CoverageGenerator}: the verified cases, and the goals they cover. A goal
+ * stays uncovered if the runner behaved differently than the explored model predicted, e.g. because
+ * a condition depends on the state of the application.
+ *
+ * <p>The cases can be written as the source code of an abstract JUnit test class. A concrete
+ * subclass provides the model and creates the events, e.g. with the realization of the use cases
+ * and mocked dependencies.
+ *
+ * @author b_muth
+ */
+public class CoverageResult {
+  private final List<CoverageCase> cases;
+  private final Set<CoverageGoal> goals;
+  private final Set<CoverageGoal> uncoveredGoals;
+  private final List<Step> unreachableSteps;
+
+  CoverageResult(
+      List<CoverageCase> cases,
+      Set<CoverageGoal> goals,
+      Set<CoverageGoal> coveredGoals,
+      List<Step> unreachableSteps) {
+    this.cases = Collections.unmodifiableList(cases);
+    this.goals = Collections.unmodifiableSet(goals);
+    this.uncoveredGoals =
+        Collections.unmodifiableSet(
+            goals
+                .stream()
+                .filter(goal -> !coveredGoals.contains(goal))
+                .collect(Collectors.toSet()));
+    this.unreachableSteps = Collections.unmodifiableList(unreachableSteps);
+  }
+
+  /**
+   * Returns the verified cases.
+   *
+   * @return the cases
+   */
+  public List<CoverageCase> getCases() {
+    return cases;
+  }
+
+  /**
+   * Returns the goals derived from the explored model.
+   *
+   * @return all goals
+   */
+  public Set<CoverageGoal> getGoals() {
+    return goals;
+  }
+
+  /**
+   * Returns the goals that no verified case covers.
+   *
+   * @return the uncovered goals
+   */
+  public Set<CoverageGoal> getUncoveredGoals() {
+    return uncoveredGoals;
+  }
+
+  /**
+   * Returns the steps that the explorer found no way to reach, so there are no goals for them.
+   *
+   * @return the unreachable steps
+   */
+  public List<Step> getUnreachableSteps() {
+    return unreachableSteps;
+  }
+
+  /**
+   * Writes the cases as an abstract JUnit test class, with one test method per case. The test
+   * class has two abstract methods: <code>newUseCaseModel()</code>, called before each test, and
+   * <code>newEvent(Class&lt;?&gt; eventClass)</code>. The event classes must be accessible from the
+   * test class' package. Local and anonymous event classes, which can't be referred to in source
+   * code, are loaded by their binary name via <code>Class.forName()</code>, so the test methods
+   * that use them declare <code>throws Exception</code>.
+   *
+   * @param packageName the package of the test class, or an empty string for the default package
+   * @param className the simple name of the test class
+   * @param writer the writer, which is not closed afterwards
+   * @throws IOException if writing fails
+   */
+  public void writeJUnitTestTo(String packageName, String className, Writer writer)
+      throws IOException {
+    Objects.requireNonNull(packageName);
+    Objects.requireNonNull(className);
+    Objects.requireNonNull(writer);
+
+    if (!packageName.isEmpty()) {
+      writer.write("package " + packageName + ";\n\n");
+    }
+    writer.write("import static org.junit.Assert.assertEquals;\n\n");
+    writer.write("import org.junit.Before;\n");
+    writer.write("import org.junit.Test;\n");
+    writer.write("import org.requirementsascode.TestUseCaseModelRunner;\n");
+    writer.write("import org.requirementsascode.UseCaseModel;\n\n");
+    writer.write("public abstract class " + className + " {\n");
+    writer.write("\tprivate UseCaseModel useCaseModel;\n");
+    writer.write("\tprivate TestUseCaseModelRunner useCaseModelRunner;\n\n");
+    writer.write("\tprotected abstract UseCaseModel newUseCaseModel();\n\n");
+    writer.write("\tprotected abstract Object newEvent(Class<?> eventClass);\n\n");
+    writer.write("\t@Before\n");
+    writer.write("\tpublic void setup() {\n");
+    writer.write("\t\tuseCaseModel = newUseCaseModel();\n");
+    writer.write("\t\tuseCaseModelRunner = new TestUseCaseModelRunner();\n");
+    writer.write("\t}\n");
+    for (int caseIndex = 0; caseIndex < cases.size(); caseIndex++) {
+      writeTestMethodTo(writer, caseIndex + 1, cases.get(caseIndex));
+    }
+    writer.write("}\n");
+    writer.flush();
+  }
+
+  private void writeTestMethodTo(Writer writer, int caseNumber, CoverageCase coverageCase)
+      throws IOException {
+    writer.write("\n\t@Test\n");
+    boolean loadsEventClass =
+        coverageCase
+            .getEventClasses()
+            .stream()
+            .anyMatch(eventClass -> eventClass.getCanonicalName() == null);
+    writer.write(
+        "\tpublic void coversCase"
+            + caseNumber
+            + (loadsEventClass ? "() throws Exception {\n" : "() {\n"));
+    Actor actor = coverageCase.getActor();
+    if (actor.equals(actor.getUseCaseModel().getUserActor())) {
+      writer.write("\t\tuseCaseModelRunner.run(useCaseModel);\n");
+    } else {
+      writer.write(
+          "\t\tuseCaseModelRunner.as(useCaseModel.findActor("
+              + quoted(actor.getName())
+              + ")).run(useCaseModel);\n");
+    }
+    for (Class<?> eventClass : coverageCase.getEventClasses()) {
+      writer.write(
+          "\t\tuseCaseModelRunner.reactTo(newEvent(" + classExpressionOf(eventClass) + "));\n");
+    }
+    writer.write(
+        "\t\tassertEquals("
+            + quoted(coverageCase.getRunStepNames())
+            + ", useCaseModelRunner.getRunStepNames());\n");
+    writer.write("\t}\n");
+  }
+
+  private static String classExpressionOf(Class<?> eventClass) {
+    // Local and anonymous classes have no canonical name
+    String canonicalName = eventClass.getCanonicalName();
+    return canonicalName != null
+        ? canonicalName + ".class"
+        : "Class.forName(" + quoted(eventClass.getName()) + ")";
+  }
+
+  private static String quoted(String text) {
+    StringBuilder quoted = new StringBuilder("\"");
+    for (char character : text.toCharArray()) {
+      if (character == '"' || character == '\\') {
+        quoted.append('\\').append(character);
+      } else if (character < ' ') {
+        quoted.append(String.format("\\%03o", (int) character));
+      } else {
+        quoted.append(character);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append("cases: ").append(cases.size());
+    text.append(", goals: ").append(goals.size());
+    text.append(", uncovered: ").append(uncoveredGoals.size()).append('\n');
+    text.append("uncovered goals:\n");
+    uncoveredGoals
+        .stream()
+        .map(CoverageGoal::toString)
+        .sorted()
+        .forEach(goal -> text.append("  ").append(goal).append('\n'));
+    text.append("unreachable steps:\n");
+    unreachableSteps.forEach(step -> text.append("  ").append(Position.nameOf(step)).append('\n'));
+    return text.toString();
+  }
+}
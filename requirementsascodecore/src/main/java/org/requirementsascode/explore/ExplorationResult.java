@@ -0,0 +1,115 @@
+package org.requirementsascode.explore;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Step;
+
+/**
+ * The result of exploring the state space of a use case model with a {@link StateSpaceExplorer}.
+ *
+ * <p>The unreachable steps are the steps that no reachable transition runs. The dead ends are
+ * reachable positions in which no step can react to any event, e.g. after the last step of a use
+ * case that does not continue anywhere.
+ *
+ * @author b_muth
+ */
+public class ExplorationResult {
+  private static final Comparator<Step> BY_NAME = Comparator.comparing(Position::nameOf);
+
+  private final Set<Position> reachablePositions;
+  private final Set<Transition> transitions;
+  private final List<Step> unreachableSteps;
+  private final Set<Position> deadEnds;
+  private final Set<Conflict> conflicts;
+
+  ExplorationResult(
+      Set<Position> reachablePositions,
+      Set<Transition> transitions,
+      Collection<Step> steps,
+      Set<Position> deadEnds,
+      Set<Conflict> conflicts) {
+    this.reachablePositions = Collections.unmodifiableSet(reachablePositions);
+    this.transitions = Collections.unmodifiableSet(transitions);
+    this.unreachableSteps = Collections.unmodifiableList(unreachableSteps(steps, transitions));
+    this.deadEnds = Collections.unmodifiableSet(deadEnds);
+    this.conflicts = Collections.unmodifiableSet(conflicts);
+  }
+
+  private static List<Step> unreachableSteps(Collection<Step> steps, Set<Transition> transitions) {
+    Set<Step> reachableSteps =
+        transitions.stream().map(Transition::getStep).collect(Collectors.toSet());
+    return steps
+        .stream()
+        .filter(step -> !reachableSteps.contains(step))
+        .sorted(BY_NAME)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Returns the positions the runner can reach.
+   *
+   * @return the reachable positions
+   */
+  public Set<Position> getReachablePositions() {
+    return reachablePositions;
+  }
+
+  /**
+   * Returns the transitions between reachable positions.
+   *
+   * @return the transitions
+   */
+  public Set<Transition> getTransitions() {
+    return transitions;
+  }
+
+  /**
+   * Returns the steps that the runner never runs, sorted by use case and step name.
+   *
+   * @return the unreachable steps
+   */
+  public List<Step> getUnreachableSteps() {
+    return unreachableSteps;
+  }
+
+  /**
+   * Returns the reachable positions in which no step can react to any event.
+   *
+   * @return the dead ends
+   */
+  public Set<Position> getDeadEnds() {
+    return deadEnds;
+  }
+
+  /**
+   * Returns the reachable positions in which more than one step can react to the same event.
+   *
+   * @return the conflicts
+   */
+  public Set<Conflict> getConflicts() {
+    return conflicts;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder();
+    text.append("reachable positions: ").append(reachablePositions.size());
+    text.append(", transitions: ").append(transitions.size()).append('\n');
+    text.append("unreachable steps:\n");
+    unreachableSteps.forEach(step -> text.append("  ").append(Position.nameOf(step)).append('\n'));
+    text.append("dead ends:\n");
+    sortedLines(deadEnds).forEach(line -> text.append("  ").append(line).append('\n'));
+    text.append("conflicts:\n");
+    sortedLines(conflicts).forEach(line -> text.append("  ").append(line).append('\n'));
+    return text.toString();
+  }
+
+  private List<String> sortedLines(Set<?> elements) {
+    return elements.stream().map(Object::toString).sorted().collect(Collectors.toList());
+  }
+}
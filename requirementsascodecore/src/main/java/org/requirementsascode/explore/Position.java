@@ -0,0 +1,86 @@
+package org.requirementsascode.explore;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+
+/**
+ * A position of a runner, as far as it determines which steps can react next: the actor the runner
+ * runs as, the latest step that has been run, and the name of the step the runner continues at
+ * without alternative, if the latest step's system reaction has been {@link
+ * org.requirementsascode.systemreaction.ContinueWithoutAlternativeAt}.
+ *
+ * @author b_muth
+ */
+public class Position {
+  private final Actor actor;
+  private final Optional<Step> latestStep;
+  private final Optional<String> stepWithoutAlternative;
+
+  Position(Actor actor, Optional<Step> latestStep, Optional<String> stepWithoutAlternative) {
+    this.actor = Objects.requireNonNull(actor);
+    this.latestStep = Objects.requireNonNull(latestStep);
+    this.stepWithoutAlternative = Objects.requireNonNull(stepWithoutAlternative);
+  }
+
+  /**
+   * Returns the actor the runner runs as.
+   *
+   * @return the actor
+   */
+  public Actor getActor() {
+    return actor;
+  }
+
+  /**
+   * Returns the latest step that has been run.
+   *
+   * @return the latest step, or else an empty optional at the start
+   */
+  public Optional<Step> getLatestStep() {
+    return latestStep;
+  }
+
+  /**
+   * Returns the name of the only step that can react next, if the runner continues at it without
+   * alternative.
+   *
+   * @return the step name, or else an empty optional
+   */
+  public Optional<String> getStepWithoutAlternative() {
+    return stepWithoutAlternative;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Position)) {
+      return false;
+    }
+    Position other = (Position) obj;
+    return actor.equals(other.actor)
+        && latestStep.equals(other.latestStep)
+        && stepWithoutAlternative.equals(other.stepWithoutAlternative);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(actor, latestStep, stepWithoutAlternative);
+  }
+
+  @Override
+  public String toString() {
+    return actor
+        + " "
+        + latestStep.map(step -> "after " + nameOf(step)).orElse("at start")
+        + stepWithoutAlternative.map(stepName -> ", only " + stepName).orElse("");
+  }
+
+  static String nameOf(Step step) {
+    return step.getUseCase() + "/" + step;
+  }
+}
@@ -0,0 +1,418 @@
+package org.requirementsascode.explore;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.predicate.ReactWhile;
+import org.requirementsascode.systemreaction.AbstractContinue;
+import org.requirementsascode.systemreaction.ContinueAfter;
+import org.requirementsascode.systemreaction.ContinueWithoutAlternativeAt;
+
+/**
+ * Explores the state space of a use case model: starting from the start of the runner, for each
+ * actor, it finds all positions the runner can reach, by sending it events of each user event class
+ * of the model. In contrast to running events through a runner, the explorer covers all paths, and
+ * doesn't depend on the realization of the system reactions.
+ *
+ * <p>The explorer evaluates the step predicates the model builder creates in the same way the
+ * runner does: steps react after their previous step in the flow, unless another step could
+ * react; flows start after or instead of a step, when a condition is true; steps react while a
+ * condition is true. The explorer considers the {@link
+ * org.requirementsascode.systemreaction.ContinueAt}, {@link ContinueAfter} and {@link
+ * ContinueWithoutAlternativeAt} system reactions. It treats all other system reactions as if they
+ * did not change the runner's position.
+ *
+ * <p>The conditions of {@link org.requirementsascode.FlowPart#when(Predicate)} and of react while
+ * depend on the state of the application, which the explorer doesn't know. By default, the explorer
+ * treats them as {@link UserPredicates#NONDETERMINISTIC}: each condition can be true or false. The
+ * result then contains everything that could happen, for any state of the application. Use {@link
+ * UserPredicates#SAMPLED} instead to evaluate the conditions once per position, on a runner that is
+ * at that position.
+ *
+ * <p>The explorer explores positions in parallel, as fork join tasks, and remembers the positions
+ * it has already visited in a concurrent set. Exploring the same model again returns the same
+ * result, whatever the number of threads.
+ *
+ * @author b_muth
+ */
+public class StateSpaceExplorer {
+  private static final int MAX_ASSIGNMENTS_PER_POSITION = 4096;
+
+  /** How the explorer evaluates conditions of flows, and of steps that react while. */
+  public enum UserPredicates {
+    /** Each condition can be true or false, independently of each other. */
+    NONDETERMINISTIC,
+    /** Each condition is tested on a runner that is at the explored position, but not running. */
+    SAMPLED
+  }
+
+  private final UseCaseModel useCaseModel;
+  private final Set<Class<?>> eventClasses;
+  private UserPredicates userPredicates;
+  private ForkJoinPool forkJoinPool;
+
+  /**
+   * Creates an explorer for the specified model, that treats conditions as nondeterministic and
+   * explores positions in the common fork join pool.
+   *
+   * @param useCaseModel the model to explore
+   */
+  public StateSpaceExplorer(UseCaseModel useCaseModel) {
+    this.useCaseModel = Objects.requireNonNull(useCaseModel);
+    this.eventClasses = userEventClassesOf(useCaseModel);
+    this.userPredicates = UserPredicates.NONDETERMINISTIC;
+    this.forkJoinPool = ForkJoinPool.commonPool();
+  }
+
+  private static Set<Class<?>> userEventClassesOf(UseCaseModel useCaseModel) {
+    return useCaseModel
+        .getSteps()
+        .stream()
+        .map(Step::getUserEventClass)
+        .filter(eventClass -> !UseCaseModelRunner.class.equals(eventClass))
+        .sorted((class1, class2) -> class1.getName().compareTo(class2.getName()))
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+  }
+
+  /**
+   * Sets how the explorer evaluates conditions of flows, and of steps that react while.
+   *
+   * @param userPredicates how to evaluate the conditions
+   * @return this explorer
+   */
+  public StateSpaceExplorer userPredicates(UserPredicates userPredicates) {
+    this.userPredicates = Objects.requireNonNull(userPredicates);
+    return this;
+  }
+
+  /**
+   * Adds event classes the explorer sends to the runner, beside the user event classes of the
+   * steps, e.g. subclasses of them.
+   *
+   * @param eventClasses the additional event classes
+   * @return this explorer
+   */
+  public StateSpaceExplorer eventClasses(Class<?>... eventClasses) {
+    this.eventClasses.addAll(Arrays.asList(eventClasses));
+    return this;
+  }
+
+  /**
+   * Sets the pool the explorer runs its tasks in.
+   *
+   * @param forkJoinPool the pool, e.g. a pool with parallelism 1 to explore on a single thread
+   * @return this explorer
+   */
+  public StateSpaceExplorer forkJoinPool(ForkJoinPool forkJoinPool) {
+    this.forkJoinPool = Objects.requireNonNull(forkJoinPool);
+    return this;
+  }
+
+  /**
+   * Explores the positions the runner can reach, for each actor of the model except the system
+   * actor.
+   *
+   * @return the result of the exploration
+   * @throws IllegalStateException if more than 4096 combinations of conditions need to be
+   *     evaluated in a single position
+   */
+  public ExplorationResult explore() {
+    Actor systemActor = useCaseModel.getSystemActor();
+    List<Position> startPositions = new ArrayList<>();
+    for (Actor actor : useCaseModel.getActors()) {
+      if (!actor.equals(systemActor)) {
+        startPositions.add(new Position(actor, Optional.empty(), Optional.empty()));
+      }
+    }
+
+    Exploration exploration = new Exploration();
+    exploration.visitedPositions.addAll(startPositions);
+    forkJoinPool.invoke(exploration.new ExplorePositions(null, startPositions));
+
+    return new ExplorationResult(
+        exploration.visitedPositions,
+        exploration.transitions,
+        useCaseModel.getSteps(),
+        exploration.deadEnds,
+        exploration.conflicts);
+  }
+
+  private class Exploration {
+    private final Set<Position> visitedPositions = ConcurrentHashMap.newKeySet();
+    private final Set<Transition> transitions = ConcurrentHashMap.newKeySet();
+    private final Set<Position> deadEnds = ConcurrentHashMap.newKeySet();
+    private final Set<Conflict> conflicts = ConcurrentHashMap.newKeySet();
+
+    private class ExplorePositions extends CountedCompleter<Void> {
+      private static final long serialVersionUID = 1L;
+
+      private final List<Position> positions;
+
+      ExplorePositions(CountedCompleter<?> completer, List<Position> positions) {
+        super(completer);
+        this.positions = positions;
+      }
+
+      @Override
+      public void compute() {
+        for (Position position : positions) {
+          PositionEvaluation evaluation = evaluateAllAssignmentsAt(position);
+          transitions.addAll(evaluation.transitions);
+          conflicts.addAll(evaluation.conflicts);
+          if (evaluation.transitions.isEmpty() && evaluation.conflicts.isEmpty()) {
+            deadEnds.add(position);
+          }
+          for (Transition transition : evaluation.transitions) {
+            Position target = transition.getTarget();
+            if (visitedPositions.add(target)) {
+              addToPendingCount(1);
+              new ExplorePositions(this, Collections.singletonList(target)).fork();
+            }
+          }
+        }
+        tryComplete();
+      }
+    }
+  }
+
+  private PositionEvaluation evaluateAllAssignmentsAt(Position position) {
+    PositionEvaluation allAssignments = new PositionEvaluation(position, new HashMap<>());
+    Deque<Map<Predicate<UseCaseModelRunner>, Boolean>> assignments = new ArrayDeque<>();
+    assignments.push(new HashMap<>());
+    int evaluatedAssignments = 0;
+
+    while (!assignments.isEmpty()) {
+      Map<Predicate<UseCaseModelRunner>, Boolean> assignment = assignments.pop();
+      if (++evaluatedAssignments > MAX_ASSIGNMENTS_PER_POSITION) {
+        throw new IllegalStateException(
+            "Too many combinations of conditions to evaluate at: " + position);
+      }
+      PositionEvaluation evaluation = new PositionEvaluation(position, assignment);
+      try {
+        evaluation.evaluate();
+        allAssignments.transitions.addAll(evaluation.transitions);
+        allAssignments.conflicts.addAll(evaluation.conflicts);
+      } catch (UnassignedPredicate unassignedPredicate) {
+        assignments.push(assign(assignment, unassignedPredicate.predicate, false));
+        assignments.push(assign(assignment, unassignedPredicate.predicate, true));
+      }
+    }
+    return allAssignments;
+  }
+
+  private Map<Predicate<UseCaseModelRunner>, Boolean> assign(
+      Map<Predicate<UseCaseModelRunner>, Boolean> assignment,
+      Predicate<UseCaseModelRunner> predicate,
+      boolean value) {
+    Map<Predicate<UseCaseModelRunner>, Boolean> newAssignment = new HashMap<>(assignment);
+    newAssignment.put(predicate, value);
+    return newAssignment;
+  }
+
+  /**
+   * Returns the position of a runner after the specified step and its system reaction have been
+   * run.
+   */
+  static Position positionAfter(Actor actor, Step step) {
+    Optional<Step> latestStep = Optional.of(step);
+    Optional<String> stepWithoutAlternative = Optional.empty();
+
+    Consumer<?> systemReaction = step.getSystemReaction();
+    if (systemReaction instanceof AbstractContinue) {
+      String stepName = ((AbstractContinue) systemReaction).getStepName();
+      Step continueStep = step.getUseCase().findStep(stepName);
+      latestStep =
+          systemReaction instanceof ContinueAfter
+              ? Optional.of(continueStep)
+              : continueStep.getPreviousStepInFlow();
+      if (systemReaction instanceof ContinueWithoutAlternativeAt) {
+        stepWithoutAlternative = Optional.of(stepName);
+      }
+    }
+    return new Position(actor, latestStep, stepWithoutAlternative);
+  }
+
+  /**
+   * Returns whether the specified step is the first step of a flow that starts after or instead of
+   * a step, or when a condition is true.
+   */
+  static boolean startsFlowWithPredicate(Step step) {
+    Flow flow = step.getFlow();
+    boolean hasFlowPredicate = flow.getFlowPosition() != null || flow.getWhen() != null;
+    return !step.getPreviousStepInFlow().isPresent() && hasFlowPredicate;
+  }
+
+  /**
+   * Evaluates which steps can react in a position, with the conditions either assigned a value, or
+   * sampled. If a nondeterministic condition has no value yet, evaluation stops with an {@link
+   * UnassignedPredicate}, and the caller evaluates again with both values.
+   */
+  private class PositionEvaluation {
+    private final Position position;
+    private final Map<Predicate<UseCaseModelRunner>, Boolean> assignment;
+    private final Set<Transition> transitions;
+    private final Set<Conflict> conflicts;
+    private UseCaseModelRunner positionedRunner;
+
+    private PositionEvaluation(
+        Position position, Map<Predicate<UseCaseModelRunner>, Boolean> assignment) {
+      this.position = position;
+      this.assignment = assignment;
+      this.transitions = new HashSet<>();
+      this.conflicts = new HashSet<>();
+    }
+
+    private void evaluate() {
+      Set<Step> autonomousSteps = stepsThatCanReactTo(UseCaseModelRunner.class);
+      if (!autonomousSteps.isEmpty()) {
+        addOutcome(UseCaseModelRunner.class, autonomousSteps);
+        return;
+      }
+      for (Class<?> eventClass : eventClasses) {
+        addOutcome(eventClass, stepsThatCanReactTo(eventClass));
+      }
+    }
+
+    private void addOutcome(Class<?> eventClass, Set<Step> steps) {
+      if (steps.size() == 1) {
+        Step step = steps.iterator().next();
+        Position target = positionAfter(position.getActor(), step);
+        transitions.add(new Transition(position, eventClass, step, target));
+      } else if (steps.size() > 1) {
+        conflicts.add(new Conflict(position, eventClass, steps));
+      }
+    }
+
+    private Set<Step> stepsThatCanReactTo(Class<?> eventClass) {
+      return otherStepsThatCanReactTo(eventClass, Optional.empty(), new HashSet<>());
+    }
+
+    private Set<Step> otherStepsThatCanReactTo(
+        Class<?> eventClass, Optional<Step> theStep, Set<Step> evaluatedSteps) {
+      Set<Step> steps = new HashSet<>();
+      for (Step step : useCaseModel.getSteps()) {
+        if (!theStep.equals(Optional.of(step)) && canReactTo(eventClass, step, evaluatedSteps)) {
+          steps.add(step);
+        }
+      }
+      return steps;
+    }
+
+    private boolean canReactTo(Class<?> eventClass, Step step, Set<Step> evaluatedSteps) {
+      return isRunActor(step)
+          && step.getUserEventClass().isAssignableFrom(eventClass)
+          && position.getStepWithoutAlternative().map(step.getName()::equals).orElse(true)
+          && (evaluatedSteps.contains(step) || hasTruePredicate(step, evaluatedSteps));
+    }
+
+    private boolean isRunActor(Step step) {
+      Actor systemActor = useCaseModel.getSystemActor();
+      return Arrays.stream(step.getActors())
+          .anyMatch(actor -> actor.equals(position.getActor()) || actor.equals(systemActor));
+    }
+
+    private boolean hasTruePredicate(Step step, Set<Step> evaluatedSteps) {
+      if (step.getPredicate() instanceof ReactWhile) {
+        ReactWhile reactWhile = (ReactWhile) step.getPredicate();
+        return isTrue(reactWhile.getReactWhileCondition())
+            && (isLatestStep(Optional.of(step)) || hasTrueStepPredicate(step, evaluatedSteps));
+      }
+      return hasTrueStepPredicate(step, evaluatedSteps);
+    }
+
+    private boolean hasTrueStepPredicate(Step step, Set<Step> evaluatedSteps) {
+      Flow flow = step.getFlow();
+      if (startsFlowWithPredicate(step)) {
+        boolean isInDifferentFlow =
+            position
+                .getLatestStep()
+                .map(latestStep -> !flow.equals(latestStep.getFlow()))
+                .orElse(true);
+        return isInDifferentFlow
+            && (flow.getFlowPosition() == null || flow.getFlowPosition().test(positionedRunner()))
+            && (flow.getWhen() == null || isTrue(flow.getWhen()));
+      }
+      return isLatestStep(step.getPreviousStepInFlow())
+          && noOtherStepCouldReactThan(step, evaluatedSteps);
+    }
+
+    /**
+     * Like the runner, checks whether another step could react to the step's event class. If that
+     * other step's predicate in turn depends on the step itself, the runner would recurse
+     * endlessly. In that case, the step counts as able to react, so that both steps end up in a
+     * conflict.
+     */
+    private boolean noOtherStepCouldReactThan(Step step, Set<Step> evaluatedSteps) {
+      evaluatedSteps.add(step);
+      try {
+        Class<?> eventClass = step.getUserEventClass();
+        return otherStepsThatCanReactTo(eventClass, Optional.of(step), evaluatedSteps).isEmpty();
+      } finally {
+        evaluatedSteps.remove(step);
+      }
+    }
+
+    private boolean isLatestStep(Optional<Step> step) {
+      return position.getLatestStep().equals(step);
+    }
+
+    private boolean isTrue(Predicate<UseCaseModelRunner> userPredicate) {
+      if (UserPredicates.SAMPLED.equals(userPredicates)) {
+        return userPredicate.test(positionedRunner());
+      }
+      Boolean value = assignment.get(userPredicate);
+      if (value == null) {
+        throw new UnassignedPredicate(userPredicate);
+      }
+      return value;
+    }
+
+    private UseCaseModelRunner positionedRunner() {
+      if (positionedRunner == null) {
+        positionedRunner = new UseCaseModelRunner();
+        positionedRunner.as(position.getActor());
+        positionedRunner.setLatestStep(position.getLatestStep());
+        position
+            .getStepWithoutAlternative()
+            .ifPresent(
+                stepName ->
+                    positionedRunner.setStepWithoutAlternativePredicate(
+                        step -> stepName.equals(step.getName())));
+      }
+      return positionedRunner;
+    }
+  }
+
+  private static class UnassignedPredicate extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Predicate<UseCaseModelRunner> predicate;
+
+    private UnassignedPredicate(Predicate<UseCaseModelRunner> predicate) {
+      super(null, null, false, false);
+      this.predicate = predicate;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package org.requirementsascode.explore;
+
+import java.util.Objects;
+
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * A transition from one runner position to another: when the runner is at the source position and
+ * receives an event of the event class, the step runs, and the runner ends up at the target
+ * position. For autonomous system steps, the event class is {@link UseCaseModelRunner}.
+ *
+ * @author b_muth
+ */
+public class Transition {
+  private final Position source;
+  private final Class<?> eventClass;
+  private final Step step;
+  private final Position target;
+
+  Transition(Position source, Class<?> eventClass, Step step, Position target) {
+    this.source = Objects.requireNonNull(source);
+    this.eventClass = Objects.requireNonNull(eventClass);
+    this.step = Objects.requireNonNull(step);
+    this.target = Objects.requireNonNull(target);
+  }
+
+  /**
+   * Returns the position before the step has been run.
+   *
+   * @return the source position
+   */
+  public Position getSource() {
+    return source;
+  }
+
+  /**
+   * Returns the class of the event the step reacts to.
+   *
+   * @return the event class
+   */
+  public Class<?> getEventClass() {
+    return eventClass;
+  }
+
+  /**
+   * Returns the step that is run.
+   *
+   * @return the step
+   */
+  public Step getStep() {
+    return step;
+  }
+
+  /**
+   * Returns the position after the step and its system reaction have been run.
+   *
+   * @return the target position
+   */
+  public Position getTarget() {
+    return target;
+  }
+
+  /**
+   * Returns whether the step is an autonomous system step, that the runner runs without an event.
+   *
+   * @return true if autonomous, false if it reacts to a user event
+   */
+  public boolean isAutonomous() {
+    return UseCaseModelRunner.class.equals(eventClass);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof Transition)) {
+      return false;
+    }
+    Transition other = (Transition) obj;
+    return source.equals(other.source)
+        && eventClass.equals(other.eventClass)
+        && step.equals(other.step)
+        && target.equals(other.target);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(source, eventClass, step, target);
+  }
+
+  @Override
+  public String toString() {
+    return source
+        + " --"
+        + eventClass.getSimpleName()
+        + "--> "
+        + Position.nameOf(step)
+        + " --> "
+        + target;
+  }
+}
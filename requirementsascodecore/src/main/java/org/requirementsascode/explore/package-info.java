@@ -0,0 +1,9 @@
+/**
+ * Explore package of requirementsascode, containing a state space explorer that finds the runner
+ * positions reachable in a use case model, and reports unreachable steps, dead ends, and positions
+ * in which more than one step can react to an event. A coverage generator uses the explored
+ * transitions to generate test cases that cover the steps and flow transitions of the model.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.explore;
@@ -0,0 +1,189 @@
+package org.requirementsascode.fuzz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Runs random fuzz cases through a reference runner and a candidate runner, e.g. a runner with an
+ * optimized way to find the steps that can react. If the runners behave differently, the fuzzer
+ * shrinks the case to a minimal one in which they still do, and reports it as a {@link
+ * Discrepancy}.
+ *
+ * <p>The runners behave the same if the same system reactions are performed, in the same order, if
+ * they have the same latest step after each event, and if they throw the same kind of exception,
+ * e.g. {@link org.requirementsascode.exception.MoreThanOneStepCanReact} or {@link
+ * org.requirementsascode.exception.UnhandledException}. If a runner overflows the stack, e.g.
+ * because steps continue at each other endlessly, the remaining events are not run.
+ *
+ * @author b_muth
+ */
+public class DifferentialFuzzer {
+  private static final int MAX_SHRINK_ATTEMPTS = 10000;
+  private static final int MAX_LOGGED_REACTIONS = 100;
+
+  private final Supplier<? extends UseCaseModelRunner> referenceRunner;
+  private final Supplier<? extends UseCaseModelRunner> candidateRunner;
+
+  /**
+   * Creates a fuzzer that compares the candidate runners with plain {@link UseCaseModelRunner}s.
+   *
+   * @param candidateRunner supplies a new candidate runner for each case
+   */
+  public DifferentialFuzzer(Supplier<? extends UseCaseModelRunner> candidateRunner) {
+    this(UseCaseModelRunner::new, candidateRunner);
+  }
+
+  /**
+   * Creates a fuzzer that compares the candidate runners with the reference runners.
+   *
+   * @param referenceRunner supplies a new reference runner for each case
+   * @param candidateRunner supplies a new candidate runner for each case
+   */
+  public DifferentialFuzzer(
+      Supplier<? extends UseCaseModelRunner> referenceRunner,
+      Supplier<? extends UseCaseModelRunner> candidateRunner) {
+    this.referenceRunner = Objects.requireNonNull(referenceRunner);
+    this.candidateRunner = Objects.requireNonNull(candidateRunner);
+  }
+
+  /**
+   * Generates and checks the specified number of fuzz cases, until the runners behave differently.
+   * The same seed always generates the same cases.
+   *
+   * @param seed the seed of the random numbers
+   * @param numberOfCases the maximum number of cases to check
+   * @return the shrunk discrepancy of the first case in which the runners behave differently, or
+   *     else an empty optional
+   */
+  public Optional<Discrepancy> fuzz(long seed, int numberOfCases) {
+    Random random = new Random(seed);
+    for (int i = 0; i < numberOfCases; i++) {
+      Optional<Discrepancy> discrepancy = check(FuzzCase.generate(random.nextLong()));
+      if (discrepancy.isPresent()) {
+        return discrepancy;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Checks the specified fuzz case.
+   *
+   * @param fuzzCase the case to check
+   * @return the shrunk discrepancy if the runners behave differently, or else an empty optional
+   */
+  public Optional<Discrepancy> check(FuzzCase fuzzCase) {
+    Objects.requireNonNull(fuzzCase);
+    return compare(fuzzCase).map(this::shrink);
+  }
+
+  private Discrepancy shrink(Discrepancy discrepancy) {
+    int attempts = 0;
+    boolean hasShrunk = true;
+    while (hasShrunk && attempts < MAX_SHRINK_ATTEMPTS) {
+      hasShrunk = false;
+      for (FuzzCase smallerCase : discrepancy.getFuzzCase().shrinkCandidates()) {
+        if (++attempts > MAX_SHRINK_ATTEMPTS) {
+          break;
+        }
+        Optional<Discrepancy> smallerDiscrepancy = compare(smallerCase);
+        if (smallerDiscrepancy.isPresent()) {
+          discrepancy = smallerDiscrepancy.get();
+          hasShrunk = true;
+          break;
+        }
+      }
+    }
+    return discrepancy;
+  }
+
+  private Optional<Discrepancy> compare(FuzzCase fuzzCase) {
+    Optional<List<String>> referenceOutcome = outcomeOf(fuzzCase, referenceRunner);
+    if (!referenceOutcome.isPresent()) {
+      return Optional.empty();
+    }
+    List<String> candidateOutcome = outcomeOf(fuzzCase, candidateRunner).get();
+    if (referenceOutcome.get().equals(candidateOutcome)) {
+      return Optional.empty();
+    }
+    return Optional.of(new Discrepancy(fuzzCase, referenceOutcome.get(), candidateOutcome));
+  }
+
+  /**
+   * Runs the case with a new runner.
+   *
+   * @return the outcome, or an empty optional if the model of the case is invalid
+   */
+  private Optional<List<String>> outcomeOf(
+      FuzzCase fuzzCase, Supplier<? extends UseCaseModelRunner> runnerSupplier) {
+    List<String> reactions = new ArrayList<>();
+    UseCaseModel useCaseModel;
+    try {
+      useCaseModel =
+          fuzzCase.buildWith(
+              UseCaseModelBuilder.newBuilder(),
+              stepName -> {
+                if (reactions.size() < MAX_LOGGED_REACTIONS) {
+                  reactions.add(stepName);
+                }
+              });
+    } catch (RuntimeException e) {
+      return Optional.empty();
+    }
+
+    UseCaseModelRunner runner = runnerSupplier.get();
+    List<String> outcome = new ArrayList<>();
+    boolean hasOverflowed =
+        !perform("run", () -> runner.run(useCaseModel), runner, reactions, outcome);
+    for (Object event : fuzzCase.newEvents()) {
+      if (hasOverflowed) {
+        break;
+      }
+      hasOverflowed =
+          !perform(event.toString(), () -> runner.reactTo(event), runner, reactions, outcome);
+    }
+    return Optional.of(outcome);
+  }
+
+  /**
+   * Performs the action, and adds its outcome to the outcome lines.
+   *
+   * @return false if the action overflowed the stack, true otherwise
+   */
+  private boolean perform(
+      String actionName,
+      Runnable action,
+      UseCaseModelRunner runner,
+      List<String> reactions,
+      List<String> outcome) {
+    reactions.clear();
+    String exception = "";
+    try {
+      action.run();
+    } catch (StackOverflowError e) {
+      outcome.add(actionName + ": overflows the stack");
+      return false;
+    } catch (RuntimeException e) {
+      exception = ", throws " + describe(e);
+    }
+
+    String latestStepName = runner.getLatestStep().map(Step::getName).orElse("none");
+    outcome.add(actionName + ": " + reactions + ", latest step " + latestStepName + exception);
+    return true;
+  }
+
+  private static String describe(Throwable exception) {
+    String description = exception.getClass().getSimpleName();
+    Throwable cause = exception.getCause();
+    return cause == null ? description : description + " of " + cause.getClass().getSimpleName();
+  }
+}
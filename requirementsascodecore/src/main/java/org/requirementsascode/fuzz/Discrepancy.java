@@ -0,0 +1,63 @@
+package org.requirementsascode.fuzz;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A fuzz case in which the candidate runner behaves differently from the reference runner.
+ *
+ * <p>The outcomes contain one line for running the model, and one line per event. Each line
+ * contains the steps whose system reactions have been performed, the latest step afterwards, and
+ * the exception thrown, if any.
+ *
+ * @author b_muth
+ */
+public class Discrepancy {
+  private final FuzzCase fuzzCase;
+  private final List<String> referenceOutcome;
+  private final List<String> candidateOutcome;
+
+  Discrepancy(FuzzCase fuzzCase, List<String> referenceOutcome, List<String> candidateOutcome) {
+    this.fuzzCase = Objects.requireNonNull(fuzzCase);
+    this.referenceOutcome = Collections.unmodifiableList(referenceOutcome);
+    this.candidateOutcome = Collections.unmodifiableList(candidateOutcome);
+  }
+
+  /**
+   * Returns the fuzz case, shrunk as far as the candidate still behaves differently.
+   *
+   * @return the case
+   */
+  public FuzzCase getFuzzCase() {
+    return fuzzCase;
+  }
+
+  /**
+   * Returns the outcome of the fuzz case for the reference runner.
+   *
+   * @return the outcome lines
+   */
+  public List<String> getReferenceOutcome() {
+    return referenceOutcome;
+  }
+
+  /**
+   * Returns the outcome of the fuzz case for the candidate runner.
+   *
+   * @return the outcome lines
+   */
+  public List<String> getCandidateOutcome() {
+    return candidateOutcome;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder text = new StringBuilder(fuzzCase.render());
+    text.append("\n\nreference:\n");
+    referenceOutcome.forEach(line -> text.append(line).append('\n'));
+    text.append("\ncandidate:\n");
+    candidateOutcome.forEach(line -> text.append(line).append('\n'));
+    return text.toString();
+  }
+}
@@ -0,0 +1,522 @@
+package org.requirementsascode.fuzz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+
+import org.requirementsascode.FlowPart;
+import org.requirementsascode.StepPart;
+import org.requirementsascode.StepSystemPart;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.UseCasePart;
+import org.requirementsascode.synthetic.SyntheticEvent;
+
+/**
+ * A randomly generated use case model, together with the events a runner reacts to after it has
+ * been run. A fuzz case describes the model, so that it can build a fresh model for each runner,
+ * and can be shrunk to smaller cases.
+ *
+ * <p>The models contain user steps that react to {@link SyntheticEvent}s, some of them repeatedly,
+ * steps that throw an exception, steps that handle it, autonomous steps, and steps that continue
+ * at, after or without alternative at other steps. Alternative flows start instead of or after
+ * other steps, and may have a condition. Unlike the models of {@link
+ * org.requirementsascode.synthetic.SyntheticModelGenerator}, more than one step may be able to
+ * react to an event.
+ *
+ * @author b_muth
+ */
+public final class FuzzCase {
+  /** The number of different event classes the steps of fuzz cases react to. */
+  static final int EVENT_CLASSES = 3;
+
+  private final List<UseCaseSpec> useCases;
+  private final List<Integer> eventClasses;
+
+  FuzzCase(List<UseCaseSpec> useCases, List<Integer> eventClasses) {
+    this.useCases = Collections.unmodifiableList(new ArrayList<>(useCases));
+    this.eventClasses = Collections.unmodifiableList(new ArrayList<>(eventClasses));
+  }
+
+  /**
+   * Generates a fuzz case. The same seed always generates the same case.
+   *
+   * @param seed the seed of the random numbers
+   * @return the generated case
+   */
+  public static FuzzCase generate(long seed) {
+    return new FuzzCaseGenerator(new Random(seed)).generate();
+  }
+
+  /**
+   * Builds the model of this case.
+   *
+   * @param modelBuilder the builder to use
+   * @param reactionLog receives the name of each step whose system reaction is performed, except
+   *     for steps that continue at other steps
+   * @return the built model
+   * @throws RuntimeException if the model is invalid, e.g. because a step refers to a step that
+   *     does not exist
+   */
+  UseCaseModel buildWith(UseCaseModelBuilder modelBuilder, Consumer<String> reactionLog) {
+    Objects.requireNonNull(modelBuilder);
+    Objects.requireNonNull(reactionLog);
+
+    for (UseCaseSpec useCase : useCases) {
+      UseCasePart useCasePart = modelBuilder.useCase(useCase.name);
+      for (int flowIndex = 0; flowIndex < useCase.flows.size(); flowIndex++) {
+        FlowSpec flow = useCase.flows.get(flowIndex);
+        FlowPart flowPart = flowIndex == 0 ? useCasePart.basicFlow() : useCasePart.flow(flow.name);
+        buildFlow(flowPart, flow, reactionLog);
+      }
+    }
+    return modelBuilder.build();
+  }
+
+  private static void buildFlow(FlowPart flowPart, FlowSpec flow, Consumer<String> reactionLog) {
+    if (flow.position == Position.INSTEAD_OF) {
+      flowPart.insteadOf(flow.positionStepName);
+    } else if (flow.position == Position.AFTER) {
+      flowPart.after(flow.positionStepName);
+    }
+    if (flow.when != Condition.NONE) {
+      flowPart.when(flow.when.predicate);
+    }
+
+    StepPart stepPart = flowPart.step(flow.steps.get(0).name);
+    for (int stepIndex = 0; stepIndex < flow.steps.size(); stepIndex++) {
+      StepSpec step = flow.steps.get(stepIndex);
+      if (step.kind.isContinue()) {
+        buildContinue(stepPart, step);
+        return;
+      }
+      StepSystemPart<?> stepSystemPart = buildReaction(stepPart, step, reactionLog);
+      if (step.reactWhile != Condition.NONE) {
+        stepSystemPart.reactWhile(step.reactWhile.predicate);
+      }
+      if (stepIndex + 1 < flow.steps.size()) {
+        stepPart = stepSystemPart.step(flow.steps.get(stepIndex + 1).name);
+      }
+    }
+  }
+
+  private static StepSystemPart<?> buildReaction(
+      StepPart stepPart, StepSpec step, Consumer<String> reactionLog) {
+    String stepName = step.name;
+    switch (step.kind) {
+      case USER:
+        return userStep(
+            stepPart, SyntheticEvent.eventClass(step.eventClass), reactionLog, stepName);
+      case USER_THROWS:
+        return stepPart
+            .user(SyntheticEvent.eventClass(step.eventClass))
+            .system(
+                event -> {
+                  reactionLog.accept(stepName);
+                  throw new FuzzException(stepName);
+                });
+      case AUTONOMOUS:
+        return stepPart.system(runner -> reactionLog.accept(stepName));
+      case HANDLE_EXCEPTION:
+        return stepPart.handle(FuzzException.class).system(e -> reactionLog.accept(stepName));
+      default:
+        throw new IllegalStateException("Unknown kind of step: " + step.kind);
+    }
+  }
+
+  private static <T> StepSystemPart<T> userStep(
+      StepPart stepPart, Class<T> eventClass, Consumer<String> reactionLog, String stepName) {
+    return stepPart.user(eventClass).system(event -> reactionLog.accept(stepName));
+  }
+
+  private static void buildContinue(StepPart stepPart, StepSpec step) {
+    switch (step.kind) {
+      case CONTINUE_AT:
+        stepPart.continueAt(step.targetStepName);
+        break;
+      case CONTINUE_AFTER:
+        stepPart.continueAfter(step.targetStepName);
+        break;
+      case CONTINUE_WITHOUT_ALTERNATIVE_AT:
+        stepPart.continueWithoutAlternativeAt(step.targetStepName);
+        break;
+      default:
+        throw new IllegalStateException("Unknown kind of step: " + step.kind);
+    }
+  }
+
+  /**
+   * Creates the events of this case.
+   *
+   * @return new events, in the order the runner reacts to them
+   */
+  List<Object> newEvents() {
+    List<Object> events = new ArrayList<>(eventClasses.size());
+    for (int eventClass : eventClasses) {
+      events.add(SyntheticEvent.newEvent(eventClass));
+    }
+    return events;
+  }
+
+  /**
+   * Returns the cases that are one step smaller or simpler than this case, the ones that shrink
+   * most first. Some of them may be invalid.
+   *
+   * @return the smaller cases
+   */
+  List<FuzzCase> shrinkCandidates() {
+    List<FuzzCase> candidates = new ArrayList<>();
+    for (int chunk = eventClasses.size(); chunk >= 1; chunk /= 2) {
+      for (int from = 0; from + chunk <= eventClasses.size(); from += chunk) {
+        List<Integer> fewerEvents = new ArrayList<>(eventClasses.subList(0, from));
+        fewerEvents.addAll(eventClasses.subList(from + chunk, eventClasses.size()));
+        candidates.add(new FuzzCase(useCases, fewerEvents));
+      }
+    }
+    for (int useCaseIndex = 0; useCaseIndex < useCases.size(); useCaseIndex++) {
+      if (useCases.size() > 1) {
+        candidates.add(new FuzzCase(without(useCases, useCaseIndex), eventClasses));
+      }
+      UseCaseSpec useCase = useCases.get(useCaseIndex);
+      for (int flowIndex = 0; flowIndex < useCase.flows.size(); flowIndex++) {
+        if (flowIndex > 0) {
+          candidates.add(withUseCase(useCaseIndex, useCase.withoutFlow(flowIndex)));
+        }
+        FlowSpec flow = useCase.flows.get(flowIndex);
+        for (int stepIndex = 0; stepIndex < flow.steps.size(); stepIndex++) {
+          if (flow.steps.size() > 1) {
+            candidates.add(withFlow(useCaseIndex, flowIndex, flow.withoutStep(stepIndex)));
+          }
+          for (StepSpec simplerStep : flow.steps.get(stepIndex).simplifications()) {
+            candidates.add(
+                withFlow(useCaseIndex, flowIndex, flow.withStep(stepIndex, simplerStep)));
+          }
+        }
+        for (FlowSpec simplerFlow : flow.simplifications()) {
+          candidates.add(withFlow(useCaseIndex, flowIndex, simplerFlow));
+        }
+      }
+    }
+    for (int eventIndex = 0; eventIndex < eventClasses.size(); eventIndex++) {
+      if (eventClasses.get(eventIndex) != 0) {
+        List<Integer> simplerEvents = new ArrayList<>(eventClasses);
+        simplerEvents.set(eventIndex, 0);
+        candidates.add(new FuzzCase(useCases, simplerEvents));
+      }
+    }
+    for (int eventClass = 1; eventClass < EVENT_CLASSES; eventClass++) {
+      if (usesOf(eventClass) > usesOf(0)) {
+        candidates.add(withEventClassesSwapped(eventClass, 0));
+      }
+    }
+    return candidates;
+  }
+
+  private int usesOf(int eventClass) {
+    long usesByEvents = eventClasses.stream().filter(c -> c == eventClass).count();
+    long usesBySteps =
+        useCases
+            .stream()
+            .flatMap(useCase -> useCase.flows.stream())
+            .flatMap(flow -> flow.steps.stream())
+            .filter(step -> step.kind.reactsToEvents() && step.eventClass == eventClass)
+            .count();
+    return (int) (usesByEvents + usesBySteps);
+  }
+
+  /**
+   * Swaps two event classes in the whole case, so that an event class can be simplified even if
+   * both a step and an event need to change at once.
+   */
+  private FuzzCase withEventClassesSwapped(int eventClass, int otherEventClass) {
+    IntUnaryOperator swap =
+        c -> c == eventClass ? otherEventClass : c == otherEventClass ? eventClass : c;
+    List<UseCaseSpec> swappedUseCases = new ArrayList<>();
+    for (UseCaseSpec useCase : useCases) {
+      swappedUseCases.add(useCase.withEventClasses(swap));
+    }
+    List<Integer> swappedEvents = new ArrayList<>();
+    for (int c : eventClasses) {
+      swappedEvents.add(swap.applyAsInt(c));
+    }
+    return new FuzzCase(swappedUseCases, swappedEvents);
+  }
+
+  private FuzzCase withUseCase(int useCaseIndex, UseCaseSpec useCase) {
+    return new FuzzCase(replaced(useCases, useCaseIndex, useCase), eventClasses);
+  }
+
+  private FuzzCase withFlow(int useCaseIndex, int flowIndex, FlowSpec flow) {
+    UseCaseSpec useCase = useCases.get(useCaseIndex);
+    return withUseCase(useCaseIndex, useCase.withFlow(flowIndex, flow));
+  }
+
+  /**
+   * Returns the number of steps of the model, in all use cases.
+   *
+   * @return the number of steps
+   */
+  public int getNumberOfSteps() {
+    return useCases
+        .stream()
+        .flatMap(useCase -> useCase.flows.stream())
+        .mapToInt(flow -> flow.steps.size())
+        .sum();
+  }
+
+  /**
+   * Returns the number of use cases of the model.
+   *
+   * @return the number of use cases
+   */
+  public int getNumberOfUseCases() {
+    return useCases.size();
+  }
+
+  /**
+   * Returns the number of events the runner reacts to after it has been run.
+   *
+   * @return the number of events
+   */
+  public int getNumberOfEvents() {
+    return eventClasses.size();
+  }
+
+  /**
+   * Renders the model in a notation close to the builder's, followed by the events.
+   *
+   * @return the rendered case
+   */
+  public String render() {
+    StringBuilder text = new StringBuilder();
+    for (UseCaseSpec useCase : useCases) {
+      text.append("useCase(\"" + useCase.name + "\")\n");
+      for (int flowIndex = 0; flowIndex < useCase.flows.size(); flowIndex++) {
+        FlowSpec flow = useCase.flows.get(flowIndex);
+        text.append(flowIndex == 0 ? "  .basicFlow()" : "  .flow(\"" + flow.name + "\")");
+        if (flow.position != Position.NONE) {
+          text.append("." + flow.position.methodName + "(\"" + flow.positionStepName + "\")");
+        }
+        if (flow.when != Condition.NONE) {
+          text.append(".when(" + flow.when + ")");
+        }
+        text.append('\n');
+        for (StepSpec step : flow.steps) {
+          text.append("    .step(\"" + step.name + "\")" + step.kind.render(step));
+          if (step.reactWhile != Condition.NONE) {
+            text.append(".reactWhile(" + step.reactWhile + ")");
+          }
+          text.append('\n');
+        }
+      }
+    }
+    text.append("events:");
+    for (int eventClass : eventClasses) {
+      text.append(" " + SyntheticEvent.eventClass(eventClass).getSimpleName());
+    }
+    return text.toString();
+  }
+
+  @Override
+  public String toString() {
+    return render();
+  }
+
+  private static <T> List<T> without(List<T> list, int index) {
+    List<T> result = new ArrayList<>(list);
+    result.remove(index);
+    return result;
+  }
+
+  private static <T> List<T> replaced(List<T> list, int index, T element) {
+    List<T> result = new ArrayList<>(list);
+    result.set(index, element);
+    return result;
+  }
+
+  /** Conditions of flows and of steps that react repeatedly. */
+  enum Condition {
+    NONE(null),
+    ALWAYS(runner -> true),
+    NEVER(runner -> false),
+    AFTER_ANY_STEP(runner -> runner.getLatestStep().isPresent());
+
+    private final Predicate<UseCaseModelRunner> predicate;
+
+    private Condition(Predicate<UseCaseModelRunner> predicate) {
+      this.predicate = predicate;
+    }
+  }
+
+  /** Positions of flows. */
+  enum Position {
+    NONE(null),
+    INSTEAD_OF("insteadOf"),
+    AFTER("after");
+
+    private final String methodName;
+
+    private Position(String methodName) {
+      this.methodName = methodName;
+    }
+  }
+
+  /** Kinds of steps. The steps that continue at other steps are the last steps of their flow. */
+  enum Kind {
+    USER(step -> ".user(" + eventClassName(step) + ")"),
+    USER_THROWS(step -> ".user(" + eventClassName(step) + ").system(throwsException)"),
+    AUTONOMOUS(step -> ".system(...)"),
+    HANDLE_EXCEPTION(step -> ".handle(FuzzException)"),
+    CONTINUE_AT(step -> ".continueAt(\"" + step.targetStepName + "\")"),
+    CONTINUE_AFTER(step -> ".continueAfter(\"" + step.targetStepName + "\")"),
+    CONTINUE_WITHOUT_ALTERNATIVE_AT(
+        step -> ".continueWithoutAlternativeAt(\"" + step.targetStepName + "\")");
+
+    private final Function<StepSpec, String> renderer;
+
+    private Kind(Function<StepSpec, String> renderer) {
+      this.renderer = renderer;
+    }
+
+    private boolean reactsToEvents() {
+      return this == USER || this == USER_THROWS;
+    }
+
+    boolean isContinue() {
+      return this == CONTINUE_AT
+          || this == CONTINUE_AFTER
+          || this == CONTINUE_WITHOUT_ALTERNATIVE_AT;
+    }
+
+    private String render(StepSpec step) {
+      return renderer.apply(step);
+    }
+
+    private static String eventClassName(StepSpec step) {
+      return SyntheticEvent.eventClass(step.eventClass).getSimpleName();
+    }
+  }
+
+  /** Description of a use case, its first flow being the basic flow. */
+  static final class UseCaseSpec {
+    private final String name;
+    private final List<FlowSpec> flows;
+
+    UseCaseSpec(String name, List<FlowSpec> flows) {
+      this.name = name;
+      this.flows = Collections.unmodifiableList(new ArrayList<>(flows));
+    }
+
+    private UseCaseSpec withoutFlow(int flowIndex) {
+      return new UseCaseSpec(name, without(flows, flowIndex));
+    }
+
+    private UseCaseSpec withFlow(int flowIndex, FlowSpec flow) {
+      return new UseCaseSpec(name, replaced(flows, flowIndex, flow));
+    }
+
+    private UseCaseSpec withEventClasses(IntUnaryOperator eventClassChange) {
+      List<FlowSpec> changedFlows = new ArrayList<>();
+      for (FlowSpec flow : flows) {
+        changedFlows.add(flow.withEventClasses(eventClassChange));
+      }
+      return new UseCaseSpec(name, changedFlows);
+    }
+  }
+
+  /** Description of a flow, with at least one step. */
+  static final class FlowSpec {
+    private final String name;
+    private final Position position;
+    private final String positionStepName;
+    private final Condition when;
+    private final List<StepSpec> steps;
+
+    FlowSpec(
+        String name,
+        Position position,
+        String positionStepName,
+        Condition when,
+        List<StepSpec> steps) {
+      this.name = name;
+      this.position = position;
+      this.positionStepName = positionStepName;
+      this.when = when;
+      this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+    }
+
+    private FlowSpec withoutStep(int stepIndex) {
+      return new FlowSpec(name, position, positionStepName, when, without(steps, stepIndex));
+    }
+
+    private FlowSpec withStep(int stepIndex, StepSpec step) {
+      return new FlowSpec(name, position, positionStepName, when, replaced(steps, stepIndex, step));
+    }
+
+    private FlowSpec withEventClasses(IntUnaryOperator eventClassChange) {
+      List<StepSpec> changedSteps = new ArrayList<>();
+      for (StepSpec step : steps) {
+        int changedEventClass =
+            step.kind.reactsToEvents() ? eventClassChange.applyAsInt(step.eventClass) : 0;
+        changedSteps.add(step.with(step.kind, changedEventClass, step.reactWhile));
+      }
+      return new FlowSpec(name, position, positionStepName, when, changedSteps);
+    }
+
+    private List<FlowSpec> simplifications() {
+      List<FlowSpec> simplifications = new ArrayList<>();
+      if (position != Position.NONE) {
+        simplifications.add(new FlowSpec(name, Position.NONE, null, when, steps));
+      }
+      if (when != Condition.NONE) {
+        simplifications.add(new FlowSpec(name, position, positionStepName, Condition.NONE, steps));
+      }
+      return simplifications;
+    }
+  }
+
+  /** Description of a step. */
+  static final class StepSpec {
+    private final String name;
+    private final Kind kind;
+    private final int eventClass;
+    private final Condition reactWhile;
+    private final String targetStepName;
+
+    StepSpec(String name, Kind kind, int eventClass, Condition reactWhile, String targetStepName) {
+      this.name = name;
+      this.kind = kind;
+      this.eventClass = eventClass;
+      this.reactWhile = reactWhile;
+      this.targetStepName = targetStepName;
+    }
+
+    private StepSpec with(Kind kind, int eventClass, Condition reactWhile) {
+      return new StepSpec(name, kind, eventClass, reactWhile, targetStepName);
+    }
+
+    private List<StepSpec> simplifications() {
+      List<StepSpec> simplifications = new ArrayList<>();
+      if (kind == Kind.USER_THROWS) {
+        simplifications.add(with(Kind.USER, eventClass, reactWhile));
+      }
+      if (kind.isContinue() && kind != Kind.CONTINUE_AT) {
+        simplifications.add(with(Kind.CONTINUE_AT, eventClass, reactWhile));
+      }
+      if (reactWhile != Condition.NONE) {
+        simplifications.add(with(kind, eventClass, Condition.NONE));
+      }
+      if (kind.reactsToEvents() && eventClass != 0) {
+        simplifications.add(with(kind, 0, reactWhile));
+      }
+      return simplifications;
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package org.requirementsascode.fuzz;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.requirementsascode.fuzz.FuzzCase.Condition;
+import org.requirementsascode.fuzz.FuzzCase.FlowSpec;
+import org.requirementsascode.fuzz.FuzzCase.Kind;
+import org.requirementsascode.fuzz.FuzzCase.Position;
+import org.requirementsascode.fuzz.FuzzCase.StepSpec;
+import org.requirementsascode.fuzz.FuzzCase.UseCaseSpec;
+
+/**
+ * Generates small random fuzz cases. Their models are kept small, with few event classes, so that
+ * steps often compete for the same events.
+ *
+ * @author b_muth
+ */
+class FuzzCaseGenerator {
+  private static final int MAX_USE_CASES = 2;
+  private static final int MAX_FLOWS_PER_USE_CASE = 4;
+  private static final int MAX_STEPS_PER_FLOW = 4;
+  private static final int MAX_EVENTS = 12;
+
+  private final Random random;
+
+  FuzzCaseGenerator(Random random) {
+    this.random = random;
+  }
+
+  FuzzCase generate() {
+    List<UseCaseSpec> useCases = new ArrayList<>();
+    int numberOfUseCases = 1 + random.nextInt(MAX_USE_CASES);
+    for (int useCaseNumber = 1; useCaseNumber <= numberOfUseCases; useCaseNumber++) {
+      useCases.add(generateUseCase("UC" + useCaseNumber));
+    }
+
+    List<Integer> eventClasses = new ArrayList<>();
+    int numberOfEvents = random.nextInt(MAX_EVENTS + 1);
+    for (int i = 0; i < numberOfEvents; i++) {
+      eventClasses.add(random.nextInt(FuzzCase.EVENT_CLASSES));
+    }
+    return new FuzzCase(useCases, eventClasses);
+  }
+
+  private UseCaseSpec generateUseCase(String useCaseName) {
+    List<String> stepNames = new ArrayList<>();
+    List<FlowSpec> flows = new ArrayList<>();
+    int numberOfFlows = 1 + random.nextInt(MAX_FLOWS_PER_USE_CASE);
+    for (int flowNumber = 0; flowNumber < numberOfFlows; flowNumber++) {
+      Position position = Position.NONE;
+      String positionStepName = null;
+      Condition when = Condition.NONE;
+      if (flowNumber > 0) {
+        position = oneOf(Position.values());
+        positionStepName = position == Position.NONE ? null : oneOf(stepNames);
+        when = oneOf(Condition.values());
+      }
+      List<StepSpec> steps = generateSteps(stepNames);
+      flows.add(new FlowSpec("F" + flowNumber, position, positionStepName, when, steps));
+    }
+    return new UseCaseSpec(useCaseName, flows);
+  }
+
+  private List<StepSpec> generateSteps(List<String> stepNames) {
+    List<StepSpec> steps = new ArrayList<>();
+    int numberOfSteps = 1 + random.nextInt(MAX_STEPS_PER_FLOW);
+    for (int stepIndex = 0; stepIndex < numberOfSteps; stepIndex++) {
+      String stepName = "S" + (stepNames.size() + 1);
+      boolean isLastStep = stepIndex == numberOfSteps - 1;
+      StepSpec step =
+          isLastStep && stepIndex > 0 && random.nextInt(5) < 2
+              ? new StepSpec(stepName, oneOfContinueKinds(), 0, Condition.NONE, oneOf(stepNames))
+              : generateReactingStep(stepName);
+      steps.add(step);
+      stepNames.add(stepName);
+    }
+    return steps;
+  }
+
+  private StepSpec generateReactingStep(String stepName) {
+    int percent = random.nextInt(100);
+    if (percent < 20) {
+      return new StepSpec(stepName, Kind.AUTONOMOUS, 0, Condition.NONE, null);
+    } else if (percent < 35) {
+      return new StepSpec(stepName, Kind.HANDLE_EXCEPTION, 0, Condition.NONE, null);
+    }
+    Kind kind = percent < 50 ? Kind.USER_THROWS : Kind.USER;
+    int eventClass = random.nextInt(FuzzCase.EVENT_CLASSES);
+    Condition reactWhile = random.nextInt(4) == 0 ? oneOf(Condition.values()) : Condition.NONE;
+    return new StepSpec(stepName, kind, eventClass, reactWhile, null);
+  }
+
+  private Kind oneOfContinueKinds() {
+    return oneOf(
+        new Kind[] {Kind.CONTINUE_AT, Kind.CONTINUE_AFTER, Kind.CONTINUE_WITHOUT_ALTERNATIVE_AT});
+  }
+
+  private <T> T oneOf(T[] values) {
+    return values[random.nextInt(values.length)];
+  }
+
+  private <T> T oneOf(List<T> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
@@ -0,0 +1,14 @@
+package org.requirementsascode.fuzz;
+
+/**
+ * Exception thrown by the system reactions of throwing steps in fuzz cases.
+ *
+ * @author b_muth
+ */
+class FuzzException extends RuntimeException {
+  private static final long serialVersionUID = -2740615874137493720L;
+
+  FuzzException(String stepName) {
+    super(stepName);
+  }
+}
@@ -0,0 +1,8 @@
+/**
+ * Fuzz package of requirementsascode, containing a differential fuzzer that runs random use case
+ * models and events through a reference runner and a candidate runner, and shrinks the cases in
+ * which they behave differently.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.fuzz;
@@ -0,0 +1,87 @@
+package org.requirementsascode.ingress;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.exception.EventRejected;
+
+/**
+ * Ingress stage that admits events to the next stage only while the limits of an {@link
+ * AdmissionController} are not exceeded.
+ *
+ * <p>An admitted event counts as in flight until the next stage returns. A rejected event is not
+ * passed on. Instead, an {@link EventRejected} exception is passed on, so that a runner as next
+ * stage can handle it in an exception flow, via {@code handle(EventRejected.class)}. If no step
+ * handles it, the runner throws an {@code UnhandledException}, like for any other unhandled
+ * exception. Exceptions are always passed on, without admission control.
+ *
+ * @author b_muth
+ */
+public class AdmissionControl implements Consumer<Object> {
+  private AdmissionController admissionController;
+  private Actor actor;
+  private Consumer<Object> nextStage;
+  private LongSupplier nanoClock;
+
+  /**
+   * Creates a stage that admits events of the specified actor.
+   *
+   * @param admissionController the controller, possibly shared with other stages
+   * @param actor the actor whose limit applies, e.g. the actor the runner is run as
+   * @param nextStage the next stage, e.g. runner::reactTo
+   */
+  public AdmissionControl(
+      AdmissionController admissionController, Actor actor, Consumer<Object> nextStage) {
+    this(admissionController, actor, nextStage, System::nanoTime);
+  }
+
+  /**
+   * Creates a stage that admits events of the specified actor, and measures latency with the
+   * specified clock.
+   *
+   * @param admissionController the controller, possibly shared with other stages
+   * @param actor the actor whose limit applies, e.g. the actor the runner is run as
+   * @param nextStage the next stage, e.g. runner::reactTo
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public AdmissionControl(
+      AdmissionController admissionController,
+      Actor actor,
+      Consumer<Object> nextStage,
+      LongSupplier nanoClock) {
+    Objects.requireNonNull(admissionController);
+    Objects.requireNonNull(actor);
+    Objects.requireNonNull(nextStage);
+    Objects.requireNonNull(nanoClock);
+
+    this.admissionController = admissionController;
+    this.actor = actor;
+    this.nextStage = nextStage;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public void accept(Object event) {
+    Objects.requireNonNull(event);
+
+    if (event instanceof Throwable) {
+      nextStage.accept(event);
+      return;
+    }
+
+    Optional<EventRejected> rejection = admissionController.tryAdmit(event, actor);
+    if (rejection.isPresent()) {
+      nextStage.accept(rejection.get());
+    } else {
+      long admittedAt = nanoClock.getAsLong();
+      try {
+        nextStage.accept(event);
+      } finally {
+        admissionController.complete(actor, nanoClock.getAsLong() - admittedAt);
+      }
+    }
+  }
+}
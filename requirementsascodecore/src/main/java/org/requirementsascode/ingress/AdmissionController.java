@@ -0,0 +1,250 @@
+package org.requirementsascode.ingress;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.exception.EventRejected;
+
+/**
+ * Limits the number of events in flight, i.e. admitted but not completely processed yet. Share a
+ * single admission controller among all runners of a model, so that the limits hold for all of
+ * them together.
+ *
+ * <p>There is a total limit, and optionally a limit per actor. With adaptive concurrency switched
+ * on, the total limit adjusts itself to the measured processing latency: it decreases
+ * multiplicatively when an event takes longer than the target latency, and increases by one for
+ * each event processed in time while the limit is at least half used. It never leaves the range
+ * between the minimum limit and the configured maximum. After a decrease, the limit doesn't
+ * decrease again before the events that were in flight at that time have completed, because they
+ * were admitted under the old limit. So a burst of slow events decreases the limit only once.
+ *
+ * <p>All operations are lock free.
+ *
+ * @author b_muth
+ */
+public class AdmissionController {
+  private static final double DECREASE_FACTOR = 0.9;
+
+  private int maxInFlightEvents;
+  private AtomicInteger limit;
+  private AtomicInteger inFlightEvents;
+  private AtomicLong completedEvents;
+  private AtomicLong nextDecreaseAt;
+  private Map<Actor, ActorLimit> actorToLimitMap;
+  private long targetLatencyNanos;
+  private int minInFlightEvents;
+  private LongAdder admittedEvents;
+  private LongAdder rejectedEvents;
+
+  /**
+   * Creates an admission controller with a fixed total limit.
+   *
+   * @param maxInFlightEvents the maximum number of events in flight
+   */
+  public AdmissionController(int maxInFlightEvents) {
+    if (maxInFlightEvents < 1) {
+      throw new IllegalArgumentException("maxInFlightEvents must be at least 1");
+    }
+
+    this.maxInFlightEvents = maxInFlightEvents;
+    this.limit = new AtomicInteger(maxInFlightEvents);
+    this.inFlightEvents = new AtomicInteger();
+    this.completedEvents = new AtomicLong();
+    this.nextDecreaseAt = new AtomicLong();
+    this.actorToLimitMap = new ConcurrentHashMap<>();
+    this.targetLatencyNanos = Long.MAX_VALUE;
+    this.minInFlightEvents = maxInFlightEvents;
+    this.admittedEvents = new LongAdder();
+    this.rejectedEvents = new LongAdder();
+  }
+
+  /**
+   * Limits the number of events in flight for the specified actor, in addition to the total limit.
+   * Calling this method again for the same actor changes the limit. Events of the actor that are
+   * in flight at that time count towards the new limit.
+   *
+   * @param actor the actor, e.g. the one a runner is run as
+   * @param maxInFlightEvents the maximum number of events in flight for the actor
+   * @return this admission controller
+   */
+  public AdmissionController limitInFlightEventsOf(Actor actor, int maxInFlightEvents) {
+    Objects.requireNonNull(actor);
+    if (maxInFlightEvents < 1) {
+      throw new IllegalArgumentException("maxInFlightEvents must be at least 1");
+    }
+
+    actorLimitOf(actor).limit = maxInFlightEvents;
+    return this;
+  }
+
+  /**
+   * Switches on adaptive concurrency: the total limit decreases when events take longer than the
+   * target latency to process, and recovers when they are processed in time.
+   *
+   * @param targetLatency the processing latency the controller aims for
+   * @param minInFlightEvents the total limit never falls below this value
+   * @return this admission controller
+   */
+  public AdmissionController adaptConcurrency(Duration targetLatency, int minInFlightEvents) {
+    Objects.requireNonNull(targetLatency);
+    if (minInFlightEvents < 1 || minInFlightEvents > maxInFlightEvents) {
+      throw new IllegalArgumentException(
+          "minInFlightEvents must be between 1 and " + maxInFlightEvents);
+    }
+
+    this.targetLatencyNanos = targetLatency.toNanos();
+    this.minInFlightEvents = minInFlightEvents;
+    return this;
+  }
+
+  /**
+   * Tries to admit an event of the specified actor. If admitted, the caller must call {@link
+   * #complete(Actor, long)} once the event has been processed.
+   *
+   * @param event the event, used for describing the rejection
+   * @param actor the actor, or null if the event is not subject to actor limits
+   * @return an empty optional if the event has been admitted, or else the exception describing
+   *     the rejection
+   */
+  public Optional<EventRejected> tryAdmit(Object event, Actor actor) {
+    ActorLimit actorLimit = actor != null ? actorLimitOf(actor) : null;
+    int currentActorLimit = actorLimit != null ? actorLimit.limit : 0;
+    if (actorLimit != null && !tryIncrement(actorLimit.inFlightEvents, currentActorLimit)) {
+      return reject(event, actor, currentActorLimit);
+    }
+
+    int currentLimit = limit.get();
+    if (!tryIncrement(inFlightEvents, currentLimit)) {
+      if (actorLimit != null) {
+        actorLimit.inFlightEvents.decrementAndGet();
+      }
+      return reject(event, null, currentLimit);
+    }
+
+    admittedEvents.increment();
+    return Optional.empty();
+  }
+
+  private ActorLimit actorLimitOf(Actor actor) {
+    return actorToLimitMap.computeIfAbsent(actor, a -> new ActorLimit(Integer.MAX_VALUE));
+  }
+
+  private boolean tryIncrement(AtomicInteger counter, int max) {
+    int current;
+    do {
+      current = counter.get();
+      if (current >= max) {
+        return false;
+      }
+    } while (!counter.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  private Optional<EventRejected> reject(Object event, Actor actor, int limit) {
+    rejectedEvents.increment();
+    return Optional.of(new EventRejected(event, actor, limit));
+  }
+
+  /**
+   * Marks an admitted event of the specified actor as processed, and adapts the total limit to the
+   * latency if adaptive concurrency is switched on.
+   *
+   * @param actor the actor passed to {@link #tryAdmit(Object, Actor)}
+   * @param latencyNanos the time it took to process the event, in nanoseconds
+   */
+  public void complete(Actor actor, long latencyNanos) {
+    int inFlightEventsBefore = inFlightEvents.getAndDecrement();
+    if (actor != null) {
+      actorLimitOf(actor).inFlightEvents.decrementAndGet();
+    }
+    if (targetLatencyNanos != Long.MAX_VALUE) {
+      adaptLimit(latencyNanos, inFlightEventsBefore);
+    }
+  }
+
+  private void adaptLimit(long latencyNanos, int inFlightEventsBefore) {
+    long completedEvent = completedEvents.incrementAndGet();
+    if (latencyNanos > targetLatencyNanos) {
+      long decreaseAt = nextDecreaseAt.get();
+      if (completedEvent >= decreaseAt
+          && nextDecreaseAt.compareAndSet(decreaseAt, completedEvent + inFlightEventsBefore)) {
+        limit.updateAndGet(
+            current -> Math.max(minInFlightEvents, (int) (current * DECREASE_FACTOR)));
+      }
+    } else {
+      limit.updateAndGet(
+          current ->
+              inFlightEventsBefore * 2 >= current
+                  ? Math.min(maxInFlightEvents, current + 1)
+                  : current);
+    }
+  }
+
+  /**
+   * Returns the current total limit. Without adaptive concurrency, this is the configured maximum.
+   *
+   * @return the current limit
+   */
+  public int getLimit() {
+    return limit.get();
+  }
+
+  public int getMaxInFlightEvents() {
+    return maxInFlightEvents;
+  }
+
+  /**
+   * Returns the number of events currently in flight.
+   *
+   * @return the number of events in flight
+   */
+  public int getInFlightEvents() {
+    return inFlightEvents.get();
+  }
+
+  /**
+   * Returns the number of events currently in flight for the specified actor.
+   *
+   * @param actor the actor
+   * @return the number of events in flight, or 0 if no event of the actor has been admitted yet
+   */
+  public int getInFlightEventsOf(Actor actor) {
+    ActorLimit actorLimit = actorToLimitMap.get(actor);
+    return actorLimit != null ? actorLimit.inFlightEvents.get() : 0;
+  }
+
+  /**
+   * Returns the number of events admitted so far.
+   *
+   * @return the number of admitted events
+   */
+  public long getAdmittedEvents() {
+    return admittedEvents.sum();
+  }
+
+  /**
+   * Returns the number of events rejected so far.
+   *
+   * @return the number of rejected events
+   */
+  public long getRejectedEvents() {
+    return rejectedEvents.sum();
+  }
+
+  private static class ActorLimit {
+    private volatile int limit;
+    private final AtomicInteger inFlightEvents;
+
+    private ActorLimit(int limit) {
+      this.limit = limit;
+      this.inFlightEvents = new AtomicInteger();
+    }
+  }
+}
@@ -0,0 +1,216 @@
+package org.requirementsascode.ingress;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Ingress stage that collapses bursts of events of the same class into a single event, before
+ * they reach the runner.
+ *
+ * <p>For each configured event class, consecutive events of that class are held back, and only the
+ * latest one is passed on. The held back event is passed on when its time window has elapsed, when
+ * {@link #flush()} is called (e.g. at the end of a UI frame), or as soon as an event of a different
+ * class arrives, so that the order of events is preserved. Events of classes that have not been
+ * configured are passed on immediately. Classes are matched exactly, not by subclass.
+ *
+ * <p>Use one coalescer per runner, i.e. per session. Time windows are only checked when an event
+ * arrives or when {@link #flushExpired()} is called, so call that method periodically (e.g. from a
+ * scheduled executor or a UI timer) if events must not wait until the next event arrives.
+ *
+ * <p>Example: {@code new EventCoalescer(runner::reactTo).debounce(ChangeQuantity.class,
+ * Duration.ofMillis(100))}
+ *
+ * @author b_muth
+ */
+public class EventCoalescer implements Consumer<Object> {
+  private Consumer<Object> nextStage;
+  private LongSupplier nanoClock;
+  private Map<Class<?>, Window> eventClassToWindowMap;
+
+  private Object pendingEvent;
+  private Window pendingWindow;
+  private long pendingDeadline;
+  private long coalescedEvents;
+
+  /**
+   * Creates a coalescer that passes events on to the specified next stage, measuring time with
+   * {@link System#nanoTime()}.
+   *
+   * @param nextStage the next stage, e.g. runner::reactTo
+   */
+  public EventCoalescer(Consumer<Object> nextStage) {
+    this(nextStage, System::nanoTime);
+  }
+
+  /**
+   * Creates a coalescer that passes events on to the specified next stage, measuring time with the
+   * specified clock. Use this constructor to test with a virtual clock.
+   *
+   * @param nextStage the next stage, e.g. runner::reactTo
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public EventCoalescer(Consumer<Object> nextStage, LongSupplier nanoClock) {
+    Objects.requireNonNull(nextStage);
+    Objects.requireNonNull(nanoClock);
+
+    this.nextStage = nextStage;
+    this.nanoClock = nanoClock;
+    this.eventClassToWindowMap = new HashMap<>();
+  }
+
+  /**
+   * Coalesces events of the specified class that arrive within the specified window, measured from
+   * the first event of a burst. The latest event is passed on at the latest when the window has
+   * elapsed, so a continuous burst is passed on at a steady rate.
+   *
+   * @param eventClass the class of events to coalesce
+   * @param window the length of the window
+   * @return this coalescer, for configuring further event classes
+   */
+  public synchronized EventCoalescer coalesce(Class<?> eventClass, Duration window) {
+    Objects.requireNonNull(window);
+    return configure(eventClass, new Window(window.toNanos(), false, false));
+  }
+
+  /**
+   * Debounces events of the specified class: the latest event is passed on only after no further
+   * event of that class has arrived for the specified quiet period.
+   *
+   * @param eventClass the class of events to debounce
+   * @param quietPeriod the time without events after which the latest event is passed on
+   * @return this coalescer, for configuring further event classes
+   */
+  public synchronized EventCoalescer debounce(Class<?> eventClass, Duration quietPeriod) {
+    Objects.requireNonNull(quietPeriod);
+    return configure(eventClass, new Window(quietPeriod.toNanos(), true, false));
+  }
+
+  /**
+   * Coalesces events of the specified class until {@link #flush()} is called, e.g. once per UI
+   * frame.
+   *
+   * @param eventClass the class of events to coalesce
+   * @return this coalescer, for configuring further event classes
+   */
+  public synchronized EventCoalescer coalescePerFrame(Class<?> eventClass) {
+    return configure(eventClass, new Window(0, false, true));
+  }
+
+  private EventCoalescer configure(Class<?> eventClass, Window window) {
+    Objects.requireNonNull(eventClass);
+    if (window.nanos < 0) {
+      throw new IllegalArgumentException("Window must not be negative");
+    }
+
+    eventClassToWindowMap.put(eventClass, window);
+    return this;
+  }
+
+  /**
+   * Accepts the specified event. It is either held back, or passed on to the next stage, together
+   * with an event held back earlier.
+   *
+   * @param event the event
+   */
+  @Override
+  public synchronized void accept(Object event) {
+    Objects.requireNonNull(event);
+
+    long now = nanoClock.getAsLong();
+    Window window = eventClassToWindowMap.get(event.getClass());
+
+    if (pendingEvent != null) {
+      boolean sameBurst =
+          window != null && pendingEvent.getClass().equals(event.getClass()) && !isExpired(now);
+      if (sameBurst) {
+        pendingEvent = event;
+        coalescedEvents++;
+        if (window.restartsOnEvent) {
+          pendingDeadline = now + window.nanos;
+        }
+        return;
+      }
+      passOnPendingEvent();
+    }
+
+    if (window == null) {
+      nextStage.accept(event);
+    } else {
+      pendingEvent = event;
+      pendingWindow = window;
+      pendingDeadline = now + window.nanos;
+    }
+  }
+
+  /**
+   * Passes on the event held back, if its window has elapsed.
+   *
+   * @return true if an event has been passed on, false otherwise
+   */
+  public synchronized boolean flushExpired() {
+    boolean flushesEvent = pendingEvent != null && isExpired(nanoClock.getAsLong());
+    if (flushesEvent) {
+      passOnPendingEvent();
+    }
+    return flushesEvent;
+  }
+
+  /**
+   * Passes on the event held back, if there is one, no matter whether its window has elapsed.
+   *
+   * @return true if an event has been passed on, false otherwise
+   */
+  public synchronized boolean flush() {
+    boolean flushesEvent = pendingEvent != null;
+    if (flushesEvent) {
+      passOnPendingEvent();
+    }
+    return flushesEvent;
+  }
+
+  private boolean isExpired(long now) {
+    return !pendingWindow.untilFlush && now - pendingDeadline >= 0;
+  }
+
+  private void passOnPendingEvent() {
+    Object event = pendingEvent;
+    pendingEvent = null;
+    pendingWindow = null;
+    nextStage.accept(event);
+  }
+
+  /**
+   * Returns the number of events that have been dropped so far, because a later event of the same
+   * class replaced them.
+   *
+   * @return the number of coalesced events
+   */
+  public synchronized long getCoalescedEvents() {
+    return coalescedEvents;
+  }
+
+  /**
+   * Returns whether an event is currently held back.
+   *
+   * @return true if an event is pending, false otherwise
+   */
+  public synchronized boolean hasPendingEvent() {
+    return pendingEvent != null;
+  }
+
+  private static class Window {
+    private final long nanos;
+    private final boolean restartsOnEvent;
+    private final boolean untilFlush;
+
+    private Window(long nanos, boolean restartsOnEvent, boolean untilFlush) {
+      this.nanos = nanos;
+      this.restartsOnEvent = restartsOnEvent;
+      this.untilFlush = untilFlush;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package org.requirementsascode.ingress;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Ingress stage that drops events whose idempotency key has been seen recently, so that retried
+ * requests of clients don't cause a system reaction twice.
+ *
+ * <p>The key of an event is extracted by a configurable function. Events for which the function
+ * returns null have no key, and are always passed on. If passing on an event throws an exception,
+ * its key is forgotten, so that a retry of the client is processed.
+ *
+ * <p>Example: {@code new IdempotencyFilter(event -> ((Command) event).getRequestId(), new
+ * IdempotencyKeyCache(10_000, Duration.ofMinutes(5)), runner::reactTo)}
+ *
+ * @see IdempotencyKeyCache
+ * @author b_muth
+ */
+public class IdempotencyFilter implements Consumer<Object> {
+  private Function<Object, ?> idempotencyKey;
+  private IdempotencyKeyCache seenKeys;
+  private Consumer<Object> nextStage;
+  private LongAdder droppedEvents;
+
+  /**
+   * Creates a filter that remembers keys in the specified cache.
+   *
+   * @param idempotencyKey the function that extracts the key from an event, or returns null if the
+   *     event has none
+   * @param seenKeys the cache of keys, for a single session, or shared by the filters of all
+   *     sessions
+   * @param nextStage the next stage, e.g. runner::reactTo
+   */
+  public IdempotencyFilter(
+      Function<Object, ?> idempotencyKey,
+      IdempotencyKeyCache seenKeys,
+      Consumer<Object> nextStage) {
+    Objects.requireNonNull(idempotencyKey);
+    Objects.requireNonNull(seenKeys);
+    Objects.requireNonNull(nextStage);
+
+    this.idempotencyKey = idempotencyKey;
+    this.seenKeys = seenKeys;
+    this.nextStage = nextStage;
+    this.droppedEvents = new LongAdder();
+  }
+
+  /**
+   * Passes on the specified event, unless it is a duplicate.
+   *
+   * @param event the event
+   */
+  @Override
+  public void accept(Object event) {
+    Objects.requireNonNull(event);
+
+    Object key = idempotencyKey.apply(event);
+    if (key == null) {
+      nextStage.accept(event);
+    } else if (seenKeys.add(key)) {
+      passOn(event, key);
+    } else {
+      droppedEvents.increment();
+    }
+  }
+
+  private void passOn(Object event, Object key) {
+    try {
+      nextStage.accept(event);
+    } catch (RuntimeException | Error e) {
+      seenKeys.remove(key);
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the number of duplicate events that have been dropped so far.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
+}
@@ -0,0 +1,329 @@
+package org.requirementsascode.ingress;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-expiring set of recently seen idempotency keys.
+ *
+ * <p>The cache does not keep references to the keys. It keeps a 64 bit fingerprint of each key
+ * instead, together with the time the key has been seen first, in primitive arrays that are
+ * allocated once, when the cache is created. A key is forgotten when its time to live has elapsed,
+ * or when its stripe (see below) is full and the key is the oldest one in it.
+ *
+ * <p>The fingerprint of a {@link UUID}, {@link Long}, {@link Integer} or {@link Short} key is
+ * computed from its value, so integral numbers of equal value are the same key, whatever their
+ * type. The fingerprint of a {@link CharSequence} key is computed from its characters. The
+ * fingerprint of any other key is computed from its {@code toString()}, so such keys must have a
+ * {@code toString()} that returns different strings for keys that are not equal. Otherwise, the
+ * cache treats different keys as duplicates. For keys with distinct fingerprint sources, the
+ * probability that two of them have the same fingerprint is negligible (about 1 in 10^13 for a full
+ * cache of one million keys).
+ *
+ * <p>Memory cost: each key slot takes 8 bytes for the fingerprint, 8 bytes for the time it has been
+ * seen, and two or up to four 4 byte slots in the hash index (the index has a power of two size of
+ * at least twice the capacity). That is 24 to 32 bytes per key, i.e. 24 to 32 MB per million keys,
+ * no matter how long the keys are.
+ *
+ * <p>The cache is split into stripes, each guarded by its own lock, so one cache can be shared by
+ * the ingress of all sessions. Create a cache with a single stripe to use it for one session only.
+ *
+ * @author b_muth
+ */
+public class IdempotencyKeyCache {
+  private Stripe[] stripes;
+  private long timeToLiveNanos;
+  private LongSupplier nanoClock;
+
+  /**
+   * Creates a cache with a single stripe, for use by a single session.
+   *
+   * @param maxKeys the maximum number of keys remembered
+   * @param timeToLive the time after which a key is forgotten
+   */
+  public IdempotencyKeyCache(int maxKeys, Duration timeToLive) {
+    this(maxKeys, timeToLive, 1, System::nanoTime);
+  }
+
+  /**
+   * Creates a cache with the specified number of stripes, that measures time with the specified
+   * clock.
+   *
+   * @param maxKeys the maximum number of keys remembered, divided evenly among the stripes
+   * @param timeToLive the time after which a key is forgotten
+   * @param stripeCount the number of stripes, rounded up to a power of two. Use a value similar to
+   *     the number of threads that dispatch events, when sharing the cache among sessions.
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public IdempotencyKeyCache(
+      int maxKeys, Duration timeToLive, int stripeCount, LongSupplier nanoClock) {
+    Objects.requireNonNull(timeToLive);
+    Objects.requireNonNull(nanoClock);
+    if (stripeCount < 1 || maxKeys < stripeCount) {
+      throw new IllegalArgumentException("Need at least one stripe, and one key per stripe");
+    }
+
+    int powerOfTwoStripeCount = powerOfTwoAtLeast(stripeCount);
+    int keysPerStripe = Math.max(1, maxKeys / powerOfTwoStripeCount);
+    this.stripes = new Stripe[powerOfTwoStripeCount];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe(keysPerStripe);
+    }
+    this.timeToLiveNanos = timeToLive.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Remembers the specified key, unless it has been seen before and not been forgotten yet.
+   *
+   * @param key the idempotency key
+   * @return true if the key has not been seen before, false if it is a duplicate
+   */
+  public boolean add(Object key) {
+    long fingerprint = fingerprintOf(key);
+    return stripeOf(fingerprint).add(fingerprint, nanoClock.getAsLong(), timeToLiveNanos);
+  }
+
+  /**
+   * Checks whether the specified key has been seen, and not been forgotten yet.
+   *
+   * @param key the idempotency key
+   * @return true if the key is a duplicate, false otherwise
+   */
+  public boolean contains(Object key) {
+    long fingerprint = fingerprintOf(key);
+    return stripeOf(fingerprint).contains(fingerprint, nanoClock.getAsLong(), timeToLiveNanos);
+  }
+
+  /**
+   * Forgets the specified key, so that it is not a duplicate any more, and frees its slot for
+   * another key. Use this method when an event could not be processed, so that a retry of the
+   * client is processed again.
+   *
+   * @param key the idempotency key
+   */
+  public void remove(Object key) {
+    long fingerprint = fingerprintOf(key);
+    stripeOf(fingerprint).remove(fingerprint);
+  }
+
+  /**
+   * Returns the number of keys currently remembered, including keys whose time to live has
+   * elapsed but that have not been evicted yet.
+   *
+   * @return the number of keys
+   */
+  public int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.size();
+    }
+    return size;
+  }
+
+  /**
+   * Returns the maximum number of keys remembered.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return stripes.length * stripes[0].capacity();
+  }
+
+  private Stripe stripeOf(long fingerprint) {
+    int stripeIndex = (int) (fingerprint >>> 40) & (stripes.length - 1);
+    return stripes[stripeIndex];
+  }
+
+  static long fingerprintOf(Object key) {
+    Objects.requireNonNull(key);
+
+    long fingerprint;
+    if (key instanceof UUID) {
+      UUID uuid = (UUID) key;
+      fingerprint = mix(uuid.getMostSignificantBits()) ^ uuid.getLeastSignificantBits();
+    } else if (key instanceof Long || key instanceof Integer || key instanceof Short) {
+      fingerprint = ((Number) key).longValue();
+    } else {
+      CharSequence chars = key instanceof CharSequence ? (CharSequence) key : key.toString();
+      fingerprint = fnv1a(chars);
+    }
+    return mix(fingerprint);
+  }
+
+  private static long fnv1a(CharSequence chars) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < chars.length(); i++) {
+      hash ^= chars.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return hash;
+  }
+
+  private static long mix(long value) {
+    long z = value + 0x9e3779b97f4a7c15L;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
+  private static int powerOfTwoAtLeast(int value) {
+    int highestOneBit = Integer.highestOneBit(value);
+    return highestOneBit == value ? value : highestOneBit << 1;
+  }
+
+  /**
+   * A ring of fingerprints in the order they have been added, indexed by an open addressing hash
+   * table with linear probing. Index slots hold the ring position plus one, zero means empty.
+   */
+  private static class Stripe {
+    private final long[] fingerprints;
+    private final long[] seenAt;
+    private final int[] index;
+    private final int indexMask;
+    private int oldest;
+    private int size;
+
+    private Stripe(int capacity) {
+      this.fingerprints = new long[capacity];
+      this.seenAt = new long[capacity];
+      this.index = new int[powerOfTwoAtLeast(capacity * 2)];
+      this.indexMask = index.length - 1;
+    }
+
+    synchronized boolean add(long fingerprint, long now, long timeToLiveNanos) {
+      evictExpired(now, timeToLiveNanos);
+      if (findSlot(fingerprint) >= 0) {
+        return false;
+      }
+      if (size == capacity()) {
+        evictOldest();
+      }
+
+      int position = (oldest + size) % capacity();
+      fingerprints[position] = fingerprint;
+      seenAt[position] = now;
+      size++;
+
+      int slot = homeSlot(fingerprint);
+      while (index[slot] != 0) {
+        slot = (slot + 1) & indexMask;
+      }
+      index[slot] = position + 1;
+      return true;
+    }
+
+    synchronized boolean contains(long fingerprint, long now, long timeToLiveNanos) {
+      int slot = findSlot(fingerprint);
+      return slot >= 0 && now - seenAt[index[slot] - 1] < timeToLiveNanos;
+    }
+
+    synchronized void remove(long fingerprint) {
+      int slot = findSlot(fingerprint);
+      if (slot >= 0) {
+        int position = index[slot] - 1;
+        deleteSlot(slot);
+        closeGapAt(position);
+      }
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    int capacity() {
+      return fingerprints.length;
+    }
+
+    private void evictExpired(long now, long timeToLiveNanos) {
+      while (size > 0 && now - seenAt[oldest] >= timeToLiveNanos) {
+        evictOldest();
+      }
+    }
+
+    private void evictOldest() {
+      int slot = homeSlot(fingerprints[oldest]);
+      while (index[slot] != 0) {
+        if (index[slot] == oldest + 1) {
+          deleteSlot(slot);
+          break;
+        }
+        slot = (slot + 1) & indexMask;
+      }
+      oldest = (oldest + 1) % capacity();
+      size--;
+    }
+
+    /**
+     * Closes the gap a removed key leaves in the ring, by moving the keys on the shorter side of it
+     * by one position. So the ring stays in the order the keys have been added, and the position
+     * is free for the next key.
+     */
+    private void closeGapAt(int position) {
+      int offset = Math.floorMod(position - oldest, capacity());
+      if (offset < size - 1 - offset) {
+        for (int i = offset; i > 0; i--) {
+          move(ringPosition(i - 1), ringPosition(i));
+        }
+        oldest = (oldest + 1) % capacity();
+      } else {
+        for (int i = offset; i < size - 1; i++) {
+          move(ringPosition(i + 1), ringPosition(i));
+        }
+      }
+      size--;
+    }
+
+    private int ringPosition(int offset) {
+      return (oldest + offset) % capacity();
+    }
+
+    private void move(int fromPosition, int toPosition) {
+      int slot = homeSlot(fingerprints[fromPosition]);
+      while (index[slot] != fromPosition + 1) {
+        slot = (slot + 1) & indexMask;
+      }
+      index[slot] = toPosition + 1;
+      fingerprints[toPosition] = fingerprints[fromPosition];
+      seenAt[toPosition] = seenAt[fromPosition];
+    }
+
+    private int findSlot(long fingerprint) {
+      int slot = homeSlot(fingerprint);
+      while (index[slot] != 0) {
+        if (fingerprints[index[slot] - 1] == fingerprint) {
+          return slot;
+        }
+        slot = (slot + 1) & indexMask;
+      }
+      return -1;
+    }
+
+    private void deleteSlot(int slot) {
+      int emptySlot = slot;
+      int currentSlot = slot;
+      while (true) {
+        currentSlot = (currentSlot + 1) & indexMask;
+        if (index[currentSlot] == 0) {
+          break;
+        }
+        int home = homeSlot(fingerprints[index[currentSlot] - 1]);
+        boolean staysInPlace =
+            emptySlot <= currentSlot
+                ? emptySlot < home && home <= currentSlot
+                : emptySlot < home || home <= currentSlot;
+        if (!staysInPlace) {
+          index[emptySlot] = index[currentSlot];
+          emptySlot = currentSlot;
+        }
+      }
+      index[emptySlot] = 0;
+    }
+
+    private int homeSlot(long fingerprint) {
+      return (int) fingerprint & indexMask;
+    }
+  }
+}
@@ -0,0 +1,91 @@
+package org.requirementsascode.ingress;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.ingress.PriorityLanes.Lane;
+
+/**
+ * Metrics of the lanes of one or several {@link PriorityLanes}, e.g. of all sessions of a session
+ * engine. Latency is measured from the time an event is queued to the time the next stage has
+ * processed it.
+ *
+ * @author b_muth
+ */
+public class LaneMetrics {
+  private AtomicInteger[] queuedEvents;
+  private LongAdder[] processedEvents;
+  private LongAdder[] totalLatencyNanos;
+  private AtomicLong[] maxLatencyNanos;
+
+  public LaneMetrics() {
+    int laneCount = Lane.values().length;
+    this.queuedEvents = new AtomicInteger[laneCount];
+    this.processedEvents = new LongAdder[laneCount];
+    this.totalLatencyNanos = new LongAdder[laneCount];
+    this.maxLatencyNanos = new AtomicLong[laneCount];
+    for (int i = 0; i < laneCount; i++) {
+      queuedEvents[i] = new AtomicInteger();
+      processedEvents[i] = new LongAdder();
+      totalLatencyNanos[i] = new LongAdder();
+      maxLatencyNanos[i] = new AtomicLong();
+    }
+  }
+
+  void queued(Lane lane) {
+    queuedEvents[lane.ordinal()].incrementAndGet();
+  }
+
+  void dequeued(Lane lane) {
+    queuedEvents[lane.ordinal()].decrementAndGet();
+  }
+
+  void processed(Lane lane, long latencyNanos) {
+    int i = lane.ordinal();
+    processedEvents[i].increment();
+    totalLatencyNanos[i].add(latencyNanos);
+    maxLatencyNanos[i].accumulateAndGet(latencyNanos, Math::max);
+  }
+
+  /**
+   * Returns the number of events currently waiting in the specified lane.
+   *
+   * @param lane the lane
+   * @return the queue depth of the lane
+   */
+  public int getQueuedEvents(Lane lane) {
+    return queuedEvents[lane.ordinal()].get();
+  }
+
+  /**
+   * Returns the number of events of the specified lane processed so far.
+   *
+   * @param lane the lane
+   * @return the number of processed events
+   */
+  public long getProcessedEvents(Lane lane) {
+    return processedEvents[lane.ordinal()].sum();
+  }
+
+  /**
+   * Returns the average latency of the events of the specified lane processed so far.
+   *
+   * @param lane the lane
+   * @return the average latency in nanoseconds, or 0 if no event has been processed
+   */
+  public long getAverageLatencyNanos(Lane lane) {
+    long processed = getProcessedEvents(lane);
+    return processed == 0 ? 0 : totalLatencyNanos[lane.ordinal()].sum() / processed;
+  }
+
+  /**
+   * Returns the maximum latency of the events of the specified lane processed so far.
+   *
+   * @param lane the lane
+   * @return the maximum latency in nanoseconds
+   */
+  public long getMaxLatencyNanos(Lane lane) {
+    return maxLatencyNanos[lane.ordinal()].get();
+  }
+}
@@ -0,0 +1,210 @@
+package org.requirementsascode.ingress;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Ingress stage that queues the events of a single session in two lanes, and passes them on one at
+ * a time, high priority events first.
+ *
+ * <p>Events can be accepted from any thread. Whichever thread finds the lanes idle passes on the
+ * queued events until both lanes are empty, so the next stage (e.g. a runner, which is not thread
+ * safe) is never called concurrently. Events accepted by the next stage itself, while it processes
+ * an event, are queued as well, and passed on afterwards.
+ *
+ * <p>By default, exceptions (i.e. instances of {@link Throwable}) are high priority events. To keep
+ * low priority events from starving, a low priority event is passed on after a configurable number
+ * of consecutive high priority events, if one is waiting.
+ *
+ * <p>Exceptions thrown by system reactions are handled by the runner right away, within the same
+ * call of {@code reactTo}. To queue them in the high priority lane instead, overwrite {@code
+ * UseCaseModelRunner.handleException} so that it passes the exception to this stage.
+ *
+ * @author b_muth
+ */
+public class PriorityLanes implements Consumer<Object> {
+  /** The lanes an event can be queued in. */
+  public enum Lane {
+    HIGH,
+    LOW
+  }
+
+  private static final int DEFAULT_MAX_CONSECUTIVE_HIGH_PRIORITY_EVENTS = 16;
+
+  private Consumer<Object> nextStage;
+  private Predicate<Object> isHighPriority;
+  private int maxConsecutiveHighPriorityEvents;
+  private LaneMetrics laneMetrics;
+  private LongSupplier nanoClock;
+  private Consumer<RuntimeException> exceptionHandler;
+
+  private Queue<QueuedEvent> highPriorityLane;
+  private Queue<QueuedEvent> lowPriorityLane;
+  private AtomicBoolean isPassingOn;
+  private int consecutiveHighPriorityEvents;
+
+  /**
+   * Creates lanes that treat exceptions as high priority events.
+   *
+   * @param nextStage the next stage, e.g. runner::reactTo
+   */
+  public PriorityLanes(Consumer<Object> nextStage) {
+    this(
+        nextStage,
+        event -> event instanceof Throwable,
+        DEFAULT_MAX_CONSECUTIVE_HIGH_PRIORITY_EVENTS,
+        new LaneMetrics(),
+        System::nanoTime);
+  }
+
+  /**
+   * Creates lanes with the specified configuration.
+   *
+   * @param nextStage the next stage, e.g. runner::reactTo
+   * @param isHighPriority decides which events are queued in the high priority lane
+   * @param maxConsecutiveHighPriorityEvents the number of high priority events passed on in a row,
+   *     before a waiting low priority event is passed on
+   * @param laneMetrics the metrics that measure the lanes, possibly shared with other sessions
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public PriorityLanes(
+      Consumer<Object> nextStage,
+      Predicate<Object> isHighPriority,
+      int maxConsecutiveHighPriorityEvents,
+      LaneMetrics laneMetrics,
+      LongSupplier nanoClock) {
+    Objects.requireNonNull(nextStage);
+    Objects.requireNonNull(isHighPriority);
+    Objects.requireNonNull(laneMetrics);
+    Objects.requireNonNull(nanoClock);
+    if (maxConsecutiveHighPriorityEvents < 1) {
+      throw new IllegalArgumentException("maxConsecutiveHighPriorityEvents must be at least 1");
+    }
+
+    this.nextStage = nextStage;
+    this.isHighPriority = isHighPriority;
+    this.maxConsecutiveHighPriorityEvents = maxConsecutiveHighPriorityEvents;
+    this.laneMetrics = laneMetrics;
+    this.nanoClock = nanoClock;
+    this.exceptionHandler =
+        e -> {
+          throw e;
+        };
+    this.highPriorityLane = new ConcurrentLinkedQueue<>();
+    this.lowPriorityLane = new ConcurrentLinkedQueue<>();
+    this.isPassingOn = new AtomicBoolean();
+  }
+
+  /**
+   * Handles exceptions thrown by the next stage with the specified handler. By default, they are
+   * rethrown to the thread that happens to pass on the event. In that case, the events still
+   * waiting are passed on when the next event is accepted.
+   *
+   * @param exceptionHandler the handler
+   * @return this stage
+   */
+  public PriorityLanes handleExceptionsWith(Consumer<RuntimeException> exceptionHandler) {
+    Objects.requireNonNull(exceptionHandler);
+
+    this.exceptionHandler = exceptionHandler;
+    return this;
+  }
+
+  /**
+   * Queues the specified event in its lane, and passes on waiting events unless another thread is
+   * already doing so.
+   *
+   * @param event the event
+   */
+  @Override
+  public void accept(Object event) {
+    Objects.requireNonNull(event);
+
+    Lane lane = isHighPriority.test(event) ? Lane.HIGH : Lane.LOW;
+    laneMetrics.queued(lane);
+    laneOf(lane).add(new QueuedEvent(event, lane, nanoClock.getAsLong()));
+    passOnQueuedEvents();
+  }
+
+  private void passOnQueuedEvents() {
+    while (hasQueuedEvents() && isPassingOn.compareAndSet(false, true)) {
+      try {
+        QueuedEvent queuedEvent;
+        while ((queuedEvent = nextQueuedEvent()) != null) {
+          passOn(queuedEvent);
+        }
+      } finally {
+        isPassingOn.set(false);
+      }
+    }
+  }
+
+  private QueuedEvent nextQueuedEvent() {
+    QueuedEvent queuedEvent = null;
+    if (consecutiveHighPriorityEvents < maxConsecutiveHighPriorityEvents) {
+      queuedEvent = highPriorityLane.poll();
+    }
+    if (queuedEvent != null) {
+      consecutiveHighPriorityEvents++;
+    } else {
+      consecutiveHighPriorityEvents = 0;
+      queuedEvent = lowPriorityLane.poll();
+      if (queuedEvent == null) {
+        queuedEvent = highPriorityLane.poll();
+        consecutiveHighPriorityEvents = queuedEvent != null ? 1 : 0;
+      }
+    }
+    return queuedEvent;
+  }
+
+  private void passOn(QueuedEvent queuedEvent) {
+    laneMetrics.dequeued(queuedEvent.lane);
+    try {
+      nextStage.accept(queuedEvent.event);
+    } catch (RuntimeException e) {
+      exceptionHandler.accept(e);
+    } finally {
+      long latencyNanos = nanoClock.getAsLong() - queuedEvent.queuedAt;
+      laneMetrics.processed(queuedEvent.lane, latencyNanos);
+    }
+  }
+
+  private Queue<QueuedEvent> laneOf(Lane lane) {
+    return lane == Lane.HIGH ? highPriorityLane : lowPriorityLane;
+  }
+
+  /**
+   * Returns whether events are waiting in any of the lanes.
+   *
+   * @return true if at least one event is waiting, false otherwise
+   */
+  public boolean hasQueuedEvents() {
+    return !highPriorityLane.isEmpty() || !lowPriorityLane.isEmpty();
+  }
+
+  /**
+   * Returns the metrics that measure these lanes.
+   *
+   * @return the lane metrics
+   */
+  public LaneMetrics getLaneMetrics() {
+    return laneMetrics;
+  }
+
+  private static class QueuedEvent {
+    private final Object event;
+    private final Lane lane;
+    private final long queuedAt;
+
+    private QueuedEvent(Object event, Lane lane, long queuedAt) {
+      this.event = event;
+      this.lane = lane;
+      this.queuedAt = queuedAt;
+    }
+  }
+}
@@ -0,0 +1,10 @@
+/**
+ * Ingress package of requirementsascode, containing optional stages that are put in front of a
+ * use case model runner. They decide which events reach the runner, and when.
+ *
+ * <p>Every stage is a consumer of events that passes the events it lets through to another
+ * consumer, typically the next stage or the {@code reactTo} method of a runner.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.ingress;
@@ -0,0 +1,29 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a runner evaluating which steps can react to an event class.
+ *
+ * @author b_muth
+ */
+@Name("org.requirementsascode.CandidateEvaluation")
+@Label("Candidate Evaluation")
+@Category("Requirements as Code")
+@Description("A runner evaluates which steps can react to an event class")
+class CandidateEvaluationEvent extends Event {
+  @Label("Event Class")
+  Class<?> eventClass;
+
+  @Label("Candidate Steps")
+  @Description("Number of steps that can react")
+  int candidateSteps;
+
+  @Label("Failed")
+  @Description("Whether a condition of a step threw an exception")
+  boolean failed;
+}
@@ -0,0 +1,18 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a runner reacting to an event, from receiving the event until the
+ * system reaction (including autonomous system reactions that follow it) is complete.
+ *
+ * @author b_muth
+ */
+@Name("org.requirementsascode.Dispatch")
+@Label("Dispatch")
+@Category("Requirements as Code")
+@Description("A runner reacts to an event")
+class DispatchEvent extends StepEvent {}
@@ -0,0 +1,161 @@
+package org.requirementsascode.jfr;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.SystemReactionInterceptor;
+import org.requirementsascode.SystemReactionTrigger;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Listener and interceptor that make all runners of a use case model emit Java Flight Recorder
+ * events, so that slow requests can be correlated with garbage collection, I/O and other events in
+ * production recordings. Add it to a model via {@link #addTo(UseCaseModel)}. As it doesn't replace
+ * the runner, it works with any runner, e.g. a test runner.
+ *
+ * <p>The runners emit these events, all in the "Requirements as Code" category:
+ *
+ * <ul>
+ *   <li>org.requirementsascode.Dispatch, for each event a running runner receives, other than the
+ *       runner itself. The runner reacts to itself to trigger autonomous system reactions, which
+ *       the dispatch event of the preceding event covers.
+ *   <li>org.requirementsascode.SystemReaction, for each system reaction triggered. The event covers
+ *       the interceptors added to the model after this one, and the system reaction of the step.
+ * </ul>
+ *
+ * <p>The events carry the event class, and the names of use case, flow and step where applicable.
+ * When an event type is not enabled in any recording, the overhead is checking that, and the
+ * runners measuring time for their listeners. To record which steps can react to an event class,
+ * use a {@link FlightRecordingRunner} as well.
+ *
+ * @author b_muth
+ */
+public class FlightRecordingListener implements RunnerListener, SystemReactionInterceptor {
+  private final ThreadLocal<DispatchStack> dispatchStacks;
+
+  /**
+   * Creates a listener that hasn't been added to a model yet.
+   */
+  public FlightRecordingListener() {
+    this.dispatchStacks = ThreadLocal.withInitial(DispatchStack::new);
+  }
+
+  /**
+   * Creates a listener, and adds it to the specified model, both as runner listener and as system
+   * reaction interceptor.
+   *
+   * @param useCaseModel the model
+   * @return the added listener
+   */
+  public static FlightRecordingListener addTo(UseCaseModel useCaseModel) {
+    Objects.requireNonNull(useCaseModel);
+
+    FlightRecordingListener listener = new FlightRecordingListener();
+    useCaseModel.addRunnerListener(listener);
+    useCaseModel.addSystemReactionInterceptor(listener);
+    return listener;
+  }
+
+  /**
+   * Removes this listener from the specified model, both as runner listener and as system reaction
+   * interceptor.
+   *
+   * @param useCaseModel the model
+   */
+  public void removeFrom(UseCaseModel useCaseModel) {
+    Objects.requireNonNull(useCaseModel);
+
+    useCaseModel.removeRunnerListener(this);
+    useCaseModel.removeSystemReactionInterceptor(this);
+  }
+
+  @Override
+  public void eventReceived(UseCaseModelRunner runner, Object event) {
+    DispatchEvent dispatchEvent = new DispatchEvent();
+    if (dispatchEvent.isEnabled()) {
+      dispatchEvent.eventClass = event.getClass();
+      dispatchEvent.begin();
+      dispatchStacks.get().push(dispatchEvent, event);
+    } else {
+      dispatchStacks.get().push(null, event);
+    }
+  }
+
+  @Override
+  public void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {
+    DispatchStack dispatchStack = dispatchStacks.get();
+    DispatchEvent dispatchEvent = dispatchStack.peekEventFor(event);
+    // The first step that reacts to the received event is the step the dispatch is about
+    if (dispatchEvent != null && dispatchEvent.step == null) {
+      dispatchEvent.setStep(step);
+    }
+  }
+
+  @Override
+  public void eventProcessed(UseCaseModelRunner runner, Object event) {
+    DispatchEvent dispatchEvent = dispatchStacks.get().pop();
+    if (dispatchEvent != null && dispatchEvent.shouldCommit()) {
+      dispatchEvent.commit();
+    }
+  }
+
+  @Override
+  public void around(SystemReactionTrigger trigger) {
+    SystemReactionEvent systemReactionEvent = new SystemReactionEvent();
+    if (!systemReactionEvent.isEnabled()) {
+      trigger.trigger();
+      return;
+    }
+
+    systemReactionEvent.begin();
+    try {
+      trigger.trigger();
+    } finally {
+      if (systemReactionEvent.shouldCommit()) {
+        systemReactionEvent.eventClass = trigger.getEvent().getClass();
+        systemReactionEvent.setStep(trigger.getUseCaseStep());
+        systemReactionEvent.commit();
+      }
+    }
+  }
+
+  /**
+   * The dispatch events of a thread, one per received event that hasn't been processed yet. A
+   * system reaction may make a runner react to another event, so dispatches can be nested. The
+   * dispatch event is null if dispatch events were disabled when the event was received.
+   */
+  private static class DispatchStack {
+    private DispatchEvent[] dispatchEvents = new DispatchEvent[4];
+    private Object[] events = new Object[4];
+    private int depth;
+
+    void push(DispatchEvent dispatchEvent, Object event) {
+      if (depth == events.length) {
+        dispatchEvents = Arrays.copyOf(dispatchEvents, depth * 2);
+        events = Arrays.copyOf(events, depth * 2);
+      }
+      dispatchEvents[depth] = dispatchEvent;
+      events[depth] = event;
+      depth++;
+    }
+
+    DispatchEvent peekEventFor(Object event) {
+      return depth > 0 && events[depth - 1] == event ? dispatchEvents[depth - 1] : null;
+    }
+
+    DispatchEvent pop() {
+      if (depth == 0) {
+        return null;
+      }
+      depth--;
+      DispatchEvent dispatchEvent = dispatchEvents[depth];
+      dispatchEvents[depth] = null;
+      events[depth] = null;
+      return dispatchEvent;
+    }
+  }
+}
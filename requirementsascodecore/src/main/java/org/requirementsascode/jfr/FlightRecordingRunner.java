@@ -0,0 +1,50 @@
+package org.requirementsascode.jfr;
+
+import java.util.Set;
+
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * A runner that emits a Java Flight Recorder event each time it evaluates which steps can react to
+ * an event class. Use it instead of a {@link UseCaseModelRunner}, together with a {@link
+ * FlightRecordingListener} that emits the dispatch and system reaction events of all runners.
+ *
+ * <p>The runner emits org.requirementsascode.CandidateEvaluation events, in the "Requirements as
+ * Code" category, for each call of {@link #getStepsThatCanReactTo(Class)}, also if a condition
+ * throws an exception. The events carry the event class and the number of steps that can react.
+ * When the event type is not enabled in any recording, the only overhead is checking that.
+ *
+ * @author b_muth
+ */
+public class FlightRecordingRunner extends UseCaseModelRunner {
+  /**
+   * Creates a runner with the standard system reaction, that emits flight recorder events.
+   */
+  public FlightRecordingRunner() {
+    super();
+  }
+
+  @Override
+  public Set<Step> getStepsThatCanReactTo(Class<? extends Object> eventClass) {
+    CandidateEvaluationEvent candidateEvaluationEvent = new CandidateEvaluationEvent();
+    if (!candidateEvaluationEvent.isEnabled()) {
+      return super.getStepsThatCanReactTo(eventClass);
+    }
+
+    Set<Step> stepsThatCanReact = null;
+    candidateEvaluationEvent.begin();
+    try {
+      stepsThatCanReact = super.getStepsThatCanReactTo(eventClass);
+    } finally {
+      if (candidateEvaluationEvent.shouldCommit()) {
+        candidateEvaluationEvent.eventClass = eventClass;
+        candidateEvaluationEvent.failed = stepsThatCanReact == null;
+        candidateEvaluationEvent.candidateSteps =
+            stepsThatCanReact != null ? stepsThatCanReact.size() : 0;
+        candidateEvaluationEvent.commit();
+      }
+    }
+    return stepsThatCanReact;
+  }
+}
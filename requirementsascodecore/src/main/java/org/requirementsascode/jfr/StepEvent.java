@@ -0,0 +1,31 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+import org.requirementsascode.Step;
+
+/**
+ * Base class of flight recorder events that concern a step.
+ *
+ * @author b_muth
+ */
+abstract class StepEvent extends Event {
+  @Label("Event Class")
+  Class<?> eventClass;
+
+  @Label("Use Case")
+  String useCase;
+
+  @Label("Flow")
+  String flow;
+
+  @Label("Step")
+  String step;
+
+  void setStep(Step useCaseStep) {
+    this.useCase = useCaseStep.getUseCase().getName();
+    this.flow = useCaseStep.getFlow().getName();
+    this.step = useCaseStep.getName();
+  }
+}
@@ -0,0 +1,18 @@
+package org.requirementsascode.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for the system reaction of a step, triggered via {@code
+ * SystemReactionTrigger.trigger()}.
+ *
+ * @author b_muth
+ */
+@Name("org.requirementsascode.SystemReaction")
+@Label("System Reaction")
+@Category("Requirements as Code")
+@Description("The system reaction of a step runs")
+class SystemReactionEvent extends StepEvent {}
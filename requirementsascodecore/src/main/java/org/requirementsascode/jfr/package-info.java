@@ -0,0 +1,8 @@
+/**
+ * Java Flight Recorder package of requirementsascode, containing a listener that makes the runners
+ * of a model emit flight recorder events, and a runner that emits events for candidate evaluation.
+ * Only this package depends on the jdk.jfr module.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.jfr;
@@ -0,0 +1,71 @@
+package org.requirementsascode.management;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts events in one second slots of a ring, and calculates the rate of events per second over
+ * the last complete seconds. Lock free and allocation free.
+ *
+ * <p>Each slot holds the second (its lower 32 bits) and the count of events in that second, packed
+ * into a single long. So a slot moves on to a new second and counts its first event in one atomic
+ * step, and no event gets lost when threads record events while the second changes.
+ *
+ * @author b_muth
+ */
+class EventRate {
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int SLOT_COUNT = 6;
+  private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+  private AtomicLongArray slots;
+  private LongSupplier nanoClock;
+
+  EventRate(LongSupplier nanoClock) {
+    this.slots = new AtomicLongArray(SLOT_COUNT);
+    this.nanoClock = nanoClock;
+  }
+
+  void record() {
+    long second = Math.floorDiv(nanoClock.getAsLong(), NANOS_PER_SECOND);
+    int slot = (int) Math.floorMod(second, (long) SLOT_COUNT);
+    long slotState;
+    long newSlotState;
+    do {
+      slotState = slots.get(slot);
+      newSlotState =
+          secondOf(slotState) == (int) second ? slotState + 1 : slotState((int) second, 1);
+    } while (!slots.compareAndSet(slot, slotState, newSlotState));
+  }
+
+  private static long slotState(int second, long count) {
+    return ((long) second << 32) | count;
+  }
+
+  private static int secondOf(long slotState) {
+    return (int) (slotState >>> 32);
+  }
+
+  private static long countOf(long slotState) {
+    return slotState & COUNT_MASK;
+  }
+
+  /**
+   * Returns the average number of events per second, over the complete seconds in the ring (i.e.
+   * not including the current second).
+   *
+   * @return the events per second
+   */
+  double getEventsPerSecond() {
+    int currentSecond = (int) Math.floorDiv(nanoClock.getAsLong(), NANOS_PER_SECOND);
+    long eventCount = 0;
+    for (int i = 0; i < SLOT_COUNT; i++) {
+      long slotState = slots.get(i);
+      int secondsAgo = currentSecond - secondOf(slotState);
+      if (secondsAgo > 0 && secondsAgo < SLOT_COUNT) {
+        eventCount += countOf(slotState);
+      }
+    }
+    return (double) eventCount / (SLOT_COUNT - 1);
+  }
+}
@@ -0,0 +1,36 @@
+package org.requirementsascode.management;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registers MBeans with the platform MBean server.
+ *
+ * @author b_muth
+ */
+class MBeans {
+  private static final String DOMAIN = "org.requirementsascode";
+
+  private MBeans() {}
+
+  static ObjectName register(Object mbean, String type, String name) {
+    try {
+      ObjectName objectName =
+          new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(mbean, objectName);
+      return objectName;
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot register MBean " + name + " of type " + type, e);
+    }
+  }
+
+  static void unregister(ObjectName objectName) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    } catch (JMException e) {
+      throw new IllegalStateException("Cannot unregister MBean " + objectName, e);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package org.requirementsascode.management;
+
+/**
+ * Management interface of a session engine, i.e. a pool of runners with one runner per session.
+ *
+ * @author b_muth
+ */
+public interface SessionEngineMXBean {
+  /**
+   * Returns the number of live sessions.
+   *
+   * @return the session count
+   */
+  int getLiveSessions();
+
+  /**
+   * Returns the number of events waiting in the high priority lanes of all sessions.
+   *
+   * @return the queue depth
+   */
+  int getHighPriorityQueueDepth();
+
+  /**
+   * Returns the number of events waiting in the low priority lanes of all sessions.
+   *
+   * @return the queue depth
+   */
+  int getLowPriorityQueueDepth();
+
+  /**
+   * Returns the number of high priority events processed so far.
+   *
+   * @return the number of events
+   */
+  long getHighPriorityEventsProcessed();
+
+  /**
+   * Returns the number of low priority events processed so far.
+   *
+   * @return the number of events
+   */
+  long getLowPriorityEventsProcessed();
+
+  /**
+   * Returns the average time high priority events spent in their lane until processed, in
+   * nanoseconds.
+   *
+   * @return the average latency
+   */
+  long getHighPriorityAverageLatencyNanos();
+
+  /**
+   * Returns the maximum time a high priority event spent in its lane until processed, in
+   * nanoseconds.
+   *
+   * @return the maximum latency
+   */
+  long getHighPriorityMaxLatencyNanos();
+
+  /**
+   * Returns the average time low priority events spent in their lane until processed, in
+   * nanoseconds.
+   *
+   * @return the average latency
+   */
+  long getLowPriorityAverageLatencyNanos();
+
+  /**
+   * Returns the number of events in flight, or 0 if the session engine has no admission control.
+   *
+   * @return the number of events in flight
+   */
+  int getInFlightEvents();
+
+  /**
+   * Returns the current limit of events in flight, or 0 if the session engine has no admission
+   * control.
+   *
+   * @return the limit
+   */
+  int getInFlightEventsLimit();
+
+  /**
+   * Returns the number of events rejected by admission control so far.
+   *
+   * @return the number of rejected events
+   */
+  long getRejectedEvents();
+}
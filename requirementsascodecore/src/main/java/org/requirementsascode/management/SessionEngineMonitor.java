@@ -0,0 +1,130 @@
+package org.requirementsascode.management;
+
+import java.util.Objects;
+
+import javax.management.ObjectName;
+
+import org.requirementsascode.ingress.AdmissionController;
+import org.requirementsascode.ingress.LaneMetrics;
+import org.requirementsascode.ingress.PriorityLanes.Lane;
+import org.requirementsascode.session.SessionEngine;
+
+/**
+ * Exposes the state of a session engine as a platform MBean with the object name {@code
+ * org.requirementsascode:type=SessionEngine,name=...}.
+ *
+ * @author b_muth
+ */
+public class SessionEngineMonitor implements SessionEngineMXBean {
+  private SessionEngine sessionEngine;
+  private ObjectName objectName;
+
+  /**
+   * Creates a monitor for the specified session engine, without registering it. Use {@link
+   * #register(SessionEngine, String)} for that.
+   *
+   * @param sessionEngine the session engine
+   */
+  public SessionEngineMonitor(SessionEngine sessionEngine) {
+    Objects.requireNonNull(sessionEngine);
+    this.sessionEngine = sessionEngine;
+  }
+
+  /**
+   * Creates a monitor for the specified session engine, and registers it as platform MBean with
+   * the specified name.
+   *
+   * @param sessionEngine the session engine
+   * @param name the name of the MBean, e.g. the name of the application
+   * @return the registered monitor
+   */
+  public static SessionEngineMonitor register(SessionEngine sessionEngine, String name) {
+    Objects.requireNonNull(name);
+
+    SessionEngineMonitor monitor = new SessionEngineMonitor(sessionEngine);
+    monitor.objectName = MBeans.register(monitor, "SessionEngine", name);
+    return monitor;
+  }
+
+  /** Unregisters the MBean, if it has been registered. */
+  public void unregister() {
+    if (objectName != null) {
+      MBeans.unregister(objectName);
+      objectName = null;
+    }
+  }
+
+  @Override
+  public int getLiveSessions() {
+    return sessionEngine.getSessionCount();
+  }
+
+  @Override
+  public int getHighPriorityQueueDepth() {
+    return laneMetrics().getQueuedEvents(Lane.HIGH);
+  }
+
+  @Override
+  public int getLowPriorityQueueDepth() {
+    return laneMetrics().getQueuedEvents(Lane.LOW);
+  }
+
+  @Override
+  public long getHighPriorityEventsProcessed() {
+    return laneMetrics().getProcessedEvents(Lane.HIGH);
+  }
+
+  @Override
+  public long getLowPriorityEventsProcessed() {
+    return laneMetrics().getProcessedEvents(Lane.LOW);
+  }
+
+  @Override
+  public long getHighPriorityAverageLatencyNanos() {
+    return laneMetrics().getAverageLatencyNanos(Lane.HIGH);
+  }
+
+  @Override
+  public long getHighPriorityMaxLatencyNanos() {
+    return laneMetrics().getMaxLatencyNanos(Lane.HIGH);
+  }
+
+  @Override
+  public long getLowPriorityAverageLatencyNanos() {
+    return laneMetrics().getAverageLatencyNanos(Lane.LOW);
+  }
+
+  private LaneMetrics laneMetrics() {
+    return sessionEngine.getLaneMetrics();
+  }
+
+  @Override
+  public int getInFlightEvents() {
+    return sessionEngine
+        .getAdmissionController()
+        .map(AdmissionController::getInFlightEvents)
+        .orElse(0);
+  }
+
+  @Override
+  public int getInFlightEventsLimit() {
+    return sessionEngine.getAdmissionController().map(AdmissionController::getLimit).orElse(0);
+  }
+
+  @Override
+  public long getRejectedEvents() {
+    return sessionEngine
+        .getAdmissionController()
+        .map(AdmissionController::getRejectedEvents)
+        .orElse(0L);
+  }
+
+  /**
+   * Returns the object name the MBean has been registered with, if it has been registered.
+   *
+   * @return the object name, or null
+   */
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+}
@@ -0,0 +1,47 @@
+package org.requirementsascode.management;
+
+import java.util.Map;
+
+/**
+ * Management interface of a stuck session detector, i.e. the result of its latest scans of the
+ * sessions of a session engine.
+ *
+ * @author b_muth
+ */
+public interface StuckSessionDetectorMXBean {
+  /**
+   * Returns the number of sessions found stuck.
+   *
+   * @return the stuck session count
+   */
+  int getStuckSessions();
+
+  /**
+   * Returns the number of sessions found stuck, by step. The keys have the form "use case
+   * name/step name".
+   *
+   * @return the stuck sessions per step
+   */
+  Map<String, Long> getStuckSessionsPerStep();
+
+  /**
+   * Returns the number of sessions found stuck before they have run their first step.
+   *
+   * @return the stuck session count
+   */
+  int getStuckSessionsBeforeFirstStep();
+
+  /**
+   * Returns the number of sessions checked since the detector has been created.
+   *
+   * @return the number of checked sessions
+   */
+  long getScannedSessions();
+
+  /**
+   * Returns how often all sessions have been checked since the detector has been created.
+   *
+   * @return the number of completed rounds
+   */
+  long getCompletedScans();
+}
@@ -0,0 +1,96 @@
+package org.requirementsascode.management;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import javax.management.ObjectName;
+
+import org.requirementsascode.session.StuckSessionDetector;
+
+/**
+ * Exposes the result of a stuck session detector as a platform MBean with the object name {@code
+ * org.requirementsascode:type=StuckSessionDetector,name=...}.
+ *
+ * @author b_muth
+ */
+public class StuckSessionDetectorMonitor implements StuckSessionDetectorMXBean {
+  private StuckSessionDetector stuckSessionDetector;
+  private ObjectName objectName;
+
+  /**
+   * Creates a monitor for the specified detector, without registering it. Use {@link
+   * #register(StuckSessionDetector, String)} for that.
+   *
+   * @param stuckSessionDetector the detector
+   */
+  public StuckSessionDetectorMonitor(StuckSessionDetector stuckSessionDetector) {
+    Objects.requireNonNull(stuckSessionDetector);
+    this.stuckSessionDetector = stuckSessionDetector;
+  }
+
+  /**
+   * Creates a monitor for the specified detector, and registers it as platform MBean with the
+   * specified name.
+   *
+   * @param stuckSessionDetector the detector
+   * @param name the name of the MBean, e.g. the name of the application
+   * @return the registered monitor
+   */
+  public static StuckSessionDetectorMonitor register(
+      StuckSessionDetector stuckSessionDetector, String name) {
+    Objects.requireNonNull(name);
+
+    StuckSessionDetectorMonitor monitor = new StuckSessionDetectorMonitor(stuckSessionDetector);
+    monitor.objectName = MBeans.register(monitor, "StuckSessionDetector", name);
+    return monitor;
+  }
+
+  /** Unregisters the MBean, if it has been registered. */
+  public void unregister() {
+    if (objectName != null) {
+      MBeans.unregister(objectName);
+      objectName = null;
+    }
+  }
+
+  @Override
+  public int getStuckSessions() {
+    return stuckSessionDetector.getStuckSessionCount();
+  }
+
+  @Override
+  public Map<String, Long> getStuckSessionsPerStep() {
+    Map<String, Long> stepNameToCountMap = new TreeMap<>();
+    stuckSessionDetector
+        .getStuckSessionCounts()
+        .forEach(
+            (step, count) ->
+                stepNameToCountMap.put(step.getUseCase().getName() + "/" + step.getName(), count));
+    return stepNameToCountMap;
+  }
+
+  @Override
+  public int getStuckSessionsBeforeFirstStep() {
+    return stuckSessionDetector.getStuckSessionsBeforeFirstStep().size();
+  }
+
+  @Override
+  public long getScannedSessions() {
+    return stuckSessionDetector.getScannedSessions();
+  }
+
+  @Override
+  public long getCompletedScans() {
+    return stuckSessionDetector.getCompletedScans();
+  }
+
+  /**
+   * Returns the object name the MBean has been registered with, if it has been registered.
+   *
+   * @return the object name, or null
+   */
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+}
@@ -0,0 +1,63 @@
+package org.requirementsascode.management;
+
+import java.util.Map;
+
+/**
+ * Management interface of a use case model, aggregating what all runners of the model do.
+ *
+ * @author b_muth
+ */
+public interface UseCaseModelMXBean {
+  /**
+   * Returns the number of events received by running runners of the model.
+   *
+   * @return the number of events
+   */
+  long getEventsReceived();
+
+  /**
+   * Returns the average number of events received per second, over the last few seconds.
+   *
+   * @return the events per second
+   */
+  double getEventsPerSecond();
+
+  /**
+   * Returns the number of system reactions triggered, by use case name.
+   *
+   * @return the steps triggered per use case
+   */
+  Map<String, Long> getStepsTriggeredPerUseCase();
+
+  /**
+   * Returns the number of system reactions triggered, by flow. The keys have the form "use case
+   * name/flow name".
+   *
+   * @return the steps triggered per flow
+   */
+  Map<String, Long> getStepsTriggeredPerFlow();
+
+  /**
+   * Returns how often a runner has thrown a {@code MoreThanOneStepCanReact} exception.
+   *
+   * @return the count
+   */
+  long getMoreThanOneStepCanReactCount();
+
+  /**
+   * Returns how often a runner has thrown an {@code UnhandledException}.
+   *
+   * @return the count
+   */
+  long getUnhandledExceptionCount();
+
+  /**
+   * Returns the saturation of each bulkhead of the model, by bulkhead name.
+   *
+   * @return the bulkhead saturations
+   */
+  Map<String, Double> getBulkheadSaturation();
+
+  /** Resets all counters. */
+  void reset();
+}
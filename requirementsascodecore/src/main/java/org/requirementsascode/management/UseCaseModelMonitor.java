@@ -0,0 +1,182 @@
+package org.requirementsascode.management;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+import javax.management.ObjectName;
+
+import org.requirementsascode.Bulkhead;
+import org.requirementsascode.Flow;
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.exception.MoreThanOneStepCanReact;
+import org.requirementsascode.exception.UnhandledException;
+
+/**
+ * Monitors all runners of a use case model, as a runner listener, and exposes the results as a
+ * platform MBean with the object name {@code org.requirementsascode:type=UseCaseModel,name=...}.
+ *
+ * @author b_muth
+ */
+public class UseCaseModelMonitor implements RunnerListener, UseCaseModelMXBean {
+  private UseCaseModel useCaseModel;
+  private LongAdder eventsReceived;
+  private EventRate eventRate;
+  private ConcurrentMap<UseCase, LongAdder> useCaseToStepsTriggeredMap;
+  private ConcurrentMap<Flow, LongAdder> flowToStepsTriggeredMap;
+  private LongAdder moreThanOneStepCanReactCount;
+  private LongAdder unhandledExceptionCount;
+  private ObjectName objectName;
+
+  /**
+   * Creates a monitor for the specified model, measuring time with the specified clock. The monitor
+   * is neither added to the model, nor registered. Use {@link #register(UseCaseModel, String)} for
+   * that.
+   *
+   * @param useCaseModel the model
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public UseCaseModelMonitor(UseCaseModel useCaseModel, LongSupplier nanoClock) {
+    Objects.requireNonNull(useCaseModel);
+    Objects.requireNonNull(nanoClock);
+
+    this.useCaseModel = useCaseModel;
+    this.eventsReceived = new LongAdder();
+    this.eventRate = new EventRate(nanoClock);
+    this.useCaseToStepsTriggeredMap = new ConcurrentHashMap<>();
+    this.flowToStepsTriggeredMap = new ConcurrentHashMap<>();
+    this.moreThanOneStepCanReactCount = new LongAdder();
+    this.unhandledExceptionCount = new LongAdder();
+  }
+
+  /**
+   * Creates a monitor for the specified model, adds it to the model as runner listener, and
+   * registers it as platform MBean with the specified name.
+   *
+   * @param useCaseModel the model
+   * @param name the name of the MBean, e.g. the name of the application
+   * @return the registered monitor
+   */
+  public static UseCaseModelMonitor register(UseCaseModel useCaseModel, String name) {
+    Objects.requireNonNull(name);
+
+    UseCaseModelMonitor monitor = new UseCaseModelMonitor(useCaseModel, System::nanoTime);
+    monitor.objectName = MBeans.register(monitor, "UseCaseModel", name);
+    useCaseModel.addRunnerListener(monitor);
+    return monitor;
+  }
+
+  /** Removes this monitor from the model, and unregisters the MBean if it has been registered. */
+  public void unregister() {
+    useCaseModel.removeRunnerListener(this);
+    if (objectName != null) {
+      MBeans.unregister(objectName);
+      objectName = null;
+    }
+  }
+
+  @Override
+  public void eventReceived(UseCaseModelRunner runner, Object event) {
+    eventsReceived.increment();
+    eventRate.record();
+  }
+
+  @Override
+  public void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {
+    counterOf(step.getUseCase(), useCaseToStepsTriggeredMap).increment();
+    counterOf(step.getFlow(), flowToStepsTriggeredMap).increment();
+  }
+
+  private <K> LongAdder counterOf(K key, ConcurrentMap<K, LongAdder> keyToCounterMap) {
+    LongAdder counter = keyToCounterMap.get(key);
+    if (counter == null) {
+      counter = keyToCounterMap.computeIfAbsent(key, k -> new LongAdder());
+    }
+    return counter;
+  }
+
+  @Override
+  public void dispatchFailed(UseCaseModelRunner runner, Object event, RuntimeException exception) {
+    if (exception instanceof MoreThanOneStepCanReact) {
+      moreThanOneStepCanReactCount.increment();
+    } else if (exception instanceof UnhandledException) {
+      unhandledExceptionCount.increment();
+    }
+  }
+
+  @Override
+  public long getEventsReceived() {
+    return eventsReceived.sum();
+  }
+
+  @Override
+  public double getEventsPerSecond() {
+    return eventRate.getEventsPerSecond();
+  }
+
+  @Override
+  public Map<String, Long> getStepsTriggeredPerUseCase() {
+    return countsByName(useCaseToStepsTriggeredMap, useCase -> useCase.getName());
+  }
+
+  @Override
+  public Map<String, Long> getStepsTriggeredPerFlow() {
+    return countsByName(
+        flowToStepsTriggeredMap, flow -> flow.getUseCase().getName() + "/" + flow.getName());
+  }
+
+  private <K> Map<String, Long> countsByName(
+      Map<K, LongAdder> keyToCounterMap, Function<K, String> nameOfKey) {
+    Map<String, Long> nameToCountMap = new TreeMap<>();
+    keyToCounterMap.forEach(
+        (key, counter) -> nameToCountMap.put(nameOfKey.apply(key), counter.sum()));
+    return nameToCountMap;
+  }
+
+  @Override
+  public long getMoreThanOneStepCanReactCount() {
+    return moreThanOneStepCanReactCount.sum();
+  }
+
+  @Override
+  public long getUnhandledExceptionCount() {
+    return unhandledExceptionCount.sum();
+  }
+
+  @Override
+  public Map<String, Double> getBulkheadSaturation() {
+    Map<String, Double> bulkheadToSaturationMap = new TreeMap<>();
+    for (Bulkhead bulkhead : useCaseModel.getBulkheads()) {
+      bulkheadToSaturationMap.put(bulkhead.getName(), bulkhead.getSaturation());
+    }
+    return bulkheadToSaturationMap;
+  }
+
+  @Override
+  public void reset() {
+    eventsReceived.reset();
+    useCaseToStepsTriggeredMap.values().forEach(LongAdder::reset);
+    flowToStepsTriggeredMap.values().forEach(LongAdder::reset);
+    moreThanOneStepCanReactCount.reset();
+    unhandledExceptionCount.reset();
+  }
+
+  /**
+   * Returns the object name the MBean has been registered with, if it has been registered.
+   *
+   * @return the object name, or null
+   */
+  public ObjectName getObjectName() {
+    return objectName;
+  }
+}
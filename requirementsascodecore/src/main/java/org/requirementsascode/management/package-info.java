@@ -0,0 +1,7 @@
+/**
+ * Management package of requirementsascode, containing MBeans that expose the operational state of
+ * use case models, session engines and stuck session detectors via JMX, e.g. to jconsole.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.management;
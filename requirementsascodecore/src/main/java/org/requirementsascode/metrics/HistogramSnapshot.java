@@ -0,0 +1,93 @@
+package org.requirementsascode.metrics;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}.
+ *
+ * @author b_muth
+ */
+public class HistogramSnapshot {
+  private final long[] bucketCounts;
+  private final long count;
+  private final long totalValue;
+  private final long maxValue;
+
+  HistogramSnapshot(long[] bucketCounts, long totalValue, long maxValue) {
+    this.bucketCounts = bucketCounts;
+    this.totalValue = totalValue;
+    this.maxValue = maxValue;
+    long count = 0;
+    for (long bucketCount : bucketCounts) {
+      count += bucketCount;
+    }
+    this.count = count;
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the count
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the arithmetic mean of the recorded values, or 0 if no value has been recorded.
+   *
+   * @return the mean
+   */
+  public double getMean() {
+    return count > 0 ? (double) totalValue / (double) count : 0;
+  }
+
+  /**
+   * Returns the highest recorded value, exactly, or 0 if no value has been recorded.
+   *
+   * @return the maximum
+   */
+  public long getMax() {
+    return maxValue;
+  }
+
+  /**
+   * Returns the value that the specified percentage of recorded values are lower than or equal to.
+   * The value is the highest value of its bucket, but never higher than the maximum.
+   *
+   * @param percentile the percentile, between 0 and 100, e.g. 99.9
+   * @return the value at the percentile, or 0 if no value has been recorded
+   */
+  public long getValueAtPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be between 0 and 100");
+    }
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+    long countSoFar = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      countSoFar += bucketCounts[i];
+      if (countSoFar >= rank) {
+        return Math.min(maxValue, LatencyHistogram.highestValueOf(i));
+      }
+    }
+    return maxValue;
+  }
+
+  @Override
+  public String toString() {
+    return "count="
+        + count
+        + ", mean="
+        + (long) getMean()
+        + ", p50="
+        + getValueAtPercentile(50)
+        + ", p99="
+        + getValueAtPercentile(99)
+        + ", p999="
+        + getValueAtPercentile(99.9)
+        + ", max="
+        + maxValue;
+  }
+}
@@ -0,0 +1,94 @@
+package org.requirementsascode.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of latencies, with fixed memory.
+ *
+ * <p>Values are recorded in logarithmic buckets: each power of two range is split into 16 linear
+ * sub-buckets, so a recorded value is reported with a relative error of at most 1/16 (6.25%), over
+ * the whole range of non-negative long values. The histogram occupies less than 8 KB, no matter how
+ * many values it records. Recording a value is allocation free, and can be done by many threads at
+ * the same time.
+ *
+ * @author b_muth
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private AtomicLongArray bucketCounts;
+  private AtomicLong totalValue;
+  private AtomicLong maxValue;
+
+  /** Creates an empty histogram. */
+  public LatencyHistogram() {
+    this.bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+    this.totalValue = new AtomicLong();
+    this.maxValue = new AtomicLong();
+  }
+
+  /**
+   * Records the specified value. Negative values are recorded as 0.
+   *
+   * @param value the value, e.g. a latency in nanoseconds
+   */
+  public void record(long value) {
+    long nonNegativeValue = Math.max(0, value);
+    bucketCounts.incrementAndGet(bucketIndexOf(nonNegativeValue));
+    totalValue.addAndGet(nonNegativeValue);
+    long currentMax;
+    while (nonNegativeValue > (currentMax = maxValue.get())
+        && !maxValue.compareAndSet(currentMax, nonNegativeValue)) {}
+  }
+
+  static int bucketIndexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long highestValueOf(int bucketIndex) {
+    if (bucketIndex < SUB_BUCKET_COUNT) {
+      return bucketIndex;
+    }
+    int exponent = bucketIndex / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    long subBucket = bucketIndex % SUB_BUCKET_COUNT;
+    long lowestValue = (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+    return lowestValue + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+  }
+
+  /**
+   * Returns a snapshot of the values recorded so far.
+   *
+   * @return the snapshot
+   */
+  public HistogramSnapshot snapshot() {
+    return snapshot(false);
+  }
+
+  /**
+   * Returns a snapshot of the values recorded so far, and resets this histogram. Values recorded
+   * concurrently are either part of the snapshot, or stay in this histogram, so no value is lost.
+   *
+   * @return the snapshot
+   */
+  public HistogramSnapshot snapshotAndReset() {
+    return snapshot(true);
+  }
+
+  private HistogramSnapshot snapshot(boolean reset) {
+    long[] counts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts[i] = reset ? bucketCounts.getAndSet(i, 0) : bucketCounts.get(i);
+    }
+    long total = reset ? totalValue.getAndSet(0) : totalValue.get();
+    long max = reset ? maxValue.getAndSet(0) : maxValue.get();
+    return new HistogramSnapshot(counts, total, max);
+  }
+}
@@ -0,0 +1,116 @@
+package org.requirementsascode.metrics;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Statistics of a load test: how many events have been reacted to, at what rate, and with what
+ * latency. Many threads can record events at the same time.
+ *
+ * <p>Call {@link #start()} before the first event, and {@link #stop()} after the last one. The
+ * event rate is based on the time in between, or the time until now while the statistics are not
+ * stopped yet.
+ *
+ * @author b_muth
+ */
+public class LoadStatistics {
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  private LatencyHistogram latency;
+  private LongSupplier nanoClock;
+  private volatile long startNanos;
+  private volatile long stopNanos;
+  private volatile boolean isStarted;
+  private volatile boolean isStopped;
+
+  /** Creates statistics that measure time with {@link System#nanoTime()}. */
+  public LoadStatistics() {
+    this(System::nanoTime);
+  }
+
+  /**
+   * Creates statistics that measure time with the specified clock.
+   *
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public LoadStatistics(LongSupplier nanoClock) {
+    this.nanoClock = Objects.requireNonNull(nanoClock);
+    this.latency = new LatencyHistogram();
+  }
+
+  /** Starts measuring the elapsed time. */
+  public void start() {
+    startNanos = nanoClock.getAsLong();
+    isStopped = false;
+    isStarted = true;
+  }
+
+  /** Stops measuring the elapsed time. */
+  public void stop() {
+    stopNanos = nanoClock.getAsLong();
+    isStopped = true;
+  }
+
+  /**
+   * Records an event that has been reacted to, with the specified latency.
+   *
+   * @param latencyNanos the time from providing the event until the reaction is complete
+   */
+  public void record(long latencyNanos) {
+    latency.record(latencyNanos);
+  }
+
+  /**
+   * Returns the number of recorded events.
+   *
+   * @return the event count
+   */
+  public long getEventCount() {
+    return latency.snapshot().getCount();
+  }
+
+  /**
+   * Returns the time elapsed since the start, until the stop if the statistics have been stopped.
+   *
+   * @return the elapsed time in nanoseconds, or 0 if the statistics have not been started
+   */
+  public long getElapsedNanos() {
+    if (!isStarted) {
+      return 0;
+    }
+    long endNanos = isStopped ? stopNanos : nanoClock.getAsLong();
+    return endNanos - startNanos;
+  }
+
+  /**
+   * Returns the number of recorded events per second of elapsed time.
+   *
+   * @return the event rate, or 0 if no time has elapsed
+   */
+  public double getEventsPerSecond() {
+    long elapsedNanos = getElapsedNanos();
+    return elapsedNanos > 0 ? getEventCount() * NANOS_PER_SECOND / elapsedNanos : 0;
+  }
+
+  /**
+   * Returns a snapshot of the latencies recorded so far, in nanoseconds.
+   *
+   * @return the snapshot
+   */
+  public HistogramSnapshot getLatency() {
+    return latency.snapshot();
+  }
+
+  @Override
+  public String toString() {
+    HistogramSnapshot snapshot = latency.snapshot();
+    return "events="
+        + snapshot.getCount()
+        + ", elapsed="
+        + getElapsedNanos() / 1_000_000
+        + " ms, events/s="
+        + (long) getEventsPerSecond()
+        + ", latency ns: "
+        + snapshot;
+  }
+}
@@ -0,0 +1,83 @@
+package org.requirementsascode.metrics;
+
+/**
+ * Snapshot of the sampled predicate evaluations of a step, or of all steps of a flow.
+ *
+ * @author b_muth
+ */
+public class PredicateProfile {
+  private final long evaluations;
+  private final long totalNanos;
+  private final long nestedNanos;
+
+  PredicateProfile(long evaluations, long totalNanos, long nestedNanos) {
+    this.evaluations = evaluations;
+    this.totalNanos = totalNanos;
+    this.nestedNanos = nestedNanos;
+  }
+
+  /**
+   * Returns the number of sampled evaluations.
+   *
+   * @return the number of evaluations
+   */
+  public long getEvaluations() {
+    return evaluations;
+  }
+
+  /**
+   * Returns the total time of the sampled evaluations, including nested scans of other steps, in
+   * nanoseconds.
+   *
+   * @return the total time
+   */
+  public long getTotalNanos() {
+    return totalNanos;
+  }
+
+  /**
+   * Returns the time the sampled evaluations spent in nested scans of other steps (e.g. checking
+   * that no other step could react instead), in nanoseconds.
+   *
+   * @return the time spent in nested scans
+   */
+  public long getNestedNanos() {
+    return nestedNanos;
+  }
+
+  /**
+   * Returns the time the sampled evaluations spent outside of nested scans, e.g. in {@code when} or
+   * {@code reactWhile} conditions, in nanoseconds.
+   *
+   * @return the time spent outside of nested scans
+   */
+  public long getSelfNanos() {
+    return totalNanos - nestedNanos;
+  }
+
+  /**
+   * Returns the mean time of a sampled evaluation, in nanoseconds.
+   *
+   * @return the mean time, or 0 if there has been no evaluation
+   */
+  public double getMeanNanos() {
+    return evaluations > 0 ? (double) totalNanos / (double) evaluations : 0;
+  }
+
+  PredicateProfile plus(PredicateProfile other) {
+    return new PredicateProfile(
+        evaluations + other.evaluations,
+        totalNanos + other.totalNanos,
+        nestedNanos + other.nestedNanos);
+  }
+
+  @Override
+  public String toString() {
+    return "evaluations="
+        + evaluations
+        + ", totalNanos="
+        + totalNanos
+        + ", nestedNanos="
+        + nestedNanos;
+  }
+}
@@ -0,0 +1,148 @@
+package org.requirementsascode.metrics;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Attributes the time runners spend evaluating step predicates to the steps and flows that own the
+ * predicates. Add an instance to a model via {@link UseCaseModel#addRunnerListener(RunnerListener)}.
+ *
+ * <p>The time of a step's predicate includes the nested scans it performs, e.g. checking that no
+ * other step could react instead of the step, which is what a step without explicit flow condition
+ * does. The time spent in nested scans is also reported separately. The predicates evaluated in
+ * nested scans are not counted on their own, to avoid counting their time twice.
+ *
+ * <p>To keep the overhead low, only 1 in N dispatches (chosen at random) is measured. Dispatches
+ * that are not sampled are not measured at all.
+ *
+ * @author b_muth
+ */
+public class PredicateProfiler implements RunnerListener {
+  private static final PredicateProfile EMPTY_PROFILE = new PredicateProfile(0, 0, 0);
+
+  private int samplingInterval;
+  private LongAdder sampledDispatches;
+  private ConcurrentMap<Step, StepProfile> stepToProfileMap;
+
+  /** Creates a profiler that measures every dispatch. */
+  public PredicateProfiler() {
+    this(1);
+  }
+
+  /**
+   * Creates a profiler that measures 1 in N dispatches.
+   *
+   * @param samplingInterval N, e.g. 100 to measure 1% of dispatches
+   */
+  public PredicateProfiler(int samplingInterval) {
+    if (samplingInterval < 1) {
+      throw new IllegalArgumentException("samplingInterval must be at least 1");
+    }
+
+    this.samplingInterval = samplingInterval;
+    this.sampledDispatches = new LongAdder();
+    this.stepToProfileMap = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public boolean samplePredicates(UseCaseModelRunner runner) {
+    boolean isSampled =
+        samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+    if (isSampled) {
+      sampledDispatches.increment();
+    }
+    return isSampled;
+  }
+
+  @Override
+  public void predicateEvaluated(
+      UseCaseModelRunner runner, Step step, long predicateNanos, long nestedNanos, int depth) {
+    if (depth == 0) {
+      StepProfile stepProfile = stepToProfileMap.get(step);
+      if (stepProfile == null) {
+        stepProfile = stepToProfileMap.computeIfAbsent(step, s -> new StepProfile());
+      }
+      stepProfile.evaluations.increment();
+      stepProfile.totalNanos.add(predicateNanos);
+      stepProfile.nestedNanos.add(nestedNanos);
+    }
+  }
+
+  /**
+   * Returns the profile of the specified step's predicate.
+   *
+   * @param step the step
+   * @return the profile, which is empty if the predicate has not been sampled yet
+   */
+  public PredicateProfile getProfile(Step step) {
+    Objects.requireNonNull(step);
+
+    StepProfile stepProfile = stepToProfileMap.get(step);
+    return stepProfile != null ? stepProfile.snapshot() : EMPTY_PROFILE;
+  }
+
+  /**
+   * Returns the profile of the predicates of all steps of the specified flow.
+   *
+   * @param flow the flow
+   * @return the profile, which is empty if no predicate of the flow has been sampled yet
+   */
+  public PredicateProfile getProfile(Flow flow) {
+    Objects.requireNonNull(flow);
+
+    PredicateProfile flowProfile = EMPTY_PROFILE;
+    for (Step step : flow.getSteps()) {
+      flowProfile = flowProfile.plus(getProfile(step));
+    }
+    return flowProfile;
+  }
+
+  /**
+   * Returns the steps whose predicates have been sampled so far.
+   *
+   * @return the steps
+   */
+  public Set<Step> getProfiledSteps() {
+    return Collections.unmodifiableSet(stepToProfileMap.keySet());
+  }
+
+  /**
+   * Returns the number of dispatches that have been sampled so far.
+   *
+   * @return the number of sampled dispatches
+   */
+  public long getSampledDispatches() {
+    return sampledDispatches.sum();
+  }
+
+  public int getSamplingInterval() {
+    return samplingInterval;
+  }
+
+  /** Resets the profiles of all steps. */
+  public void reset() {
+    sampledDispatches.reset();
+    stepToProfileMap.clear();
+  }
+
+  private static class StepProfile {
+    private final LongAdder evaluations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder nestedNanos = new LongAdder();
+
+    private PredicateProfile snapshot() {
+      return new PredicateProfile(evaluations.sum(), totalNanos.sum(), nestedNanos.sum());
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package org.requirementsascode.metrics;
+
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Records, for each step, how long its system reaction took, and how long the runner took to
+ * dispatch the event to the step (i.e. to find the step that reacts). Add an instance to a model
+ * via {@link UseCaseModel#addRunnerListener(RunnerListener)}, so that it records the latencies of
+ * all runners of the model.
+ *
+ * <p>Latencies are recorded in {@link LatencyHistogram}s, one pair per step. In reset-on-read mode,
+ * reading a snapshot resets the histogram, so that each snapshot covers the time since the previous
+ * one, e.g. for periodic reporting.
+ *
+ * @author b_muth
+ */
+public class StepLatencyMetrics implements RunnerListener {
+  private static final HistogramSnapshot EMPTY_SNAPSHOT = new LatencyHistogram().snapshot();
+
+  private ConcurrentMap<Step, StepLatency> stepToLatencyMap;
+  private boolean resetOnRead;
+
+  /** Creates metrics that accumulate latencies until they are explicitly reset. */
+  public StepLatencyMetrics() {
+    this(false);
+  }
+
+  /**
+   * Creates metrics that optionally reset each histogram when it is read.
+   *
+   * @param resetOnRead if true, reading a snapshot resets the histogram
+   */
+  public StepLatencyMetrics(boolean resetOnRead) {
+    this.stepToLatencyMap = new ConcurrentHashMap<>();
+    this.resetOnRead = resetOnRead;
+  }
+
+  @Override
+  public void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {
+    StepLatency stepLatency = stepToLatencyMap.get(step);
+    if (stepLatency == null) {
+      stepLatency = stepToLatencyMap.computeIfAbsent(step, s -> new StepLatency());
+    }
+    stepLatency.dispatchLatency.record(dispatchNanos);
+    stepLatency.reactionLatency.record(reactionNanos);
+  }
+
+  /**
+   * Returns a snapshot of the system reaction latencies of the specified step, in nanoseconds.
+   *
+   * @param step the step
+   * @return the snapshot, which is empty if the step has not reacted yet
+   */
+  public HistogramSnapshot getReactionLatency(Step step) {
+    Objects.requireNonNull(step);
+
+    StepLatency stepLatency = stepToLatencyMap.get(step);
+    return stepLatency != null ? read(stepLatency.reactionLatency) : EMPTY_SNAPSHOT;
+  }
+
+  /**
+   * Returns a snapshot of the dispatch latencies of the specified step, in nanoseconds.
+   *
+   * @param step the step
+   * @return the snapshot, which is empty if the step has not reacted yet
+   */
+  public HistogramSnapshot getDispatchLatency(Step step) {
+    Objects.requireNonNull(step);
+
+    StepLatency stepLatency = stepToLatencyMap.get(step);
+    return stepLatency != null ? read(stepLatency.dispatchLatency) : EMPTY_SNAPSHOT;
+  }
+
+  private HistogramSnapshot read(LatencyHistogram histogram) {
+    return resetOnRead ? histogram.snapshotAndReset() : histogram.snapshot();
+  }
+
+  /**
+   * Returns the steps that have reacted since these metrics have been created.
+   *
+   * @return the steps
+   */
+  public Set<Step> getSteps() {
+    return Collections.unmodifiableSet(stepToLatencyMap.keySet());
+  }
+
+  /** Resets the histograms of all steps. */
+  public void reset() {
+    for (StepLatency stepLatency : stepToLatencyMap.values()) {
+      stepLatency.dispatchLatency.snapshotAndReset();
+      stepLatency.reactionLatency.snapshotAndReset();
+    }
+  }
+
+  public boolean isResetOnRead() {
+    return resetOnRead;
+  }
+
+  private static class StepLatency {
+    private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    private final LatencyHistogram reactionLatency = new LatencyHistogram();
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Metrics package of requirementsascode, containing runner listeners that collect metrics over all
+ * runners of a use case model, and statistics of load tests.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.metrics;
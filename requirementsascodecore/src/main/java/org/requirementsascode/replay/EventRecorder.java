@@ -0,0 +1,250 @@
+package org.requirementsascode.replay;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.requirementsascode.session.SessionEngine;
+
+/**
+ * Records the events provided to a session engine, with their session ids and inter-arrival
+ * times, to a compact trace file. Record the events of an engine via {@link
+ * SessionEngine#recordEventsWith(EventRecorder)}, and replay the trace with a {@link
+ * TraceReplayer}.
+ *
+ * <p>Like the audit log, the recorder only puts the event into a lock-free queue on the thread
+ * that provides it. A background thread serializes the queued events and writes them to the file,
+ * and sleeps while the queue is empty. So events should not be changed after they have been
+ * provided. If the queue is full, further events are dropped and counted, as are events or session
+ * ids that can't be serialized.
+ *
+ * <p>The records are written through a single serialization stream, so that class descriptors are
+ * not repeated per record. The stream is reset regularly, so that it doesn't keep references to
+ * all recorded events.
+ *
+ * @author b_muth
+ */
+public class EventRecorder implements AutoCloseable {
+  private static final int DEFAULT_MAX_QUEUED_EVENTS = 100_000;
+  private static final int RECORDS_PER_RESET = 1000;
+
+  private final Path file;
+  private final int maxQueuedEvents;
+  private final LongSupplier nanoClock;
+  private final Queue<QueuedEvent> queue;
+  private final AtomicInteger queuedEvents;
+  private final LongAdder droppedEvents;
+  private final DataOutputStream out;
+  private final ByteArrayOutputStream recordBytes;
+  private final ObjectOutputStream recordOut;
+  private final Thread writerThread;
+  private volatile boolean closed;
+  private volatile long writtenEvents;
+  private volatile IOException writeFailure;
+
+  private long previousArrivalNanos;
+  private boolean hasWrittenEvent;
+  private int recordsSinceReset;
+
+  /**
+   * Creates a recorder that writes to the specified file, with at most 100.000 queued events.
+   *
+   * @param file the trace file, which is overwritten if it exists
+   * @throws IOException if the file can't be created
+   */
+  public EventRecorder(Path file) throws IOException {
+    this(file, DEFAULT_MAX_QUEUED_EVENTS, System::nanoTime);
+  }
+
+  /**
+   * Creates a recorder that writes to the specified file, with the specified clock.
+   *
+   * @param file the trace file, which is overwritten if it exists
+   * @param maxQueuedEvents the maximum number of events waiting to be written
+   * @param nanoClock the clock that determines the arrival times, returning nanoseconds like {@link
+   *     System#nanoTime()}
+   * @throws IOException if the file can't be created
+   */
+  public EventRecorder(Path file, int maxQueuedEvents, LongSupplier nanoClock) throws IOException {
+    Objects.requireNonNull(file);
+    Objects.requireNonNull(nanoClock);
+    if (maxQueuedEvents < 1) {
+      throw new IllegalArgumentException("maxQueuedEvents must be at least 1");
+    }
+
+    this.file = file;
+    this.maxQueuedEvents = maxQueuedEvents;
+    this.nanoClock = nanoClock;
+    this.queue = new ConcurrentLinkedQueue<>();
+    this.queuedEvents = new AtomicInteger();
+    this.droppedEvents = new LongAdder();
+    this.out =
+        new DataOutputStream(
+            new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))));
+    TraceFormat.writeHeader(out);
+    this.recordBytes = new ByteArrayOutputStream();
+    this.recordOut = new ObjectOutputStream(recordBytes);
+    writeRecordBytes();
+
+    this.writerThread = new Thread(this::writeEvents, "event recorder " + file);
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /**
+   * Records the specified event, provided to the session with the specified id.
+   *
+   * @param sessionId the id of the session
+   * @param event the event
+   */
+  public void record(Object sessionId, Object event) {
+    Objects.requireNonNull(sessionId);
+    Objects.requireNonNull(event);
+
+    if (closed) {
+      droppedEvents.increment();
+      return;
+    }
+    int queuedEventsNow = queuedEvents.incrementAndGet();
+    if (queuedEventsNow > maxQueuedEvents) {
+      queuedEvents.decrementAndGet();
+      droppedEvents.increment();
+      return;
+    }
+    queue.add(new QueuedEvent(nanoClock.getAsLong(), sessionId, event));
+    if (queuedEventsNow == 1) {
+      LockSupport.unpark(writerThread);
+    }
+  }
+
+  private void writeEvents() {
+    try {
+      while (!closed || !queue.isEmpty()) {
+        QueuedEvent queuedEvent = queue.poll();
+        if (queuedEvent != null) {
+          queuedEvents.decrementAndGet();
+          writeEvent(queuedEvent);
+        } else if (queuedEvents.get() > 0) {
+          // A thread has counted its event, but not added it to the queue yet
+          Thread.yield();
+        } else if (!closed) {
+          LockSupport.park(this);
+        }
+      }
+      out.close();
+    } catch (IOException e) {
+      writeFailure = e;
+    }
+  }
+
+  private void writeEvent(QueuedEvent queuedEvent) throws IOException {
+    // Events queued by different threads may arrive slightly out of order
+    long interArrivalNanos =
+        hasWrittenEvent ? Math.max(0, queuedEvent.arrivalNanos - previousArrivalNanos) : 0;
+    try {
+      TraceFormat.write(interArrivalNanos, queuedEvent.sessionId, queuedEvent.event, recordOut);
+      if (++recordsSinceReset == RECORDS_PER_RESET) {
+        recordOut.reset();
+        recordsSinceReset = 0;
+      }
+      recordOut.flush();
+    } catch (IOException | RuntimeException e) {
+      // The record is still in memory, so serializing it failed, e.g. in a writeObject method
+      discardRecord();
+      droppedEvents.increment();
+      return;
+    }
+    writeRecordBytes();
+
+    previousArrivalNanos =
+        hasWrittenEvent
+            ? Math.max(previousArrivalNanos, queuedEvent.arrivalNanos)
+            : queuedEvent.arrivalNanos;
+    hasWrittenEvent = true;
+    writtenEvents++;
+  }
+
+  private void writeRecordBytes() throws IOException {
+    recordBytes.writeTo(out);
+    recordBytes.reset();
+  }
+
+  private void discardRecord() throws IOException {
+    recordOut.flush();
+    recordBytes.reset();
+    // The reader must forget the objects the stream has seen while writing the discarded record
+    recordOut.reset();
+    recordsSinceReset = 0;
+  }
+
+  /**
+   * Stops recording events, waits until the queued events have been written, and closes the file.
+   *
+   * @throws IOException if the background thread failed to write events
+   */
+  @Override
+  public void close() throws IOException {
+    closed = true;
+    LockSupport.unpark(writerThread);
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (writeFailure != null) {
+      throw writeFailure;
+    }
+  }
+
+  /**
+   * Returns the file the trace is written to.
+   *
+   * @return the file
+   */
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Returns the number of events written to the file so far.
+   *
+   * @return the number of written events
+   */
+  public long getWrittenEvents() {
+    return writtenEvents;
+  }
+
+  /**
+   * Returns the number of events dropped because the queue was full, the recorder was closed, or
+   * the event or its session id couldn't be serialized.
+   *
+   * @return the number of dropped events
+   */
+  public long getDroppedEvents() {
+    return droppedEvents.sum();
+  }
+
+  private static class QueuedEvent {
+    private final long arrivalNanos;
+    private final Object sessionId;
+    private final Object event;
+
+    private QueuedEvent(long arrivalNanos, Object sessionId, Object event) {
+      this.arrivalNanos = arrivalNanos;
+      this.sessionId = sessionId;
+      this.event = event;
+    }
+  }
+}
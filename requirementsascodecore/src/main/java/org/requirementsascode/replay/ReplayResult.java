@@ -0,0 +1,55 @@
+package org.requirementsascode.replay;
+
+import org.requirementsascode.metrics.LoadStatistics;
+import org.requirementsascode.session.SessionEngine;
+
+/**
+ * The result of replaying a trace with a {@link TraceReplayer}.
+ *
+ * @author b_muth
+ */
+public class ReplayResult {
+  private final LoadStatistics statistics;
+  private final long failedEvents;
+  private final SessionEngine sessionEngine;
+
+  ReplayResult(LoadStatistics statistics, long failedEvents, SessionEngine sessionEngine) {
+    this.statistics = statistics;
+    this.failedEvents = failedEvents;
+    this.sessionEngine = sessionEngine;
+  }
+
+  /**
+   * Returns the throughput and latency of the replayed events.
+   *
+   * @return the statistics
+   */
+  public LoadStatistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Returns the number of events the session engine threw an exception for, e.g. an {@link
+   * org.requirementsascode.exception.UnhandledException}.
+   *
+   * @return the number of failed events
+   */
+  public long getFailedEvents() {
+    return failedEvents;
+  }
+
+  /**
+   * Returns the session engine the trace has been replayed against, with the sessions of the
+   * trace.
+   *
+   * @return the session engine
+   */
+  public SessionEngine getSessionEngine() {
+    return sessionEngine;
+  }
+
+  @Override
+  public String toString() {
+    return statistics + "\nfailed events=" + failedEvents;
+  }
+}
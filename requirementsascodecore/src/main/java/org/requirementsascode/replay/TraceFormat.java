@@ -0,0 +1,97 @@
+package org.requirementsascode.replay;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Optional;
+
+/**
+ * Format of an event trace. A trace file is compressed with GZIP. It starts with a magic number and
+ * a version, followed by a single Java serialization stream that contains a sequence of records.
+ * Each record consists of the inter-arrival time in nanoseconds as a variable-length long (7 bits
+ * per byte, least significant first), then the session id and the event. As all records share the
+ * stream, the class descriptor of an event class, or a session id that is the same object for
+ * several events, is written only once until the stream is reset.
+ *
+ * @author b_muth
+ */
+class TraceFormat {
+  static final int MAGIC = 0x52414354;
+  static final int VERSION = 2;
+
+  private TraceFormat() {}
+
+  static void writeHeader(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+  }
+
+  static void readHeader(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not an event trace");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported event trace version: " + version);
+    }
+  }
+
+  static void write(
+      long interArrivalNanos, Object sessionId, Object event, ObjectOutputStream out)
+      throws IOException {
+    writeVarLong(interArrivalNanos, out);
+    out.writeObject(sessionId);
+    out.writeObject(event);
+  }
+
+  /**
+   * Reads the next record.
+   *
+   * @param in the stream, positioned at the start of a record or at its end
+   * @return the event, or else an empty optional if the end of the trace has been reached
+   * @throws IOException if the trace can't be read, or the class of a session id or event can't be
+   *     found
+   */
+  static Optional<TracedEvent> read(ObjectInputStream in) throws IOException {
+    int firstByte = in.read();
+    if (firstByte < 0) {
+      return Optional.empty();
+    }
+    long interArrivalNanos = readVarLong(firstByte, in);
+    try {
+      Object sessionId = in.readObject();
+      Object event = in.readObject();
+      return Optional.of(new TracedEvent(interArrivalNanos, sessionId, event));
+    } catch (ClassNotFoundException e) {
+      throw new IOException("Class of traced object not found", e);
+    }
+  }
+
+  static void writeVarLong(long value, DataOutput out) throws IOException {
+    long remaining = value;
+    while ((remaining & ~0x7FL) != 0) {
+      out.writeByte((int) ((remaining & 0x7F) | 0x80));
+      remaining >>>= 7;
+    }
+    out.writeByte((int) remaining);
+  }
+
+  private static long readVarLong(int firstByte, DataInput in) throws IOException {
+    long value = firstByte & 0x7F;
+    int currentByte = firstByte;
+    int shift = 7;
+    while ((currentByte & 0x80) != 0) {
+      if (shift > 63) {
+        throw new IOException("Invalid variable-length long in event trace");
+      }
+      currentByte = in.readUnsignedByte();
+      value |= (long) (currentByte & 0x7F) << shift;
+      shift += 7;
+    }
+    return value;
+  }
+}
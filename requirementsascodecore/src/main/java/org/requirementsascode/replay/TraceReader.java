@@ -0,0 +1,88 @@
+package org.requirementsascode.replay;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Tool that reads an event trace written by {@link EventRecorder}. Run it from the command line
+ * with the trace file as argument to print the events as text, one line per event. The classes of
+ * the session ids and events must be on the class path.
+ *
+ * @author b_muth
+ */
+public class TraceReader {
+  private TraceReader() {}
+
+  /**
+   * Prints the events of the trace file specified as argument to standard output.
+   *
+   * @param args the trace file
+   * @throws IOException if the trace can't be read
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length != 1) {
+      System.err.println("Usage: TraceReader <file>");
+      System.exit(1);
+    }
+    List<TracedEvent> events = read(Paths.get(args[0]));
+    Writer writer = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+    writeTextTo(events, writer);
+  }
+
+  /**
+   * Reads all events of the specified trace file.
+   *
+   * @param file the trace file
+   * @return the events, in the order they have been recorded
+   * @throws IOException if the trace can't be read, or the class of a session id or event can't be
+   *     found
+   */
+  public static List<TracedEvent> read(Path file) throws IOException {
+    Objects.requireNonNull(file);
+
+    List<TracedEvent> events = new ArrayList<>();
+    try (DataInputStream in =
+        new DataInputStream(
+            new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      TraceFormat.readHeader(in);
+      ObjectInputStream recordIn = new ObjectInputStream(in);
+      Optional<TracedEvent> event = TraceFormat.read(recordIn);
+      while (event.isPresent()) {
+        events.add(event.get());
+        event = TraceFormat.read(recordIn);
+      }
+    }
+    return events;
+  }
+
+  /**
+   * Writes the specified events as text, one line per event.
+   *
+   * @param events the events
+   * @param writer the writer, which is not closed afterwards
+   * @throws IOException if writing fails
+   */
+  public static void writeTextTo(List<TracedEvent> events, Writer writer) throws IOException {
+    Objects.requireNonNull(events);
+    Objects.requireNonNull(writer);
+
+    for (TracedEvent event : events) {
+      writer.write(event.toString());
+      writer.write('\n');
+    }
+    writer.flush();
+  }
+}
@@ -0,0 +1,146 @@
+package org.requirementsascode.replay;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.metrics.LoadStatistics;
+import org.requirementsascode.session.SessionEngine;
+
+/**
+ * Replays a trace recorded by an {@link EventRecorder} against a use case model, to reproduce a
+ * recorded load, e.g. from production, on a developer machine.
+ *
+ * <p>The trace is replayed at the recorded speed, a multiple of it, or as fast as possible, by
+ * many threads. The events of a session are always replayed by the same thread, in the recorded
+ * order, so each session sees the same events as when it was recorded. The sessions are spread
+ * over the threads by the hash codes of their ids.
+ *
+ * <p>When replaying at a certain speed, the latency of an event is measured from the time the
+ * event is due. So if the replay falls behind, because the model can't keep up with the load, the
+ * delay shows in the latency, as it would for real users. When replaying as fast as possible,
+ * the latency is the time the session engine takes to react to the event.
+ *
+ * @author b_muth
+ */
+public class TraceReplayer {
+  /** The speed that replays events as fast as possible, regardless of their inter-arrival times. */
+  public static final double MAXIMUM_SPEED = Double.POSITIVE_INFINITY;
+
+  private final Supplier<SessionEngine> sessionEngineFactory;
+
+  /**
+   * Creates a replayer that replays traces against the specified model, with a new session engine
+   * and a plain runner per session.
+   *
+   * @param useCaseModel the model
+   */
+  public TraceReplayer(UseCaseModel useCaseModel) {
+    this(sessionEnginesOf(useCaseModel));
+  }
+
+  private static Supplier<SessionEngine> sessionEnginesOf(UseCaseModel useCaseModel) {
+    Objects.requireNonNull(useCaseModel);
+    return () -> new SessionEngine(useCaseModel, UseCaseModelRunner::new);
+  }
+
+  /**
+   * Creates a replayer that replays each trace against a new session engine of the specified
+   * factory, e.g. to configure the engine as in production.
+   *
+   * @param sessionEngineFactory the factory
+   */
+  public TraceReplayer(Supplier<SessionEngine> sessionEngineFactory) {
+    this.sessionEngineFactory = Objects.requireNonNull(sessionEngineFactory);
+  }
+
+  /**
+   * Replays the specified events.
+   *
+   * @param events the events of the trace, e.g. read by {@link TraceReader}
+   * @param speed the speed relative to the recorded speed, e.g. 1 for the recorded speed, 10 for
+   *     ten times the recorded speed, or {@link #MAXIMUM_SPEED}
+   * @param numberOfThreads the number of threads that replay the events
+   * @return the result
+   * @throws InterruptedException if the calling thread is interrupted while waiting for the replay
+   *     to complete
+   */
+  public ReplayResult replay(List<TracedEvent> events, double speed, int numberOfThreads)
+      throws InterruptedException {
+    Objects.requireNonNull(events);
+    if (!(speed > 0)) {
+      throw new IllegalArgumentException("speed must be positive");
+    }
+    if (numberOfThreads < 1) {
+      throw new IllegalArgumentException("numberOfThreads must be at least 1");
+    }
+
+    long[] dueNanos = dueNanosOf(events, speed);
+    List<List<Integer>> eventIndexesOfThreads = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      eventIndexesOfThreads.add(new ArrayList<>());
+    }
+    for (int i = 0; i < events.size(); i++) {
+      int threadIndex = Math.floorMod(events.get(i).getSessionId().hashCode(), numberOfThreads);
+      eventIndexesOfThreads.get(threadIndex).add(i);
+    }
+
+    SessionEngine sessionEngine = sessionEngineFactory.get();
+    LoadStatistics statistics = new LoadStatistics();
+    LongAdder failedEvents = new LongAdder();
+    boolean isPaced = speed != MAXIMUM_SPEED;
+
+    statistics.start();
+    long startNanos = System.nanoTime();
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < numberOfThreads; i++) {
+      List<Integer> eventIndexes = eventIndexesOfThreads.get(i);
+      Runnable replayOfThread =
+          () -> {
+            for (int eventIndex : eventIndexes) {
+              TracedEvent event = events.get(eventIndex);
+              long due = startNanos + dueNanos[eventIndex];
+              long now;
+              while ((now = System.nanoTime()) < due) {
+                LockSupport.parkNanos(due - now);
+              }
+              long latencyStart = isPaced ? due : now;
+              try {
+                sessionEngine.reactTo(event.getSessionId(), event.getEvent());
+              } catch (RuntimeException e) {
+                failedEvents.increment();
+              }
+              statistics.record(System.nanoTime() - latencyStart);
+            }
+          };
+      Thread thread = new Thread(replayOfThread, "trace replayer " + i);
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    statistics.stop();
+
+    return new ReplayResult(statistics, failedEvents.sum(), sessionEngine);
+  }
+
+  /**
+   * Calculates when each event is due, relative to the start of the replay. At maximum speed, all
+   * events are due immediately.
+   */
+  private static long[] dueNanosOf(List<TracedEvent> events, double speed) {
+    long[] dueNanos = new long[events.size()];
+    long recordedNanos = 0;
+    for (int i = 0; i < dueNanos.length; i++) {
+      recordedNanos += events.get(i).getInterArrivalNanos();
+      dueNanos[i] = speed == MAXIMUM_SPEED ? 0 : (long) (recordedNanos / speed);
+    }
+    return dueNanos;
+  }
+}
@@ -0,0 +1,52 @@
+package org.requirementsascode.replay;
+
+import java.util.Objects;
+
+/**
+ * Event of a trace, recorded by an {@link EventRecorder}.
+ *
+ * @author b_muth
+ */
+public class TracedEvent {
+  private final long interArrivalNanos;
+  private final Object sessionId;
+  private final Object event;
+
+  /**
+   * Creates a traced event.
+   *
+   * @param interArrivalNanos the time since the previous event of the trace arrived, in
+   *     nanoseconds, or 0 for the first event
+   * @param sessionId the id of the session the event has been provided to
+   * @param event the event
+   */
+  public TracedEvent(long interArrivalNanos, Object sessionId, Object event) {
+    if (interArrivalNanos < 0) {
+      throw new IllegalArgumentException("interArrivalNanos must not be negative");
+    }
+    this.interArrivalNanos = interArrivalNanos;
+    this.sessionId = Objects.requireNonNull(sessionId);
+    this.event = Objects.requireNonNull(event);
+  }
+
+  public long getInterArrivalNanos() {
+    return interArrivalNanos;
+  }
+
+  public Object getSessionId() {
+    return sessionId;
+  }
+
+  public Object getEvent() {
+    return event;
+  }
+
+  /**
+   * Returns a line of text describing this event, with the inter-arrival time, the session id, and
+   * the class of the event, separated by tabs.
+   */
+  @Override
+  public String toString() {
+    return interArrivalNanos + "\t" + sessionId + "\t" + event.getClass().getName();
+  }
+}
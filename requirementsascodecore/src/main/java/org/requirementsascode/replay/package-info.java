@@ -0,0 +1,8 @@
+/**
+ * Replay package of requirementsascode, containing a recorder that captures the events of a
+ * session engine to a compact trace file, a tool to read it, and a replayer that reproduces the
+ * recorded load against a use case model.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.replay;
@@ -0,0 +1,161 @@
+package org.requirementsascode.session;
+
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.ingress.AdmissionController;
+import org.requirementsascode.ingress.PriorityLanes;
+
+/**
+ * A session of a {@link SessionEngine}: the journey of a single user through the use cases,
+ * controlled by its own runner. The events of a session are queued in priority lanes, and passed to
+ * the runner one at a time.
+ *
+ * @author b_muth
+ */
+public class Session {
+  private Object sessionId;
+  private Actor actor;
+  private UseCaseModel useCaseModel;
+  private UseCaseModelRunner runner;
+  private Optional<AdmissionController> admissionController;
+  private LongSupplier nanoClock;
+  private PriorityLanes priorityLanes;
+  private boolean isStarted;
+  private volatile Step latestStep;
+  private volatile long advancedAtNanos;
+
+  Session(
+      Object sessionId,
+      Actor actor,
+      UseCaseModel useCaseModel,
+      UseCaseModelRunner runner,
+      Optional<AdmissionController> admissionController,
+      LongSupplier nanoClock) {
+    this.sessionId = sessionId;
+    this.actor = actor;
+    this.useCaseModel = useCaseModel;
+    this.runner = runner;
+    this.admissionController = admissionController;
+    this.nanoClock = nanoClock;
+    this.advancedAtNanos = nanoClock.getAsLong();
+  }
+
+  void setPriorityLanes(PriorityLanes priorityLanes) {
+    this.priorityLanes = priorityLanes;
+  }
+
+  void reactTo(Object event) {
+    priorityLanes.accept(event);
+  }
+
+  /**
+   * Passes the event on to the runner. Called by the priority lanes, one event at a time. The
+   * runner is run with the model when the first event arrives, so that autonomous system reactions
+   * happen in the session's lanes as well. Events other than exceptions have been admitted by the
+   * admission controller, if any, and are completed after the runner has reacted to them.
+   *
+   * @param event the event
+   */
+  void dispatch(Object event) {
+    if (!isStarted) {
+      isStarted = true;
+      runner.run(useCaseModel);
+      recordProgress(Optional.empty());
+    }
+
+    if (admissionController.isPresent() && !(event instanceof Throwable)) {
+      long dispatchedAt = nanoClock.getAsLong();
+      try {
+        reactAndRecordProgress(event);
+      } finally {
+        admissionController.get().complete(actor, nanoClock.getAsLong() - dispatchedAt);
+      }
+    } else {
+      reactAndRecordProgress(event);
+    }
+  }
+
+  private void reactAndRecordProgress(Object event) {
+    Optional<Step> triggeredStep = Optional.empty();
+    try {
+      triggeredStep = runner.reactTo(event);
+    } finally {
+      recordProgress(triggeredStep);
+    }
+  }
+
+  private void recordProgress(Optional<Step> triggeredStep) {
+    Step runnerLatestStep = runner.getLatestStep().orElse(null);
+    if (triggeredStep.isPresent() || runnerLatestStep != latestStep) {
+      latestStep = runnerLatestStep;
+      advancedAtNanos = nanoClock.getAsLong();
+    }
+  }
+
+  /**
+   * Returns the id of this session.
+   *
+   * @return the session id
+   */
+  public Object getSessionId() {
+    return sessionId;
+  }
+
+  /**
+   * Returns the actor of this session, whose limit of in flight events applies.
+   *
+   * @return the actor
+   */
+  public Actor getActor() {
+    return actor;
+  }
+
+  /**
+   * Returns the runner of this session. Don't call its methods that change its state directly, as
+   * the runner is not thread safe. Use {@link SessionEngine#reactTo(Object, Object)} instead.
+   *
+   * @return the runner
+   */
+  public UseCaseModelRunner getRunner() {
+    return runner;
+  }
+
+  /**
+   * Returns the latest step the runner of this session has run. Unlike the runner's method, this
+   * method can be called from any thread.
+   *
+   * @return the latest step, or else an empty optional if no step has been run
+   */
+  public Optional<Step> getLatestStep() {
+    return Optional.ofNullable(latestStep);
+  }
+
+  /**
+   * Returns when this session last advanced, that is: when its runner last triggered a step, or
+   * else when the session has been created.
+   *
+   * @return the time, per the clock of the session engine, in nanoseconds
+   */
+  public long getAdvancedAtNanos() {
+    return advancedAtNanos;
+  }
+
+  /**
+   * Returns whether events of this session are waiting to be processed.
+   *
+   * @return true if at least one event is waiting, false otherwise
+   */
+  public boolean hasQueuedEvents() {
+    return priorityLanes.hasQueuedEvents();
+  }
+
+  @Override
+  public String toString() {
+    return String.valueOf(sessionId);
+  }
+}
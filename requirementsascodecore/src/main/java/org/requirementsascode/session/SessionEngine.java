@@ -0,0 +1,294 @@
+package org.requirementsascode.session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.exception.EventRejected;
+import org.requirementsascode.ingress.AdmissionController;
+import org.requirementsascode.ingress.LaneMetrics;
+import org.requirementsascode.ingress.PriorityLanes;
+import org.requirementsascode.replay.EventRecorder;
+
+/**
+ * A session engine runs a use case model for many users at the same time. Each user has a session,
+ * identified by a session id, with a runner of its own.
+ *
+ * <p>Events can be provided from any thread. The events of a session are queued in {@link
+ * PriorityLanes}, so that exceptions and other high priority events are processed ahead of ordinary
+ * user events of the same session, and the runner of a session never processes two events at the
+ * same time. All sessions share the same {@link LaneMetrics}.
+ *
+ * <p>Optionally, an {@link AdmissionController} limits the events in flight over all sessions. An
+ * event counts as in flight from the moment it is provided until the runner has reacted to it. A
+ * rejected event is replaced by an {@link EventRejected} exception in the session's lanes, so the
+ * model can handle it in an exception flow.
+ *
+ * @author b_muth
+ */
+public class SessionEngine {
+  private static final int DEFAULT_MAX_CONSECUTIVE_HIGH_PRIORITY_EVENTS = 16;
+
+  private UseCaseModel useCaseModel;
+  private Supplier<? extends UseCaseModelRunner> runnerFactory;
+  private ConcurrentMap<Object, Session> sessionIdToSessionMap;
+  private List<Class<?>> highPriorityEventClasses;
+  private int maxConsecutiveHighPriorityEvents;
+  private LaneMetrics laneMetrics;
+  private Optional<AdmissionController> admissionController;
+  private Function<Object, Actor> sessionIdToActor;
+  private LongSupplier nanoClock;
+  private Optional<EventRecorder> eventRecorder;
+
+  /**
+   * Creates a session engine for the specified model, with one runner created by the specified
+   * factory per session.
+   *
+   * @param useCaseModel the model run by the sessions
+   * @param runnerFactory the factory, e.g. {@code UseCaseModelRunner::new}, or {@code () -> new
+   *     UseCaseModelRunner().as(customer)}
+   */
+  public SessionEngine(
+      UseCaseModel useCaseModel, Supplier<? extends UseCaseModelRunner> runnerFactory) {
+    this(useCaseModel, runnerFactory, System::nanoTime);
+  }
+
+  /**
+   * Creates a session engine that measures time with the specified clock.
+   *
+   * @param useCaseModel the model run by the sessions
+   * @param runnerFactory the factory that creates a runner per session
+   * @param nanoClock the clock, returning nanoseconds like {@link System#nanoTime()}
+   */
+  public SessionEngine(
+      UseCaseModel useCaseModel,
+      Supplier<? extends UseCaseModelRunner> runnerFactory,
+      LongSupplier nanoClock) {
+    Objects.requireNonNull(useCaseModel);
+    Objects.requireNonNull(runnerFactory);
+    Objects.requireNonNull(nanoClock);
+
+    this.useCaseModel = useCaseModel;
+    this.runnerFactory = runnerFactory;
+    this.sessionIdToSessionMap = new ConcurrentHashMap<>();
+    this.highPriorityEventClasses = new ArrayList<>();
+    this.maxConsecutiveHighPriorityEvents = DEFAULT_MAX_CONSECUTIVE_HIGH_PRIORITY_EVENTS;
+    this.laneMetrics = new LaneMetrics();
+    this.admissionController = Optional.empty();
+    this.sessionIdToActor = sessionId -> useCaseModel.getUserActor();
+    this.nanoClock = nanoClock;
+    this.eventRecorder = Optional.empty();
+
+    prioritize(Throwable.class);
+  }
+
+  /**
+   * Processes events of the specified class (or a subclass) ahead of other events, in sessions
+   * started after this call. Exceptions are always prioritized.
+   *
+   * @param eventClass the class of events, e.g. a class of admin commands
+   * @return this session engine
+   */
+  public SessionEngine prioritize(Class<?> eventClass) {
+    Objects.requireNonNull(eventClass);
+
+    highPriorityEventClasses.add(eventClass);
+    return this;
+  }
+
+  /**
+   * Limits the number of high priority events processed in a row, before a waiting ordinary event
+   * of the same session is processed. Applies to sessions started after this call.
+   *
+   * @param maxConsecutiveHighPriorityEvents the limit, by default 16
+   * @return this session engine
+   */
+  public SessionEngine limitConsecutiveHighPriorityEvents(int maxConsecutiveHighPriorityEvents) {
+    if (maxConsecutiveHighPriorityEvents < 1) {
+      throw new IllegalArgumentException("maxConsecutiveHighPriorityEvents must be at least 1");
+    }
+
+    this.maxConsecutiveHighPriorityEvents = maxConsecutiveHighPriorityEvents;
+    return this;
+  }
+
+  /**
+   * Admits events of sessions started after this call with the specified admission controller. All
+   * sessions count as sessions of the model's user actor, for the purpose of actor limits.
+   *
+   * @param admissionController the controller, possibly shared with other session engines
+   * @return this session engine
+   */
+  public SessionEngine admitWith(AdmissionController admissionController) {
+    return admitWith(admissionController, sessionId -> useCaseModel.getUserActor());
+  }
+
+  /**
+   * Admits events of sessions started after this call with the specified admission controller.
+   *
+   * @param admissionController the controller, possibly shared with other session engines
+   * @param sessionIdToActor determines the actor of a session, whose limit of in flight events
+   *     applies. Usually, that is the actor the runner of the session is run as.
+   * @return this session engine
+   */
+  public SessionEngine admitWith(
+      AdmissionController admissionController, Function<Object, Actor> sessionIdToActor) {
+    Objects.requireNonNull(admissionController);
+    Objects.requireNonNull(sessionIdToActor);
+
+    this.admissionController = Optional.of(admissionController);
+    this.sessionIdToActor = sessionIdToActor;
+    return this;
+  }
+
+  /**
+   * Records the events provided to this session engine from now on, with their session ids, e.g. to
+   * replay them later with a {@link org.requirementsascode.replay.TraceReplayer}. Events are
+   * recorded as provided, before admission control.
+   *
+   * @param eventRecorder the recorder
+   * @return this session engine
+   */
+  public SessionEngine recordEventsWith(EventRecorder eventRecorder) {
+    Objects.requireNonNull(eventRecorder);
+
+    this.eventRecorder = Optional.of(eventRecorder);
+    return this;
+  }
+
+  /**
+   * Provides the specified event to the session with the specified id. Starts the session if it
+   * does not exist yet.
+   *
+   * <p>The event is processed by the session's runner either by the calling thread, or by another
+   * thread that is currently processing events of the same session. If admission control rejects
+   * the event, the runner reacts to an {@link EventRejected} exception instead.
+   *
+   * @param sessionId the id of the session
+   * @param event the event
+   */
+  public void reactTo(Object sessionId, Object event) {
+    Objects.requireNonNull(sessionId);
+    Objects.requireNonNull(event);
+
+    if (eventRecorder.isPresent()) {
+      eventRecorder.get().record(sessionId, event);
+    }
+    Session session = sessionIdToSessionMap.computeIfAbsent(sessionId, this::newSession);
+    Optional<EventRejected> rejection = Optional.empty();
+    if (admissionController.isPresent() && !(event instanceof Throwable)) {
+      rejection = admissionController.get().tryAdmit(event, session.getActor());
+    }
+    session.reactTo(rejection.isPresent() ? rejection.get() : event);
+  }
+
+  private Session newSession(Object sessionId) {
+    Session session =
+        new Session(
+            sessionId,
+            sessionIdToActor.apply(sessionId),
+            useCaseModel,
+            runnerFactory.get(),
+            admissionController,
+            nanoClock);
+    List<Class<?>> eventClasses = new ArrayList<>(highPriorityEventClasses);
+    Predicate<Object> isHighPriority =
+        event -> eventClasses.stream().anyMatch(eventClass -> eventClass.isInstance(event));
+    PriorityLanes priorityLanes =
+        new PriorityLanes(
+            session::dispatch,
+            isHighPriority,
+            maxConsecutiveHighPriorityEvents,
+            laneMetrics,
+            nanoClock);
+    session.setPriorityLanes(priorityLanes);
+    return session;
+  }
+
+  /**
+   * Finds the session with the specified id.
+   *
+   * @param sessionId the id of the session
+   * @return the session if found, or else an empty optional
+   */
+  public Optional<Session> findSession(Object sessionId) {
+    Objects.requireNonNull(sessionId);
+
+    return Optional.ofNullable(sessionIdToSessionMap.get(sessionId));
+  }
+
+  /**
+   * Ends the session with the specified id. Events provided for the same id later on start a new
+   * session.
+   *
+   * @param sessionId the id of the session
+   */
+  public void endSession(Object sessionId) {
+    Objects.requireNonNull(sessionId);
+
+    sessionIdToSessionMap.remove(sessionId);
+  }
+
+  /**
+   * Returns the live sessions. The returned collection reflects sessions started and ended later
+   * on, and can be iterated while sessions are started and ended.
+   *
+   * @return the sessions
+   */
+  public Collection<Session> getSessions() {
+    return Collections.unmodifiableCollection(sessionIdToSessionMap.values());
+  }
+
+  /**
+   * Returns the number of live sessions.
+   *
+   * @return the session count
+   */
+  public int getSessionCount() {
+    return sessionIdToSessionMap.size();
+  }
+
+  /**
+   * Returns the metrics of the lanes of all sessions.
+   *
+   * @return the lane metrics
+   */
+  public LaneMetrics getLaneMetrics() {
+    return laneMetrics;
+  }
+
+  /**
+   * Returns the admission controller the events of sessions are admitted with, if any.
+   *
+   * @return the admission controller, or an empty optional if events are not subject to admission
+   *     control
+   */
+  public Optional<AdmissionController> getAdmissionController() {
+    return admissionController;
+  }
+
+  LongSupplier getNanoClock() {
+    return nanoClock;
+  }
+
+  /**
+   * Returns the model run by the sessions.
+   *
+   * @return the use case model
+   */
+  public UseCaseModel getUseCaseModel() {
+    return useCaseModel;
+  }
+}
@@ -0,0 +1,67 @@
+package org.requirementsascode.session;
+
+import java.util.Optional;
+
+import org.requirementsascode.Step;
+
+/**
+ * A session found by a {@link StuckSessionDetector}, that has not advanced from a step for longer
+ * than the threshold of the step, or that has not run a step for longer than the default threshold
+ * since it has been created.
+ *
+ * @author b_muth
+ */
+public class StuckSession {
+  private final Session session;
+  private final Optional<Step> step;
+  private final long stuckNanos;
+
+  StuckSession(Session session, Optional<Step> step, long stuckNanos) {
+    this.session = session;
+    this.step = step;
+    this.stuckNanos = stuckNanos;
+  }
+
+  /**
+   * Returns the session that is stuck.
+   *
+   * @return the session
+   */
+  public Session getSession() {
+    return session;
+  }
+
+  /**
+   * Returns the id of the session that is stuck.
+   *
+   * @return the session id
+   */
+  public Object getSessionId() {
+    return session.getSessionId();
+  }
+
+  /**
+   * Returns the step the session is stuck at.
+   *
+   * @return the latest step of the session, or an empty optional if it has not run a step
+   */
+  public Optional<Step> getStep() {
+    return step;
+  }
+
+  /**
+   * Returns for how long the session had not advanced when it was last scanned.
+   *
+   * @return the time, in nanoseconds
+   */
+  public long getStuckNanos() {
+    return stuckNanos;
+  }
+
+  @Override
+  public String toString() {
+    String stuckAt =
+        step.map(latestStep -> " stuck at " + latestStep).orElse(" stuck before first step");
+    return session + stuckAt + " for " + stuckNanos / 1_000_000 + " ms";
+  }
+}
@@ -0,0 +1,318 @@
+package org.requirementsascode.session;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+
+/**
+ * Detects sessions of a {@link SessionEngine} that have not advanced from a step for longer than a
+ * threshold. Thresholds can be configured per step, per flow, and by default. A step's threshold
+ * takes precedence over its flow's threshold, which takes precedence over the default. Sessions at
+ * a step without threshold are never stuck. Sessions that have not run a step yet are stuck when
+ * they have been created longer ago than the default threshold.
+ *
+ * <p>Each call of {@link #scan()} checks the next batch of sessions, and continues where the
+ * previous call stopped, so scanning never pauses the engine, however many sessions there are.
+ * Sessions started and ended during a scan may or may not be checked in the current round. Call
+ * {@link #start(Duration)} to scan batches continuously in the background.
+ *
+ * <p>To expose the results as metrics via JMX, register a {@link
+ * org.requirementsascode.management.StuckSessionDetectorMonitor}.
+ *
+ * @author b_muth
+ */
+public class StuckSessionDetector {
+  private static final int DEFAULT_BATCH_SIZE = 10_000;
+
+  private final SessionEngine sessionEngine;
+  private final int batchSize;
+  private final LongSupplier nanoClock;
+  private final Map<Step, Long> stepThresholds;
+  private final Map<Flow, Long> flowThresholds;
+  private volatile Optional<Long> defaultThreshold;
+  private final ConcurrentMap<Session, StuckSession> stuckSessions;
+  private final LongAdder scannedSessions;
+  private final LongAdder completedScans;
+  private Iterator<Session> cursor;
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Creates a detector for the sessions of the specified engine, that checks at most 10.000
+   * sessions per batch.
+   *
+   * @param sessionEngine the engine whose sessions are checked
+   */
+  public StuckSessionDetector(SessionEngine sessionEngine) {
+    this(sessionEngine, DEFAULT_BATCH_SIZE);
+  }
+
+  /**
+   * Creates a detector for the sessions of the specified engine.
+   *
+   * @param sessionEngine the engine whose sessions are checked
+   * @param batchSize the maximum number of sessions checked per call of {@link #scan()}
+   */
+  public StuckSessionDetector(SessionEngine sessionEngine, int batchSize) {
+    Objects.requireNonNull(sessionEngine);
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be at least 1");
+    }
+
+    this.sessionEngine = sessionEngine;
+    this.batchSize = batchSize;
+    this.nanoClock = sessionEngine.getNanoClock();
+    this.stepThresholds = new ConcurrentHashMap<>();
+    this.flowThresholds = new ConcurrentHashMap<>();
+    this.defaultThreshold = Optional.empty();
+    this.stuckSessions = new ConcurrentHashMap<>();
+    this.scannedSessions = new LongAdder();
+    this.completedScans = new LongAdder();
+  }
+
+  /**
+   * Considers sessions stuck that have not advanced from the specified step for longer than the
+   * specified threshold.
+   *
+   * @param step the step
+   * @param threshold the threshold
+   * @return this detector
+   */
+  public StuckSessionDetector thresholdFor(Step step, Duration threshold) {
+    Objects.requireNonNull(step);
+    stepThresholds.put(step, nanosOf(threshold));
+    return this;
+  }
+
+  /**
+   * Considers sessions stuck that have not advanced from a step of the specified flow for longer
+   * than the specified threshold, unless the step has a threshold of its own.
+   *
+   * @param flow the flow
+   * @param threshold the threshold
+   * @return this detector
+   */
+  public StuckSessionDetector thresholdFor(Flow flow, Duration threshold) {
+    Objects.requireNonNull(flow);
+    flowThresholds.put(flow, nanosOf(threshold));
+    return this;
+  }
+
+  /**
+   * Considers sessions stuck that have not advanced from any step for longer than the specified
+   * threshold, unless the step or its flow have a threshold of their own. Also considers sessions
+   * stuck that have not run a step for longer than the threshold since they have been created.
+   *
+   * @param threshold the threshold
+   * @return this detector
+   */
+  public StuckSessionDetector defaultThreshold(Duration threshold) {
+    defaultThreshold = Optional.of(nanosOf(threshold));
+    return this;
+  }
+
+  private static long nanosOf(Duration threshold) {
+    Objects.requireNonNull(threshold);
+    if (threshold.isNegative()) {
+      throw new IllegalArgumentException("threshold must not be negative");
+    }
+    return threshold.toNanos();
+  }
+
+  /**
+   * Checks the next batch of sessions. When all sessions have been checked, the next call starts
+   * over with the first session.
+   *
+   * @return the number of sessions checked
+   */
+  public synchronized int scan() {
+    if (cursor == null) {
+      cursor = sessionEngine.getSessions().iterator();
+    }
+    long nowNanos = nanoClock.getAsLong();
+    int scanned = 0;
+    while (scanned < batchSize && cursor.hasNext()) {
+      check(cursor.next(), nowNanos);
+      scanned++;
+    }
+    if (!cursor.hasNext()) {
+      cursor = null;
+      removeEndedSessions();
+      completedScans.increment();
+    }
+    scannedSessions.add(scanned);
+    return scanned;
+  }
+
+  private void check(Session session, long nowNanos) {
+    Optional<Step> latestStep = session.getLatestStep();
+    long stuckNanos = nowNanos - session.getAdvancedAtNanos();
+    Optional<Long> threshold =
+        latestStep.isPresent() ? thresholdOf(latestStep.get()) : defaultThreshold;
+    if (threshold.isPresent() && stuckNanos > threshold.get()) {
+      stuckSessions.put(session, new StuckSession(session, latestStep, stuckNanos));
+    } else {
+      stuckSessions.remove(session);
+    }
+  }
+
+  private Optional<Long> thresholdOf(Step step) {
+    Long threshold = stepThresholds.get(step);
+    if (threshold == null) {
+      threshold = flowThresholds.get(step.getFlow());
+    }
+    return threshold != null ? Optional.of(threshold) : defaultThreshold;
+  }
+
+  private void removeEndedSessions() {
+    stuckSessions.keySet().removeIf(session -> !isLive(session));
+  }
+
+  private boolean isLive(Session session) {
+    return sessionEngine.findSession(session.getSessionId()).orElse(null) == session;
+  }
+
+  /**
+   * Starts scanning batches of sessions in a background thread, with the specified delay between
+   * batches.
+   *
+   * @param delay the delay between the end of one batch and the start of the next, greater than 0
+   * @throws IllegalStateException if the detector has already been started
+   */
+  public synchronized void start(Duration delay) {
+    Objects.requireNonNull(delay);
+    if (delay.isNegative() || delay.isZero()) {
+      throw new IllegalArgumentException("delay must be positive");
+    }
+    if (scheduler != null) {
+      throw new IllegalStateException("detector has already been started");
+    }
+
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stuck session detector");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(this::scan, 0, delay.toNanos(), TimeUnit.NANOSECONDS);
+  }
+
+  /** Stops scanning in the background, if the detector has been started. */
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  /**
+   * Returns the sessions found stuck when they were last checked, and that have not ended since.
+   *
+   * @return the stuck sessions
+   */
+  public List<StuckSession> getStuckSessions() {
+    return stuckSessionsThat(stuckSession -> true);
+  }
+
+  /**
+   * Returns the sessions found stuck at the specified step.
+   *
+   * @param step the step
+   * @return the stuck sessions
+   */
+  public List<StuckSession> getStuckSessions(Step step) {
+    Objects.requireNonNull(step);
+    return stuckSessionsThat(stuckSession -> stuckSession.getStep().orElse(null) == step);
+  }
+
+  /**
+   * Returns the sessions found stuck at a step of the specified flow.
+   *
+   * @param flow the flow
+   * @return the stuck sessions
+   */
+  public List<StuckSession> getStuckSessions(Flow flow) {
+    Objects.requireNonNull(flow);
+    return stuckSessionsThat(
+        stuckSession -> stuckSession.getStep().map(Step::getFlow).orElse(null) == flow);
+  }
+
+  /**
+   * Returns the sessions found stuck before they have run their first step.
+   *
+   * @return the stuck sessions
+   */
+  public List<StuckSession> getStuckSessionsBeforeFirstStep() {
+    return stuckSessionsThat(stuckSession -> !stuckSession.getStep().isPresent());
+  }
+
+  private List<StuckSession> stuckSessionsThat(Predicate<StuckSession> predicate) {
+    List<StuckSession> stuckSessionList =
+        stuckSessions
+            .values()
+            .stream()
+            .filter(predicate)
+            .filter(stuckSession -> isLive(stuckSession.getSession()))
+            .collect(Collectors.toCollection(ArrayList::new));
+    return Collections.unmodifiableList(stuckSessionList);
+  }
+
+  /**
+   * Returns the number of sessions found stuck, per step. Sessions stuck before their first step
+   * are not included, see {@link #getStuckSessionsBeforeFirstStep()}.
+   *
+   * @return the counts, for steps with at least one stuck session
+   */
+  public Map<Step, Long> getStuckSessionCounts() {
+    return getStuckSessions()
+        .stream()
+        .filter(stuckSession -> stuckSession.getStep().isPresent())
+        .collect(
+            Collectors.groupingBy(
+                stuckSession -> stuckSession.getStep().get(), Collectors.counting()));
+  }
+
+  /**
+   * Returns the number of sessions found stuck.
+   *
+   * @return the stuck session count
+   */
+  public int getStuckSessionCount() {
+    return getStuckSessions().size();
+  }
+
+  /**
+   * Returns the number of sessions checked since the detector has been created.
+   *
+   * @return the number of checked sessions
+   */
+  public long getScannedSessions() {
+    return scannedSessions.sum();
+  }
+
+  /**
+   * Returns how often all sessions have been checked since the detector has been created.
+   *
+   * @return the number of completed rounds
+   */
+  public long getCompletedScans() {
+    return completedScans.sum();
+  }
+}
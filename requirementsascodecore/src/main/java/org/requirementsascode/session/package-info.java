@@ -0,0 +1,7 @@
+/**
+ * Session package of requirementsascode, containing the session engine that runs a use case model
+ * for many users at the same time, with one runner per session.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.session;
@@ -0,0 +1,191 @@
+package org.requirementsascode.synthetic;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Event that the steps of synthetic use case models react to. There is a fixed number of concrete
+ * event classes, each identified by its index.
+ *
+ * @author b_muth
+ */
+public abstract class SyntheticEvent {
+  private static final List<Supplier<SyntheticEvent>> EVENT_SUPPLIERS =
+      Collections.unmodifiableList(
+          Arrays.asList(
+              Event0::new,
+              Event1::new,
+              Event2::new,
+              Event3::new,
+              Event4::new,
+              Event5::new,
+              Event6::new,
+              Event7::new,
+              Event8::new,
+              Event9::new,
+              Event10::new,
+              Event11::new,
+              Event12::new,
+              Event13::new,
+              Event14::new,
+              Event15::new));
+
+  /** The number of concrete synthetic event classes. */
+  public static final int CLASSES = EVENT_SUPPLIERS.size();
+
+  private final int classIndex;
+
+  SyntheticEvent(int classIndex) {
+    this.classIndex = classIndex;
+  }
+
+  /**
+   * Creates an event of the class with the specified index.
+   *
+   * @param classIndex the index of the event class, from 0 to {@link #CLASSES} - 1
+   * @return the new event
+   * @throws IndexOutOfBoundsException if there is no event class with the index
+   */
+  public static SyntheticEvent newEvent(int classIndex) {
+    return EVENT_SUPPLIERS.get(classIndex).get();
+  }
+
+  /**
+   * Returns the event class with the specified index.
+   *
+   * @param classIndex the index of the event class, from 0 to {@link #CLASSES} - 1
+   * @return the event class
+   * @throws IndexOutOfBoundsException if there is no event class with the index
+   */
+  public static Class<? extends SyntheticEvent> eventClass(int classIndex) {
+    return newEvent(classIndex).getClass();
+  }
+
+  /**
+   * Returns the index of this event's class.
+   *
+   * @return the index, from 0 to {@link #CLASSES} - 1
+   */
+  public int getClassIndex() {
+    return classIndex;
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName();
+  }
+
+  /** Synthetic event of class 0. */
+  public static final class Event0 extends SyntheticEvent {
+    public Event0() {
+      super(0);
+    }
+  }
+
+  /** Synthetic event of class 1. */
+  public static final class Event1 extends SyntheticEvent {
+    public Event1() {
+      super(1);
+    }
+  }
+
+  /** Synthetic event of class 2. */
+  public static final class Event2 extends SyntheticEvent {
+    public Event2() {
+      super(2);
+    }
+  }
+
+  /** Synthetic event of class 3. */
+  public static final class Event3 extends SyntheticEvent {
+    public Event3() {
+      super(3);
+    }
+  }
+
+  /** Synthetic event of class 4. */
+  public static final class Event4 extends SyntheticEvent {
+    public Event4() {
+      super(4);
+    }
+  }
+
+  /** Synthetic event of class 5. */
+  public static final class Event5 extends SyntheticEvent {
+    public Event5() {
+      super(5);
+    }
+  }
+
+  /** Synthetic event of class 6. */
+  public static final class Event6 extends SyntheticEvent {
+    public Event6() {
+      super(6);
+    }
+  }
+
+  /** Synthetic event of class 7. */
+  public static final class Event7 extends SyntheticEvent {
+    public Event7() {
+      super(7);
+    }
+  }
+
+  /** Synthetic event of class 8. */
+  public static final class Event8 extends SyntheticEvent {
+    public Event8() {
+      super(8);
+    }
+  }
+
+  /** Synthetic event of class 9. */
+  public static final class Event9 extends SyntheticEvent {
+    public Event9() {
+      super(9);
+    }
+  }
+
+  /** Synthetic event of class 10. */
+  public static final class Event10 extends SyntheticEvent {
+    public Event10() {
+      super(10);
+    }
+  }
+
+  /** Synthetic event of class 11. */
+  public static final class Event11 extends SyntheticEvent {
+    public Event11() {
+      super(11);
+    }
+  }
+
+  /** Synthetic event of class 12. */
+  public static final class Event12 extends SyntheticEvent {
+    public Event12() {
+      super(12);
+    }
+  }
+
+  /** Synthetic event of class 13. */
+  public static final class Event13 extends SyntheticEvent {
+    public Event13() {
+      super(13);
+    }
+  }
+
+  /** Synthetic event of class 14. */
+  public static final class Event14 extends SyntheticEvent {
+    public Event14() {
+      super(14);
+    }
+  }
+
+  /** Synthetic event of class 15. */
+  public static final class Event15 extends SyntheticEvent {
+    public Event15() {
+      super(15);
+    }
+  }
+}
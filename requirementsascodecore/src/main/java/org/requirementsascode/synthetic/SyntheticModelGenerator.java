@@ -0,0 +1,331 @@
+package org.requirementsascode.synthetic;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.requirementsascode.Actor;
+import org.requirementsascode.FlowPart;
+import org.requirementsascode.StepAsPart;
+import org.requirementsascode.StepPart;
+import org.requirementsascode.StepSystemPart;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.UseCasePart;
+
+/**
+ * Generates large use case models, for scale tests and benchmarks. The generated models are
+ * reproducible: generators with the same seed and configuration generate models with the same
+ * structure.
+ *
+ * <p>Each use case has a basic flow, started by a user step of its own actor and event class, and
+ * ending with a step that continues at one of the basic flow's user steps. The other flows are
+ * alternative flows that start instead of or after a step of the basic flow, some of them only when
+ * a condition is true. They end by continuing at one of the basic flow's user steps, too. Steps
+ * either react to a {@link SyntheticEvent}, or are autonomous system steps. Some user steps react
+ * repeatedly, while the runner receives events of their class.
+ *
+ * <p>The generator makes sure that at most one step can react to each event, whatever events a
+ * runner receives. For that, the first steps of different use cases of the same actor react to
+ * different event classes. So the number of use cases must not exceed the number of actors,
+ * multiplied by the number of event classes.
+ *
+ * <p>The names of the model elements are: "Actor 0", "Use case 0", "Flow 1" for the first
+ * alternative flow, and "S0" or "F1 S0" for the first step of the basic flow or of the first
+ * alternative flow.
+ *
+ * @author b_muth
+ */
+public class SyntheticModelGenerator {
+  private static final int AUTONOMOUS_STEPS_PERCENT = 20;
+  private static final int REPEATED_STEPS_PERCENT = 20;
+  private static final int CONDITIONAL_FLOWS_PERCENT = 50;
+  private static final int NO_EVENT_CLASS = -1;
+
+  private static final Consumer<UseCaseModelRunner> NO_AUTONOMOUS_REACTION = runner -> {};
+  private static final Predicate<UseCaseModelRunner> ALWAYS = runner -> true;
+  private static final Predicate<UseCaseModelRunner> NEVER = runner -> false;
+
+  private final long seed;
+  private int useCases;
+  private int flowsPerUseCase;
+  private int stepsPerFlow;
+  private int actors;
+  private int eventClasses;
+
+  /**
+   * Creates a generator with the specified seed, that generates 10 use cases of a single actor by
+   * default, with 3 flows each and 8 steps per flow, reacting to 8 different event classes.
+   *
+   * @param seed the seed of the generator's random numbers
+   */
+  public SyntheticModelGenerator(long seed) {
+    this.seed = seed;
+    this.useCases = 10;
+    this.flowsPerUseCase = 3;
+    this.stepsPerFlow = 8;
+    this.actors = 1;
+    this.eventClasses = 8;
+  }
+
+  /**
+   * Sets the number of use cases of generated models.
+   *
+   * @param useCases the number of use cases, at least 1
+   * @return this generator
+   */
+  public SyntheticModelGenerator useCases(int useCases) {
+    this.useCases = atLeast(1, useCases, "useCases");
+    return this;
+  }
+
+  /**
+   * Sets the number of flows per use case, including the basic flow. Each alternative flow starts
+   * at a different step of the basic flow, so there must be less flows per use case than steps per
+   * flow.
+   *
+   * @param flowsPerUseCase the number of flows, at least 1
+   * @return this generator
+   */
+  public SyntheticModelGenerator flowsPerUseCase(int flowsPerUseCase) {
+    this.flowsPerUseCase = atLeast(1, flowsPerUseCase, "flowsPerUseCase");
+    return this;
+  }
+
+  /**
+   * Sets the number of steps of each basic flow, and the maximum number of steps of alternative
+   * flows. The last step of a flow continues at another step.
+   *
+   * @param stepsPerFlow the number of steps, at least 2
+   * @return this generator
+   */
+  public SyntheticModelGenerator stepsPerFlow(int stepsPerFlow) {
+    this.stepsPerFlow = atLeast(2, stepsPerFlow, "stepsPerFlow");
+    return this;
+  }
+
+  /**
+   * Sets the number of actors. Each use case belongs to one of the actors.
+   *
+   * @param actors the number of actors, at least 1
+   * @return this generator
+   */
+  public SyntheticModelGenerator actors(int actors) {
+    this.actors = atLeast(1, actors, "actors");
+    return this;
+  }
+
+  /**
+   * Sets the number of event classes user steps react to.
+   *
+   * @param eventClasses the number of event classes, from 1 to {@link SyntheticEvent#CLASSES}
+   * @return this generator
+   */
+  public SyntheticModelGenerator eventClasses(int eventClasses) {
+    atLeast(1, eventClasses, "eventClasses");
+    if (eventClasses > SyntheticEvent.CLASSES) {
+      throw new IllegalArgumentException(
+          "eventClasses must be at most " + SyntheticEvent.CLASSES + ", but is " + eventClasses);
+    }
+    this.eventClasses = eventClasses;
+    return this;
+  }
+
+  private static int atLeast(int minimum, int value, String name) {
+    if (value < minimum) {
+      throw new IllegalArgumentException(
+          name + " must be at least " + minimum + ", but is " + value);
+    }
+    return value;
+  }
+
+  /**
+   * Generates a model with a new builder.
+   *
+   * @return the generated model
+   * @throws IllegalStateException if the configuration is inconsistent
+   */
+  public UseCaseModel generate() {
+    return buildWith(UseCaseModelBuilder.newBuilder());
+  }
+
+  /**
+   * Generates the actors and use cases with the specified builder, and builds the model.
+   *
+   * @param modelBuilder the builder to use
+   * @return the generated model
+   * @throws IllegalStateException if the configuration is inconsistent
+   */
+  public UseCaseModel buildWith(UseCaseModelBuilder modelBuilder) {
+    checkConfiguration();
+    Random random = new Random(seed);
+
+    Actor[] actorsOfModel = new Actor[actors];
+    for (int actorIndex = 0; actorIndex < actors; actorIndex++) {
+      actorsOfModel[actorIndex] = modelBuilder.actor("Actor " + actorIndex);
+    }
+
+    List<Integer> startingPoints = shuffledIndexes(actors * eventClasses, random);
+    for (int useCaseIndex = 0; useCaseIndex < useCases; useCaseIndex++) {
+      int startingPoint = startingPoints.get(useCaseIndex);
+      Actor actor = actorsOfModel[startingPoint % actors];
+      int firstEventClass = startingPoint / actors;
+      UseCasePart useCasePart = modelBuilder.useCase("Use case " + useCaseIndex);
+      generateUseCase(useCasePart, actor, firstEventClass, random);
+    }
+
+    return modelBuilder.build();
+  }
+
+  private void checkConfiguration() {
+    if (useCases > actors * eventClasses) {
+      throw new IllegalStateException(
+          "useCases must be at most actors * eventClasses, but is " + useCases);
+    }
+    if (flowsPerUseCase >= stepsPerFlow) {
+      throw new IllegalStateException(
+          "flowsPerUseCase must be less than stepsPerFlow, but is " + flowsPerUseCase);
+    }
+  }
+
+  private void generateUseCase(
+      UseCasePart useCasePart, Actor actor, int firstEventClass, Random random) {
+    FlowShape basicFlow = new FlowShape("", stepsPerFlow, firstEventClass, random);
+    generateFlow(useCasePart.basicFlow(), basicFlow, basicFlow, actor, random);
+
+    List<Integer> attachedStepIndexes = shuffledIndexes(stepsPerFlow - 1, random);
+    for (int flowNumber = 1; flowNumber < flowsPerUseCase; flowNumber++) {
+      int attachedStepIndex = attachedStepIndexes.get(flowNumber - 1);
+      FlowPart flowPart = useCasePart.flow("Flow " + flowNumber);
+      if (random.nextBoolean()) {
+        flowPart.insteadOf(basicFlow.stepName(attachedStepIndex + 1));
+      } else {
+        flowPart.after(basicFlow.stepName(attachedStepIndex));
+      }
+      if (random.nextInt(100) < CONDITIONAL_FLOWS_PERCENT) {
+        flowPart.when(random.nextBoolean() ? ALWAYS : NEVER);
+      }
+
+      int excludedEventClass = basicFlow.repeatedEventClassAt(attachedStepIndex);
+      int firstEventClassOfFlow = randomEventClassExcept(excludedEventClass, random);
+      int numberOfSteps = 2 + random.nextInt(stepsPerFlow - 1);
+      FlowShape flow =
+          new FlowShape("F" + flowNumber + " ", numberOfSteps, firstEventClassOfFlow, random);
+      generateFlow(flowPart, flow, basicFlow, actor, random);
+    }
+  }
+
+  private void generateFlow(
+      FlowPart flowPart, FlowShape flow, FlowShape basicFlow, Actor actor, Random random) {
+    StepPart stepPart = flowPart.step(flow.stepName(0));
+    for (int stepIndex = 0; stepIndex < flow.lastStepIndex(); stepIndex++) {
+      StepAsPart stepAsPart = stepPart.as(actor);
+      StepSystemPart<?> stepSystemPart;
+      if (flow.isAutonomous(stepIndex)) {
+        stepSystemPart = stepAsPart.system(NO_AUTONOMOUS_REACTION);
+      } else {
+        Class<? extends SyntheticEvent> eventClass =
+            SyntheticEvent.eventClass(flow.eventClassAt(stepIndex));
+        stepSystemPart = userStep(stepAsPart, eventClass);
+        if (flow.isRepeated(stepIndex)) {
+          stepSystemPart.reactWhile(ALWAYS);
+        }
+      }
+      stepPart = stepSystemPart.step(flow.stepName(stepIndex + 1));
+    }
+    stepPart.as(actor).continueAt(basicFlow.randomUserStepName(random));
+  }
+
+  private static <T> StepSystemPart<T> userStep(StepAsPart stepAsPart, Class<T> eventClass) {
+    return stepAsPart.user(eventClass).system(event -> {});
+  }
+
+  private int randomEventClassExcept(int excludedEventClass, Random random) {
+    if (excludedEventClass == NO_EVENT_CLASS) {
+      return random.nextInt(eventClasses);
+    }
+    int eventClass = random.nextInt(eventClasses - 1);
+    return eventClass < excludedEventClass ? eventClass : eventClass + 1;
+  }
+
+  private static List<Integer> shuffledIndexes(int numberOfIndexes, Random random) {
+    List<Integer> indexes = new ArrayList<>(numberOfIndexes);
+    for (int index = 0; index < numberOfIndexes; index++) {
+      indexes.add(index);
+    }
+    Collections.shuffle(indexes, random);
+    return indexes;
+  }
+
+  /**
+   * The randomly chosen shape of a flow: which steps are autonomous, which event classes the user
+   * steps react to, and which of them react repeatedly. The first step is always a user step, and
+   * the last step continues at another step. A repeated step is never followed by a step that
+   * reacts to the same event class.
+   */
+  private class FlowShape {
+    private final String stepNamePrefix;
+    private final int[] eventClassOfStep;
+    private final boolean[] isRepeated;
+
+    private FlowShape(
+        String stepNamePrefix, int numberOfSteps, int firstEventClass, Random random) {
+      this.stepNamePrefix = stepNamePrefix;
+      this.eventClassOfStep = new int[numberOfSteps - 1];
+      this.isRepeated = new boolean[numberOfSteps - 1];
+
+      for (int stepIndex = 0; stepIndex < eventClassOfStep.length; stepIndex++) {
+        if (stepIndex > 0 && random.nextInt(100) < AUTONOMOUS_STEPS_PERCENT) {
+          eventClassOfStep[stepIndex] = NO_EVENT_CLASS;
+          continue;
+        }
+        eventClassOfStep[stepIndex] =
+            stepIndex == 0
+                ? firstEventClass
+                : randomEventClassExcept(repeatedEventClassAt(stepIndex - 1), random);
+        isRepeated[stepIndex] =
+            eventClasses > 1 && random.nextInt(100) < REPEATED_STEPS_PERCENT;
+      }
+    }
+
+    private String stepName(int stepIndex) {
+      return stepNamePrefix + "S" + stepIndex;
+    }
+
+    private int lastStepIndex() {
+      return eventClassOfStep.length;
+    }
+
+    private boolean isAutonomous(int stepIndex) {
+      return eventClassOfStep[stepIndex] == NO_EVENT_CLASS;
+    }
+
+    private int eventClassAt(int stepIndex) {
+      return eventClassOfStep[stepIndex];
+    }
+
+    private boolean isRepeated(int stepIndex) {
+      return isRepeated[stepIndex];
+    }
+
+    /**
+     * Returns the event class of the specified step if it reacts repeatedly, so that steps that may
+     * react after it can avoid that class, or else no event class.
+     */
+    private int repeatedEventClassAt(int stepIndex) {
+      return isRepeated[stepIndex] ? eventClassOfStep[stepIndex] : NO_EVENT_CLASS;
+    }
+
+    private String randomUserStepName(Random random) {
+      int stepIndex;
+      do {
+        stepIndex = random.nextInt(lastStepIndex());
+      } while (isAutonomous(stepIndex));
+      return stepName(stepIndex);
+    }
+  }
+}
@@ -0,0 +1,7 @@
+/**
+ * Synthetic package of requirementsascode, containing a generator of large, reproducible use case
+ * models and the events their steps react to, for scale tests and benchmarks.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.synthetic;
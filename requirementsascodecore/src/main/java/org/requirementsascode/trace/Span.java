@@ -0,0 +1,112 @@
+package org.requirementsascode.trace;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A span recorded by a {@link Tracer}: something a runner did, with start time and duration.
+ *
+ * @author b_muth
+ */
+public class Span {
+  private final String name;
+  private final String category;
+  private final long threadId;
+  private final long startNanos;
+  private final long durationNanos;
+  private final Map<String, String> attributes;
+
+  Span(
+      String name,
+      String category,
+      long threadId,
+      long startNanos,
+      long durationNanos,
+      Map<String, String> attributes) {
+    this.name = name;
+    this.category = category;
+    this.threadId = threadId;
+    this.startNanos = startNanos;
+    this.durationNanos = durationNanos;
+    this.attributes = Collections.unmodifiableMap(attributes);
+  }
+
+  /**
+   * Returns the name of the span: the simple name of the event class for event spans, or the step
+   * name for step spans.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the category of the span: one of {@link Tracer#EVENT}, {@link Tracer#DISPATCH}, {@link
+   * Tracer#STEP} or {@link Tracer#EXCEPTION}.
+   *
+   * @return the category
+   */
+  public String getCategory() {
+    return category;
+  }
+
+  /**
+   * Returns the id of the thread the runner ran on.
+   *
+   * @return the thread id
+   */
+  public long getThreadId() {
+    return threadId;
+  }
+
+  /**
+   * Returns when the span started, in nanoseconds since the tracer has been created.
+   *
+   * @return the start time
+   */
+  public long getStartNanos() {
+    return startNanos;
+  }
+
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * Returns the end of the span, in nanoseconds since the tracer has been created.
+   *
+   * @return the end time
+   */
+  public long getEndNanos() {
+    return startNanos + durationNanos;
+  }
+
+  /**
+   * Returns additional information, e.g. the use case and flow names of a step span.
+   *
+   * @return the attributes
+   */
+  public Map<String, String> getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * Returns whether this span contains the specified span, i.e. whether the other span is a
+   * descendant of this span.
+   *
+   * @param other the other span
+   * @return true if this span contains the other span, false otherwise
+   */
+  public boolean contains(Span other) {
+    return threadId == other.threadId
+        && other != this
+        && startNanos <= other.startNanos
+        && other.getEndNanos() <= getEndNanos();
+  }
+
+  @Override
+  public String toString() {
+    return category + " " + name + " (" + durationNanos + " ns)";
+  }
+}
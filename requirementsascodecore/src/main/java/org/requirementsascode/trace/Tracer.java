@@ -0,0 +1,256 @@
+package org.requirementsascode.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.RunnerListener;
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+/**
+ * Traces what runners do, as nested spans. Add an instance to a model via {@link
+ * UseCaseModel#addRunnerListener(RunnerListener)}.
+ *
+ * <p>Each event provided to a runner from the outside creates a parent span, covering the complete
+ * chain of reactions the event causes. Inside of it, each triggered step creates a span for finding
+ * the step (dispatch), and a span for its system reaction. Autonomous system reactions follow the
+ * step that caused them. When a system reaction throws an exception, the runner dispatches it as an
+ * event, so it gets an event span of its own, containing the span of the step that handles it.
+ * Steps that handle an exception are spans of their own category, so exception handling stands
+ * out. Events provided to a runner from inside a system reaction create spans nested in that
+ * system reaction's span.
+ *
+ * <p>The spans can be exported in the Chrome trace event format, which can be opened in Chrome's
+ * about:tracing, Perfetto and other trace viewers. The tracer keeps at most a configurable number of
+ * spans, and drops further spans until it is cleared.
+ *
+ * @author b_muth
+ */
+public class Tracer implements RunnerListener {
+  public static final String EVENT = "event";
+  public static final String DISPATCH = "dispatch";
+  public static final String STEP = "step";
+  public static final String EXCEPTION = "exception";
+
+  private static final int DEFAULT_MAX_SPANS = 100_000;
+
+  private int maxSpans;
+  private long originNanos;
+  private Queue<Span> spans;
+  private AtomicInteger spanCount;
+  private LongAdder droppedSpans;
+  private ThreadLocal<StartTimes> eventStartTimes;
+
+  /** Creates a tracer that keeps at most 100.000 spans. */
+  public Tracer() {
+    this(DEFAULT_MAX_SPANS);
+  }
+
+  /**
+   * Creates a tracer that keeps at most the specified number of spans.
+   *
+   * @param maxSpans the maximum number of spans
+   */
+  public Tracer(int maxSpans) {
+    if (maxSpans < 1) {
+      throw new IllegalArgumentException("maxSpans must be at least 1");
+    }
+
+    this.maxSpans = maxSpans;
+    this.originNanos = System.nanoTime();
+    this.spans = new ConcurrentLinkedQueue<>();
+    this.spanCount = new AtomicInteger();
+    this.droppedSpans = new LongAdder();
+    this.eventStartTimes = ThreadLocal.withInitial(StartTimes::new);
+  }
+
+  @Override
+  public void eventReceived(UseCaseModelRunner runner, Object event) {
+    eventStartTimes.get().push(System.nanoTime());
+  }
+
+  @Override
+  public void eventProcessed(UseCaseModelRunner runner, Object event) {
+    StartTimes startTimes = eventStartTimes.get();
+    if (startTimes.isEmpty()) {
+      return;
+    }
+    long endNanos = System.nanoTime();
+    long startNanos = startTimes.pop();
+    Map<String, String> attributes = new LinkedHashMap<>();
+    attributes.put("eventClass", event.getClass().getName());
+    addSpan(event.getClass().getSimpleName(), EVENT, startNanos, endNanos - startNanos, attributes);
+  }
+
+  @Override
+  public void stepReacted(
+      UseCaseModelRunner runner, Step step, Object event, long dispatchNanos, long reactionNanos) {
+    long reactionStartNanos = System.nanoTime() - reactionNanos;
+    Map<String, String> attributes = new LinkedHashMap<>();
+    attributes.put("useCase", step.getUseCase().getName());
+    attributes.put("flow", step.getFlow().getName());
+    attributes.put("eventClass", event.getClass().getName());
+
+    addSpan(
+        step.getName(),
+        DISPATCH,
+        reactionStartNanos - dispatchNanos,
+        dispatchNanos,
+        new LinkedHashMap<>(attributes));
+    String category = event instanceof Throwable ? EXCEPTION : STEP;
+    addSpan(step.getName(), category, reactionStartNanos, reactionNanos, attributes);
+  }
+
+  private void addSpan(
+      String name,
+      String category,
+      long startNanos,
+      long durationNanos,
+      Map<String, String> attributes) {
+    if (spanCount.incrementAndGet() > maxSpans) {
+      spanCount.decrementAndGet();
+      droppedSpans.increment();
+      return;
+    }
+    long threadId = Thread.currentThread().getId();
+    spans.add(
+        new Span(name, category, threadId, startNanos - originNanos, durationNanos, attributes));
+  }
+
+  /**
+   * Returns the spans recorded so far, in the order they ended.
+   *
+   * @return the spans
+   */
+  public List<Span> getSpans() {
+    return new ArrayList<>(spans);
+  }
+
+  /**
+   * Returns the number of spans dropped, because the maximum number of spans had been reached.
+   *
+   * @return the number of dropped spans
+   */
+  public long getDroppedSpans() {
+    return droppedSpans.sum();
+  }
+
+  /** Removes all spans recorded so far. */
+  public void clear() {
+    spans.clear();
+    spanCount.set(0);
+    droppedSpans.reset();
+  }
+
+  /**
+   * Writes the spans recorded so far to the specified file, in the Chrome trace event format.
+   *
+   * @param file the file
+   * @throws IOException if the file cannot be written
+   */
+  public void writeTo(Path file) throws IOException {
+    Objects.requireNonNull(file);
+
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writeTo(writer);
+    }
+  }
+
+  /**
+   * Writes the spans recorded so far to the specified writer, in the Chrome trace event format.
+   *
+   * @param writer the writer, which is not closed afterwards
+   * @throws IOException if writing fails
+   */
+  public void writeTo(Writer writer) throws IOException {
+    Objects.requireNonNull(writer);
+
+    writer.write("{\"traceEvents\":[");
+    String separator = "\n";
+    for (Span span : spans) {
+      writer.write(separator);
+      writeSpan(span, writer);
+      separator = ",\n";
+    }
+    writer.write("\n],\"displayTimeUnit\":\"ns\"}\n");
+    writer.flush();
+  }
+
+  private void writeSpan(Span span, Writer writer) throws IOException {
+    writer.write("{\"name\":");
+    writeString(span.getName(), writer);
+    writer.write(",\"cat\":");
+    writeString(span.getCategory(), writer);
+    writer.write(",\"ph\":\"X\",\"pid\":1,\"tid\":");
+    writer.write(Long.toString(span.getThreadId()));
+    writer.write(",\"ts\":");
+    writer.write(microseconds(span.getStartNanos()));
+    writer.write(",\"dur\":");
+    writer.write(microseconds(span.getDurationNanos()));
+    writer.write(",\"args\":{");
+    String separator = "";
+    for (Map.Entry<String, String> attribute : span.getAttributes().entrySet()) {
+      writer.write(separator);
+      writeString(attribute.getKey(), writer);
+      writer.write(":");
+      writeString(attribute.getValue(), writer);
+      separator = ",";
+    }
+    writer.write("}}");
+  }
+
+  private String microseconds(long nanos) {
+    return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+  }
+
+  private void writeString(String string, Writer writer) throws IOException {
+    writer.write('"');
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c == '"' || c == '\\') {
+        writer.write('\\');
+        writer.write(c);
+      } else if (c < 0x20) {
+        writer.write(String.format("\\u%04x", (int) c));
+      } else {
+        writer.write(c);
+      }
+    }
+    writer.write('"');
+  }
+
+  private static class StartTimes {
+    private long[] startNanos = new long[8];
+    private int size;
+
+    private void push(long nanos) {
+      if (size == startNanos.length) {
+        startNanos = Arrays.copyOf(startNanos, size * 2);
+      }
+      startNanos[size++] = nanos;
+    }
+
+    private long pop() {
+      return startNanos[--size];
+    }
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+  }
+}
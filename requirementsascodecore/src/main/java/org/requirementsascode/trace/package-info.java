@@ -0,0 +1,7 @@
+/**
+ * Trace package of requirementsascode, containing in-process tracing of what runners do, and
+ * export of the traces to files.
+ *
+ * @author b_muth
+ */
+package org.requirementsascode.trace;
@@ -3,10 +3,38 @@ package org.requirementsascode;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
+import org.requirementsascode.audit.AuditLogTest;
+import org.requirementsascode.explore.CoverageGeneratorTest;
+import org.requirementsascode.explore.StateSpaceExplorerTest;
+import org.requirementsascode.fuzz.DifferentialFuzzerTest;
+import org.requirementsascode.ingress.AdmissionControlTest;
+import org.requirementsascode.ingress.EventCoalescerTest;
+import org.requirementsascode.ingress.IdempotencyFilterTest;
+import org.requirementsascode.ingress.PriorityLanesTest;
+import org.requirementsascode.jfr.FlightRecordingListenerTest;
+import org.requirementsascode.jfr.FlightRecordingRunnerTest;
+import org.requirementsascode.management.MonitorTest;
+import org.requirementsascode.metrics.LoadStatisticsTest;
+import org.requirementsascode.metrics.PredicateProfilerTest;
+import org.requirementsascode.metrics.StepLatencyMetricsTest;
+import org.requirementsascode.replay.TraceReplayTest;
+import org.requirementsascode.session.SessionEngineTest;
+import org.requirementsascode.session.StuckSessionDetectorTest;
+import org.requirementsascode.synthetic.SyntheticModelGeneratorTest;
+import org.requirementsascode.trace.TracerTest;
 
 @RunWith(Suite.class)
 @SuiteClasses({ BuildModelTest.class, ExceptionsThrownTest.class, ExceptionHandlingTest.class,
-		SystemReactionTest.class, AdaptedSystemReactionTest.class, BuildModelTest.class })
+		SystemReactionTest.class, AdaptedSystemReactionTest.class, BuildModelTest.class,
+		BulkheadTest.class, EventCoalescerTest.class,
+		IdempotencyFilterTest.class, PriorityLanesTest.class, SessionEngineTest.class,
+		AdmissionControlTest.class, StepLatencyMetricsTest.class,
+		MonitorTest.class, FlightRecordingListenerTest.class, FlightRecordingRunnerTest.class,
+		PredicateProfilerTest.class, TracerTest.class, HitCountsTest.class,
+		SystemReactionInterceptorTest.class, StepTraceTest.class, AuditLogTest.class,
+		StuckSessionDetectorTest.class, SyntheticModelGeneratorTest.class,
+		AllocationBudgetTest.class, DifferentialFuzzerTest.class, LoadStatisticsTest.class,
+		TraceReplayTest.class, StateSpaceExplorerTest.class, CoverageGeneratorTest.class })
 public class AllTests {
 
 }
@@ -0,0 +1,123 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.synthetic.SyntheticEvent;
+import org.requirementsascode.synthetic.SyntheticModelGenerator;
+
+/**
+ * Measures the bytes a runner allocates per event, after warm-up, and fails if they exceed the
+ * budget recorded for the model. The budgets leave about 25% headroom above the measured
+ * allocation. When a change makes the runner allocate more, either make it lean again, or raise
+ * the budget deliberately. Takes the least of several measurements, since allocation drops once
+ * the just-in-time compiler has optimized the hot path.
+ */
+public class AllocationBudgetTest extends AbstractTestCase{
+	private static final long SINGLE_STEP_BUDGET = 11000;
+	private static final long ALTERNATIVE_FLOW_BUDGET = 10000;
+	private static final long UNHANDLED_EVENT_BUDGET = 2000;
+	private static final long SYNTHETIC_MODEL_BUDGET = 160000;
+
+	private static final int WARM_UP_EVENTS = 50000;
+	private static final int MEASURED_EVENTS = 20000;
+	private static final int MEASUREMENTS = 3;
+
+	private com.sun.management.ThreadMXBean threadMXBean;
+
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		java.lang.management.ThreadMXBean platformThreadMXBean = ManagementFactory.getThreadMXBean();
+		assumeTrue(platformThreadMXBean instanceof com.sun.management.ThreadMXBean);
+		threadMXBean = (com.sun.management.ThreadMXBean) platformThreadMXBean;
+		assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	public void singleStepModelStaysWithinBudget() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+					.step(CONTINUE).continueAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		assertWithinBudget(SINGLE_STEP_BUDGET, useCaseModel, new UseCaseModelRunner(), enterText());
+	}
+
+	@Test
+	public void alternativeFlowModelStaysWithinBudget() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+						.reactWhile(r -> true)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+					.step(CONTINUE).continueAt(CUSTOMER_ENTERS_TEXT)
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER).when(r -> false)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterNumber.class).system(enterNumber -> {})
+					.step(CONTINUE_2).continueAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		assertWithinBudget(ALTERNATIVE_FLOW_BUDGET, useCaseModel, new UseCaseModelRunner(),
+			enterText(), enterText(), enterNumber());
+	}
+
+	@Test
+	public void unhandledEventStaysWithinBudget() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+			.build();
+
+		assertWithinBudget(UNHANDLED_EVENT_BUDGET, useCaseModel, new UseCaseModelRunner(), enterNumber());
+	}
+
+	@Test
+	public void syntheticModelStaysWithinBudget() {
+		UseCaseModel useCaseModel = new SyntheticModelGenerator(42)
+			.useCases(20).flowsPerUseCase(3).stepsPerFlow(10).actors(2).eventClasses(SyntheticEvent.CLASSES)
+			.generate();
+		UseCaseModelRunner runner = new UseCaseModelRunner();
+		runner.as(useCaseModel.findActor("Actor 0"));
+
+		Random random = new Random(42);
+		Object[] events = new Object[100];
+		for (int i = 0; i < events.length; i++) {
+			events[i] = SyntheticEvent.newEvent(random.nextInt(SyntheticEvent.CLASSES));
+		}
+
+		assertWithinBudget(SYNTHETIC_MODEL_BUDGET, useCaseModel, runner, events);
+	}
+
+	private void assertWithinBudget(long budget, UseCaseModel useCaseModel, UseCaseModelRunner runner, Object... events) {
+		runner.run(useCaseModel);
+		reactTo(runner, events, WARM_UP_EVENTS);
+
+		long bytesPerEvent = Long.MAX_VALUE;
+		for (int i = 0; i < MEASUREMENTS; i++) {
+			long threadId = Thread.currentThread().getId();
+			long allocatedBytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+			reactTo(runner, events, MEASURED_EVENTS);
+			long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesBefore;
+			bytesPerEvent = Math.min(bytesPerEvent, allocatedBytes / MEASURED_EVENTS);
+		}
+
+		assertTrue("Allocated " + bytesPerEvent + " bytes per event, but the budget is " + budget,
+			bytesPerEvent <= budget);
+	}
+
+	private void reactTo(UseCaseModelRunner runner, Object[] events, int numberOfEvents) {
+		for (int i = 0; i < numberOfEvents; i++) {
+			runner.reactTo(events[i % events.length]);
+		}
+	}
+}
@@ -0,0 +1,232 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.exception.BulkheadFull;
+import org.requirementsascode.exception.ElementAlreadyInModel;
+import org.requirementsascode.exception.NoSuchElementInModel;
+import org.requirementsascode.exception.UnhandledException;
+
+public class BulkheadTest extends AbstractTestCase{
+	private static final String BULKHEAD = "Address validation";
+	private static final String BULKHEAD_2 = "Payment";
+	
+	private TestUseCaseModelRunner secondRunner;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		secondRunner = new TestUseCaseModelRunner();
+	}
+	
+	@Test
+	public void createsBulkhead() {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 2, 3);
+		UseCaseModel useCaseModel = useCaseModelBuilder.build();
+		
+		assertTrue(useCaseModel.hasBulkhead(BULKHEAD));
+		assertEquals(bulkhead, useCaseModel.findBulkhead(BULKHEAD));
+		assertEquals(1, useCaseModel.getBulkheads().size());
+		assertEquals(2, bulkhead.getMaxConcurrentCalls());
+		assertEquals(3, bulkhead.getMaxQueuedCalls());
+	}
+	
+	@Test(expected = ElementAlreadyInModel.class)
+	public void throwsExceptionIfBulkheadIsCreatedTwice() {
+		useCaseModelBuilder.bulkhead(BULKHEAD, 1, 0);
+		useCaseModelBuilder.bulkhead(BULKHEAD, 1, 0);
+	}
+	
+	@Test(expected = NoSuchElementInModel.class)
+	public void throwsExceptionIfBulkheadIsNotFound() {
+		useCaseModelBuilder.build().findBulkhead(BULKHEAD);
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfBulkheadHasNoSlots() {
+		useCaseModelBuilder.bulkhead(BULKHEAD, 0, 1);
+	}
+	
+	@Test
+	public void stepIsIsolatedInItsOwnBulkheadRatherThanInUseCaseBulkhead() {
+		Bulkhead useCaseBulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 0);
+		Bulkhead stepBulkhead = useCaseModelBuilder.bulkhead(BULKHEAD_2, 1, 0);
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE).isolatedIn(useCaseBulkhead)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(SYSTEM_DISPLAYS_TEXT_AGAIN).system(displayConstantText()).isolatedIn(stepBulkhead)
+			.useCase(USE_CASE_2)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		
+		UseCase useCase = useCaseModel.findUseCase(USE_CASE);
+		assertEquals(useCaseBulkhead, useCase.findStep(SYSTEM_DISPLAYS_TEXT).getBulkhead().get());
+		assertEquals(stepBulkhead, useCase.findStep(SYSTEM_DISPLAYS_TEXT_AGAIN).getBulkhead().get());
+		assertFalse(useCaseModel.findUseCase(USE_CASE_2).findStep(CUSTOMER_ENTERS_TEXT).getBulkhead().isPresent());
+		
+		useCaseModelRunner.run(useCaseModel);
+		
+		assertEquals(SYSTEM_DISPLAYS_TEXT + ";" + SYSTEM_DISPLAYS_TEXT_AGAIN + ";", runStepNames());
+		assertEquals(1, useCaseBulkhead.getAcceptedCalls());
+		assertEquals(1, stepBulkhead.getAcceptedCalls());
+		assertEquals(0, useCaseBulkhead.getActiveCalls());
+		assertEquals(0, stepBulkhead.getActiveCalls());
+	}
+	
+	@Test
+	public void rejectsEventIntoExceptionFlowWhenBulkheadIsFull() {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 0);
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(letSecondRunnerReactTo()).isolatedIn(bulkhead)
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_TEXT)
+					.step(SYSTEM_HANDLES_EXCEPTION).handle(BulkheadFull.class).system(e -> {})
+			.build();
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		assertEquals(SYSTEM_HANDLES_EXCEPTION + ";", secondRunner.getRunStepNames());
+		assertEquals(1, useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT).getHits());
+		assertEquals(1, bulkhead.getAcceptedCalls());
+		assertEquals(1, bulkhead.getRejectedCalls());
+		assertEquals(0, bulkhead.getActiveCalls());
+		assertEquals(0.0, bulkhead.getSaturation(), 0.0);
+	}
+	
+	@Test(expected = UnhandledException.class)
+	public void throwsUnhandledExceptionWhenBulkheadIsFullAndRejectionIsNotHandled() {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 0);
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(letSecondRunnerReactTo()).isolatedIn(bulkhead)
+			.build();
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+	}
+	
+	@Test
+	public void queuedCallWaitsForFreeSlot() throws InterruptedException {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 1);
+		CountDownLatch firstReactionStarted = new CountDownLatch(1);
+		CountDownLatch firstReactionMayEnd = new CountDownLatch(1);
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {
+						if(firstReactionStarted.getCount() > 0){
+							firstReactionStarted.countDown();
+							await(firstReactionMayEnd);
+						}
+					}).isolatedIn(bulkhead)
+			.build();
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		
+		Thread firstThread = new Thread(() -> useCaseModelRunner.reactTo(enterText()));
+		firstThread.start();
+		firstReactionStarted.await();
+		
+		Thread secondThread = new Thread(() -> secondRunner.reactTo(enterText()));
+		secondThread.start();
+		while(bulkhead.getQueuedCalls() == 0){
+			Thread.yield();
+		}
+		assertEquals(1, bulkhead.getActiveCalls());
+		assertEquals(2.0, bulkhead.getSaturation(), 0.0);
+		
+		firstReactionMayEnd.countDown();
+		firstThread.join();
+		secondThread.join();
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", secondRunner.getRunStepNames());
+		assertEquals(2, bulkhead.getAcceptedCalls());
+		assertEquals(0, bulkhead.getRejectedCalls());
+	}
+	
+	@Test
+	public void rejectsQueuedCallAfterMaxWaitTime() {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 1, Duration.ofMillis(10));
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(letSecondRunnerReactTo()).isolatedIn(bulkhead)
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_TEXT)
+					.step(SYSTEM_HANDLES_EXCEPTION).handle(BulkheadFull.class).system(e -> {})
+			.build();
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		assertEquals(SYSTEM_HANDLES_EXCEPTION + ";", secondRunner.getRunStepNames());
+		assertEquals(1, bulkhead.getRejectedCalls());
+		assertEquals(0, bulkhead.getQueuedCalls());
+		assertEquals(0, bulkhead.getActiveCalls());
+	}
+	
+	@Test
+	public void rejectsReentrantCallIntoFullBulkheadInsteadOfBlocking() {
+		Bulkhead bulkhead = useCaseModelBuilder.bulkhead(BULKHEAD, 1, 1, Duration.ofMillis(10));
+		
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class)
+						.system(enterText -> useCaseModelRunner.reactTo(enterNumber())).isolatedIn(bulkhead)
+				.flow(ALTERNATIVE_FLOW).after(CUSTOMER_ENTERS_TEXT)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber()).isolatedIn(bulkhead)
+				.flow(ALTERNATIVE_FLOW_2).after(CUSTOMER_ENTERS_TEXT)
+					.step(SYSTEM_HANDLES_EXCEPTION).handle(BulkheadFull.class).system(e -> {})
+			.build();
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";" + SYSTEM_HANDLES_EXCEPTION + ";", runStepNames());
+		assertEquals(0, useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_NUMBER).getHits());
+		assertEquals(1, bulkhead.getRejectedCalls());
+		assertEquals(0, bulkhead.getActiveCalls());
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfMaxWaitTimeIsNegative() {
+		useCaseModelBuilder.bulkhead(BULKHEAD, 1, 1, Duration.ofMillis(-1));
+	}
+	
+	private Consumer<EnterText> letSecondRunnerReactTo() {
+		return enterText -> secondRunner.reactTo(enterText);
+	}
+	
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
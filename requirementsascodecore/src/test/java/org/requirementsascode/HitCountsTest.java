@@ -0,0 +1,117 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class HitCountsTest extends AbstractTestCase{
+	private TestUseCaseModelRunner secondRunner;
+
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		secondRunner = new TestUseCaseModelRunner();
+	}
+
+	@Test
+	public void countsNothingIfNoStepHasBeenRun() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+
+		HitCounts hitCounts = useCaseModel.getHitCounts();
+		Step step = useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+
+		assertEquals(0, hitCounts.getStepHits(step));
+		assertEquals(0, hitCounts.getTotalStepHits());
+		assertEquals(0, hitCounts.getStepHeat(step), 0);
+	}
+
+	@Test
+	public void countsStepHitsOfAllRunners() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText(), enterText());
+		secondRunner.reactTo(enterText());
+
+		HitCounts hitCounts = useCaseModel.getHitCounts();
+		Step step = useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+		Flow basicFlow = useCaseModel.findUseCase(USE_CASE).getBasicFlow();
+
+		assertEquals(3, hitCounts.getStepHits(step));
+		assertEquals(3, hitCounts.getTotalStepHits());
+		assertEquals(3, hitCounts.getMaxStepHits());
+		assertEquals(2, hitCounts.getFlowEntries(basicFlow));
+	}
+
+	@Test
+	public void countsFlowEntriesWhenSwitchingFlows() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CONTINUE).continueAt(CUSTOMER_ENTERS_NUMBER)
+			.build();
+
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText(), enterAlternativeText(), enterAlternativeText(), enterNumber());
+
+		HitCounts hitCounts = useCaseModel.getHitCounts();
+		UseCase useCase = useCaseModel.findUseCase(USE_CASE);
+
+		assertEquals(1, hitCounts.getFlowEntries(useCase.getBasicFlow()));
+		assertEquals(2, hitCounts.getFlowEntries(useCase.findFlow(ALTERNATIVE_FLOW)));
+		assertEquals(1, hitCounts.getStepHits(useCase.findStep(CUSTOMER_ENTERS_TEXT)));
+		assertEquals(2, hitCounts.getStepHits(useCase.findStep(CUSTOMER_ENTERS_ALTERNATIVE_TEXT)));
+		assertEquals(2, hitCounts.getStepHits(useCase.findStep(CONTINUE)));
+		assertEquals(1, hitCounts.getStepHits(useCase.findStep(CUSTOMER_ENTERS_NUMBER)));
+		assertEquals(0.5, hitCounts.getStepHeat(useCase.findStep(CUSTOMER_ENTERS_NUMBER)), 0);
+		assertEquals(6, hitCounts.getTotalStepHits());
+	}
+
+	@Test
+	public void snapshotIsNotAffectedByLaterHits() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		HitCounts hitCounts = useCaseModel.getHitCounts();
+		useCaseModelRunner.reactTo(enterText());
+
+		assertEquals(1, hitCounts.getTotalStepHits());
+		assertEquals(2, useCaseModel.getHitCounts().getTotalStepHits());
+	}
+
+	@Test
+	public void resetsHitCounts() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		useCaseModel.resetHitCounts();
+
+		HitCounts hitCounts = useCaseModel.getHitCounts();
+		assertEquals(0, hitCounts.getTotalStepHits());
+		assertEquals(0, hitCounts.getFlowEntries(useCaseModel.findUseCase(USE_CASE).getBasicFlow()));
+	}
+}
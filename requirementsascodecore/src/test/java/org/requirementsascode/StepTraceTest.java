@@ -0,0 +1,171 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class StepTraceTest extends AbstractTestCase{
+	private UseCaseModelRunner runner;
+	private long now;
+
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		runner = new UseCaseModelRunner();
+		now = 0;
+	}
+
+	@Test
+	public void recordsStepsTriggeredByRunner() {
+		StepTrace stepTrace = new StepTrace(10);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		UseCase useCase = useCaseModel.findUseCase(USE_CASE);
+
+		runner.traceStepsIn(stepTrace);
+		runner.run(useCaseModel);
+		runner.reactTo(enterText(), enterNumber());
+
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";" + CUSTOMER_ENTERS_NUMBER + ";", stepTrace.renderStepNames());
+		assertEquals(Arrays.asList(useCase.findStep(CUSTOMER_ENTERS_TEXT), useCase.findStep(CUSTOMER_ENTERS_NUMBER)), 
+			stepTrace.getSteps());
+		assertEquals(2, stepTrace.size());
+		assertEquals(2, stepTrace.getRecordedSteps());
+		assertTrue(runner.getStepTrace().isPresent());
+	}
+
+	@Test
+	public void keepsOnlyLatestSteps() {
+		StepTrace stepTrace = new StepTrace(2);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+					.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EnterText.class).system(displayEnteredText())
+			.build();
+
+		runner.traceStepsIn(stepTrace);
+		runner.run(useCaseModel);
+		runner.reactTo(enterText(), enterNumber(), enterText());
+
+		assertEquals(CUSTOMER_ENTERS_NUMBER + ";" + CUSTOMER_ENTERS_TEXT_AGAIN + ";", stepTrace.renderStepNames());
+		assertEquals(2, stepTrace.size());
+		assertEquals(3, stepTrace.getRecordedSteps());
+	}
+
+	@Test
+	public void growsSlotsUpToCapacity() {
+		StepTrace stepTrace = new StepTrace(40);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+
+		runner.traceStepsIn(stepTrace);
+		runner.run(useCaseModel);
+		for (int i = 0; i < 100; i++) {
+			runner.reactTo(enterText());
+		}
+
+		assertEquals(40, stepTrace.size());
+		assertEquals(100, stepTrace.getRecordedSteps());
+		assertEquals(40, stepTrace.getSteps().size());
+	}
+
+	@Test
+	public void rendersTimestampStepAndEventClass() {
+		StepTrace stepTrace = new StepTrace(1, () -> now);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+			.build();
+
+		runner.traceStepsIn(stepTrace);
+		runner.run(useCaseModel);
+		now = 1000;
+		runner.reactTo(enterText());
+
+		assertEquals("(1 earlier steps overwritten)\n"
+			+ "1970-01-01T00:00:01Z " + USE_CASE + "/" + BASIC_FLOW + "/" + SYSTEM_DISPLAYS_TEXT + " " 
+			+ UseCaseModelRunner.class.getName() + "\n", stepTrace.render());
+	}
+
+	@Test
+	public void recordsStepsOfTestRunnerReusedWithOtherModel() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		UseCaseModel otherUseCaseModel = UseCaseModelBuilder.newBuilder()
+			.useCase(USE_CASE_2)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		useCaseModelRunner.restart();
+		useCaseModelRunner.run(otherUseCaseModel);
+		useCaseModelRunner.reactTo(enterNumber());
+
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";" + CUSTOMER_ENTERS_NUMBER + ";", runStepNames());
+		assertEquals(Arrays.asList(useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT),
+			otherUseCaseModel.findUseCase(USE_CASE_2).findStep(CUSTOMER_ENTERS_NUMBER)),
+			useCaseModelRunner.getStepTrace().get().getSteps());
+	}
+
+	@Test
+	public void stopsRecordingSteps() {
+		StepTrace stepTrace = new StepTrace(10);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+
+		runner.traceStepsIn(stepTrace);
+		runner.traceStepsIn(null);
+		runner.run(useCaseModel);
+		runner.reactTo(enterText());
+
+		assertEquals("", stepTrace.renderStepNames());
+		assertFalse(runner.getStepTrace().isPresent());
+	}
+
+	@Test
+	public void clearsTrace() {
+		StepTrace stepTrace = new StepTrace(10);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+
+		runner.traceStepsIn(stepTrace);
+		runner.run(useCaseModel);
+		runner.reactTo(enterText());
+		stepTrace.clear();
+
+		assertEquals(0, stepTrace.size());
+		assertEquals("", stepTrace.render());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void throwsExceptionIfCapacityIsZero() {
+		new StepTrace(0);
+	}
+}
@@ -0,0 +1,219 @@
+package org.requirementsascode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.exception.UnhandledException;
+
+public class SystemReactionInterceptorTest extends AbstractTestCase{
+	private StringBuilder calls;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		calls = new StringBuilder();
+	}
+	
+	@Test
+	public void callsInterceptorsInOrderTheyHaveBeenAdded() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> calls.append("reaction;"))
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("1"));
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("2"));
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals("before1;in1;before2;in2;reaction;out2;after2;out1;after1;", calls.toString());
+	}
+	
+	@Test
+	public void callsInterceptorOnlyForFilteredSteps() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(
+			new LoggingInterceptor("1"), step -> step.getName().equals(CUSTOMER_ENTERS_NUMBER));
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		assertEquals("", calls.toString());
+		
+		useCaseModelRunner.reactTo(enterNumber());
+		assertEquals("before1;in1;out1;after1;", calls.toString());
+	}
+	
+	@Test
+	public void aroundHookSkipsSystemReaction() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new SystemReactionInterceptor() {
+			@Override
+			public void around(SystemReactionTrigger trigger) {
+			}
+		});
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertNull(displayedText);
+		assertEquals(CUSTOMER_ENTERS_TEXT, latestStepName());
+	}
+	
+	@Test
+	public void aroundHookTriggersSystemReactionTwice() {
+		AtomicInteger reactions = new AtomicInteger();
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> reactions.incrementAndGet())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new SystemReactionInterceptor() {
+			@Override
+			public void around(SystemReactionTrigger trigger) {
+				trigger.trigger();
+				trigger.trigger();
+			}
+		});
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("2"));
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(2, reactions.get());
+		assertEquals("before2;in2;out2;after2;before2;in2;out2;after2;", calls.toString());
+	}
+	
+	@Test
+	public void interceptorsAreSharedByAllRunners() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("1"));
+		TestUseCaseModelRunner secondRunner = new TestUseCaseModelRunner();
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		secondRunner.reactTo(enterText());
+		
+		assertEquals("before1;in1;out1;after1;before1;in1;out1;after1;", calls.toString());
+	}
+	
+	@Test
+	public void doesNotCallAfterHookIfSystemReactionThrowsException() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_THROWS_EXCEPTION).system(throwArrayIndexOutOfBoundsException())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("1"));
+		
+		try {
+			useCaseModelRunner.run(useCaseModel);
+		} catch (UnhandledException e) {
+			assertTrue(e.getCause() instanceof ArrayIndexOutOfBoundsException);
+		}
+		
+		assertEquals("before1;in1;", calls.toString());
+	}
+	
+	@Test
+	public void removesInterceptor() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		LoggingInterceptor interceptor = new LoggingInterceptor("1");
+		useCaseModel.addSystemReactionInterceptor(interceptor);
+		useCaseModel.removeSystemReactionInterceptor(interceptor);
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(0, useCaseModel.getSystemReactionInterceptors().size());
+		assertEquals("", calls.toString());
+	}
+	
+	@Test
+	public void adaptedSystemReactionWrapsInterceptors() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new LoggingInterceptor("1"));
+		useCaseModelRunner.adaptSystemReaction(trigger -> {
+			calls.append("adapted;");
+			trigger.trigger();
+		});
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals("adapted;before1;in1;out1;after1;", calls.toString());
+	}
+	
+	@Test
+	public void keepsStepOfTriggerWhenSystemReactionReactsToAnotherEvent() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> useCaseModelRunner.reactTo(enterNumber()))
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		useCaseModel.addSystemReactionInterceptor(new SystemReactionInterceptor() {
+			@Override
+			public void after(SystemReactionTrigger trigger) {
+				calls.append(trigger.getUseCaseStep().getName() + ";");
+			}
+		});
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_NUMBER + ";" + CUSTOMER_ENTERS_TEXT + ";", calls.toString());
+	}
+	
+	private class LoggingInterceptor implements SystemReactionInterceptor {
+		private String name;
+		
+		public LoggingInterceptor(String name) {
+			this.name = name;
+		}
+		
+		@Override
+		public void before(SystemReactionTrigger trigger) {
+			calls.append("before" + name + ";");
+		}
+		
+		@Override
+		public void around(SystemReactionTrigger trigger) {
+			calls.append("in" + name + ";");
+			trigger.trigger();
+			calls.append("out" + name + ";");
+		}
+		
+		@Override
+		public void after(SystemReactionTrigger trigger) {
+			calls.append("after" + name + ";");
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package org.requirementsascode.audit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+public class AuditLogTest extends AbstractTestCase{
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+	
+	private Path directory;
+	
+	@Before
+	public void setup() throws IOException {
+		setupWith(new TestUseCaseModelRunner());
+		directory = temporaryFolder.newFolder().toPath();
+	}
+	
+	@Test
+	public void writesRecordOfEachTriggeredStep() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).as(customer).user(EnterText.class).system(displayEnteredText())
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+			.build();
+		AuditLog auditLog = new AuditLog(directory);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.as(customer).run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		auditLog.close();
+		
+		List<AuditRecord> records = AuditLogReader.read(directory);
+		assertEquals(2, records.size());
+		assertEquals(2, auditLog.getWrittenRecords());
+		assertRecord(records.get(0), CUSTOMER, CUSTOMER_ENTERS_TEXT, EnterText.class.getName());
+		assertRecord(records.get(1), CUSTOMER, SYSTEM_DISPLAYS_TEXT, TestUseCaseModelRunner.class.getName());
+	}
+	
+	@Test
+	public void identifiesUsersWithSpecifiedFunction() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		TestUseCaseModelRunner secondRunner = new TestUseCaseModelRunner();
+		AuditLog auditLog = new AuditLog(directory, 1024, 100, 
+			runner -> runner == useCaseModelRunner ? "Joe" : "Jane", () -> 0);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.run(useCaseModel);
+		secondRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText(), enterText());
+		secondRunner.reactTo(enterText());
+		auditLog.close();
+		
+		assertEquals(2, AuditLogReader.readRecordsOf(directory, "Joe").size());
+		assertEquals(1, AuditLogReader.readRecordsOf(directory, "Jane").size());
+	}
+	
+	@Test
+	public void usesNameOfUserActorByDefault() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		AuditLog auditLog = new AuditLog(directory);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		auditLog.close();
+		
+		assertEquals(useCaseModel.getUserActor().getName(), AuditLogReader.read(directory).get(0).getUser());
+	}
+	
+	@Test
+	public void rollsOverToNextSegmentWhenSegmentIsFull() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		AuditLog auditLog = new AuditLog(directory, 1024, 1000);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.run(useCaseModel);
+		for (int i = 0; i < 100; i++) {
+			useCaseModelRunner.reactTo(enterText());
+		}
+		auditLog.close();
+		
+		assertEquals(100, AuditLogReader.read(directory).size());
+		assertTrue(segmentCount() > 1);
+	}
+	
+	@Test
+	public void writesNamesOnlyOncePerSegment() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		AuditLog auditLog = new AuditLog(directory, 16 * 1024, 1000);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.run(useCaseModel);
+		for (int i = 0; i < 1000; i++) {
+			useCaseModelRunner.reactTo(enterText());
+		}
+		auditLog.close();
+		
+		List<AuditRecord> records = AuditLogReader.read(directory);
+		assertEquals(1000, records.size());
+		assertRecord(records.get(999), useCaseModel.getUserActor().getName(), CUSTOMER_ENTERS_TEXT, EnterText.class.getName());
+		assertEquals(1, segmentCount());
+	}
+	
+	@Test
+	public void continuesExistingLogInNewSegment() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		useCaseModelRunner.run(useCaseModel);
+		
+		AuditLog auditLog = new AuditLog(directory);
+		useCaseModel.addRunnerListener(auditLog);
+		useCaseModelRunner.reactTo(enterText());
+		auditLog.close();
+		useCaseModel.removeRunnerListener(auditLog);
+		
+		AuditLog secondAuditLog = new AuditLog(directory);
+		useCaseModel.addRunnerListener(secondAuditLog);
+		useCaseModelRunner.reactTo(enterText());
+		secondAuditLog.close();
+		
+		assertEquals(2, AuditLogReader.read(directory).size());
+		assertEquals(2, segmentCount());
+	}
+	
+	@Test
+	public void dropsRecordsAfterLogHasBeenClosed() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		AuditLog auditLog = new AuditLog(directory);
+		useCaseModel.addRunnerListener(auditLog);
+		auditLog.close();
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(1, auditLog.getDroppedRecords());
+		assertEquals(0, AuditLogReader.read(directory).size());
+	}
+	
+	@Test
+	public void closesItselfWhenWritingFails() throws IOException, InterruptedException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		AuditLog auditLog = new AuditLog(directory, 1024, 1000);
+		useCaseModel.addRunnerListener(auditLog);
+		// Rolling over to the next segment fails, as its file exists already
+		Files.createFile(directory.resolve(AuditFormat.segmentFileName(1)));
+		
+		useCaseModelRunner.run(useCaseModel);
+		for (int i = 0; i < 100; i++) {
+			useCaseModelRunner.reactTo(enterText());
+		}
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!auditLog.isFailed() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(1);
+		}
+		
+		assertTrue(auditLog.isFailed());
+		assertTrue(auditLog.getWriteFailure().isPresent());
+		assertEquals(100, auditLog.getWrittenRecords() + auditLog.getDroppedRecords() + auditLog.getQueuedRecords());
+		long droppedRecords = auditLog.getDroppedRecords();
+		useCaseModelRunner.reactTo(enterText());
+		assertEquals(droppedRecords + 1, auditLog.getDroppedRecords());
+		try {
+			auditLog.close();
+			fail("close() should throw the write failure");
+		} catch (IOException e) {
+			assertSame(auditLog.getWriteFailure().get(), e);
+		}
+	}
+	
+	@Test
+	public void writesRecordsAsText() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		AuditLog auditLog = new AuditLog(directory, 1024, 100, runner -> "Joe", () -> 1000);
+		useCaseModel.addRunnerListener(auditLog);
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		auditLog.close();
+		StringWriter writer = new StringWriter();
+		AuditLogReader.writeTextTo(AuditLogReader.read(directory), writer);
+		
+		assertEquals("1970-01-01T00:00:01Z Joe " + USE_CASE + "/" + BASIC_FLOW + "/" + CUSTOMER_ENTERS_TEXT 
+			+ " " + EnterText.class.getName() + "\n", writer.toString());
+	}
+	
+	private void assertRecord(AuditRecord record, String user, String step, String eventClass) {
+		assertEquals(user, record.getUser());
+		assertEquals(USE_CASE, record.getUseCase());
+		assertEquals(BASIC_FLOW, record.getFlow());
+		assertEquals(step, record.getStep());
+		assertEquals(eventClass, record.getEventClass());
+	}
+	
+	private long segmentCount() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.count();
+		}
+	}
+}
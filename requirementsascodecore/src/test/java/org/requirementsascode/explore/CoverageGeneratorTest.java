@@ -0,0 +1,198 @@
+package org.requirementsascode.explore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.explore.CoverageGoal.Kind;
+import org.requirementsascode.explore.StateSpaceExplorer.UserPredicates;
+
+public class CoverageGeneratorTest {
+	private static final String USE_CASE = "Use Case";
+	private static final String ALTERNATIVE_FLOW = "Alternative Flow";
+	private static final String ALTERNATIVE_FLOW_2 = "Alternative Flow 2";
+	private static final String CUSTOMER_ENTERS_TEXT = "Customer enters text";
+	private static final String CUSTOMER_ENTERS_NUMBER = "Customer enters number";
+	private static final String CUSTOMER_ENTERS_TEXT_AGAIN = "Customer enters text again";
+	private static final String CUSTOMER_ENTERS_ALTERNATIVE_TEXT = "Customer enters alternative text";
+	private static final String CONTINUE = "Continue";
+	private static final String CONTINUE_2 = "Continue 2";
+
+	private UseCaseModelBuilder useCaseModelBuilder;
+
+	@Before
+	public void setup() {
+		useCaseModelBuilder = UseCaseModelBuilder.newBuilder();
+	}
+
+	@Test
+	public void coversStepsFlowEntriesAndContinues() {
+		UseCaseModel useCaseModel = modelWithAlternativeFlows();
+
+		CoverageResult result = new CoverageGenerator(useCaseModel).generate();
+
+		assertTrue(result.toString(), result.getUncoveredGoals().isEmpty());
+		assertTrue(result.getUnreachableSteps().isEmpty());
+		assertEquals(6, goalsOfKind(result, Kind.STEP).size());
+		assertEquals(2, goalsOfKind(result, Kind.FLOW_ENTRY).size());
+		assertEquals(4, goalsOfKind(result, Kind.CONTINUE).size());
+		assertTrue(goalsOfKind(result, Kind.FLOW_ENTRY).contains(
+			"enter " + ALTERNATIVE_FLOW + " after " + USE_CASE + "/" + CUSTOMER_ENTERS_TEXT + " -> "
+				+ USE_CASE + "/" + CUSTOMER_ENTERS_ALTERNATIVE_TEXT));
+		assertTrue(goalsOfKind(result, Kind.CONTINUE).contains(
+			"continue " + USE_CASE + "/" + CONTINUE_2 + " -> " + USE_CASE + "/" + CUSTOMER_ENTERS_NUMBER));
+		assertTrue(result.getCases().size() < result.getGoals().size());
+	}
+
+	@Test
+	public void generatesCasesThatRunnersReplay() {
+		UseCaseModel useCaseModel = modelWithAlternativeFlows();
+
+		ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+		CoverageResult result;
+		try {
+			result = new CoverageGenerator(useCaseModel).forkJoinPool(singleThreadPool).generate();
+		} finally {
+			singleThreadPool.shutdown();
+		}
+
+		for (CoverageCase coverageCase : result.getCases()) {
+			TestUseCaseModelRunner runner = new TestUseCaseModelRunner();
+			runner.as(coverageCase.getActor()).run(useCaseModel);
+			for (Class<?> eventClass : coverageCase.getEventClasses()) {
+				runner.reactTo(newEvent(eventClass));
+			}
+			assertEquals(coverageCase.getRunStepNames(), runner.getRunStepNames());
+		}
+	}
+
+	@Test
+	public void leavesGoalUncoveredIfRunnerDoesNotEnterFlow() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+				.flow(ALTERNATIVE_FLOW).after(CUSTOMER_ENTERS_TEXT).when(r -> false)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+			.build();
+
+		CoverageResult result =
+			new CoverageGenerator(useCaseModel).userPredicates(UserPredicates.NONDETERMINISTIC).generate();
+
+		assertEquals(3, result.getGoals().size());
+		assertEquals(2, result.getUncoveredGoals().size());
+		assertTrue(result.getUncoveredGoals().stream()
+			.allMatch(goal -> CUSTOMER_ENTERS_NUMBER.equals(goal.getStep().getName())));
+	}
+
+	@Test
+	public void endsCaseBeforeEventThatThrowsException() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {
+						throw new IllegalStateException();
+					})
+			.build();
+
+		CoverageResult result = new CoverageGenerator(useCaseModel).generate();
+
+		assertEquals(1, result.getCases().size());
+		CoverageCase coverageCase = result.getCases().get(0);
+		assertEquals(1, coverageCase.getEventClasses().size());
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", coverageCase.getRunStepNames());
+		assertEquals(1, result.getUncoveredGoals().size());
+	}
+
+	@Test
+	public void writesCasesAsJUnitTest() throws IOException {
+		CoverageResult result = new CoverageGenerator(modelWithAlternativeFlows()).generate();
+		StringWriter writer = new StringWriter();
+
+		result.writeJUnitTestTo("org.requirementsascode.generated", "CoverageTest", writer);
+
+		String source = writer.toString();
+		assertTrue(source.startsWith("package org.requirementsascode.generated;\n"));
+		assertTrue(source.contains("public abstract class CoverageTest {\n"));
+		assertTrue(source.contains("\tprotected abstract Object newEvent(Class<?> eventClass);\n"));
+		assertTrue(source.contains("\tpublic void coversCase" + result.getCases().size() + "() {\n"));
+		assertFalse(source.contains("throws Exception"));
+		assertTrue(source.contains("\t\tuseCaseModelRunner.reactTo(newEvent(" + EnterText.class.getCanonicalName() + ".class));\n"));
+		assertTrue(source.contains("\t\tassertEquals(\"" + result.getCases().get(0).getRunStepNames()
+			+ "\", useCaseModelRunner.getRunStepNames());\n"));
+		assertTrue(source.endsWith("\t}\n}\n"));
+	}
+
+	@Test
+	public void writesLocalEventClassLoadedByName() throws IOException {
+		class EnterLocalText {
+		}
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterLocalText.class).system(enterText -> {})
+			.build();
+		CoverageResult result =
+			new CoverageGenerator(useCaseModel).eventFactory(eventClass -> new EnterLocalText()).generate();
+		StringWriter writer = new StringWriter();
+
+		result.writeJUnitTestTo("org.requirementsascode.generated", "CoverageTest", writer);
+
+		String source = writer.toString();
+		assertFalse(source.contains("null"));
+		assertTrue(source.contains("\tpublic void coversCase1() throws Exception {\n"));
+		assertTrue(source.contains("\t\tuseCaseModelRunner.reactTo(newEvent(Class.forName(\"" + EnterLocalText.class.getName() + "\")));\n"));
+	}
+
+	private UseCaseModel modelWithAlternativeFlows() {
+		return useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+					.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EnterText.class).system(enterText -> {})
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterAlternativeText.class).system(enterText -> {})
+					.step(CONTINUE).continueAt(CUSTOMER_ENTERS_NUMBER)
+				.flow(ALTERNATIVE_FLOW_2).after(CUSTOMER_ENTERS_TEXT_AGAIN)
+					.step(CONTINUE_2).continueAfter(CUSTOMER_ENTERS_TEXT)
+			.build();
+	}
+
+	private Set<String> goalsOfKind(CoverageResult result, Kind kind) {
+		return result.getGoals().stream()
+			.filter(goal -> kind.equals(goal.getKind()))
+			.map(CoverageGoal::toString)
+			.collect(Collectors.toSet());
+	}
+
+	private Object newEvent(Class<?> eventClass) {
+		if (EnterText.class.equals(eventClass)) {
+			return new EnterText();
+		} else if (EnterNumber.class.equals(eventClass)) {
+			return new EnterNumber();
+		}
+		return new EnterAlternativeText();
+	}
+
+	private static class EnterText {
+	}
+
+	private static class EnterNumber {
+	}
+
+	private static class EnterAlternativeText {
+	}
+}
@@ -0,0 +1,189 @@
+package org.requirementsascode.explore;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Step;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.explore.StateSpaceExplorer.UserPredicates;
+import org.requirementsascode.synthetic.SyntheticEvent;
+import org.requirementsascode.synthetic.SyntheticModelGenerator;
+
+public class StateSpaceExplorerTest {
+	private static final String USE_CASE = "Use Case";
+	private static final String CUSTOMER_ENTERS_TEXT = "Customer enters text";
+	private static final String CUSTOMER_ENTERS_NUMBER = "Customer enters number";
+	private static final String CUSTOMER_ENTERS_NUMBER_AGAIN = "Customer enters number again";
+	private static final String CONTINUE = "Continue";
+
+	private UseCaseModelBuilder useCaseModelBuilder;
+
+	@Before
+	public void setup() {
+		useCaseModelBuilder = UseCaseModelBuilder.newBuilder();
+	}
+
+	@Test
+	public void findsDeadEndAfterLastStep() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+			.build();
+
+		ExplorationResult result = new StateSpaceExplorer(useCaseModel).explore();
+
+		assertEquals(3, result.getReachablePositions().size());
+		assertEquals(2, result.getTransitions().size());
+		assertTrue(result.getUnreachableSteps().isEmpty());
+		assertTrue(result.getConflicts().isEmpty());
+		assertEquals(1, result.getDeadEnds().size());
+		Position deadEnd = result.getDeadEnds().iterator().next();
+		assertEquals(CUSTOMER_ENTERS_NUMBER, deadEnd.getLatestStep().get().getName());
+		assertEquals("user after " + USE_CASE + "/" + CUSTOMER_ENTERS_NUMBER, deadEnd.toString());
+	}
+
+	@Test
+	public void findsStepThatAutonomousAlternativeFlowAlwaysReplaces() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+				.flow("Alternative Flow").insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CONTINUE).continueAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		ExplorationResult result = new StateSpaceExplorer(useCaseModel).explore();
+
+		assertEquals(Arrays.asList(CUSTOMER_ENTERS_NUMBER), stepNames(result.getUnreachableSteps()));
+		assertTrue(result.getDeadEnds().isEmpty());
+		assertTrue(result.getTransitions().stream()
+			.anyMatch(transition -> transition.isAutonomous() && CONTINUE.equals(transition.getStep().getName())
+				&& !transition.getTarget().getLatestStep().isPresent()));
+	}
+
+	@Test
+	public void continuesWithoutAlternativeAndFindsDeadEndOfActorWithoutSteps() {
+		Actor customer = useCaseModelBuilder.actor("Customer");
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).as(customer).user(EnterText.class).system(enterText -> {})
+					.step(CONTINUE).continueWithoutAlternativeAt(CUSTOMER_ENTERS_TEXT)
+			.build();
+
+		ExplorationResult result = new StateSpaceExplorer(useCaseModel).explore();
+
+		assertTrue(result.getUnreachableSteps().isEmpty());
+		assertTrue(result.getReachablePositions().contains(
+			new Position(customer, Optional.empty(), Optional.of(CUSTOMER_ENTERS_TEXT))));
+		assertTrue(result.getDeadEnds().contains(
+			new Position(useCaseModel.getUserActor(), Optional.empty(), Optional.empty())));
+	}
+
+	@Test
+	public void findsConflictOfOverlappingConditionsOnlyIfNondeterministic() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {})
+				.flow("Alternative Flow").after(CUSTOMER_ENTERS_TEXT).when(r -> true)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> {})
+				.flow("Alternative Flow 2").after(CUSTOMER_ENTERS_TEXT).when(r -> false)
+					.step(CUSTOMER_ENTERS_NUMBER_AGAIN).user(EnterNumber.class).system(enterNumber -> {})
+			.build();
+
+		ExplorationResult nondeterministicResult = new StateSpaceExplorer(useCaseModel).explore();
+		ExplorationResult sampledResult =
+			new StateSpaceExplorer(useCaseModel).userPredicates(UserPredicates.SAMPLED).explore();
+
+		assertEquals(1, nondeterministicResult.getConflicts().size());
+		Conflict conflict = nondeterministicResult.getConflicts().iterator().next();
+		assertEquals(EnterNumber.class, conflict.getEventClass());
+		assertEquals(new HashSet<>(Arrays.asList(CUSTOMER_ENTERS_NUMBER, CUSTOMER_ENTERS_NUMBER_AGAIN)),
+			conflict.getSteps().stream().map(Step::getName).collect(Collectors.toSet()));
+		assertEquals(CUSTOMER_ENTERS_TEXT, conflict.getPosition().getLatestStep().get().getName());
+		assertTrue(nondeterministicResult.getUnreachableSteps().isEmpty());
+
+		assertTrue(sampledResult.getConflicts().isEmpty());
+		assertEquals(Arrays.asList(CUSTOMER_ENTERS_NUMBER_AGAIN), stepNames(sampledResult.getUnreachableSteps()));
+	}
+
+	@Test
+	public void reachesAllStepsThatRunnersRunInSyntheticModel() {
+		UseCaseModel useCaseModel = syntheticModel();
+		Random random = new Random(42);
+		for (int actorIndex = 0; actorIndex < 3; actorIndex++) {
+			Actor actor = useCaseModel.findActor("Actor " + actorIndex);
+			TestUseCaseModelRunner runner = new TestUseCaseModelRunner();
+			runner.as(actor).run(useCaseModel);
+			for (int i = 0; i < 2000; i++) {
+				runner.reactTo(SyntheticEvent.newEvent(random.nextInt(8)));
+			}
+		}
+
+		ExplorationResult result =
+			new StateSpaceExplorer(useCaseModel).userPredicates(UserPredicates.SAMPLED).explore();
+
+		assertTrue(result.getConflicts().toString(), result.getConflicts().isEmpty());
+		for (Step step : result.getUnreachableSteps()) {
+			assertEquals(step.toString(), 0, useCaseModel.getHitCounts().getStepHits(step));
+		}
+		assertTrue(result.getUnreachableSteps().size() < useCaseModel.getSteps().size());
+	}
+
+	@Test
+	public void exploresSameStateSpaceOnSingleThreadAsInCommonPool() {
+		UseCaseModel useCaseModel = syntheticModel();
+
+		ForkJoinPool singleThreadPool = new ForkJoinPool(1);
+		ExplorationResult singleThreadResult;
+		try {
+			singleThreadResult = new StateSpaceExplorer(useCaseModel).forkJoinPool(singleThreadPool).explore();
+		} finally {
+			singleThreadPool.shutdown();
+		}
+		ExplorationResult commonPoolResult = new StateSpaceExplorer(useCaseModel).explore();
+
+		assertFalse(commonPoolResult.getTransitions().isEmpty());
+		assertEquals(singleThreadResult.getReachablePositions(), commonPoolResult.getReachablePositions());
+		assertEquals(singleThreadResult.getTransitions(), commonPoolResult.getTransitions());
+		assertEquals(singleThreadResult.toString(), commonPoolResult.toString());
+	}
+
+	private UseCaseModel syntheticModel() {
+		return new SyntheticModelGenerator(42)
+			.useCases(20)
+			.flowsPerUseCase(4)
+			.stepsPerFlow(10)
+			.actors(3)
+			.eventClasses(8)
+			.generate();
+	}
+
+	private List<String> stepNames(List<Step> steps) {
+		return steps.stream().map(Step::getName).collect(Collectors.toList());
+	}
+
+	private static class EnterText {
+	}
+
+	private static class EnterNumber {
+	}
+}
@@ -0,0 +1,63 @@
+package org.requirementsascode.fuzz;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.jfr.FlightRecordingRunner;
+
+public class DifferentialFuzzerTest {
+	private static final long SEED = 42;
+	private static final int CASES = 300;
+
+	@Test
+	public void findsNoDiscrepancyBetweenReferenceRunners() {
+		Optional<Discrepancy> discrepancy = new DifferentialFuzzer(UseCaseModelRunner::new).fuzz(SEED, CASES);
+		assertFalse(String.valueOf(discrepancy.orElse(null)), discrepancy.isPresent());
+	}
+
+	@Test
+	public void findsNoDiscrepancyOfTestRunner() {
+		Optional<Discrepancy> discrepancy = new DifferentialFuzzer(TestUseCaseModelRunner::new).fuzz(SEED, CASES);
+		assertFalse(String.valueOf(discrepancy.orElse(null)), discrepancy.isPresent());
+	}
+
+	@Test
+	public void findsNoDiscrepancyOfFlightRecordingRunner() {
+		Optional<Discrepancy> discrepancy = new DifferentialFuzzer(FlightRecordingRunner::new).fuzz(SEED, CASES);
+		assertFalse(String.valueOf(discrepancy.orElse(null)), discrepancy.isPresent());
+	}
+
+	@Test
+	public void shrinksDiscrepancyOfRunnerThatIgnoresExceptions() {
+		Optional<Discrepancy> discrepancy = new DifferentialFuzzer(ExceptionIgnoringRunner::new).fuzz(SEED, CASES);
+
+		assertTrue(discrepancy.isPresent());
+		FuzzCase fuzzCase = discrepancy.get().getFuzzCase();
+		assertEquals(1, fuzzCase.getNumberOfUseCases());
+		assertEquals(1, fuzzCase.getNumberOfSteps());
+		assertEquals(1, fuzzCase.getNumberOfEvents());
+		assertEquals("useCase(\"UC1\")\n  .basicFlow()\n    .step(\"S1\").user(Event0).system(throwsException)\nevents: Event0", 
+			fuzzCase.render());
+		assertTrue(discrepancy.get().getReferenceOutcome().get(1).endsWith("throws UnhandledException of FuzzException"));
+		assertFalse(discrepancy.get().getCandidateOutcome().get(1).contains("throws"));
+	}
+
+	@Test
+	public void generatesSameCaseForSameSeed() {
+		assertEquals(FuzzCase.generate(SEED).render(), FuzzCase.generate(SEED).render());
+		assertNotEquals(FuzzCase.generate(SEED).render(), FuzzCase.generate(SEED + 1).render());
+	}
+
+	private static class ExceptionIgnoringRunner extends UseCaseModelRunner {
+		@Override
+		protected void handleException(Exception e) {
+		}
+	}
+}
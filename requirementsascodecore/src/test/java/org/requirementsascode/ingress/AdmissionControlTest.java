@@ -0,0 +1,197 @@
+package org.requirementsascode.ingress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Actor;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.exception.EventRejected;
+import org.requirementsascode.exception.UnhandledException;
+import org.requirementsascode.session.SessionEngine;
+
+public class AdmissionControlTest extends AbstractTestCase{
+	private static final String SYSTEM_HANDLES_REJECTION = "System handles rejection";
+	
+	private long now;
+	private List<EventRejected> rejections;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		now = 0;
+		rejections = new ArrayList<>();
+	}
+	
+	@Test
+	public void admitsEventsWithinLimit() {
+		AdmissionController admissionController = new AdmissionController(1);
+		List<Object> passedOnEvents = new ArrayList<>();
+		AdmissionControl admissionControl = new AdmissionControl(admissionController, customer, passedOnEvents::add);
+		
+		admissionControl.accept(enterText());
+		admissionControl.accept(enterText());
+		
+		assertEquals(2, passedOnEvents.size());
+		assertEquals(2, admissionController.getAdmittedEvents());
+		assertEquals(0, admissionController.getInFlightEvents());
+	}
+	
+	@Test
+	public void rejectedEventIsHandledInExceptionFlow() {
+		AdmissionController admissionController = new AdmissionController(1);
+		AdmissionControl[] admissionControl = new AdmissionControl[1];
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).as(customer).user(EnterText.class).system(enterText -> admissionControl[0].accept(enterNumber()))
+				.flow(ALTERNATIVE_FLOW).when(r -> true)
+					.step(SYSTEM_HANDLES_REJECTION).handle(EventRejected.class).system(rejections::add)
+			.build();
+		useCaseModelRunner.as(customer).run(useCaseModel);
+		admissionControl[0] = new AdmissionControl(admissionController, customer, useCaseModelRunner::reactTo);
+		
+		admissionControl[0].accept(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";" + SYSTEM_HANDLES_REJECTION + ";", runStepNames());
+		assertEquals(1, rejections.size());
+		assertTrue(rejections.get(0).getEvent() instanceof EnterNumber);
+		assertFalse(rejections.get(0).getActor().isPresent());
+		assertEquals(1, rejections.get(0).getLimit());
+		assertEquals(0, rejections.get(0).getStackTrace().length);
+		assertTrue(rejections.get(0).getMessage().startsWith("Event rejected, limit of 1 in flight events reached: "));
+		assertEquals(1, admissionController.getRejectedEvents());
+		assertEquals(0, admissionController.getInFlightEvents());
+	}
+	
+	@Test
+	public void throwsUnhandledExceptionIfRejectedEventIsNotHandled() {
+		AdmissionController admissionController = new AdmissionController(1);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModelRunner.run(useCaseModel);
+		AdmissionControl admissionControl = new AdmissionControl(admissionController, customer, useCaseModelRunner::reactTo);
+		admissionController.tryAdmit(enterNumber(), customer);
+		
+		try {
+			admissionControl.accept(enterText());
+			fail();
+		} catch (UnhandledException e) {
+			assertTrue(e.getCause() instanceof EventRejected);
+		}
+		assertEquals("", runStepNames());
+		assertEquals(1, admissionController.getInFlightEvents());
+	}
+	
+	@Test
+	public void limitsInFlightEventsPerActor() {
+		Actor admin = useCaseModelBuilder.actor("Admin");
+		AdmissionController admissionController = new AdmissionController(10).limitInFlightEventsOf(customer, 1);
+		
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+		EventRejected rejection = admissionController.tryAdmit(enterText(), customer).get();
+		assertFalse(admissionController.tryAdmit(enterText(), admin).isPresent());
+		
+		assertEquals(customer, rejection.getActor().get());
+		assertEquals(1, admissionController.getInFlightEventsOf(customer));
+		assertEquals(2, admissionController.getInFlightEvents());
+		
+		admissionController.complete(customer, 0);
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+	}
+	
+	@Test
+	public void adaptsLimitToLatency() {
+		AdmissionController admissionController = new AdmissionController(10).adaptConcurrency(Duration.ofMillis(100), 2);
+		
+		for (int i = 0; i < 20; i++) {
+			admissionController.tryAdmit(enterText(), customer);
+			admissionController.complete(customer, Duration.ofMillis(200).toNanos());
+		}
+		assertEquals(2, admissionController.getLimit());
+		
+		admissionController.tryAdmit(enterText(), customer);
+		admissionController.tryAdmit(enterText(), customer);
+		assertTrue(admissionController.tryAdmit(enterText(), customer).isPresent());
+		admissionController.complete(customer, Duration.ofMillis(10).toNanos());
+		assertEquals(3, admissionController.getLimit());
+		
+		admissionController.complete(customer, Duration.ofMillis(10).toNanos());
+		for (int i = 0; i < 20; i++) {
+			admissionController.tryAdmit(enterText(), customer);
+			admissionController.complete(customer, Duration.ofMillis(10).toNanos());
+		}
+		assertEquals(3, admissionController.getLimit());
+	}
+	
+	@Test
+	public void decreasesLimitOnlyOnceForBurstOfSlowEvents() {
+		AdmissionController admissionController = new AdmissionController(10).adaptConcurrency(Duration.ofMillis(100), 2);
+		
+		for (int i = 0; i < 10; i++) {
+			admissionController.tryAdmit(enterText(), customer);
+		}
+		for (int i = 0; i < 10; i++) {
+			admissionController.complete(customer, Duration.ofMillis(200).toNanos());
+		}
+		assertEquals(9, admissionController.getLimit());
+		
+		admissionController.tryAdmit(enterText(), customer);
+		admissionController.complete(customer, Duration.ofMillis(200).toNanos());
+		assertEquals(8, admissionController.getLimit());
+	}
+	
+	@Test
+	public void changesLimitOfActorWithEventsInFlight() {
+		AdmissionController admissionController = new AdmissionController(10);
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+		
+		admissionController.limitInFlightEventsOf(customer, 3);
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+		assertTrue(admissionController.tryAdmit(enterText(), customer).isPresent());
+		
+		admissionController.limitInFlightEventsOf(customer, 4);
+		assertFalse(admissionController.tryAdmit(enterText(), customer).isPresent());
+		assertEquals(4, admissionController.getInFlightEventsOf(customer));
+		
+		for (int i = 0; i < 4; i++) {
+			admissionController.complete(customer, 0);
+		}
+		assertEquals(0, admissionController.getInFlightEventsOf(customer));
+		assertEquals(0, admissionController.getInFlightEvents());
+	}
+	
+	@Test
+	public void sessionEngineReplacesRejectedEventsByException() {
+		AdmissionController admissionController = new AdmissionController(1);
+		SessionEngine[] sessionEngine = new SessionEngine[1];
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> sessionEngine[0].reactTo("Other session", enterNumber()))
+				.flow(ALTERNATIVE_FLOW).when(r -> true)
+					.step(SYSTEM_HANDLES_REJECTION).handle(EventRejected.class).system(rejections::add)
+			.build();
+		sessionEngine[0] = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new, () -> now).admitWith(admissionController);
+		
+		sessionEngine[0].reactTo("Session", enterText());
+		
+		TestUseCaseModelRunner otherRunner = (TestUseCaseModelRunner)sessionEngine[0].findSession("Other session").get().getRunner();
+		assertEquals(SYSTEM_HANDLES_REJECTION + ";", otherRunner.getRunStepNames());
+		assertEquals(1, rejections.size());
+		assertEquals(0, admissionController.getInFlightEvents());
+	}
+}
@@ -0,0 +1,160 @@
+package org.requirementsascode.ingress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+public class EventCoalescerTest extends AbstractTestCase{
+	private static final Duration WINDOW = Duration.ofMillis(100);
+	
+	private long now;
+	private List<Object> passedOnEvents;
+	private EventCoalescer coalescer;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		now = 0;
+		passedOnEvents = new ArrayList<>();
+		coalescer = new EventCoalescer(passedOnEvents::add, () -> now);
+	}
+	
+	@Test
+	public void passesOnEventsOfClassesThatAreNotConfigured() {
+		EnterText text1 = enterText();
+		EnterText text2 = enterText();
+		
+		coalescer.accept(text1);
+		coalescer.accept(text2);
+		
+		assertEquals(Arrays.asList(text1, text2), passedOnEvents);
+		assertFalse(coalescer.hasPendingEvent());
+	}
+	
+	@Test
+	public void passesOnLatestEventAfterWindowHasElapsed() {
+		coalescer.coalesce(EnterText.class, WINDOW);
+		EnterText latestText = enterAlternativeText();
+		
+		coalescer.accept(enterText());
+		advanceMillis(50);
+		coalescer.accept(enterText());
+		advanceMillis(49);
+		coalescer.accept(latestText);
+		assertFalse(coalescer.flushExpired());
+		assertTrue(passedOnEvents.isEmpty());
+		
+		advanceMillis(1);
+		assertTrue(coalescer.flushExpired());
+		
+		assertEquals(Arrays.asList(latestText), passedOnEvents);
+		assertEquals(2, coalescer.getCoalescedEvents());
+	}
+	
+	@Test
+	public void startsNewBurstWhenEventArrivesAfterWindowHasElapsed() {
+		coalescer.coalesce(EnterText.class, WINDOW);
+		EnterText text1 = enterText();
+		EnterText text2 = enterAlternativeText();
+		
+		coalescer.accept(text1);
+		advanceMillis(100);
+		coalescer.accept(text2);
+		
+		assertEquals(Arrays.asList(text1), passedOnEvents);
+		assertTrue(coalescer.hasPendingEvent());
+	}
+	
+	@Test
+	public void debouncingRestartsWindowWithEachEvent() {
+		coalescer.debounce(EnterText.class, WINDOW);
+		EnterText latestText = enterAlternativeText();
+		
+		coalescer.accept(enterText());
+		advanceMillis(80);
+		coalescer.accept(latestText);
+		advanceMillis(80);
+		assertFalse(coalescer.flushExpired());
+		
+		advanceMillis(20);
+		assertTrue(coalescer.flushExpired());
+		assertEquals(Arrays.asList(latestText), passedOnEvents);
+	}
+	
+	@Test
+	public void eventOfOtherClassPassesOnPendingEventFirst() {
+		coalescer.coalesce(EnterText.class, WINDOW);
+		EnterText latestText = enterAlternativeText();
+		EnterNumber number = enterNumber();
+		
+		coalescer.accept(enterText());
+		coalescer.accept(latestText);
+		coalescer.accept(number);
+		
+		assertEquals(Arrays.asList(latestText, number), passedOnEvents);
+	}
+	
+	@Test
+	public void eventsOfDifferentConfiguredClassesAreNotCoalescedWithEachOther() {
+		coalescer.coalesce(EnterText.class, WINDOW).coalesce(EnterNumber.class, WINDOW);
+		EnterText text = enterText();
+		EnterNumber number = enterNumber();
+		
+		coalescer.accept(text);
+		coalescer.accept(number);
+		coalescer.flush();
+		
+		assertEquals(Arrays.asList(text, number), passedOnEvents);
+	}
+	
+	@Test
+	public void coalescesPerFrameUntilFlushed() {
+		coalescer.coalescePerFrame(EnterText.class);
+		EnterText latestText = enterAlternativeText();
+		
+		coalescer.accept(enterText());
+		advanceMillis(10000);
+		coalescer.accept(latestText);
+		assertFalse(coalescer.flushExpired());
+		
+		assertTrue(coalescer.flush());
+		assertFalse(coalescer.flush());
+		assertEquals(Arrays.asList(latestText), passedOnEvents);
+	}
+	
+	@Test
+	public void runnerReactsOnlyToLatestEventOfBurst() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		useCaseModelRunner.run(useCaseModel);
+		EventCoalescer runnerCoalescer = 
+			new EventCoalescer(useCaseModelRunner::reactTo, () -> now).coalesce(EnterText.class, WINDOW);
+		
+		runnerCoalescer.accept(enterText());
+		runnerCoalescer.accept(enterText());
+		runnerCoalescer.accept(enterAlternativeText());
+		advanceMillis(100);
+		runnerCoalescer.flushExpired();
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		assertEquals(enterAlternativeText().toString(), displayedText);
+	}
+	
+	private void advanceMillis(long millis) {
+		now += Duration.ofMillis(millis).toNanos();
+	}
+}
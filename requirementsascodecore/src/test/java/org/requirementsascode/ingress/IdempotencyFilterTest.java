@@ -0,0 +1,204 @@
+package org.requirementsascode.ingress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+public class IdempotencyFilterTest extends AbstractTestCase{
+	private static final Duration TIME_TO_LIVE = Duration.ofSeconds(10);
+	
+	private long now;
+	private List<Object> passedOnEvents;
+	private IdempotencyKeyCache seenKeys;
+	private IdempotencyFilter filter;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		now = 0;
+		passedOnEvents = new ArrayList<>();
+		seenKeys = new IdempotencyKeyCache(4, TIME_TO_LIVE, 1, () -> now);
+		filter = new IdempotencyFilter(textAsKey(), seenKeys, passedOnEvents::add);
+	}
+	
+	@Test
+	public void dropsDuplicateEvents() {
+		EnterText text = enterText();
+		EnterText alternativeText = enterAlternativeText();
+		
+		filter.accept(text);
+		filter.accept(enterText());
+		filter.accept(alternativeText);
+		
+		assertEquals(Arrays.asList(text, alternativeText), passedOnEvents);
+		assertEquals(1, filter.getDroppedEvents());
+	}
+	
+	@Test
+	public void passesOnEventsWithoutKey() {
+		EnterNumber number = enterNumber();
+		
+		filter.accept(number);
+		filter.accept(number);
+		
+		assertEquals(Arrays.asList(number, number), passedOnEvents);
+	}
+	
+	@Test
+	public void forgetsKeyAfterTimeToLive() {
+		filter.accept(enterText());
+		now += TIME_TO_LIVE.toNanos() - 1;
+		assertTrue(seenKeys.contains(enterText().value()));
+		
+		now += 1;
+		assertFalse(seenKeys.contains(enterText().value()));
+		filter.accept(enterText());
+		
+		assertEquals(2, passedOnEvents.size());
+		assertEquals(1, seenKeys.size());
+	}
+	
+	@Test
+	public void forgetsOldestKeyWhenFull() {
+		for (int i = 0; i < 5; i++) {
+			filter.accept(new EnterText("Text " + i));
+		}
+		
+		assertEquals(4, seenKeys.size());
+		assertFalse(seenKeys.contains("Text 0"));
+		for (int i = 1; i < 5; i++) {
+			assertTrue(seenKeys.contains("Text " + i));
+		}
+	}
+	
+	@Test
+	public void removedKeysFreeCapacity() {
+		for (int i = 0; i < 4; i++) {
+			seenKeys.add("Text " + i);
+		}
+		seenKeys.remove("Text 1");
+		seenKeys.remove("Text 2");
+		assertEquals(2, seenKeys.size());
+		
+		seenKeys.add("Text 4");
+		seenKeys.add("Text 5");
+		assertEquals(4, seenKeys.size());
+		for (String key : Arrays.asList("Text 0", "Text 3", "Text 4", "Text 5")) {
+			assertTrue(seenKeys.contains(key));
+		}
+		
+		seenKeys.add("Text 6");
+		assertFalse(seenKeys.contains("Text 0"));
+		assertTrue(seenKeys.contains("Text 3"));
+	}
+	
+	@Test
+	public void removedKeysFreeCapacityInFullStripe() {
+		int keyCount = 1000;
+		IdempotencyKeyCache manyKeys = new IdempotencyKeyCache(keyCount, TIME_TO_LIVE, 1, () -> now);
+		for (int i = 0; i < keyCount; i++) {
+			manyKeys.add(i);
+		}
+		for (int i = 1; i < keyCount; i += 2) {
+			manyKeys.remove(i);
+		}
+		assertEquals(keyCount / 2, manyKeys.size());
+		
+		for (int i = keyCount; i < keyCount * 3 / 2; i++) {
+			assertTrue(manyKeys.add(i));
+		}
+		assertEquals(keyCount, manyKeys.size());
+		for (int i = 0; i < keyCount * 3 / 2; i++) {
+			assertEquals(i >= keyCount || i % 2 == 0, manyKeys.contains(i));
+		}
+		
+		now += TIME_TO_LIVE.toNanos();
+		assertTrue(manyKeys.add(0));
+		assertEquals(1, manyKeys.size());
+	}
+	
+	@Test
+	public void forgetsKeyWhenEventCannotBeProcessed() {
+		IdempotencyFilter failingFilter = new IdempotencyFilter(textAsKey(), seenKeys, event -> {
+			throw new IllegalStateException();
+		});
+		
+		try {
+			failingFilter.accept(enterText());
+			fail();
+		} catch (IllegalStateException e) {
+			assertFalse(seenKeys.contains(enterText().value()));
+		}
+	}
+	
+	@Test
+	public void sharedCacheDropsDuplicatesAcrossSessions() {
+		IdempotencyKeyCache sharedKeys = new IdempotencyKeyCache(1024, TIME_TO_LIVE, 8, () -> now);
+		List<Object> eventsOfSecondSession = new ArrayList<>();
+		IdempotencyFilter firstSession = new IdempotencyFilter(textAsKey(), sharedKeys, passedOnEvents::add);
+		IdempotencyFilter secondSession = new IdempotencyFilter(textAsKey(), sharedKeys, eventsOfSecondSession::add);
+		
+		firstSession.accept(enterText());
+		secondSession.accept(enterText());
+		
+		assertEquals(1, passedOnEvents.size());
+		assertEquals(0, eventsOfSecondSession.size());
+		assertEquals(1024, sharedKeys.capacity());
+	}
+	
+	@Test
+	public void remembersManyDistinctKeys() {
+		int keyCount = 100_000;
+		IdempotencyKeyCache manyKeys = new IdempotencyKeyCache(keyCount * 2, TIME_TO_LIVE, 16, () -> now);
+		List<UUID> keys = new ArrayList<>();
+		for (int i = 0; i < keyCount; i++) {
+			UUID key = UUID.randomUUID();
+			keys.add(key);
+			assertTrue(manyKeys.add(key));
+		}
+		
+		for (UUID key : keys) {
+			assertFalse(manyKeys.add(key));
+		}
+		for (int i = 0; i < 1000; i++) {
+			manyKeys.remove(keys.get(keyCount - 1 - i));
+		}
+		assertTrue(manyKeys.add(keys.get(keyCount - 1)));
+		assertFalse(manyKeys.contains(keys.get(keyCount - 2)));
+		assertTrue(manyKeys.contains(keys.get(keyCount - 1001)));
+	}
+	
+	@Test
+	public void runnerReactsOnlyOnceToRetriedEvent() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		useCaseModelRunner.run(useCaseModel);
+		IdempotencyFilter runnerFilter = new IdempotencyFilter(textAsKey(), seenKeys, useCaseModelRunner::reactTo);
+		
+		runnerFilter.accept(enterText());
+		runnerFilter.accept(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+	}
+
+	private Function<Object, ?> textAsKey() {
+		return event -> event instanceof EnterText ? ((EnterText) event).value() : null;
+	}
+}
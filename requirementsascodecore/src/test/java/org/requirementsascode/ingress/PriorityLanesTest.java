@@ -0,0 +1,146 @@
+package org.requirementsascode.ingress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.ingress.PriorityLanes.Lane;
+
+public class PriorityLanesTest extends AbstractTestCase{
+	private long now;
+	private List<Object> passedOnEvents;
+	private LaneMetrics laneMetrics;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		now = 0;
+		passedOnEvents = new ArrayList<>();
+		laneMetrics = new LaneMetrics();
+	}
+	
+	@Test
+	public void passesOnEventsInOrderOfArrivalWhenIdle() {
+		PriorityLanes lanes = new PriorityLanes(passedOnEvents::add);
+		EnterText text = enterText();
+		IllegalStateException exception = new IllegalStateException();
+		
+		lanes.accept(text);
+		lanes.accept(exception);
+		
+		assertEquals(Arrays.asList(text, exception), passedOnEvents);
+		assertFalse(lanes.hasQueuedEvents());
+	}
+	
+	@Test
+	public void passesOnExceptionsBeforeWaitingUserEvents() {
+		EnterText firstText = enterText();
+		EnterText secondText = enterAlternativeText();
+		IllegalStateException exception = new IllegalStateException();
+		PriorityLanes[] lanes = new PriorityLanes[1];
+		lanes[0] = new PriorityLanes(event -> {
+			passedOnEvents.add(event);
+			if (event == firstText) {
+				lanes[0].accept(secondText);
+				lanes[0].accept(exception);
+			}
+		});
+		
+		lanes[0].accept(firstText);
+		
+		assertEquals(Arrays.asList(firstText, exception, secondText), passedOnEvents);
+	}
+	
+	@Test
+	public void passesOnLowPriorityEventAfterMaxConsecutiveHighPriorityEvents() {
+		Object start = new Object();
+		List<Object> events = new ArrayList<>();
+		PriorityLanes[] lanes = new PriorityLanes[1];
+		Consumer<Object> nextStage = event -> {
+			passedOnEvents.add(event);
+			if (event == start) {
+				events.forEach(lanes[0]::accept);
+			}
+		};
+		lanes[0] = new PriorityLanes(nextStage, event -> event instanceof Throwable, 2, laneMetrics, () -> now);
+		for (int i = 0; i < 5; i++) {
+			events.add(new IllegalStateException("H" + i));
+		}
+		events.add(enterText());
+		events.add(enterAlternativeText());
+		
+		lanes[0].accept(start);
+		
+		assertEquals("HHLHHLH", lanesOf(passedOnEvents.subList(1, passedOnEvents.size())));
+	}
+	
+	@Test
+	public void measuresLanes() {
+		Object start = new Object();
+		PriorityLanes[] lanes = new PriorityLanes[1];
+		lanes[0] = new PriorityLanes(event -> {
+			if (event == start) {
+				lanes[0].accept(enterText());
+				lanes[0].accept(new IllegalStateException());
+				assertEquals(1, laneMetrics.getQueuedEvents(Lane.HIGH));
+				assertEquals(1, laneMetrics.getQueuedEvents(Lane.LOW));
+				now += 100;
+			}
+		}, event -> event instanceof Throwable, 16, laneMetrics, () -> now);
+		
+		lanes[0].accept(start);
+		
+		assertEquals(0, laneMetrics.getQueuedEvents(Lane.HIGH));
+		assertEquals(0, laneMetrics.getQueuedEvents(Lane.LOW));
+		assertEquals(1, laneMetrics.getProcessedEvents(Lane.HIGH));
+		assertEquals(2, laneMetrics.getProcessedEvents(Lane.LOW));
+		assertEquals(100, laneMetrics.getMaxLatencyNanos(Lane.HIGH));
+		assertEquals(100, laneMetrics.getMaxLatencyNanos(Lane.LOW));
+		assertEquals(100, laneMetrics.getAverageLatencyNanos(Lane.LOW));
+	}
+	
+	@Test
+	public void passesExceptionsOfNextStageToHandler() {
+		List<RuntimeException> handledExceptions = new ArrayList<>();
+		IllegalStateException exception = new IllegalStateException();
+		PriorityLanes lanes = new PriorityLanes(event -> {
+			throw exception;
+		}).handleExceptionsWith(handledExceptions::add);
+		
+		lanes.accept(enterText());
+		
+		assertEquals(Arrays.asList(exception), handledExceptions);
+	}
+	
+	@Test
+	public void runnerReactsToEventsPassedOn() {
+		useCaseModelRunner.run(useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build());
+		PriorityLanes lanes = new PriorityLanes(useCaseModelRunner::reactTo);
+		
+		lanes.accept(enterText());
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		assertTrue(displayedText != null);
+	}
+
+	private String lanesOf(List<Object> events) {
+		StringBuilder lanes = new StringBuilder();
+		for (Object event : events) {
+			lanes.append(event instanceof Throwable ? "H" : "L");
+		}
+		return lanes.toString();
+	}
+}
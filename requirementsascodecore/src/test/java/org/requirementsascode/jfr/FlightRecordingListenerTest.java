@@ -0,0 +1,153 @@
+package org.requirementsascode.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecordingListenerTest extends AbstractTestCase{
+	private UseCaseModel useCaseModel;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		FlightRecordingListener.addTo(useCaseModel);
+	}
+	
+	@Test
+	public void reactsLikeWithoutListenerWhenNotRecording() {
+		useCaseModelRunner.run(useCaseModel);
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT, useCaseModelRunner.reactTo(enterText()).get().getName());
+		assertEquals("Hello, Basic Flow!", displayedText);
+	}
+	
+	@Test
+	public void emitsEventsForDispatchAndSystemReactionOfTestRunner() throws IOException {
+		List<RecordedEvent> recordedEvents;
+		try (Recording recording = new Recording()) {
+			recording.enable(DispatchEvent.class).withoutThreshold();
+			recording.enable(SystemReactionEvent.class).withoutThreshold();
+			recording.start();
+			
+			useCaseModelRunner.run(useCaseModel);
+			useCaseModelRunner.reactTo(enterText());
+			
+			recording.stop();
+			recordedEvents = recordedEventsOf(recording);
+		}
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+		List<RecordedEvent> systemReactionEvents = eventsNamed("org.requirementsascode.SystemReaction", recordedEvents);
+		assertEquals(1, systemReactionEvents.size());
+		RecordedEvent systemReactionEvent = systemReactionEvents.get(0);
+		assertEquals(USE_CASE, systemReactionEvent.getString("useCase"));
+		assertEquals(BASIC_FLOW, systemReactionEvent.getString("flow"));
+		assertEquals(CUSTOMER_ENTERS_TEXT, systemReactionEvent.getString("step"));
+		assertEquals(EnterText.class.getName(), systemReactionEvent.getClass("eventClass").getName());
+		
+		List<RecordedEvent> dispatchEvents = eventsNamed("org.requirementsascode.Dispatch", recordedEvents);
+		assertEquals(1, dispatchEvents.size());
+		assertEquals(CUSTOMER_ENTERS_TEXT, dispatchEvents.get(0).getString("step"));
+		assertEquals(EnterText.class.getName(), dispatchEvents.get(0).getClass("eventClass").getName());
+	}
+	
+	@Test
+	public void emitsDispatchEventOnlyForExternalEvents() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE_2)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+					.step(SYSTEM_DISPLAYS_TEXT_AGAIN).system(displayConstantText())
+			.build();
+		List<RecordedEvent> recordedEvents;
+		try (Recording recording = new Recording()) {
+			recording.enable(DispatchEvent.class).withoutThreshold();
+			recording.start();
+			
+			useCaseModelRunner.run(useCaseModel);
+			useCaseModelRunner.reactTo(enterNumber());
+			
+			recording.stop();
+			recordedEvents = recordedEventsOf(recording);
+		}
+		
+		List<RecordedEvent> dispatchEvents = eventsNamed("org.requirementsascode.Dispatch", recordedEvents);
+		assertEquals(1, dispatchEvents.size());
+		assertEquals(EnterNumber.class.getName(), dispatchEvents.get(0).getClass("eventClass").getName());
+		assertEquals(CUSTOMER_ENTERS_NUMBER, dispatchEvents.get(0).getString("step"));
+	}
+	
+	@Test
+	public void emitsNestedDispatchEvents() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE_2)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(enterNumber -> useCaseModelRunner.reactTo(enterText()))
+					.step(CUSTOMER_ENTERS_TEXT_AGAIN).user(EnterText.class).system(displayEnteredText())
+			.build();
+		List<RecordedEvent> recordedEvents;
+		try (Recording recording = new Recording()) {
+			recording.enable(DispatchEvent.class).withoutThreshold();
+			recording.start();
+			
+			useCaseModelRunner.run(useCaseModel);
+			useCaseModelRunner.reactTo(enterNumber());
+			
+			recording.stop();
+			recordedEvents = recordedEventsOf(recording);
+		}
+		
+		List<String> dispatchedSteps = eventsNamed("org.requirementsascode.Dispatch", recordedEvents).stream()
+			.map(e -> e.getString("step"))
+			.collect(Collectors.toList());
+		assertEquals(2, dispatchedSteps.size());
+		assertTrue(dispatchedSteps.contains(CUSTOMER_ENTERS_TEXT_AGAIN));
+		assertTrue(dispatchedSteps.contains(CUSTOMER_ENTERS_NUMBER));
+	}
+	
+	@Test
+	public void emitsNoEventsAfterRemoval() throws IOException {
+		FlightRecordingListener listener = FlightRecordingListener.addTo(useCaseModel);
+		listener.removeFrom(useCaseModel);
+		
+		assertEquals(1, useCaseModel.getRunnerListeners().size());
+		assertEquals(1, useCaseModel.getSystemReactionInterceptors().size());
+	}
+
+	private List<RecordedEvent> recordedEventsOf(Recording recording) throws IOException {
+		Path file = Files.createTempFile("requirementsascode", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private List<RecordedEvent> eventsNamed(String eventName, List<RecordedEvent> recordedEvents) {
+		return recordedEvents.stream()
+			.filter(e -> e.getEventType().getName().equals(eventName))
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,109 @@
+package org.requirementsascode.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class FlightRecordingRunnerTest extends AbstractTestCase{
+	private FlightRecordingRunner runner;
+	private UseCaseModel useCaseModel;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		runner = new FlightRecordingRunner();
+		useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+	}
+	
+	@Test
+	public void reactsLikeStandardRunnerWhenNotRecording() {
+		runner.run(useCaseModel);
+		
+		assertEquals(CUSTOMER_ENTERS_TEXT, runner.reactTo(enterText()).get().getName());
+		assertEquals("Hello, Basic Flow!", displayedText);
+	}
+	
+	@Test
+	public void emitsCandidateEvaluationEvents() throws IOException {
+		List<RecordedEvent> recordedEvents;
+		try (Recording recording = new Recording()) {
+			recording.enable(CandidateEvaluationEvent.class).withoutThreshold();
+			recording.start();
+			
+			runner.run(useCaseModel);
+			runner.reactTo(enterText());
+			
+			recording.stop();
+			recordedEvents = recordedEventsOf(recording);
+		}
+		
+		List<RecordedEvent> candidateEvaluationEvents = eventsNamed("org.requirementsascode.CandidateEvaluation", recordedEvents);
+		assertTrue(candidateEvaluationEvents.stream().anyMatch(e -> e.getInt("candidateSteps") == 1
+			&& EnterText.class.getName().equals(e.getClass("eventClass").getName())));
+	}
+	
+	@Test
+	public void emitsCandidateEvaluationEventIfConditionThrowsException() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE_2)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+						.reactWhile(r -> { throw new IllegalStateException(); })
+			.build();
+		List<RecordedEvent> recordedEvents;
+		try (Recording recording = new Recording()) {
+			recording.enable(CandidateEvaluationEvent.class).withoutThreshold();
+			recording.start();
+			
+			runner.run(useCaseModel);
+			try {
+				runner.reactTo(enterNumber());
+				fail();
+			} catch (IllegalStateException e) {
+			}
+			
+			recording.stop();
+			recordedEvents = recordedEventsOf(recording);
+		}
+		
+		List<RecordedEvent> candidateEvaluationEvents = eventsNamed("org.requirementsascode.CandidateEvaluation", recordedEvents);
+		assertTrue(candidateEvaluationEvents.stream().anyMatch(e -> e.getBoolean("failed") 
+			&& EnterNumber.class.getName().equals(e.getClass("eventClass").getName())));
+	}
+
+	private List<RecordedEvent> recordedEventsOf(Recording recording) throws IOException {
+		Path file = Files.createTempFile("requirementsascode", ".jfr");
+		try {
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private List<RecordedEvent> eventsNamed(String eventName, List<RecordedEvent> recordedEvents) {
+		return recordedEvents.stream()
+			.filter(e -> e.getEventType().getName().equals(eventName))
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,222 @@
+package org.requirementsascode.management;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.exception.MoreThanOneStepCanReact;
+import org.requirementsascode.exception.UnhandledException;
+import org.requirementsascode.ingress.AdmissionController;
+import org.requirementsascode.session.SessionEngine;
+import org.requirementsascode.session.StuckSessionDetector;
+
+public class MonitorTest extends AbstractTestCase{
+	private long now;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		now = 0;
+	}
+	
+	@Test
+	public void countsStepsTriggeredPerUseCaseAndFlow() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_TEXT)
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		UseCaseModelMonitor monitor = new UseCaseModelMonitor(useCaseModel, () -> now);
+		useCaseModel.addRunnerListener(monitor);
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterNumber());
+		new TestUseCaseModelRunner().run(useCaseModel);
+		
+		assertEquals(3, (long) monitor.getStepsTriggeredPerUseCase().get(USE_CASE));
+		Map<String, Long> stepsTriggeredPerFlow = monitor.getStepsTriggeredPerFlow();
+		assertEquals(2, (long) stepsTriggeredPerFlow.get(USE_CASE + "/" + BASIC_FLOW));
+		assertEquals(1, (long) stepsTriggeredPerFlow.get(USE_CASE + "/" + ALTERNATIVE_FLOW));
+		assertEquals(1, monitor.getEventsReceived());
+	}
+	
+	@Test
+	public void calculatesEventsPerSecondOverCompleteSeconds() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		UseCaseModelMonitor monitor = new UseCaseModelMonitor(useCaseModel, () -> now);
+		useCaseModel.addRunnerListener(monitor);
+		useCaseModelRunner.run(useCaseModel);
+		
+		for (int second = 0; second < 5; second++) {
+			now = second * 1_000_000_000L;
+			for (int i = 0; i < 50; i++) {
+				useCaseModelRunner.reactTo(enterText());
+			}
+		}
+		now = 5_000_000_000L;
+		
+		assertEquals(50, monitor.getEventsPerSecond(), 0.001);
+		now = 20_000_000_000L;
+		assertEquals(0, monitor.getEventsPerSecond(), 0.001);
+	}
+	
+	@Test
+	public void countsDispatchFailures() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow().when(r -> true)
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+				.flow(ALTERNATIVE_FLOW).when(r -> true)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		UseCaseModelMonitor monitor = new UseCaseModelMonitor(useCaseModel, () -> now);
+		useCaseModel.addRunnerListener(monitor);
+		useCaseModelRunner.run(useCaseModel);
+		
+		try {
+			useCaseModelRunner.reactTo(enterText());
+			fail();
+		} catch (MoreThanOneStepCanReact e) {
+		}
+		try {
+			useCaseModelRunner.reactTo(new IllegalStateException());
+			fail();
+		} catch (UnhandledException e) {
+		}
+		
+		assertEquals(1, monitor.getMoreThanOneStepCanReactCount());
+		assertEquals(1, monitor.getUnhandledExceptionCount());
+		monitor.reset();
+		assertEquals(0, monitor.getMoreThanOneStepCanReactCount());
+	}
+	
+	@Test
+	public void registersUseCaseModelMBean() throws Exception {
+		useCaseModelBuilder.bulkhead("Bulkhead", 2, 0);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+			.build();
+		UseCaseModelMonitor monitor = UseCaseModelMonitor.register(useCaseModel, "Test model");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		try {
+			useCaseModelRunner.run(useCaseModel);
+			useCaseModelRunner.reactTo(enterText());
+			
+			assertEquals(1L, mbeanServer.getAttribute(monitor.getObjectName(), "EventsReceived"));
+			TabularData stepsTriggeredPerUseCase = (TabularData) mbeanServer.getAttribute(monitor.getObjectName(), "StepsTriggeredPerUseCase");
+			assertEquals(1, stepsTriggeredPerUseCase.size());
+			TabularData bulkheadSaturation = (TabularData) mbeanServer.getAttribute(monitor.getObjectName(), "BulkheadSaturation");
+			assertEquals(1, bulkheadSaturation.size());
+		} finally {
+			monitor.unregister();
+		}
+		
+		assertTrue(useCaseModel.getRunnerListeners().isEmpty());
+		assertFalse(mbeanServer.queryNames(null, null).stream().anyMatch(name -> name.toString().contains("Test model")));
+	}
+	
+	@Test
+	public void countsAllEventsRecordedConcurrentlyWhileSecondChanges() throws InterruptedException {
+		EventRate eventRate = new EventRate(() -> now);
+		int threadCount = 4;
+		int eventsPerThread = 10_000;
+		
+		for (long second = 0; second < 60; second += 6) {
+			now = second * 1_000_000_000L;
+			Thread[] threads = new Thread[threadCount];
+			for (int i = 0; i < threadCount; i++) {
+				threads[i] = new Thread(() -> {
+					for (int event = 0; event < eventsPerThread; event++) {
+						eventRate.record();
+					}
+				});
+				threads[i].start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			now += 1_000_000_000L;
+			
+			assertEquals(threadCount * eventsPerThread / 5.0, eventRate.getEventsPerSecond(), 0.001);
+		}
+	}
+	
+	@Test
+	public void registersSessionEngineMBean() throws Exception {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new).admitWith(new AdmissionController(10));
+		SessionEngineMonitor monitor = SessionEngineMonitor.register(sessionEngine, "Test engine");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		try {
+			sessionEngine.reactTo("Session 1", enterText());
+			sessionEngine.reactTo("Session 2", enterText());
+			
+			assertEquals(2, mbeanServer.getAttribute(monitor.getObjectName(), "LiveSessions"));
+			assertEquals(0, mbeanServer.getAttribute(monitor.getObjectName(), "LowPriorityQueueDepth"));
+			assertEquals(2L, mbeanServer.getAttribute(monitor.getObjectName(), "LowPriorityEventsProcessed"));
+			assertEquals(0L, mbeanServer.getAttribute(monitor.getObjectName(), "HighPriorityAverageLatencyNanos"));
+			assertEquals(0L, mbeanServer.getAttribute(monitor.getObjectName(), "HighPriorityMaxLatencyNanos"));
+			assertEquals(10, mbeanServer.getAttribute(monitor.getObjectName(), "InFlightEventsLimit"));
+		} finally {
+			monitor.unregister();
+		}
+	}
+	
+	@Test
+	public void registersStuckSessionDetectorMBean() throws Exception {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new, () -> now);
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine).defaultThreshold(Duration.ofMinutes(5));
+		StuckSessionDetectorMonitor monitor = StuckSessionDetectorMonitor.register(detector, "Test detector");
+		MBeanServer mbeanServer = ManagementFactory.getPlatformMBeanServer();
+		try {
+			sessionEngine.reactTo("Session 1", enterText());
+			sessionEngine.reactTo("Session 2", enterText());
+			sessionEngine.reactTo("Session 3", enterNumber());
+			now += TimeUnit.MINUTES.toNanos(10);
+			detector.scan();
+			
+			assertEquals(3, mbeanServer.getAttribute(monitor.getObjectName(), "StuckSessions"));
+			assertEquals(1, mbeanServer.getAttribute(monitor.getObjectName(), "StuckSessionsBeforeFirstStep"));
+			assertEquals(3L, mbeanServer.getAttribute(monitor.getObjectName(), "ScannedSessions"));
+			assertEquals(1L, mbeanServer.getAttribute(monitor.getObjectName(), "CompletedScans"));
+			TabularData stuckSessionsPerStep = (TabularData) mbeanServer.getAttribute(monitor.getObjectName(), "StuckSessionsPerStep");
+			assertEquals(1, stuckSessionsPerStep.size());
+			assertEquals(2L, stuckSessionsPerStep.get(new Object[] {USE_CASE + "/" + CUSTOMER_ENTERS_TEXT}).get("value"));
+		} finally {
+			monitor.unregister();
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LoadStatisticsTest {
+	private long nanoTime;
+	private LoadStatistics statistics;
+
+	@Before
+	public void setup() {
+		nanoTime = 0;
+		statistics = new LoadStatistics(() -> nanoTime);
+	}
+
+	@Test
+	public void computesEventRateOverElapsedTime() {
+		statistics.start();
+		for (int i = 0; i < 500; i++) {
+			statistics.record(1000);
+		}
+		nanoTime = 250_000_000;
+		statistics.stop();
+		nanoTime = 1_000_000_000;
+
+		assertEquals(500, statistics.getEventCount());
+		assertEquals(250_000_000, statistics.getElapsedNanos());
+		assertEquals(2000, statistics.getEventsPerSecond(), 0.001);
+	}
+
+	@Test
+	public void computesEventRateUntilNowWhileNotStopped() {
+		statistics.start();
+		statistics.record(1000);
+		nanoTime = 500_000_000;
+
+		assertEquals(2, statistics.getEventsPerSecond(), 0.001);
+	}
+
+	@Test
+	public void hasNoEventRateBeforeStart() {
+		statistics.record(1000);
+
+		assertEquals(0, statistics.getElapsedNanos());
+		assertEquals(0, statistics.getEventsPerSecond(), 0.001);
+	}
+
+	@Test
+	public void recordsLatencies() {
+		statistics.start();
+		for (long latency = 1; latency <= 100; latency++) {
+			statistics.record(latency);
+		}
+		nanoTime = 1_000_000;
+		statistics.stop();
+
+		HistogramSnapshot latency = statistics.getLatency();
+		assertEquals(100, latency.getCount());
+		assertEquals(100, latency.getMax());
+		assertEquals(50.5, latency.getMean(), 0.001);
+		assertEquals("events=100, elapsed=1 ms, events/s=100000, latency ns: " + latency, statistics.toString());
+	}
+}
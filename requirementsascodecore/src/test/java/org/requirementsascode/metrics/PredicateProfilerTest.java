@@ -0,0 +1,122 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Step;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+
+public class PredicateProfilerTest extends AbstractTestCase{
+	private static final long SLOW_PREDICATE_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+	}
+	
+	@Test
+	public void attributesSlowWhenConditionToItsStepAndToNestedScansOfOtherSteps() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+				.flow(ALTERNATIVE_FLOW).when(slowPredicate(false))
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		PredicateProfiler profiler = new PredicateProfiler();
+		useCaseModel.addRunnerListener(profiler);
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText());
+		
+		UseCase useCase = useCaseModel.findUseCase(USE_CASE);
+		PredicateProfile alternativeStepProfile = profiler.getProfile(useCase.findStep(CUSTOMER_ENTERS_ALTERNATIVE_TEXT));
+		assertTrue(alternativeStepProfile.getEvaluations() >= 1);
+		assertTrue(alternativeStepProfile.getSelfNanos() >= SLOW_PREDICATE_NANOS);
+		assertEquals(0, alternativeStepProfile.getNestedNanos());
+		
+		PredicateProfile basicStepProfile = profiler.getProfile(useCase.findStep(CUSTOMER_ENTERS_TEXT));
+		assertTrue(basicStepProfile.getNestedNanos() >= SLOW_PREDICATE_NANOS);
+		assertTrue(basicStepProfile.getTotalNanos() >= basicStepProfile.getNestedNanos());
+		
+		PredicateProfile alternativeFlowProfile = profiler.getProfile(useCase.findFlow(ALTERNATIVE_FLOW));
+		assertEquals(alternativeStepProfile.getEvaluations(), alternativeFlowProfile.getEvaluations());
+		assertEquals(3, profiler.getSampledDispatches());
+	}
+	
+	@Test
+	public void attributesReactWhileConditionToItsStep() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(slowPredicate(true))
+			.build();
+		PredicateProfiler profiler = new PredicateProfiler();
+		useCaseModel.addRunnerListener(profiler);
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText(), enterText());
+		
+		Step step = useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+		PredicateProfile profile = profiler.getProfile(step);
+		assertTrue(profile.getEvaluations() >= 2);
+		assertTrue(profile.getSelfNanos() >= SLOW_PREDICATE_NANOS);
+	}
+	
+	@Test
+	public void measuresOnlySampledDispatches() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText()).reactWhile(r -> true)
+			.build();
+		PredicateProfiler profiler = new PredicateProfiler(10);
+		useCaseModel.addRunnerListener(profiler);
+		useCaseModelRunner.run(useCaseModel);
+		
+		int events = 10_000;
+		for (int i = 0; i < events; i++) {
+			useCaseModelRunner.reactTo(enterText());
+		}
+		int dispatches = 2 * events + 1;
+		
+		long sampledDispatches = profiler.getSampledDispatches();
+		assertTrue(sampledDispatches > dispatches / 20 && sampledDispatches < dispatches / 5);
+		Step step = useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+		assertTrue(profiler.getProfile(step).getEvaluations() <= sampledDispatches);
+	}
+	
+	@Test
+	public void measuresNothingWithoutProfiler() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		PredicateProfiler profiler = new PredicateProfiler();
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertTrue(profiler.getProfiledSteps().isEmpty());
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runStepNames());
+	}
+
+	private Predicate<UseCaseModelRunner> slowPredicate(boolean result) {
+		return r -> {
+			long start = System.nanoTime();
+			while (System.nanoTime() - start < SLOW_PREDICATE_NANOS) {
+			}
+			return result;
+		};
+	}
+}
@@ -0,0 +1,175 @@
+package org.requirementsascode.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Step;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+public class StepLatencyMetricsTest extends AbstractTestCase{
+	private StepLatencyMetrics metrics;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		metrics = new StepLatencyMetrics();
+	}
+	
+	@Test
+	public void recordsValuesWithBoundedRelativeError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long value = 1; value <= 1000; value++) {
+			histogram.record(value * 1000);
+		}
+		
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(1000, snapshot.getCount());
+		assertEquals(1_000_000, snapshot.getMax());
+		assertEquals(500_500, snapshot.getMean(), 0.001);
+		assertWithinRelativeError(500_000, snapshot.getValueAtPercentile(50));
+		assertWithinRelativeError(990_000, snapshot.getValueAtPercentile(99));
+		assertWithinRelativeError(999_000, snapshot.getValueAtPercentile(99.9));
+		assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+	}
+	
+	@Test
+	public void recordsSmallValuesExactly() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		histogram.record(0);
+		histogram.record(3);
+		histogram.record(17);
+		
+		HistogramSnapshot snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.getValueAtPercentile(50));
+		assertEquals(3, snapshot.getValueAtPercentile(75));
+		assertEquals(17, snapshot.getValueAtPercentile(100));
+	}
+	
+	@Test
+	public void mapsEveryValueToBucketContainingIt() {
+		for (long value : new long[] {0, 15, 16, 31, 32, 1000, 123_456_789, Long.MAX_VALUE}) {
+			int bucketIndex = LatencyHistogram.bucketIndexOf(value);
+			assertTrue(bucketIndex < LatencyHistogram.BUCKET_COUNT);
+			assertTrue(LatencyHistogram.highestValueOf(bucketIndex) >= value);
+			assertTrue(bucketIndex == 0 || LatencyHistogram.highestValueOf(bucketIndex - 1) < value);
+		}
+	}
+	
+	@Test
+	public void resetsHistogramWhenReadInResetOnReadMode() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(42);
+		
+		assertEquals(1, histogram.snapshotAndReset().getCount());
+		HistogramSnapshot emptySnapshot = histogram.snapshot();
+		assertEquals(0, emptySnapshot.getCount());
+		assertEquals(0, emptySnapshot.getMax());
+		assertEquals(0, emptySnapshot.getValueAtPercentile(99));
+	}
+	
+	@Test
+	public void recordsLatenciesOfStepsOfAllRunners() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addRunnerListener(metrics);
+		
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		new TestUseCaseModelRunner().run(useCaseModel);
+		
+		Step systemDisplaysText = useCaseModel.findUseCase(USE_CASE).findStep(SYSTEM_DISPLAYS_TEXT);
+		Step customerEntersText = useCaseModel.findUseCase(USE_CASE).findStep(CUSTOMER_ENTERS_TEXT);
+		assertEquals(2, metrics.getReactionLatency(systemDisplaysText).getCount());
+		assertEquals(2, metrics.getDispatchLatency(systemDisplaysText).getCount());
+		assertEquals(1, metrics.getReactionLatency(customerEntersText).getCount());
+		assertEquals(2, metrics.getSteps().size());
+	}
+	
+	@Test
+	public void recordsLatencyOfStepWhoseSystemReactionThrowsException() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_THROWS_EXCEPTION).system(throwArrayIndexOutOfBoundsException())
+				.flow(ALTERNATIVE_FLOW).after(SYSTEM_THROWS_EXCEPTION)
+					.step(SYSTEM_HANDLES_EXCEPTION).handle(ArrayIndexOutOfBoundsException.class).system(e -> {})
+			.build();
+		useCaseModel.addRunnerListener(metrics);
+		
+		useCaseModelRunner.run(useCaseModel);
+		
+		Step systemThrowsException = useCaseModel.findUseCase(USE_CASE).findStep(SYSTEM_THROWS_EXCEPTION);
+		Step systemHandlesException = useCaseModel.findUseCase(USE_CASE).findStep(SYSTEM_HANDLES_EXCEPTION);
+		assertEquals(1, metrics.getReactionLatency(systemThrowsException).getCount());
+		assertEquals(1, metrics.getReactionLatency(systemHandlesException).getCount());
+	}
+	
+	@Test
+	public void doesNotRecordAfterListenerHasBeenRemoved() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+			.build();
+		useCaseModel.addRunnerListener(metrics);
+		useCaseModel.removeRunnerListener(metrics);
+		
+		useCaseModelRunner.run(useCaseModel);
+		
+		assertTrue(metrics.getSteps().isEmpty());
+		assertTrue(useCaseModel.getRunnerListeners().isEmpty());
+	}
+	
+	@Test
+	public void resetsStepHistogramsWhenReadInResetOnReadMode() {
+		StepLatencyMetrics resetOnReadMetrics = new StepLatencyMetrics(true);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+			.build();
+		useCaseModel.addRunnerListener(resetOnReadMetrics);
+		useCaseModelRunner.run(useCaseModel);
+		
+		Step systemDisplaysText = useCaseModel.findUseCase(USE_CASE).findStep(SYSTEM_DISPLAYS_TEXT);
+		assertEquals(1, resetOnReadMetrics.getReactionLatency(systemDisplaysText).getCount());
+		assertEquals(0, resetOnReadMetrics.getReactionLatency(systemDisplaysText).getCount());
+	}
+	
+	@Test
+	public void recordsConcurrentlyWithoutLosingValues() throws InterruptedException {
+		LatencyHistogram histogram = new LatencyHistogram();
+		int threadCount = 8;
+		int valuesPerThread = 10_000;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		for (int t = 0; t < threadCount; t++) {
+			executor.execute(() -> {
+				for (int i = 0; i < valuesPerThread; i++) {
+					histogram.record(i);
+				}
+			});
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		
+		assertEquals(threadCount * valuesPerThread, histogram.snapshot().getCount());
+		assertEquals(valuesPerThread - 1, histogram.snapshot().getMax());
+	}
+
+	private void assertWithinRelativeError(long expected, long actual) {
+		assertTrue("expected ~" + expected + " but was " + actual, Math.abs(actual - expected) <= expected / 16);
+	}
+}
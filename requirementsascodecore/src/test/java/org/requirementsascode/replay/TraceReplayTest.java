@@ -0,0 +1,197 @@
+package org.requirementsascode.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.session.SessionEngine;
+
+public class TraceReplayTest extends AbstractTestCase{
+	private static final String ENTERS_ORDER = "Customer enters order";
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private Path file;
+	private Map<String, List<Integer>> sessionIdToOrderNumbersMap;
+	private UseCaseModel useCaseModel;
+
+	@Before
+	public void setup() throws IOException {
+		setupWith(new TestUseCaseModelRunner());
+		file = temporaryFolder.newFile().toPath();
+		sessionIdToOrderNumbersMap = new ConcurrentHashMap<>();
+		useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(ENTERS_ORDER).user(EnterOrder.class).system(this::saveOrderNumber).reactWhile(r -> true)
+			.build();
+	}
+
+	private void saveOrderNumber(EnterOrder enterOrder) {
+		sessionIdToOrderNumbersMap
+			.computeIfAbsent(enterOrder.sessionId, sessionId -> Collections.synchronizedList(new ArrayList<>()))
+			.add(enterOrder.orderNumber);
+	}
+
+	@Test
+	public void recordsEventsProvidedToSessionEngine() throws IOException {
+		long[] nanoTimes = {1000, 5_001_000, 15_001_000};
+		int[] nanoTimeIndex = {0};
+		EventRecorder eventRecorder = new EventRecorder(file, 100, () -> nanoTimes[nanoTimeIndex[0]++]);
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, UseCaseModelRunner::new)
+			.recordEventsWith(eventRecorder);
+
+		sessionEngine.reactTo("Joe", new EnterOrder("Joe", 1));
+		sessionEngine.reactTo("Jane", new EnterOrder("Jane", 1));
+		sessionEngine.reactTo("Joe", new EnterOrder("Joe", 2));
+		eventRecorder.close();
+
+		List<TracedEvent> events = TraceReader.read(file);
+		assertEquals(3, events.size());
+		assertEquals(3, eventRecorder.getWrittenEvents());
+		assertTracedEvent(events.get(0), 0, "Joe", 1);
+		assertTracedEvent(events.get(1), 5_000_000, "Jane", 1);
+		assertTracedEvent(events.get(2), 10_000_000, "Joe", 2);
+
+		StringWriter text = new StringWriter();
+		TraceReader.writeTextTo(events, text);
+		assertEquals("0\tJoe\t" + EnterOrder.class.getName() + "\n", text.toString().substring(0, text.toString().indexOf('\n') + 1));
+	}
+
+	private void assertTracedEvent(TracedEvent event, long interArrivalNanos, String sessionId, int orderNumber) {
+		assertEquals(interArrivalNanos, event.getInterArrivalNanos());
+		assertEquals(sessionId, event.getSessionId());
+		EnterOrder enterOrder = (EnterOrder) event.getEvent();
+		assertEquals(sessionId, enterOrder.sessionId);
+		assertEquals(orderNumber, enterOrder.orderNumber);
+	}
+
+	@Test
+	public void dropsEventsThatAreNotSerializable() throws IOException {
+		EventRecorder eventRecorder = new EventRecorder(file);
+
+		eventRecorder.record("Joe", enterText());
+		eventRecorder.record("Joe", new EnterOrder("Joe", 1));
+		eventRecorder.close();
+		eventRecorder.record("Joe", new EnterOrder("Joe", 2));
+
+		assertEquals(1, TraceReader.read(file).size());
+		assertEquals(1, eventRecorder.getWrittenEvents());
+		assertEquals(2, eventRecorder.getDroppedEvents());
+	}
+
+	@Test
+	public void keepsRecordingAfterEventFailsToSerialize() throws IOException {
+		EventRecorder eventRecorder = new EventRecorder(file);
+
+		for (int orderNumber = 1; orderNumber <= 2500; orderNumber++) {
+			eventRecorder.record("Joe", new EnterOrder("Joe", orderNumber));
+			if (orderNumber % 1000 == 999) {
+				eventRecorder.record("Joe", new FailingEvent());
+			}
+		}
+		eventRecorder.close();
+
+		List<TracedEvent> events = TraceReader.read(file);
+		assertEquals(2500, events.size());
+		assertEquals(2500, eventRecorder.getWrittenEvents());
+		assertEquals(2, eventRecorder.getDroppedEvents());
+		for (int index = 0; index < events.size(); index++) {
+			assertTracedEvent(events.get(index), events.get(index).getInterArrivalNanos(), "Joe", index + 1);
+		}
+	}
+
+	@Test
+	public void replaysEventsOfEachSessionInRecordedOrder() throws InterruptedException {
+		List<TracedEvent> events = new ArrayList<>();
+		for (int orderNumber = 1; orderNumber <= 5; orderNumber++) {
+			for (int session = 0; session < 100; session++) {
+				String sessionId = "Session " + session;
+				events.add(new TracedEvent(1000, sessionId, new EnterOrder(sessionId, orderNumber)));
+			}
+		}
+
+		ReplayResult result = new TraceReplayer(useCaseModel).replay(events, TraceReplayer.MAXIMUM_SPEED, 4);
+
+		assertEquals(500, result.getStatistics().getEventCount());
+		assertEquals(0, result.getFailedEvents());
+		assertEquals(100, result.getSessionEngine().getSessionCount());
+		assertEquals(100, sessionIdToOrderNumbersMap.size());
+		for (List<Integer> orderNumbers : sessionIdToOrderNumbersMap.values()) {
+			assertEquals(Arrays.asList(1, 2, 3, 4, 5), orderNumbers);
+		}
+	}
+
+	@Test
+	public void replaysAtMultipleOfRecordedSpeed() throws InterruptedException {
+		List<TracedEvent> events = new ArrayList<>();
+		for (int orderNumber = 1; orderNumber <= 5; orderNumber++) {
+			events.add(new TracedEvent(20_000_000, "Joe", new EnterOrder("Joe", orderNumber)));
+		}
+		TraceReplayer traceReplayer = new TraceReplayer(useCaseModel);
+
+		ReplayResult recordedSpeedResult = traceReplayer.replay(events, 1, 2);
+		ReplayResult doubleSpeedResult = traceReplayer.replay(events, 2, 2);
+
+		assertTrue(recordedSpeedResult.getStatistics().getElapsedNanos() >= 100_000_000);
+		assertTrue(doubleSpeedResult.getStatistics().getElapsedNanos() >= 50_000_000);
+		assertEquals(5, doubleSpeedResult.getStatistics().getEventCount());
+	}
+
+	@Test
+	public void countsEventsTheSessionEngineFailsFor() throws InterruptedException {
+		List<TracedEvent> events = Arrays.asList(
+			new TracedEvent(0, "Joe", new EnterOrder("Joe", 1)),
+			new TracedEvent(0, "Joe", new IllegalStateException()));
+
+		ReplayResult result = new TraceReplayer(useCaseModel).replay(events, TraceReplayer.MAXIMUM_SPEED, 1);
+
+		assertEquals(2, result.getStatistics().getEventCount());
+		assertEquals(1, result.getFailedEvents());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsSpeedThatIsNotPositive() throws InterruptedException {
+		new TraceReplayer(useCaseModel).replay(new ArrayList<>(), 0, 1);
+	}
+
+	private static class FailingEvent implements Serializable{
+		private static final long serialVersionUID = 1L;
+
+		private void writeObject(ObjectOutputStream out) {
+			throw new IllegalStateException("Event can't be written");
+		}
+	}
+
+	private static class EnterOrder implements Serializable{
+		private static final long serialVersionUID = 1L;
+
+		private final String sessionId;
+		private final int orderNumber;
+
+		private EnterOrder(String sessionId, int orderNumber) {
+			this.sessionId = sessionId;
+			this.orderNumber = orderNumber;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.requirementsascode.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.ingress.PriorityLanes.Lane;
+
+public class SessionEngineTest extends AbstractTestCase{
+	private static final String SESSION_1 = "Session 1";
+	private static final String SESSION_2 = "Session 2";
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+	}
+	
+	@Test
+	public void runsSeparateRunnerPerSession() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new);
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		sessionEngine.reactTo(SESSION_1, enterNumber());
+		sessionEngine.reactTo(SESSION_2, enterNumber());
+		
+		assertEquals(2, sessionEngine.getSessionCount());
+		TestUseCaseModelRunner firstRunner = runnerOf(sessionEngine, SESSION_1);
+		TestUseCaseModelRunner secondRunner = runnerOf(sessionEngine, SESSION_2);
+		assertNotSame(firstRunner, secondRunner);
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";" + CUSTOMER_ENTERS_NUMBER + ";", firstRunner.getRunStepNames());
+		assertEquals("", secondRunner.getRunStepNames());
+		assertEquals(3, sessionEngine.getLaneMetrics().getProcessedEvents(Lane.LOW));
+	}
+	
+	@Test
+	public void startsSessionWithAutonomousSystemReaction() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new);
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		
+		assertEquals(SYSTEM_DISPLAYS_TEXT + ";" + CUSTOMER_ENTERS_TEXT + ";", runnerOf(sessionEngine, SESSION_1).getRunStepNames());
+	}
+	
+	@Test
+	public void startsNewSessionAfterSessionHasEnded() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new);
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		sessionEngine.endSession(SESSION_1);
+		assertFalse(sessionEngine.findSession(SESSION_1).isPresent());
+		assertEquals(0, sessionEngine.getSessionCount());
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		assertEquals(CUSTOMER_ENTERS_TEXT + ";", runnerOf(sessionEngine, SESSION_1).getRunStepNames());
+	}
+	
+	@Test
+	public void neverProcessesEventsOfSameSessionConcurrently() throws InterruptedException {
+		AtomicInteger activeReactions = new AtomicInteger();
+		AtomicInteger overlappingReactions = new AtomicInteger();
+		AtomicInteger reactions = new AtomicInteger();
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> {
+						if (activeReactions.incrementAndGet() > 1) {
+							overlappingReactions.incrementAndGet();
+						}
+						reactions.incrementAndGet();
+						activeReactions.decrementAndGet();
+					}).reactWhile(r -> true)
+			.build();
+		SessionEngine sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new);
+		int threadCount = 8;
+		int eventsPerThread = 1000;
+		ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < threadCount; t++) {
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				for (int i = 0; i < eventsPerThread; i++) {
+					sessionEngine.reactTo(SESSION_1, enterText());
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+		
+		assertEquals(0, overlappingReactions.get());
+		assertEquals(threadCount * eventsPerThread, reactions.get());
+		assertEquals(1, sessionEngine.getSessionCount());
+		for (Session session : sessionEngine.getSessions()) {
+			assertFalse(session.hasQueuedEvents());
+		}
+		assertEquals(threadCount * eventsPerThread, sessionEngine.getLaneMetrics().getProcessedEvents(Lane.LOW));
+	}
+
+	private TestUseCaseModelRunner runnerOf(SessionEngine sessionEngine, Object sessionId) {
+		return (TestUseCaseModelRunner) sessionEngine.findSession(sessionId).get().getRunner();
+	}
+}
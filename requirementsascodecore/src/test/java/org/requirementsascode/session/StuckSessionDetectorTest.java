@@ -0,0 +1,209 @@
+package org.requirementsascode.session;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.Step;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.UseCaseModel;
+
+public class StuckSessionDetectorTest extends AbstractTestCase{
+	private static final String SESSION_1 = "Session 1";
+	private static final String SESSION_2 = "Session 2";
+	private static final String SESSION_3 = "Session 3";
+	
+	private long nowNanos;
+	private UseCaseModel useCaseModel;
+	private UseCase useCase;
+	private SessionEngine sessionEngine;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+				.flow(ALTERNATIVE_FLOW).insteadOf(CUSTOMER_ENTERS_NUMBER)
+					.step(CUSTOMER_ENTERS_ALTERNATIVE_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCase = useCaseModel.findUseCase(USE_CASE);
+		nowNanos = 0;
+		sessionEngine = new SessionEngine(useCaseModel, TestUseCaseModelRunner::new, () -> nowNanos);
+	}
+	
+	@Test
+	public void findsSessionsStuckLongerThanStepThreshold() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.thresholdFor(step(CUSTOMER_ENTERS_TEXT), Duration.ofMinutes(5));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		advanceMinutes(3);
+		sessionEngine.reactTo(SESSION_2, enterText());
+		advanceMinutes(3);
+		detector.scan();
+		
+		List<StuckSession> stuckSessions = detector.getStuckSessions();
+		assertEquals(1, stuckSessions.size());
+		assertEquals(SESSION_1, stuckSessions.get(0).getSessionId());
+		assertEquals(step(CUSTOMER_ENTERS_TEXT), stuckSessions.get(0).getStep().get());
+		assertEquals(TimeUnit.MINUTES.toNanos(6), stuckSessions.get(0).getStuckNanos());
+	}
+	
+	@Test
+	public void prefersStepThresholdOverFlowThresholdOverDefaultThreshold() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.defaultThreshold(Duration.ofMinutes(1))
+			.thresholdFor(useCase.getBasicFlow(), Duration.ofMinutes(10))
+			.thresholdFor(step(CUSTOMER_ENTERS_NUMBER), Duration.ofMinutes(20));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		sessionEngine.reactTo(SESSION_2, enterText());
+		sessionEngine.reactTo(SESSION_2, enterNumber());
+		sessionEngine.reactTo(SESSION_3, enterText());
+		sessionEngine.reactTo(SESSION_3, enterAlternativeText());
+		advanceMinutes(15);
+		detector.scan();
+		
+		assertEquals(1, detector.getStuckSessions(step(CUSTOMER_ENTERS_TEXT)).size());
+		assertEquals(0, detector.getStuckSessions(step(CUSTOMER_ENTERS_NUMBER)).size());
+		assertEquals(1, detector.getStuckSessions(useCase.findFlow(ALTERNATIVE_FLOW)).size());
+		assertEquals(2, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void ignoresSessionsWithoutThreshold() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.thresholdFor(step(CUSTOMER_ENTERS_NUMBER), Duration.ofMinutes(1));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		advanceMinutes(60);
+		detector.scan();
+		
+		assertEquals(0, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void findsSessionsStuckBeforeFirstStep() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.defaultThreshold(Duration.ofMinutes(5));
+		
+		sessionEngine.reactTo(SESSION_1, enterNumber());
+		advanceMinutes(3);
+		sessionEngine.reactTo(SESSION_2, enterNumber());
+		advanceMinutes(3);
+		detector.scan();
+		
+		List<StuckSession> stuckSessions = detector.getStuckSessionsBeforeFirstStep();
+		assertEquals(1, stuckSessions.size());
+		assertEquals(SESSION_1, stuckSessions.get(0).getSessionId());
+		assertFalse(stuckSessions.get(0).getStep().isPresent());
+		assertEquals(TimeUnit.MINUTES.toNanos(6), stuckSessions.get(0).getStuckNanos());
+		assertEquals(1, detector.getStuckSessionCount());
+		assertTrue(detector.getStuckSessionCounts().isEmpty());
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		detector.scan();
+		assertEquals(0, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void ignoresSessionsBeforeFirstStepWithoutDefaultThreshold() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.thresholdFor(useCase.getBasicFlow(), Duration.ofMinutes(1));
+		
+		sessionEngine.reactTo(SESSION_1, enterNumber());
+		advanceMinutes(60);
+		detector.scan();
+		
+		assertEquals(0, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void removesSessionThatAdvanced() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.defaultThreshold(Duration.ofMinutes(5));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		advanceMinutes(10);
+		detector.scan();
+		assertEquals(1, detector.getStuckSessionCount());
+		
+		sessionEngine.reactTo(SESSION_1, enterNumber());
+		detector.scan();
+		assertEquals(0, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void doesNotReturnEndedSessions() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.defaultThreshold(Duration.ofMinutes(5));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		advanceMinutes(10);
+		detector.scan();
+		sessionEngine.endSession(SESSION_1);
+		
+		assertEquals(0, detector.getStuckSessionCount());
+	}
+	
+	@Test
+	public void scansIncrementallyInBatches() {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine, 2)
+			.defaultThreshold(Duration.ofMinutes(5));
+		
+		sessionEngine.reactTo(SESSION_1, enterText());
+		sessionEngine.reactTo(SESSION_2, enterText());
+		sessionEngine.reactTo(SESSION_3, enterText());
+		advanceMinutes(10);
+		
+		assertEquals(2, detector.scan());
+		assertEquals(2, detector.getStuckSessionCount());
+		assertEquals(0, detector.getCompletedScans());
+		
+		assertEquals(1, detector.scan());
+		assertEquals(3, detector.getStuckSessionCount());
+		assertEquals(1, detector.getCompletedScans());
+		assertEquals(3, detector.getScannedSessions());
+		assertEquals(Long.valueOf(3), detector.getStuckSessionCounts().get(step(CUSTOMER_ENTERS_TEXT)));
+	}
+	
+	@Test
+	public void scansInBackground() throws InterruptedException {
+		StuckSessionDetector detector = new StuckSessionDetector(sessionEngine)
+			.defaultThreshold(Duration.ofMinutes(5));
+		sessionEngine.reactTo(SESSION_1, enterText());
+		advanceMinutes(10);
+		
+		detector.start(Duration.ofMillis(1));
+		try {
+			long deadline = System.currentTimeMillis() + 5000;
+			while (detector.getStuckSessionCount() == 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(1);
+			}
+		} finally {
+			detector.stop();
+		}
+		
+		assertEquals(1, detector.getStuckSessionCount());
+		assertTrue(detector.getCompletedScans() > 0);
+	}
+	
+	private Step step(String stepName) {
+		return useCase.findStep(stepName);
+	}
+	
+	private void advanceMinutes(long minutes) {
+		nowNanos += TimeUnit.MINUTES.toNanos(minutes);
+	}
+}
@@ -0,0 +1,151 @@
+package org.requirementsascode.synthetic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.requirementsascode.Actor;
+import org.requirementsascode.Flow;
+import org.requirementsascode.Step;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCase;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.predicate.After;
+import org.requirementsascode.predicate.FlowPosition;
+import org.requirementsascode.predicate.InsteadOf;
+import org.requirementsascode.predicate.ReactWhile;
+import org.requirementsascode.systemreaction.ContinueAt;
+
+public class SyntheticModelGeneratorTest {
+	private static final int USE_CASES = 20;
+	private static final int FLOWS_PER_USE_CASE = 4;
+	private static final int STEPS_PER_FLOW = 10;
+	private static final int ACTORS = 3;
+	private static final int EVENT_CLASSES = 8;
+
+	@Test
+	public void generatesConfiguredNumberOfModelElements() {
+		UseCaseModel useCaseModel = generator(42).generate();
+
+		assertEquals(USE_CASES, useCaseModel.getUseCases().size());
+		for (int actorIndex = 0; actorIndex < ACTORS; actorIndex++) {
+			assertTrue(useCaseModel.hasActor("Actor " + actorIndex));
+		}
+		for (UseCase useCase : useCaseModel.getUseCases()) {
+			assertEquals(FLOWS_PER_USE_CASE, useCase.getFlows().size());
+			assertEquals(STEPS_PER_FLOW, useCase.getBasicFlow().getSteps().size());
+			for (int flowNumber = 1; flowNumber < FLOWS_PER_USE_CASE; flowNumber++) {
+				int steps = useCase.findFlow("Flow " + flowNumber).getSteps().size();
+				assertTrue(steps >= 2 && steps <= STEPS_PER_FLOW);
+			}
+		}
+	}
+
+	@Test
+	public void generatesSameModelForSameSeed() {
+		String model = describe(generator(42).generate());
+		String sameSeedModel = describe(generator(42).generate());
+		String otherSeedModel = describe(generator(43).generate());
+
+		assertEquals(model, sameSeedModel);
+		assertNotEquals(model, otherSeedModel);
+	}
+
+	@Test
+	public void generatesAlternativeFlowsLoopsAndJumps() {
+		UseCaseModel useCaseModel = generator(42).generate();
+
+		assertTrue(flows(useCaseModel).anyMatch(flow -> flow.getFlowPosition() instanceof InsteadOf));
+		assertTrue(flows(useCaseModel).anyMatch(flow -> flow.getFlowPosition() instanceof After));
+		assertTrue(flows(useCaseModel).anyMatch(flow -> flow.getWhen() != null));
+		assertTrue(useCaseModel.getSteps().stream().anyMatch(step -> step.getPredicate() instanceof ReactWhile));
+		assertTrue(useCaseModel.getSteps().stream().anyMatch(step -> step.getSystemReaction() instanceof ContinueAt));
+		assertTrue(useCaseModel.getSteps().stream().anyMatch(step -> step.getUserEventClass().equals(UseCaseModelRunner.class)));
+	}
+
+	@Test
+	public void reactsToRandomEventsWithAtMostOneStepEach() {
+		UseCaseModel useCaseModel = generator(42).generate();
+		Random random = new Random(42);
+
+		for (int actorIndex = 0; actorIndex < ACTORS; actorIndex++) {
+			Actor actor = useCaseModel.findActor("Actor " + actorIndex);
+			TestUseCaseModelRunner runner = new TestUseCaseModelRunner();
+			runner.as(actor).run(useCaseModel);
+			for (int i = 0; i < 2000; i++) {
+				runner.reactTo(SyntheticEvent.newEvent(random.nextInt(EVENT_CLASSES)));
+			}
+			assertFalse(runner.getRunStepNames().isEmpty());
+		}
+	}
+
+	@Test
+	public void createsEventsOfEachClass() {
+		for (int classIndex = 0; classIndex < SyntheticEvent.CLASSES; classIndex++) {
+			SyntheticEvent event = SyntheticEvent.newEvent(classIndex);
+			assertEquals(classIndex, event.getClassIndex());
+			assertEquals(SyntheticEvent.eventClass(classIndex), event.getClass());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsMoreUseCasesThanStartingEvents() {
+		new SyntheticModelGenerator(42).useCases(5).actors(2).eventClasses(2).generate();
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsAsManyFlowsAsSteps() {
+		new SyntheticModelGenerator(42).flowsPerUseCase(3).stepsPerFlow(3).generate();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMoreEventClassesThanThereAre() {
+		new SyntheticModelGenerator(42).eventClasses(SyntheticEvent.CLASSES + 1);
+	}
+
+	private SyntheticModelGenerator generator(long seed) {
+		return new SyntheticModelGenerator(seed)
+			.useCases(USE_CASES)
+			.flowsPerUseCase(FLOWS_PER_USE_CASE)
+			.stepsPerFlow(STEPS_PER_FLOW)
+			.actors(ACTORS)
+			.eventClasses(EVENT_CLASSES);
+	}
+
+	private Stream<Flow> flows(UseCaseModel useCaseModel) {
+		return useCaseModel.getUseCases().stream().flatMap(useCase -> useCase.getFlows().stream());
+	}
+
+	private String describe(UseCaseModel useCaseModel) {
+		StringBuilder description = new StringBuilder();
+		for (int useCaseIndex = 0; useCaseIndex < USE_CASES; useCaseIndex++) {
+			UseCase useCase = useCaseModel.findUseCase("Use case " + useCaseIndex);
+			for (int flowNumber = 0; flowNumber < FLOWS_PER_USE_CASE; flowNumber++) {
+				Flow flow = flowNumber == 0 ? useCase.getBasicFlow() : useCase.findFlow("Flow " + flowNumber);
+				if (flow.getFlowPosition() instanceof FlowPosition) {
+					FlowPosition flowPosition = (FlowPosition) flow.getFlowPosition();
+					description.append(flowPosition.getClass().getSimpleName() + " " + flowPosition.getStepName());
+				}
+				description.append(flow.getWhen() != null ? " when\n" : "\n");
+				for (Step step : flow.getSteps()) {
+					description.append(step.getName() + " " + step.getActors()[0].getName() + " "
+						+ step.getUserEventClass().getSimpleName());
+					if (step.getPredicate() instanceof ReactWhile) {
+						description.append(" repeated");
+					}
+					if (step.getSystemReaction() instanceof ContinueAt) {
+						description.append(" " + ((ContinueAt) step.getSystemReaction()).getStepName());
+					}
+					description.append("\n");
+				}
+			}
+		}
+		return description.toString();
+	}
+}
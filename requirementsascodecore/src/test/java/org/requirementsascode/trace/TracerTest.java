@@ -0,0 +1,161 @@
+package org.requirementsascode.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.requirementsascode.AbstractTestCase;
+import org.requirementsascode.TestUseCaseModelRunner;
+import org.requirementsascode.UseCaseModel;
+
+public class TracerTest extends AbstractTestCase{
+	private Tracer tracer;
+	
+	@Before
+	public void setup() {
+		setupWith(new TestUseCaseModelRunner());
+		tracer = new Tracer();
+	}
+	
+	@Test
+	public void nestsStepsOfChainInSpanOfExternalEvent() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+					.step(SYSTEM_DISPLAYS_TEXT).system(displayConstantText())
+					.step(SYSTEM_THROWS_EXCEPTION).system(throwArrayIndexOutOfBoundsException())
+				.flow(ALTERNATIVE_FLOW).after(SYSTEM_THROWS_EXCEPTION)
+					.step(SYSTEM_HANDLES_EXCEPTION).handle(ArrayIndexOutOfBoundsException.class).system(e -> {})
+			.build();
+		useCaseModel.addRunnerListener(tracer);
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText());
+		
+		List<Span> eventSpans = spansOf(Tracer.EVENT);
+		assertEquals(2, eventSpans.size());
+		Span eventSpan = eventSpans.get(0);
+		Span exceptionEventSpan = eventSpans.get(1);
+		assertEquals(EnterText.class.getSimpleName(), eventSpan.getName());
+		assertEquals(ArrayIndexOutOfBoundsException.class.getSimpleName(), exceptionEventSpan.getName());
+		
+		List<Span> stepSpans = spansOf(Tracer.STEP);
+		assertEquals(3, stepSpans.size());
+		assertEquals(CUSTOMER_ENTERS_TEXT, stepSpans.get(0).getName());
+		assertEquals(SYSTEM_DISPLAYS_TEXT, stepSpans.get(1).getName());
+		assertEquals(SYSTEM_THROWS_EXCEPTION, stepSpans.get(2).getName());
+		assertEquals(USE_CASE, stepSpans.get(0).getAttributes().get("useCase"));
+		
+		List<Span> exceptionSpans = spansOf(Tracer.EXCEPTION);
+		assertEquals(1, exceptionSpans.size());
+		assertEquals(SYSTEM_HANDLES_EXCEPTION, exceptionSpans.get(0).getName());
+		assertEquals(ALTERNATIVE_FLOW, exceptionSpans.get(0).getAttributes().get("flow"));
+		assertTrue(exceptionEventSpan.contains(exceptionSpans.get(0)));
+		
+		for (Span span : tracer.getSpans()) {
+			assertTrue(span == eventSpan || eventSpan.contains(span));
+		}
+		assertEquals(4, spansOf(Tracer.DISPATCH).size());
+	}
+	
+	@Test
+	public void nestsEventProvidedBySystemReactionInItsSpan() {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(enterText -> useCaseModelRunner.reactTo(enterNumber()))
+					.step(CUSTOMER_ENTERS_NUMBER).user(EnterNumber.class).system(displayEnteredNumber())
+			.build();
+		useCaseModel.addRunnerListener(tracer);
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText());
+		
+		List<Span> eventSpans = spansOf(Tracer.EVENT);
+		assertEquals(2, eventSpans.size());
+		Span enterTextSpan = eventSpans.get(0);
+		Span enterNumberSpan = eventSpans.get(1);
+		assertEquals(EnterNumber.class.getSimpleName(), enterNumberSpan.getName());
+		Span customerEntersTextSpan = spansOf(Tracer.STEP).stream()
+			.filter(span -> span.getName().equals(CUSTOMER_ENTERS_TEXT)).findFirst().get();
+		assertTrue(customerEntersTextSpan.contains(enterNumberSpan));
+		assertTrue(enterTextSpan.contains(customerEntersTextSpan));
+	}
+	
+	@Test
+	public void exportsChromeTraceEventFormat() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addRunnerListener(tracer);
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		Path file = Files.createTempFile("trace", ".json");
+		try {
+			tracer.writeTo(file);
+			String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			assertTrue(json.startsWith("{\"traceEvents\":["));
+			assertTrue(json.contains("\"name\":\"" + CUSTOMER_ENTERS_TEXT + "\",\"cat\":\"step\",\"ph\":\"X\""));
+			assertTrue(json.contains("\"useCase\":\"" + USE_CASE + "\""));
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void escapesNamesInExport() throws IOException {
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase("Use \"quoted\" case")
+				.basicFlow()
+					.step("Step\\with\nspecial characters").user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addRunnerListener(tracer);
+		useCaseModelRunner.run(useCaseModel);
+		useCaseModelRunner.reactTo(enterText());
+		
+		StringWriter writer = new StringWriter();
+		tracer.writeTo(writer);
+		
+		assertTrue(writer.toString().contains("\"Step\\\\with\\u000aspecial characters\""));
+		assertTrue(writer.toString().contains("\"Use \\\"quoted\\\" case\""));
+	}
+	
+	@Test
+	public void dropsSpansBeyondMaximum() {
+		Tracer smallTracer = new Tracer(2);
+		UseCaseModel useCaseModel = useCaseModelBuilder
+			.useCase(USE_CASE)
+				.basicFlow()
+					.step(CUSTOMER_ENTERS_TEXT).user(EnterText.class).system(displayEnteredText())
+			.build();
+		useCaseModel.addRunnerListener(smallTracer);
+		useCaseModelRunner.run(useCaseModel);
+		
+		useCaseModelRunner.reactTo(enterText());
+		
+		assertEquals(2, smallTracer.getSpans().size());
+		assertEquals(1, smallTracer.getDroppedSpans());
+		smallTracer.clear();
+		assertEquals(0, smallTracer.getSpans().size());
+	}
+
+	private List<Span> spansOf(String category) {
+		return tracer.getSpans().stream()
+			.filter(span -> span.getCategory().equals(category))
+			.sorted((s1, s2) -> Long.compare(s1.getStartNanos(), s2.getStartNanos()))
+			.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,41 @@
+package shoppingappjavafx.headless;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import shoppingappjavafx.domain.Stock;
+import shoppingappjavafx.usecaserealization.BuyProductRealization;
+import shoppingappjavafx.usecaserealization.componentinterface.Display;
+import shoppingappjavafx.usecaserealization.systemreaction.LogException;
+
+/**
+ * Realization of the shopping app for simulated shoppers. Instead of printing the stack trace of
+ * each exception it handles, it counts the exceptions, so that a load test neither floods standard
+ * err nor measures printing.
+ *
+ * @author b_muth
+ */
+public class HeadlessBuyProductRealization extends BuyProductRealization {
+	private LongAdder handledExceptions;
+
+	public HeadlessBuyProductRealization(Stock stock, Display display) {
+		super(stock, display);
+		this.handledExceptions = new LongAdder();
+	}
+
+	@Override
+	public LogException logException() {
+		return new LogException() {
+			@Override
+			public void accept(Throwable t) {
+				handledExceptions.increment();
+			}
+		};
+	}
+
+	/**
+	 * Returns the number of exceptions handled by the app's exception flow.
+	 */
+	public long getHandledExceptions() {
+		return handledExceptions.sum();
+	}
+}
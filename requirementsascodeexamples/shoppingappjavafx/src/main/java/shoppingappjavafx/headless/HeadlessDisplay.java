@@ -0,0 +1,58 @@
+package shoppingappjavafx.headless;
+
+import java.util.Collections;
+import java.util.List;
+
+import shoppingappjavafx.domain.Product;
+import shoppingappjavafx.domain.Products;
+import shoppingappjavafx.domain.PurchaseOrder;
+import shoppingappjavafx.domain.ShippingInformation;
+import shoppingappjavafx.usecaserealization.componentinterface.Display;
+
+/**
+ * Display without a user interface. It remembers what it has been asked to display last, so that
+ * a simulated shopper can "see" the products and the shopping cart, like a real user would.
+ *
+ * @author b_muth
+ */
+public class HeadlessDisplay implements Display {
+	private List<Product> displayedProducts;
+	private PurchaseOrder displayedPurchaseOrder;
+	private ShippingInformation displayedShippingInformation;
+
+	public HeadlessDisplay() {
+		this.displayedProducts = Collections.emptyList();
+	}
+
+	@Override
+	public void displayProductsAndShoppingCartSize(Products products, PurchaseOrder purchaseOrder) {
+		this.displayedProducts = products.get();
+		this.displayedPurchaseOrder = purchaseOrder;
+	}
+
+	@Override
+	public void displayShippingInformationForm(ShippingInformation shippingInformation) {
+		this.displayedShippingInformation = shippingInformation;
+	}
+
+	@Override
+	public void displayPaymentDetailsForm() {
+	}
+
+	@Override
+	public void displayPurchaseOrderSummary(PurchaseOrder purchaseOrder) {
+		this.displayedPurchaseOrder = purchaseOrder;
+	}
+
+	public List<Product> getDisplayedProducts() {
+		return displayedProducts;
+	}
+
+	public PurchaseOrder getDisplayedPurchaseOrder() {
+		return displayedPurchaseOrder;
+	}
+
+	public ShippingInformation getDisplayedShippingInformation() {
+		return displayedShippingInformation;
+	}
+}
@@ -0,0 +1,133 @@
+package shoppingappjavafx.headless;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.requirementsascode.metrics.LoadStatistics;
+
+import shoppingappjavafx.domain.Stock;
+
+/**
+ * Simulates many shoppers using the shopping app at the same time, without a user interface, and
+ * measures the throughput and latency of their events. It is an end-to-end performance test of
+ * requirementsascode, with a realistic model and realization.
+ *
+ * <p>The shoppers wait in a queue. Each thread repeatedly takes the next shopper from the queue,
+ * lets it perform one action, and puts it back at the end of the queue. So all shoppers are in the
+ * middle of their purchases at the same time, and each shopper acts on one thread at a time.
+ *
+ * @author b_muth
+ */
+public class LoadDriver {
+	private static final double DEFAULT_EXCEPTION_PROBABILITY = 0.001;
+
+	private int numberOfShoppers;
+	private int numberOfThreads;
+	private long seed;
+	private double exceptionProbability;
+
+	/**
+	 * Creates a driver whose shoppers encounter an exception in 0.1% of their actions.
+	 *
+	 * @param numberOfShoppers the number of concurrent shoppers, e.g. 5000
+	 * @param numberOfThreads the number of threads the shoppers act on
+	 * @param seed the seed of the shoppers' random decisions
+	 */
+	public LoadDriver(int numberOfShoppers, int numberOfThreads, long seed) {
+		this(numberOfShoppers, numberOfThreads, seed, DEFAULT_EXCEPTION_PROBABILITY);
+	}
+
+	/**
+	 * Creates a driver.
+	 *
+	 * @param numberOfShoppers the number of concurrent shoppers, e.g. 5000
+	 * @param numberOfThreads the number of threads the shoppers act on
+	 * @param seed the seed of the shoppers' random decisions
+	 * @param exceptionProbability the probability that a service the app depends on fails, per
+	 *     action
+	 */
+	public LoadDriver(int numberOfShoppers, int numberOfThreads, long seed, double exceptionProbability) {
+		if (numberOfShoppers < 1) {
+			throw new IllegalArgumentException("numberOfShoppers must be at least 1");
+		}
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be at least 1");
+		}
+		if (exceptionProbability < 0 || exceptionProbability > 1) {
+			throw new IllegalArgumentException("exceptionProbability must be between 0 and 1");
+		}
+		this.numberOfShoppers = numberOfShoppers;
+		this.numberOfThreads = numberOfThreads;
+		this.seed = seed;
+		this.exceptionProbability = exceptionProbability;
+	}
+
+	/**
+	 * Lets the shoppers act for the specified duration.
+	 *
+	 * @param duration how long the shoppers act
+	 * @return the result
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the
+	 *     shoppers
+	 */
+	public LoadResult run(Duration duration) throws InterruptedException {
+		Objects.requireNonNull(duration);
+
+		Stock stock = new Stock();
+		Random random = new Random(seed);
+		Queue<Shopper> shoppers = new ConcurrentLinkedQueue<>();
+		for (int i = 0; i < numberOfShoppers; i++) {
+			Shopper shopper = new Shopper(stock, random.nextLong(), exceptionProbability);
+			shopper.start();
+			shoppers.add(shopper);
+		}
+
+		LoadStatistics statistics = new LoadStatistics();
+		LoadResult result = new LoadResult(statistics);
+		statistics.start();
+		long endNanos = System.nanoTime() + duration.toNanos();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < numberOfThreads; i++) {
+			Thread thread = new Thread(() -> letShoppersAct(shoppers, endNanos, statistics, result), "Shoppers-" + i);
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		statistics.stop();
+		return result;
+	}
+
+	private void letShoppersAct(Queue<Shopper> shoppers, long endNanos, LoadStatistics statistics, LoadResult result) {
+		while (System.nanoTime() < endNanos) {
+			Shopper shopper = shoppers.poll();
+			if (shopper != null) {
+				shopper.act(statistics, result);
+				shoppers.add(shopper);
+			}
+		}
+	}
+
+	/**
+	 * Runs the load test and prints its result.
+	 *
+	 * @param args optionally, the number of shoppers (by default 5000), the number of threads (by
+	 *     default one per processor), and the duration in seconds (by default 10)
+	 * @throws InterruptedException if interrupted while waiting for the shoppers
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		int numberOfShoppers = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+		int numberOfThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+		LoadResult result = new LoadDriver(numberOfShoppers, numberOfThreads, 42).run(Duration.ofSeconds(seconds));
+		System.out.println(numberOfShoppers + " shoppers, " + numberOfThreads + " threads, " + seconds + " s");
+		System.out.println(result);
+	}
+}
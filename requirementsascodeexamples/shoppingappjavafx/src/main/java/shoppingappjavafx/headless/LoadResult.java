@@ -0,0 +1,97 @@
+package shoppingappjavafx.headless;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.requirementsascode.metrics.LoadStatistics;
+
+/**
+ * The result of a load test run by the {@link LoadDriver}: the throughput and latency of the
+ * events, and how often the shoppers went through the different flows of the shopping app.
+ *
+ * @author b_muth
+ */
+public class LoadResult {
+	private LoadStatistics statistics;
+	private LongAdder purchases;
+	private LongAdder refusedProducts;
+	private LongAdder goingBacks;
+	private LongAdder handledExceptions;
+	private LongAdder startOvers;
+
+	public LoadResult(LoadStatistics statistics) {
+		this.statistics = statistics;
+		this.purchases = new LongAdder();
+		this.refusedProducts = new LongAdder();
+		this.goingBacks = new LongAdder();
+		this.handledExceptions = new LongAdder();
+		this.startOvers = new LongAdder();
+	}
+
+	void countPurchase() {
+		purchases.increment();
+	}
+
+	void countRefusedProduct() {
+		refusedProducts.increment();
+	}
+
+	void countGoingBack() {
+		goingBacks.increment();
+	}
+
+	void countHandledException() {
+		handledExceptions.increment();
+	}
+
+	void countStartOver() {
+		startOvers.increment();
+	}
+
+	public LoadStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Returns the number of confirmed purchases.
+	 */
+	public long getPurchases() {
+		return purchases.sum();
+	}
+
+	/**
+	 * Returns the number of products the app refused to add to the cart, because it already
+	 * contained 10 products.
+	 */
+	public long getRefusedProducts() {
+		return refusedProducts.sum();
+	}
+
+	/**
+	 * Returns how often shoppers went back from the shipping information or payment details form.
+	 */
+	public long getGoingBacks() {
+		return goingBacks.sum();
+	}
+
+	/**
+	 * Returns the number of exceptions handled by the app's exception flow.
+	 */
+	public long getHandledExceptions() {
+		return handledExceptions.sum();
+	}
+
+	/**
+	 * Returns how often a shopper had to start over, because the app didn't reach a position the
+	 * shopper knows how to act in.
+	 */
+	public long getStartOvers() {
+		return startOvers.sum();
+	}
+
+	@Override
+	public String toString() {
+		return statistics + "\npurchases=" + getPurchases() + ", refused products=" + getRefusedProducts()
+			+ ", going backs=" + getGoingBacks() + ", handled exceptions=" + getHandledExceptions()
+			+ ", start overs=" + getStartOvers();
+	}
+}
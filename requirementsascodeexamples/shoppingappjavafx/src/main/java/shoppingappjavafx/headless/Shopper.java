@@ -0,0 +1,160 @@
+package shoppingappjavafx.headless;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import org.requirementsascode.Step;
+import org.requirementsascode.UseCaseModel;
+import org.requirementsascode.UseCaseModelBuilder;
+import org.requirementsascode.UseCaseModelRunner;
+import org.requirementsascode.metrics.LoadStatistics;
+
+import shoppingappjavafx.domain.PaymentDetails;
+import shoppingappjavafx.domain.Product;
+import shoppingappjavafx.domain.ShippingInformation;
+import shoppingappjavafx.domain.Stock;
+import shoppingappjavafx.usecase.ShoppingAppModel;
+import shoppingappjavafx.usecase.userevent.AddProductToCart;
+import shoppingappjavafx.usecase.userevent.CheckOutPurchase;
+import shoppingappjavafx.usecase.userevent.ConfirmPurchase;
+import shoppingappjavafx.usecase.userevent.EnterPaymentDetails;
+import shoppingappjavafx.usecase.userevent.EnterShippingInformation;
+import shoppingappjavafx.usecase.userevent.SignalToGoBack;
+
+/**
+ * A simulated shopper, with a shopping app of its own: a model built with its own {@link
+ * HeadlessBuyProductRealization} and {@link HeadlessDisplay}, and its own runner. All shoppers share
+ * the same stock.
+ *
+ * <p>Each call of {@link #act(LoadStatistics, LoadResult)} performs one action, depending on what
+ * the app displays: the shopper adds products that it sees on the display to the cart (sometimes
+ * more than 10, so the app refuses some), checks out, enters shipping information and payment
+ * details, and confirms the purchase. Sometimes, the shopper goes back, or a service the app
+ * depends on fails, which the app handles in its exception flow. After an exception, the shopper
+ * starts over.
+ *
+ * <p>A shopper must not act on more than one thread at the same time.
+ *
+ * @author b_muth
+ */
+public class Shopper {
+	private static final int MAX_PRODUCTS_PER_PURCHASE = 14;
+	private static final double GO_BACK_PROBABILITY = 0.05;
+
+	private Random random;
+	private double exceptionProbability;
+	private HeadlessDisplay display;
+	private HeadlessBuyProductRealization buyProductRealization;
+	private UseCaseModel useCaseModel;
+	private UseCaseModelRunner runner;
+	private int productsToAdd;
+
+	public Shopper(Stock stock, long seed, double exceptionProbability) {
+		this.random = new Random(seed);
+		this.exceptionProbability = exceptionProbability;
+		this.display = new HeadlessDisplay();
+		this.buyProductRealization = new HeadlessBuyProductRealization(stock, display);
+		this.useCaseModel = new ShoppingAppModel(buyProductRealization).buildWith(UseCaseModelBuilder.newBuilder());
+		this.runner = new UseCaseModelRunner();
+	}
+
+	/**
+	 * Starts the shopping app, which displays the products.
+	 */
+	public void start() {
+		runner.restart();
+		runner.run(useCaseModel);
+		planNextPurchase();
+	}
+
+	private void planNextPurchase() {
+		productsToAdd = 1 + random.nextInt(MAX_PRODUCTS_PER_PURCHASE);
+	}
+
+	/**
+	 * Performs the next action of this shopper, records its latency, and counts what happened.
+	 *
+	 * @param statistics the statistics the latency is recorded in
+	 * @param result the result the outcome of the action is counted in
+	 */
+	public void act(LoadStatistics statistics, LoadResult result) {
+		if (random.nextDouble() < exceptionProbability) {
+			long handledExceptions = buyProductRealization.getHandledExceptions();
+			reactTo(new IllegalStateException("Service unavailable"), statistics);
+			if (buyProductRealization.getHandledExceptions() > handledExceptions) {
+				result.countHandledException();
+			}
+			start();
+			return;
+		}
+
+		String latestStepName = runner.getLatestStep().map(Step::getName).orElse("");
+		switch (latestStepName) {
+		case "S2":
+		case "S3":
+			shop(statistics, result);
+			break;
+		case "S5":
+			if (goesBack(result, statistics)) {
+				break;
+			}
+			ShippingInformation shippingInformation = new ShippingInformation();
+			shippingInformation.setName("Shopper");
+			reactTo(new EnterShippingInformation(shippingInformation), statistics);
+			break;
+		case "S7":
+			if (goesBack(result, statistics)) {
+				break;
+			}
+			reactTo(new EnterPaymentDetails(new PaymentDetails()), statistics);
+			break;
+		case "S9":
+			reactTo(new ConfirmPurchase(), statistics);
+			result.countPurchase();
+			planNextPurchase();
+			break;
+		default:
+			result.countStartOver();
+			start();
+		}
+	}
+
+	private void shop(LoadStatistics statistics, LoadResult result) {
+		List<Product> displayedProducts = display.getDisplayedProducts();
+		if (productsToAdd > 0 && !displayedProducts.isEmpty()) {
+			Product product = displayedProducts.get(random.nextInt(displayedProducts.size()));
+			Optional<Step> step = reactTo(new AddProductToCart(product), statistics);
+			if (!step.isPresent()) {
+				result.countRefusedProduct();
+			}
+			productsToAdd--;
+		} else {
+			reactTo(new CheckOutPurchase(), statistics);
+		}
+	}
+
+	private boolean goesBack(LoadResult result, LoadStatistics statistics) {
+		if (random.nextDouble() < GO_BACK_PROBABILITY) {
+			reactTo(new SignalToGoBack(), statistics);
+			result.countGoingBack();
+			return true;
+		}
+		return false;
+	}
+
+	private Optional<Step> reactTo(Object event, LoadStatistics statistics) {
+		long startNanos = System.nanoTime();
+		Optional<Step> step = runner.reactTo(event);
+		statistics.record(System.nanoTime() - startNanos);
+		return step;
+	}
+
+	public HeadlessDisplay getDisplay() {
+		return display;
+	}
+
+	public UseCaseModelRunner getRunner() {
+		return runner;
+	}
+}
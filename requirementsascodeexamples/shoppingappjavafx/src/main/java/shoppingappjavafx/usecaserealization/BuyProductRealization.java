@@ -22,9 +22,13 @@ public class BuyProductRealization {
   private RunContext runContext;
 
   public BuyProductRealization(Stock stock, Display display) {
+    this(stock, display, new RunContext());
+  }
+
+  public BuyProductRealization(Stock stock, Display display, RunContext runContext) {
     this.stock = stock;
     this.display = display;
-    this.runContext = new RunContext();
+    this.runContext = runContext;
   }
 
   public StartWithEmptyShoppingCart startWithEmptyShoppingCart() {
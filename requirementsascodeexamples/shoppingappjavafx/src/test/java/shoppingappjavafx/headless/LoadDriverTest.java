@@ -0,0 +1,49 @@
+package shoppingappjavafx.headless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import org.requirementsascode.metrics.LoadStatistics;
+
+import shoppingappjavafx.domain.Stock;
+
+public class LoadDriverTest {
+	@Test
+	public void shopperSeesProductsOfStockAfterStart() {
+		Stock stock = new Stock();
+		Shopper shopper = new Shopper(stock, 42, 0);
+		shopper.start();
+
+		HeadlessDisplay display = shopper.getDisplay();
+		assertEquals(stock.findProducts(), display.getDisplayedProducts());
+		assertEquals(0, display.getDisplayedPurchaseOrder().findProducts().size());
+	}
+
+	@Test
+	public void shopperCountsExceptionsHandledByApp() {
+		Shopper shopper = new Shopper(new Stock(), 42, 1);
+		shopper.start();
+		LoadResult result = new LoadResult(new LoadStatistics());
+
+		shopper.act(result.getStatistics(), result);
+
+		assertEquals(1, result.getHandledExceptions());
+		assertEquals("S2", shopper.getRunner().getLatestStep().get().getName());
+	}
+
+	@Test
+	public void shoppersGoThroughAllFlowsConcurrently() throws InterruptedException {
+		LoadResult result = new LoadDriver(200, 2, 42, 0.01).run(Duration.ofMillis(500));
+
+		assertTrue(result.getStatistics().getEventCount() > 0);
+		assertTrue(result.getStatistics().getEventsPerSecond() > 0);
+		assertTrue(result.getPurchases() > 0);
+		assertTrue(result.getRefusedProducts() > 0);
+		assertTrue(result.getGoingBacks() > 0);
+		assertTrue(result.getHandledExceptions() > 0);
+		assertEquals(0, result.getStartOvers());
+	}
+}
@@ -4,6 +4,7 @@ import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.requirementsascode.HitCounts;
 import org.requirementsascode.UseCaseModel;
 import org.requirementsascode.extract.freemarker.methodmodel.AfterFirstWordOfMethod;
 import org.requirementsascode.extract.freemarker.methodmodel.FirstWordOfMethod;
@@ -65,4 +66,27 @@ public class FreeMarkerEngine {
     Template template = cfg.getTemplate(templateFileName);
     template.process(dataModel, outputWriter);
   }
+
+  /**
+   * 'Extracts' the use cases from the model, together with how often they have been run. This is
+   * done by additionally putting the specified hit counts in the FreeMarker configuration under the
+   * name 'hitCounts', for example to render a heatmap of the model. The hit counts are removed
+   * afterwards, so they are only available to this extraction.
+   *
+   * @param useCaseModel the input model, created with requirementsascodecore
+   * @param hitCounts the hit counts, as returned by {@link UseCaseModel#getHitCounts()}
+   * @param templateFileName name of the template file, relative to the base class path (when constructing the engine)
+   * @param outputWriter the writer that writes out the resulting text
+   * @throws Exception if anything goes wrong
+   */
+  public void extract(
+      UseCaseModel useCaseModel, HitCounts hitCounts, String templateFileName, Writer outputWriter)
+      throws Exception {
+    put("hitCounts", hitCounts);
+    try {
+      extract(useCaseModel, templateFileName, outputWriter);
+    } finally {
+      dataModel.remove("hitCounts");
+    }
+  }
 }
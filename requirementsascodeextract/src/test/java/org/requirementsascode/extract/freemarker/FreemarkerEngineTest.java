@@ -21,6 +21,8 @@ import org.requirementsascode.extract.freemarker.systemreaction.Quit;
 import org.requirementsascode.extract.freemarker.userevent.DecideToQuit;
 import org.requirementsascode.extract.freemarker.userevent.EnterName;
 
+import freemarker.template.TemplateException;
+
 public class FreeMarkerEngineTest {
   private FreeMarkerEngine engine;
 
@@ -86,6 +88,53 @@ public class FreeMarkerEngineTest {
         output);
   }
 
+  @Test
+  public void extractsHitCountsOfUseCaseModel() throws Exception {
+    UseCaseModel useCaseModel = 
+        UseCaseModelBuilder.newBuilder()
+        .useCase("Get greeted")
+          .basicFlow()
+            .step("S1").user(enterName()).system(greetUser())
+            .step("S2").user(decideToQuit()).system(decideToQuit -> {})
+          .flow("Alternative Flow A").insteadOf("S2")
+            .step("S2a_1").user(enterName()).system(greetUser())
+            .step("S2a_2").continueAt("S2")
+        .build();
+    
+    UseCaseModelRunner runner = new UseCaseModelRunner();
+    runner.run(useCaseModel);
+    runner.reactTo(new EnterName("Joe"), new EnterName("Jane"), new DecideToQuit());
+    
+    String templateFileName = "testheatmap.ftl";
+    Writer outputWriter = new StringWriter();
+    
+    engine.extract(useCaseModel, useCaseModel.getHitCounts(), templateFileName, outputWriter);
+    String output = outputWriter.toString();
+
+    assertEquals(
+        "flow: basic flow entered 1x"
+            + " step: S1 hit 1x"
+            + " step: S2 hit 1x"
+            + " flow: Alternative Flow A entered 1x"
+            + " step: S2a_1 hit 1x"
+            + " step: S2a_2 hit 1x", 
+        output);
+  }
+
+  @Test(expected = TemplateException.class)
+  public void doesNotKeepHitCountsForLaterExtractions() throws Exception {
+    UseCaseModel useCaseModel = 
+        UseCaseModelBuilder.newBuilder()
+        .useCase("Get greeted")
+          .basicFlow()
+            .step("S1").user(enterName()).system(greetUser())
+        .build();
+    String templateFileName = "testheatmap.ftl";
+    engine.extract(useCaseModel, useCaseModel.getHitCounts(), templateFileName, new StringWriter());
+    
+    engine.extract(useCaseModel, templateFileName, new StringWriter());
+  }
+
   private Predicate<UseCaseModelRunner> thereIsNoAlternative() {
     return new ThereIsNoAlternative();
   }
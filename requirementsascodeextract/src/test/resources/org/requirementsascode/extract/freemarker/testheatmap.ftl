@@ -0,0 +1,10 @@
+<@compress single_line=true>
+<#list useCaseModel.useCases as useCase>
+	<#list useCase.flows as useCaseFlow>
+		flow: ${useCaseFlow} entered ${hitCounts.getFlowEntries(useCaseFlow)}x
+		<#list useCaseFlow.steps as step>
+			step: ${step} hit ${hitCounts.getStepHits(step)}x
+		</#list>
+	</#list>
+</#list>
+</@compress>